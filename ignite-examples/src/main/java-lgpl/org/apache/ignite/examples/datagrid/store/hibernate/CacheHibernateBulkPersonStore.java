@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.hibernate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.cache.Cache;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CacheWriterException;
+import org.apache.ignite.cache.store.CacheStore;
+import org.apache.ignite.examples.model.Person;
+import org.apache.ignite.lang.IgniteBiInClosure;
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+/**
+ * Example of {@link CacheStore} implementation that extends {@link CacheHibernatePersonStore} with bulk
+ * {@link #writeAll(Collection)}, {@link #deleteAll(Collection)} and {@link #loadCache(IgniteBiInClosure, Object...)}.
+ * <p>
+ * Bulk operations go through a {@link StatelessSession}, so that entities are neither kept in the first-level
+ * cache nor dirty-checked, and inserts and updates are sent to the database in JDBC batches of
+ * {@code hibernate.jdbc.batch_size} rows (see {@code hibernate.cfg.xml}). Existing keys of a flush are
+ * found with one {@code in (...)} query per {@link #getChunkSize()} keys, deletes are executed as one
+ * bulk HQL {@code delete} per chunk. {@code loadCache(...)} scrolls the result set forward-only, so that
+ * only {@link #getFetchSize()} rows are held in memory at a time.
+ * <p>
+ * A stateless session runs in its own database transaction, so within a cache transaction the same chunked
+ * queries and bulk deletes are executed on the transaction-bound session instead. That session is flushed and
+ * cleared after every chunk, so that its JDBC batches are sent and no stale entities are kept in it.
+ */
+public class CacheHibernateBulkPersonStore extends CacheHibernatePersonStore {
+    /** Default number of keys in one {@code in (...)} list. */
+    public static final int DFLT_CHUNK_SIZE = 512;
+
+    /** Default JDBC fetch size of {@code loadCache(...)} query. */
+    public static final int DFLT_FETCH_SIZE = 1_000;
+
+    /** Number of keys in one {@code in (...)} list. */
+    private int chunkSize = DFLT_CHUNK_SIZE;
+
+    /** JDBC fetch size of {@code loadCache(...)} query. */
+    private int fetchSize = DFLT_FETCH_SIZE;
+
+    /**
+     * @return Number of keys in one {@code in (...)} list.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize Number of keys in one {@code in (...)} list.
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return JDBC fetch size of {@code loadCache(...)} query.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * @param fetchSize JDBC fetch size of {@code loadCache(...)} query.
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeAll(Collection<Cache.Entry<? extends Long, ? extends Person>> entries) {
+        // Only the latest value of every key has to reach the database.
+        Map<Long, Person> vals = new LinkedHashMap<>();
+
+        for (Cache.Entry<? extends Long, ? extends Person> entry : entries)
+            vals.put(entry.getKey(), entry.getValue());
+
+        if (ses.isWithinTransaction()) {
+            Session hibSes = ses.attachment();
+
+            try {
+                // Entities already associated with the session would clash with the detached values.
+                hibSes.flush();
+                hibSes.clear();
+
+                int inserts = 0;
+
+                for (List<Long> chunk : chunks(vals.keySet())) {
+                    Set<Long> existing = existingKeys(hibSes, chunk);
+
+                    for (Long key : chunk) {
+                        if (existing.contains(key))
+                            hibSes.update(vals.get(key));
+                        else {
+                            hibSes.save(vals.get(key));
+
+                            inserts++;
+                        }
+                    }
+
+                    hibSes.flush();
+                    hibSes.clear();
+                }
+
+                System.out.println(">>> Store writeAll in transaction [entries=" + entries.size() +
+                    ", keys=" + vals.size() + ", inserts=" + inserts + ']');
+
+                entries.clear();
+            }
+            catch (HibernateException e) {
+                throw new CacheWriterException("Failed to write values to cache store [cnt=" + vals.size() + ']', e);
+            }
+
+            return;
+        }
+
+        StatelessSession stateless = sessionFactory().openStatelessSession();
+
+        try {
+            Transaction tx = stateless.beginTransaction();
+
+            int inserts = 0;
+
+            for (List<Long> chunk : chunks(vals.keySet())) {
+                Set<Long> existing = existingKeys(stateless, chunk);
+
+                for (Long key : chunk) {
+                    if (existing.contains(key))
+                        stateless.update(vals.get(key));
+                    else {
+                        stateless.insert(vals.get(key));
+
+                        inserts++;
+                    }
+                }
+            }
+
+            // Outstanding JDBC batch is executed on commit.
+            tx.commit();
+
+            System.out.println(">>> Store writeAll [entries=" + entries.size() + ", keys=" + vals.size() +
+                ", inserts=" + inserts + ']');
+
+            entries.clear();
+        }
+        catch (HibernateException e) {
+            rollback(stateless);
+
+            throw new CacheWriterException("Failed to write values to cache store [cnt=" + vals.size() + ']', e);
+        }
+        finally {
+            stateless.close();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void deleteAll(Collection<?> keys) {
+        Set<Long> uniqueKeys = new LinkedHashSet<>();
+
+        for (Object key : keys)
+            uniqueKeys.add((Long)key);
+
+        if (ses.isWithinTransaction()) {
+            Session hibSes = ses.attachment();
+
+            try {
+                // Bulk deletes bypass the session, so pending changes go first and deleted entities are dropped.
+                hibSes.flush();
+
+                int deleted = 0;
+
+                for (List<Long> chunk : chunks(uniqueKeys))
+                    deleted += deleteChunk(hibSes, chunk);
+
+                hibSes.clear();
+
+                System.out.println(">>> Store deleteAll in transaction [keys=" + uniqueKeys.size() +
+                    ", deleted=" + deleted + ']');
+
+                keys.clear();
+            }
+            catch (HibernateException e) {
+                throw new CacheWriterException("Failed to remove values from cache store [cnt=" +
+                    uniqueKeys.size() + ']', e);
+            }
+
+            return;
+        }
+
+        StatelessSession stateless = sessionFactory().openStatelessSession();
+
+        try {
+            Transaction tx = stateless.beginTransaction();
+
+            int deleted = 0;
+
+            for (List<Long> chunk : chunks(uniqueKeys))
+                deleted += deleteChunk(stateless, chunk);
+
+            tx.commit();
+
+            System.out.println(">>> Store deleteAll [keys=" + uniqueKeys.size() + ", deleted=" + deleted + ']');
+
+            keys.clear();
+        }
+        catch (HibernateException e) {
+            rollback(stateless);
+
+            throw new CacheWriterException("Failed to remove values from cache store [cnt=" + uniqueKeys.size() + ']',
+                e);
+        }
+        finally {
+            stateless.close();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void loadCache(IgniteBiInClosure<Long, Person> clo, Object... args) {
+        if (args == null || args.length == 0 || args[0] == null)
+            throw new CacheLoaderException("Expected entry count parameter is not provided.");
+
+        final int entryCnt = (Integer)args[0];
+
+        StatelessSession stateless = sessionFactory().openStatelessSession();
+
+        try {
+            int cnt = 0;
+
+            ScrollableResults rs = stateless.createQuery("from Person").
+                setMaxResults(entryCnt).
+                setFetchSize(fetchSize).
+                scroll(ScrollMode.FORWARD_ONLY);
+
+            try {
+                while (rs.next()) {
+                    Person person = (Person)rs.get(0);
+
+                    clo.apply(person.id, person);
+
+                    cnt++;
+                }
+            }
+            finally {
+                rs.close();
+            }
+
+            System.out.println(">>> Loaded " + cnt + " values into cache.");
+        }
+        catch (HibernateException e) {
+            throw new CacheLoaderException("Failed to load values from cache store.", e);
+        }
+        finally {
+            stateless.close();
+        }
+    }
+
+    /**
+     * Gets session factory of the Hibernate session attached to the store session
+     * by {@code CacheHibernateStoreSessionListener}.
+     *
+     * @return Session factory.
+     */
+    private SessionFactory sessionFactory() {
+        Session hibSes = ses.attachment();
+
+        if (hibSes == null)
+            throw new IllegalStateException("Hibernate session is not attached, check that " +
+                "CacheHibernateStoreSessionListener is configured for the cache.");
+
+        return hibSes.getSessionFactory();
+    }
+
+    /**
+     * @param hibSes Hibernate session.
+     * @param chunk Keys.
+     * @return Keys which exist in the database.
+     */
+    private static Set<Long> existingKeys(SharedSessionContract hibSes, List<Long> chunk) {
+        Set<Long> existing = new HashSet<>();
+
+        for (Object id : hibSes.createQuery("select p.id from Person p where p.id in (:ids)").
+            setParameterList("ids", chunk).
+            list())
+            existing.add((Long)id);
+
+        return existing;
+    }
+
+    /**
+     * @param hibSes Hibernate session.
+     * @param chunk Keys.
+     * @return Number of deleted rows.
+     */
+    @SuppressWarnings({"JpaQueryApiInspection"})
+    private static int deleteChunk(SharedSessionContract hibSes, List<Long> chunk) {
+        return hibSes.createQuery("delete Person where id in (:ids)").
+            setParameterList("ids", chunk).
+            executeUpdate();
+    }
+
+    /**
+     * Splits keys into lists of at most {@link #getChunkSize()} keys.
+     *
+     * @param keys Keys.
+     * @return Chunks.
+     */
+    private List<List<Long>> chunks(Collection<Long> keys) {
+        List<List<Long>> chunks = new ArrayList<>();
+
+        List<Long> chunk = new ArrayList<>(chunkSize);
+
+        for (Long key : keys) {
+            chunk.add(key);
+
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        if (!chunk.isEmpty())
+            chunks.add(chunk);
+
+        return chunks;
+    }
+
+    /**
+     * Rolls back active transaction of the stateless session, if any.
+     *
+     * @param stateless Stateless session.
+     */
+    private static void rollback(StatelessSession stateless) {
+        try {
+            Transaction tx = stateless.getTransaction();
+
+            if (tx != null && tx.isActive())
+                tx.rollback();
+        }
+        catch (HibernateException e) {
+            System.err.println(">>> Failed to rollback stateless session transaction: " + e);
+        }
+    }
+}
@@ -37,7 +37,7 @@ import org.hibernate.Session;
 public class CacheHibernatePersonStore extends CacheStoreAdapter<Long, Person> {
     /** Auto-injected store session. */
     @CacheStoreSessionResource
-    private CacheStoreSession ses;
+    protected CacheStoreSession ses;
 
     /** {@inheritDoc} */
     @Override public Person load(Long key) {
@@ -78,7 +78,7 @@ public class CacheHibernatePersonStore extends CacheStoreAdapter<Long, Person> {
         Session hibSes = ses.attachment();
 
         try {
-            hibSes.createQuery("delete " + Person.class.getSimpleName() + " where key = :key").
+            hibSes.createQuery("delete " + Person.class.getSimpleName() + " where id = :key").
                 setParameter("key", key).
                 executeUpdate();
         }
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.hibernate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.FactoryBuilder;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.CacheAtomicityMode;
+import org.apache.ignite.cache.store.CacheStore;
+import org.apache.ignite.cache.store.CacheStoreSessionListener;
+import org.apache.ignite.cache.store.hibernate.CacheHibernateStoreSessionListener;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.model.Person;
+import org.apache.ignite.examples.util.DbH2ServerStartup;
+import org.apache.ignite.transactions.Transaction;
+
+import static org.apache.ignite.cache.CacheAtomicityMode.ATOMIC;
+import static org.apache.ignite.cache.CacheAtomicityMode.TRANSACTIONAL;
+
+/**
+ * Compares throughput of {@link CacheHibernatePersonStore} and {@link CacheHibernateBulkPersonStore}
+ * on the example H2 schema.
+ * <p>
+ * Every iteration writes {@link #ENTRY_COUNT} persons with one {@code putAll(...)}, reloads the cache
+ * from the database with {@code loadCache(...)} and removes the persons with one {@code removeAll(...)}.
+ * Both stores are measured on a transactional cache, with writes and removals done in one transaction each,
+ * and on an atomic cache without explicit transactions. Within a transaction
+ * {@link CacheHibernateBulkPersonStore} works on the transaction-bound session, while on the atomic cache it
+ * takes its {@link org.hibernate.StatelessSession} path, as it does on a write-behind flush.
+ * <p>
+ * The benchmark starts H2 database TCP server and populates it with {@link DbH2ServerStartup}
+ * unless the server is already running.
+ */
+public class CacheHibernateStoreBenchmark {
+    /** Hibernate configuration resource path. */
+    private static final String HIBERNATE_CFG =
+        "/org/apache/ignite/examples/datagrid/store/hibernate/hibernate.cfg.xml";
+
+    /** Cache name. */
+    private static final String CACHE_NAME = CacheHibernateStoreBenchmark.class.getSimpleName();
+
+    /** Heap size required to run this benchmark. */
+    public static final int MIN_MEMORY = 1024 * 1024 * 1024;
+
+    /** Number of entries written with one {@code putAll(...)}. */
+    private static final int ENTRY_COUNT = 10_000;
+
+    /** Number of warm-up iterations. */
+    private static final int WARMUP_ITERATIONS = 2;
+
+    /** Number of measured iterations. */
+    private static final int MEASURED_ITERATIONS = 5;
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, none required.
+     * @throws IgniteException If benchmark execution failed.
+     */
+    public static void main(String[] args) throws IgniteException {
+        ExamplesUtils.checkMinMemory(MIN_MEMORY);
+
+        DbH2ServerStartup.startDatabase();
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Cache Hibernate store benchmark started.");
+
+            Map<String, long[]> res = new LinkedHashMap<>();
+
+            for (CacheAtomicityMode mode : new CacheAtomicityMode[] {TRANSACTIONAL, ATOMIC}) {
+                res.put("CacheHibernatePersonStore, " + mode,
+                    run(ignite, FactoryBuilder.factoryOf(CacheHibernatePersonStore.class), mode));
+
+                res.put("CacheHibernateBulkPersonStore, " + mode,
+                    run(ignite, FactoryBuilder.factoryOf(CacheHibernateBulkPersonStore.class), mode));
+            }
+
+            System.out.println();
+            System.out.println(">>> Results (" + ENTRY_COUNT + " entries, average of " +
+                MEASURED_ITERATIONS + " iterations):");
+
+            for (Map.Entry<String, long[]> e : res.entrySet()) {
+                long writeNanos = e.getValue()[0] / MEASURED_ITERATIONS;
+                long loadNanos = e.getValue()[1] / MEASURED_ITERATIONS;
+                long deleteNanos = e.getValue()[2] / MEASURED_ITERATIONS;
+
+                System.out.println(">>>   " + e.getKey() +
+                    ": write=" + writeNanos / 1_000_000 + "ms (" + opsPerSec(writeNanos) + " ops/sec)" +
+                    ", load=" + loadNanos / 1_000_000 + "ms (" + opsPerSec(loadNanos) + " ops/sec)" +
+                    ", delete=" + deleteNanos / 1_000_000 + "ms (" + opsPerSec(deleteNanos) + " ops/sec)");
+            }
+        }
+    }
+
+    /**
+     * Runs warm-up and measured iterations against the given store.
+     *
+     * @param ignite Ignite instance.
+     * @param storeFactory Store factory.
+     * @param mode Cache atomicity mode, writes and removals are done in explicit transactions on a
+     *      transactional cache.
+     * @return Total write, load and delete time of measured iterations in nanoseconds.
+     */
+    private static long[] run(Ignite ignite, Factory<? extends CacheStore<? super Long, ? super Person>> storeFactory,
+        CacheAtomicityMode mode) {
+        CacheConfiguration<Long, Person> cacheCfg = new CacheConfiguration<>(CACHE_NAME);
+
+        cacheCfg.setAtomicityMode(mode);
+        cacheCfg.setCacheStoreFactory(storeFactory);
+
+        cacheCfg.setCacheStoreSessionListenerFactories(new Factory<CacheStoreSessionListener>() {
+            @Override public CacheStoreSessionListener create() {
+                CacheHibernateStoreSessionListener lsnr = new CacheHibernateStoreSessionListener();
+
+                lsnr.setHibernateConfigurationPath(HIBERNATE_CFG);
+
+                return lsnr;
+            }
+        });
+
+        cacheCfg.setWriteThrough(true);
+
+        long[] total = new long[3];
+
+        try (IgniteCache<Long, Person> cache = ignite.getOrCreateCache(cacheCfg)) {
+            Map<Long, Person> batch = new TreeMap<>();
+
+            for (long id = 1_000; id < 1_000 + ENTRY_COUNT; id++)
+                batch.put(id, new Person(id, "First" + id, "Last" + id));
+
+            for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; i++) {
+                long start = System.nanoTime();
+
+                if (mode == TRANSACTIONAL) {
+                    try (Transaction tx = ignite.transactions().txStart()) {
+                        cache.putAll(batch);
+
+                        tx.commit();
+                    }
+                }
+                else
+                    cache.putAll(batch);
+
+                long written = System.nanoTime();
+
+                cache.clear();
+
+                long cleared = System.nanoTime();
+
+                cache.loadCache(null, Integer.MAX_VALUE);
+
+                long loaded = System.nanoTime();
+
+                // Loaded entries also prove that the writes reached the database.
+                if (cache.size() < ENTRY_COUNT)
+                    throw new IgniteException("Unexpected number of loaded entries: " + cache.size());
+
+                if (mode == TRANSACTIONAL) {
+                    try (Transaction tx = ignite.transactions().txStart()) {
+                        cache.removeAll(batch.keySet());
+
+                        tx.commit();
+                    }
+                }
+                else
+                    cache.removeAll(batch.keySet());
+
+                long deleted = System.nanoTime();
+
+                if (i >= WARMUP_ITERATIONS) {
+                    total[0] += written - start;
+                    total[1] += loaded - cleared;
+                    total[2] += deleted - loaded;
+                }
+            }
+        }
+        finally {
+            ignite.destroyCache(CACHE_NAME);
+        }
+
+        return total;
+    }
+
+    /**
+     * @param nanos Time spent on {@link #ENTRY_COUNT} operations.
+     * @return Operations per second.
+     */
+    private static long opsPerSec(long nanos) {
+        return nanos == 0 ? 0 : ENTRY_COUNT * 1_000_000_000L / nanos;
+    }
+}
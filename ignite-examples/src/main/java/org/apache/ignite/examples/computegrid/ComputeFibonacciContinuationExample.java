@@ -18,22 +18,16 @@
 package org.apache.ignite.examples.computegrid;
 
 import java.math.BigInteger;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ignite.Ignite;
-import org.apache.ignite.IgniteCompute;
 import org.apache.ignite.IgniteException;
 import org.apache.ignite.Ignition;
-import org.apache.ignite.cluster.ClusterGroup;
-import org.apache.ignite.cluster.ClusterNode;
 import org.apache.ignite.compute.ComputeJobContext;
 import org.apache.ignite.examples.ExampleNodeStartup;
+import org.apache.ignite.examples.computegrid.memo.DistributedMemo;
 import org.apache.ignite.lang.IgniteClosure;
 import org.apache.ignite.lang.IgniteFuture;
 import org.apache.ignite.lang.IgniteInClosure;
-import org.apache.ignite.lang.IgnitePredicate;
-import org.apache.ignite.resources.IgniteInstanceResource;
 import org.apache.ignite.resources.JobContextResource;
 import org.jetbrains.annotations.Nullable;
 
@@ -44,7 +38,7 @@ import org.jetbrains.annotations.Nullable;
  * functionality is exposed via {@link ComputeJobContext#holdcc()} and
  * {@link ComputeJobContext#callcc()} method calls in
  * {@link org.apache.ignite.examples.computegrid.ComputeFibonacciContinuationExample.ContinuationFibonacciClosure}
- * class.
+ * class. Intermediate numbers are memoized cluster-wide with {@link DistributedMemo}.
  * <p>
  * Remote nodes should always be started with special configuration file which
  * enables P2P class loading: {@code 'ignite.{sh|bat} examples/config/example-ignite.xml'}.
@@ -53,6 +47,12 @@ import org.jetbrains.annotations.Nullable;
  * with {@code examples/config/example-ignite.xml} configuration.
  */
 public final class ComputeFibonacciContinuationExample {
+    /** Memo name. */
+    private static final String MEMO_NAME = "fibonacci";
+
+    /** Maximum number of memoized Fibonacci numbers per node. */
+    private static final int MEMO_SIZE = 1000;
+
     /**
      * Executes example.
      *
@@ -66,26 +66,19 @@ public final class ComputeFibonacciContinuationExample {
 
             long N = 100;
 
-            final UUID exampleNodeId = ignite.cluster().localNode().id();
-
-            // Filter to exclude this node from execution.
-            final IgnitePredicate<ClusterNode> nodeFilter = new IgnitePredicate<ClusterNode>() {
-                @Override public boolean apply(ClusterNode n) {
-                    // Give preference to remote nodes.
-                    return ignite.cluster().forRemotes().nodes().isEmpty() || !n.id().equals(exampleNodeId);
-                }
-            };
+            // Results are memoized on the nodes computing them, every Fibonacci number is computed once.
+            DistributedMemo<Long, BigInteger> memo = new DistributedMemo<>(ignite, MEMO_NAME, MEMO_SIZE);
 
             long start = System.currentTimeMillis();
 
-            BigInteger fib = ignite.compute(ignite.cluster().forPredicate(nodeFilter)).apply(
-                new ContinuationFibonacciClosure(nodeFilter), N);
+            BigInteger fib = memo.apply(new ContinuationFibonacciClosure(memo), N);
 
             long duration = System.currentTimeMillis() - start;
 
             System.out.println();
             System.out.println(">>> Finished executing Fibonacci for '" + N + "' in " + duration + " ms.");
             System.out.println(">>> Fibonacci sequence for input number '" + N + "' is '" + fib + "'.");
+            System.out.println(">>> Memo metrics: " + memo.metrics());
             System.out.println(">>> If you re-run this example w/o stopping remote nodes - the performance will");
             System.out.println(">>> increase since intermediate results are pre-cache on remote nodes.");
             System.out.println(">>> You should see prints out every recursive Fibonacci execution on cluster nodes.");
@@ -107,18 +100,14 @@ public final class ComputeFibonacciContinuationExample {
         @JobContextResource
         private ComputeJobContext jobCtx;
 
-        /** Auto-inject ignite instance. */
-        @IgniteInstanceResource
-        private Ignite ignite;
-
-        /** Predicate. */
-        private final IgnitePredicate<ClusterNode> nodeFilter;
+        /** Memo of computed numbers. */
+        private final DistributedMemo<Long, BigInteger> memo;
 
         /**
-         * @param nodeFilter Predicate to filter nodes.
+         * @param memo Memo of computed numbers.
          */
-        ContinuationFibonacciClosure(IgnitePredicate<ClusterNode> nodeFilter) {
-            this.nodeFilter = nodeFilter;
+        ContinuationFibonacciClosure(DistributedMemo<Long, BigInteger> memo) {
+            this.memo = memo;
         }
 
         /** {@inheritDoc} */
@@ -133,38 +122,10 @@ public final class ComputeFibonacciContinuationExample {
                 if (n <= 2)
                     return n == 0 ? BigInteger.ZERO : BigInteger.ONE;
 
-                // Node-local storage.
-                ConcurrentMap<Long, IgniteFuture<BigInteger>> locMap = ignite.cluster().nodeLocalMap();
-
-                // Check if value is cached in node-local-map first.
-                fut1 = locMap.get(n - 1);
-                fut2 = locMap.get(n - 2);
-
-                ClusterGroup p = ignite.cluster().forPredicate(nodeFilter);
-
-                IgniteCompute compute = ignite.compute(p);
-
-                // If future is not cached in node-local-map, cache it.
-                if (fut1 == null) {
-                    IgniteFuture<BigInteger> futVal = compute.applyAsync(
-                        new ContinuationFibonacciClosure(nodeFilter), n - 1);
-
-                    fut1 = locMap.putIfAbsent(n - 1, futVal);
-
-                    if (fut1 == null)
-                        fut1 = futVal;
-                }
-
-                // If future is not cached in node-local-map, cache it.
-                if (fut2 == null) {
-                    IgniteFuture<BigInteger> futVal = compute.applyAsync(
-                        new ContinuationFibonacciClosure(nodeFilter), n - 2);
-
-                    fut2 = locMap.putIfAbsent(n - 2, futVal);
-
-                    if (fut2 == null)
-                        fut2 = futVal;
-                }
+                // Memoized results are returned right away, results being computed are shared
+                // with other lookups, only the first lookup of a number computes it.
+                fut1 = memo.applyAsync(new ContinuationFibonacciClosure(memo), n - 1);
+                fut2 = memo.applyAsync(new ContinuationFibonacciClosure(memo), n - 2);
 
                 // If futures are not done, then wait asynchronously for the result
                 if (!fut1.isDone() || !fut2.isDone()) {
@@ -200,4 +161,4 @@ public final class ComputeFibonacciContinuationExample {
             return fut1.get().add(fut2.get());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.forkjoin;
+
+import java.util.Random;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.examples.ExampleNodeStartup;
+
+/**
+ * Demonstrates recursive computations in the fork-join style with {@link ContinuationTask}: Fibonacci number,
+ * merge sort and search for a divisor of a number. Subtasks are distributed over the cluster, and tasks waiting
+ * for their subtasks are suspended with job continuations instead of holding threads of the public pool.
+ * <p>
+ * Remote nodes should always be started with special configuration file which
+ * enables P2P class loading: {@code 'ignite.{sh|bat} examples/config/example-ignite.xml'}.
+ * <p>
+ * Alternatively you can run {@link ExampleNodeStartup} in another JVM which will start node
+ * with {@code examples/config/example-ignite.xml} configuration.
+ */
+public class ComputeForkJoinExample {
+    /**
+     * Executes example.
+     *
+     * @param args Command line arguments, none required.
+     * @throws IgniteException If example execution failed.
+     */
+    public static void main(String[] args) throws IgniteException {
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Compute fork-join example started.");
+
+            long fib = ignite.compute().call(new FibonacciTask(32, 20));
+
+            System.out.println(">>> Fibonacci number for '32' is '" + fib + "'.");
+
+            int[] arr = new Random(0).ints(100_000).toArray();
+
+            int[] sorted = ignite.compute().call(new MergeSortTask(arr, 10_000));
+
+            boolean ordered = true;
+
+            for (int i = 1; i < sorted.length; i++)
+                ordered &= sorted[i - 1] <= sorted[i];
+
+            System.out.println(">>> Sorted " + sorted.length + " numbers [ordered=" + ordered + ']');
+
+            for (long val : new long[] {32452843L, 32452843L * 7}) {
+                Long divisor = ignite.compute().call(new PrimeSearchTask(val, 2, val, 1_000_000));
+
+                if (divisor == null)
+                    System.out.println(">>> Value '" + val + "' is a prime number");
+                else
+                    System.out.println(">>> Value '" + val + "' is divisible by '" + divisor + '\'');
+            }
+        }
+    }
+}
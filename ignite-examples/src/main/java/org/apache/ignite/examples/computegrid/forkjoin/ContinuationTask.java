@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.forkjoin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.compute.ComputeJobContext;
+import org.apache.ignite.lang.IgniteCallable;
+import org.apache.ignite.resources.IgniteInstanceResource;
+import org.apache.ignite.resources.JobContextResource;
+
+/**
+ * Recursive task in the fork-join style, executed on the cluster with job continuations.
+ * <p>
+ * {@link #compute()} splits the work with {@link #fork(ContinuationTask)} and combines results with
+ * {@link Fork#join()}, as with {@link java.util.concurrent.RecursiveTask}. Forked tasks are sent to the cluster as
+ * jobs, except for the tasks which are {@link #isSmall() small} enough to be computed in the thread of the parent
+ * when joined. If a forked result is not ready when joined, the job is suspended with
+ * {@link ComputeJobContext#holdcc()} and its thread is returned to the public pool, so deep recursions do not
+ * exhaust the pool. Once the result is ready, the job is resumed with {@link ComputeJobContext#callcc()} and
+ * {@link #compute()} is called again: forks made by the previous calls are replayed in the same order and
+ * return the same results, so the code after the joins completes as if it never stopped.
+ * <p>
+ * Hence, {@link #compute()} should fork the same tasks in the same order on every call, and work done before the
+ * last join is repeated on every resume, so it should be cheap or kept in transient fields, which live as long as
+ * the job. It also should not catch runtime exceptions thrown by {@link Fork#join()}.
+ * <p>
+ * Root task is executed with {@link org.apache.ignite.IgniteCompute#call(IgniteCallable)}.
+ *
+ * @param <T> Type of the result.
+ */
+public abstract class ContinuationTask<T> implements IgniteCallable<T> {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Auto-inject ignite instance. */
+    @IgniteInstanceResource
+    private transient Ignite ignite;
+
+    /** Auto-inject job context. */
+    @JobContextResource
+    private transient ComputeJobContext jobCtx;
+
+    /** Forks in the order they were made. */
+    private transient List<Fork<?>> forks;
+
+    /** Number of forks made by the current call of {@link #compute()}. */
+    private transient int forkCnt;
+
+    /** Whether task is computed in the thread of its parent. */
+    private transient boolean inline;
+
+    /**
+     * Computes result of this task.
+     *
+     * @return Result.
+     */
+    protected abstract T compute();
+
+    /**
+     * Tells whether the task is small enough to be computed in the thread of its parent rather than sent to
+     * the cluster. Forks of a task computed in the thread of the parent are computed in the same thread too.
+     *
+     * @return {@code True} if task should be computed in the thread of its parent.
+     */
+    protected boolean isSmall() {
+        return false;
+    }
+
+    /**
+     * Computes this task and all of its forks in the current thread.
+     *
+     * @return Result.
+     */
+    public final T computeLocally() {
+        inline = true;
+
+        return compute();
+    }
+
+    /**
+     * Forks a subtask.
+     *
+     * @param task Subtask, ignored if this call is a replay of an earlier fork.
+     * @param <R> Type of the subtask result.
+     * @return Fork to join result of the subtask.
+     */
+    @SuppressWarnings("unchecked")
+    protected final <R> Fork<R> fork(ContinuationTask<R> task) {
+        if (inline)
+            return new Fork<>(task);
+
+        if (forks == null)
+            forks = new ArrayList<>();
+
+        if (forkCnt < forks.size())
+            return (Fork<R>)forks.get(forkCnt++);
+
+        Fork<R> fork = task.isSmall() ? new Fork<>(task) : new Fork<>(ignite.compute().callAsync(task));
+
+        forks.add(fork);
+        forkCnt++;
+
+        return fork;
+    }
+
+    /** {@inheritDoc} */
+    @Override public final T call() {
+        forkCnt = 0;
+
+        try {
+            return compute();
+        }
+        catch (Fork.Suspension s) {
+            // CONTINUATION:
+            // =============
+            // Hold (suspend) job execution until the joined result is ready, then compute again.
+            jobCtx.holdcc();
+
+            s.future().listen(f -> jobCtx.callcc());
+
+            return null;
+        }
+    }
+}
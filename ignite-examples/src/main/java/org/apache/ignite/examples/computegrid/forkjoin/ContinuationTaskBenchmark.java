@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.forkjoin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCompute;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.lang.IgniteCallable;
+import org.apache.ignite.lang.IgniteFuture;
+import org.apache.ignite.lang.IgniteFutureTimeoutException;
+import org.apache.ignite.resources.IgniteInstanceResource;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.spi.discovery.tcp.ipfinder.vm.TcpDiscoveryVmIpFinder;
+
+/**
+ * Measures recursive computations with {@link ContinuationTask}: Fibonacci number, merge sort and search for a
+ * divisor of a prime, each computed in a single thread with {@link ContinuationTask#computeLocally()} and on the
+ * cluster. Fibonacci number is also computed by jobs which wait for their subtasks in blocking calls, as a
+ * recursion without continuations would, which is limited to {@link #BLOCKING_TIMEOUT}.
+ * <p>
+ * Blocking jobs which exhaust the public pool can not be cancelled by cancelling the root job, since the subtasks
+ * they spawned keep waiting, so they are run on a separate embedded node which does not join the example nodes.
+ * The node is stopped with cancellation of its jobs once the blocking run completes or times out.
+ * <p>
+ * Remote nodes can be started with {@link org.apache.ignite.examples.ExampleNodeStartup} before the benchmark.
+ * Fibonacci number can be passed as the first argument, default is {@link #DFLT_FIB}.
+ */
+public class ContinuationTaskBenchmark {
+    /** Default Fibonacci number. */
+    private static final int DFLT_FIB = 36;
+
+    /** Fibonacci number up to which it is computed sequentially. */
+    private static final int FIB_THRESHOLD = 24;
+
+    /** Length of the sorted array. */
+    private static final int SORT_LEN = 1 << 21;
+
+    /** Length up to which array is sorted sequentially. */
+    private static final int SORT_THRESHOLD = 1 << 15;
+
+    /** Prime to search divisors of. */
+    private static final long PRIME = 217645199L;
+
+    /** Length of the range up to which divisors are searched sequentially. */
+    private static final long PRIME_THRESHOLD = 1 << 20;
+
+    /** Time given to the recursion with blocking waits in seconds. */
+    private static final int BLOCKING_TIMEOUT = 30;
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, optional Fibonacci number.
+     * @throws Exception If benchmark execution failed.
+     */
+    public static void main(String[] args) throws Exception {
+        int fib = args.length > 0 ? Integer.parseInt(args[0]) : DFLT_FIB;
+
+        int[] arr = new Random(0).ints(SORT_LEN).toArray();
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Continuation task benchmark started [servers=" +
+                ignite.cluster().forServers().nodes().size() + ", fib=" + fib + ']');
+
+            List<String> res = new ArrayList<>();
+
+            run(res, "fibonacci(" + fib + ')', () -> new FibonacciTask(fib, FIB_THRESHOLD), ignite);
+            run(res, "mergeSort(" + SORT_LEN + ')', () -> new MergeSortTask(arr, SORT_THRESHOLD), ignite);
+            run(res, "primeSearch(" + PRIME + ')', () -> new PrimeSearchTask(PRIME, 2, PRIME, PRIME_THRESHOLD),
+                ignite);
+
+            res.add(runBlocking(fib));
+
+            System.out.println();
+            System.out.println(">>> Results:");
+
+            for (String row : res)
+                System.out.println(row);
+        }
+    }
+
+    /**
+     * Computes task locally and on the cluster, after a warm-up run of both.
+     *
+     * @param res Results.
+     * @param name Task name.
+     * @param task Task factory.
+     * @param ignite Ignite instance.
+     */
+    private static void run(List<String> res, String name, Supplier<ContinuationTask<?>> task, Ignite ignite) {
+        task.get().computeLocally();
+        ignite.compute().call(task.get());
+
+        long start = System.nanoTime();
+
+        Object loc = task.get().computeLocally();
+
+        long locTime = millis(start);
+
+        start = System.nanoTime();
+
+        Object dist = ignite.compute().call(task.get());
+
+        long distTime = millis(start);
+
+        boolean same = loc instanceof int[] ? Arrays.equals((int[])loc, (int[])dist) :
+            loc == null ? dist == null : loc.equals(dist);
+
+        res.add(">>>   " + name + ": local " + locTime + "ms, cluster " + distTime + "ms, same result " + same);
+    }
+
+    /**
+     * Computes Fibonacci number with blocking joins on a separate node, which is stopped afterwards together
+     * with all the jobs waiting on it.
+     *
+     * @param fib Fibonacci number.
+     * @return Result row.
+     */
+    private static String runBlocking(int fib) {
+        try (Ignite ignite = Ignition.start(blockingNodeConfiguration())) {
+            long start = System.nanoTime();
+
+            IgniteFuture<Long> fut = ignite.compute().callAsync(new BlockingFibonacci(fib, FIB_THRESHOLD));
+
+            try {
+                fut.get(BLOCKING_TIMEOUT, TimeUnit.SECONDS);
+
+                return ">>>   fibonacci(" + fib + "), blocking joins on 1 node: " + millis(start) + "ms";
+            }
+            catch (IgniteFutureTimeoutException ignored) {
+                return ">>>   fibonacci(" + fib + "), blocking joins on 1 node: not completed in " +
+                    BLOCKING_TIMEOUT + "s, public pool is exhausted by waiting jobs";
+            }
+        }
+    }
+
+    /**
+     * @return Configuration of the node for the blocking run.
+     */
+    private static IgniteConfiguration blockingNodeConfiguration() {
+        IgniteConfiguration cfg = new IgniteConfiguration();
+
+        cfg.setIgniteInstanceName("continuation-benchmark-blocking");
+
+        // Do not join example nodes which may be running on the same host.
+        TcpDiscoveryVmIpFinder ipFinder = new TcpDiscoveryVmIpFinder();
+
+        ipFinder.setAddresses(Collections.singleton("127.0.0.1:47600..47609"));
+
+        TcpDiscoverySpi discoSpi = new TcpDiscoverySpi();
+
+        discoSpi.setLocalPort(47600);
+        discoSpi.setIpFinder(ipFinder);
+
+        cfg.setDiscoverySpi(discoSpi);
+
+        return cfg;
+    }
+
+    /**
+     * @param start Start time in nanoseconds.
+     * @return Milliseconds since start.
+     */
+    private static long millis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Fibonacci number computed by jobs which wait for their subtasks in blocking calls.
+     */
+    private static class BlockingFibonacci implements IgniteCallable<Long> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Number. */
+        private final int n;
+
+        /** Number up to which Fibonacci number is computed sequentially. */
+        private final int threshold;
+
+        /** Auto-inject ignite instance. */
+        @IgniteInstanceResource
+        private transient Ignite ignite;
+
+        /**
+         * @param n Number.
+         * @param threshold Number up to which Fibonacci number is computed sequentially.
+         */
+        BlockingFibonacci(int n, int threshold) {
+            this.n = n;
+            this.threshold = threshold;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Long call() {
+            if (n <= threshold)
+                return FibonacciTask.fibonacci(n);
+
+            IgniteCompute compute = ignite.compute();
+
+            IgniteFuture<Long> f1 = compute.callAsync(new BlockingFibonacci(n - 1, threshold));
+            IgniteFuture<Long> f2 = compute.callAsync(new BlockingFibonacci(n - 2, threshold));
+
+            return f1.get() + f2.get();
+        }
+    }
+}
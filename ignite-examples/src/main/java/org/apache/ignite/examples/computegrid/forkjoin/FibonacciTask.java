@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.forkjoin;
+
+/**
+ * Computes Fibonacci number by the naive recursion, forking both subproblems above the threshold.
+ */
+public class FibonacciTask extends ContinuationTask<Long> {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Number. */
+    private final int n;
+
+    /** Number up to which Fibonacci number is computed sequentially. */
+    private final int threshold;
+
+    /**
+     * @param n Number.
+     * @param threshold Number up to which Fibonacci number is computed sequentially.
+     */
+    public FibonacciTask(int n, int threshold) {
+        this.n = n;
+        this.threshold = threshold;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected boolean isSmall() {
+        return n <= threshold;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected Long compute() {
+        if (n <= threshold)
+            return fibonacci(n);
+
+        Fork<Long> f1 = fork(new FibonacciTask(n - 1, threshold));
+        Fork<Long> f2 = fork(new FibonacciTask(n - 2, threshold));
+
+        return f1.join() + f2.join();
+    }
+
+    /**
+     * @param n Number.
+     * @return Fibonacci number.
+     */
+    public static long fibonacci(int n) {
+        return n <= 1 ? n : fibonacci(n - 1) + fibonacci(n - 2);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.forkjoin;
+
+import org.apache.ignite.lang.IgniteFuture;
+
+/**
+ * Forked subtask of a {@link ContinuationTask}.
+ *
+ * @param <R> Type of the subtask result.
+ */
+public final class Fork<R> {
+    /** Future of the subtask sent to the cluster, {@code null} if it is computed locally. */
+    private final IgniteFuture<R> fut;
+
+    /** Subtask to compute locally, {@code null} once computed. */
+    private ContinuationTask<R> task;
+
+    /** Result of the subtask computed locally. */
+    private R res;
+
+    /**
+     * @param fut Future of the subtask sent to the cluster.
+     */
+    Fork(IgniteFuture<R> fut) {
+        this.fut = fut;
+    }
+
+    /**
+     * @param task Subtask to compute locally.
+     */
+    Fork(ContinuationTask<R> task) {
+        this.task = task;
+
+        fut = null;
+    }
+
+    /**
+     * Gets result of the subtask, computing it in the current thread if the subtask is local. If result of the
+     * subtask sent to the cluster is not ready, the calling task is suspended until it is, and computed again.
+     *
+     * @return Result.
+     */
+    public R join() {
+        if (fut != null) {
+            if (!fut.isDone())
+                throw new Suspension(fut);
+
+            return fut.get();
+        }
+
+        if (task != null) {
+            res = task.computeLocally();
+
+            task = null;
+        }
+
+        return res;
+    }
+
+    /**
+     * Thrown by {@link #join()} to unwind {@link ContinuationTask#compute()} until the result is ready.
+     */
+    static class Suspension extends RuntimeException {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Future of the joined result. */
+        private final transient IgniteFuture<?> fut;
+
+        /**
+         * @param fut Future of the joined result.
+         */
+        Suspension(IgniteFuture<?> fut) {
+            super(null, null, false, false);
+
+            this.fut = fut;
+        }
+
+        /**
+         * @return Future of the joined result.
+         */
+        IgniteFuture<?> future() {
+            return fut;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.forkjoin;
+
+import java.util.Arrays;
+
+/**
+ * Sorts an array by the merge sort, forking sorts of both halves above the threshold.
+ */
+public class MergeSortTask extends ContinuationTask<int[]> {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Array to sort. */
+    private final int[] arr;
+
+    /** Length up to which array is sorted sequentially. */
+    private final int threshold;
+
+    /** Sort of the first half, kept between resumes, so that the array is split once. */
+    private transient MergeSortTask left;
+
+    /** Sort of the second half. */
+    private transient MergeSortTask right;
+
+    /**
+     * @param arr Array to sort.
+     * @param threshold Length up to which array is sorted sequentially.
+     */
+    public MergeSortTask(int[] arr, int threshold) {
+        this.arr = arr;
+        this.threshold = threshold;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected boolean isSmall() {
+        return arr.length <= threshold;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected int[] compute() {
+        if (arr.length <= threshold) {
+            int[] res = arr.clone();
+
+            Arrays.sort(res);
+
+            return res;
+        }
+
+        if (left == null) {
+            int mid = arr.length >>> 1;
+
+            left = new MergeSortTask(Arrays.copyOfRange(arr, 0, mid), threshold);
+            right = new MergeSortTask(Arrays.copyOfRange(arr, mid, arr.length), threshold);
+        }
+
+        Fork<int[]> f1 = fork(left);
+        Fork<int[]> f2 = fork(right);
+
+        return merge(f1.join(), f2.join());
+    }
+
+    /**
+     * @param a Sorted array.
+     * @param b Sorted array.
+     * @return Sorted array of elements of both arrays.
+     */
+    private static int[] merge(int[] a, int[] b) {
+        int[] res = new int[a.length + b.length];
+
+        int i = 0;
+        int j = 0;
+        int k = 0;
+
+        while (i < a.length && j < b.length)
+            res[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+
+        while (i < a.length)
+            res[k++] = a[i++];
+
+        while (j < b.length)
+            res[k++] = b[j++];
+
+        return res;
+    }
+}
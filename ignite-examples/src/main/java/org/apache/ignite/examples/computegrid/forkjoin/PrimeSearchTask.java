@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.forkjoin;
+
+/**
+ * Searches a divisor of a number in a range, forking searches in both halves of the range above the threshold.
+ * Result of the second half is not joined if a divisor is found in the first one.
+ */
+public class PrimeSearchTask extends ContinuationTask<Long> {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Number to check. */
+    private final long val;
+
+    /** Start of the range, inclusive. */
+    private final long from;
+
+    /** End of the range, exclusive. */
+    private final long to;
+
+    /** Length of the range up to which it is searched sequentially. */
+    private final long threshold;
+
+    /**
+     * @param val Number to check.
+     * @param from Start of the range, inclusive.
+     * @param to End of the range, exclusive.
+     * @param threshold Length of the range up to which it is searched sequentially.
+     */
+    public PrimeSearchTask(long val, long from, long to, long threshold) {
+        this.val = val;
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected boolean isSmall() {
+        return to - from <= threshold;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected Long compute() {
+        if (to - from <= threshold) {
+            for (long d = from; d < to; d++)
+                if (val % d == 0)
+                    return d;
+
+            return null;
+        }
+
+        long mid = (from + to) >>> 1;
+
+        Fork<Long> f1 = fork(new PrimeSearchTask(val, from, mid, threshold));
+        Fork<Long> f2 = fork(new PrimeSearchTask(val, mid, to, threshold));
+
+        Long divisor = f1.join();
+
+        return divisor != null ? divisor : f2.join();
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.memo;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.CacheMode;
+import org.apache.ignite.compute.ComputeJobContext;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.lang.IgniteCallable;
+import org.apache.ignite.lang.IgniteClosure;
+import org.apache.ignite.lang.IgniteFuture;
+import org.apache.ignite.lang.IgniteRunnable;
+import org.apache.ignite.resources.IgniteInstanceResource;
+import org.apache.ignite.resources.JobContextResource;
+
+/**
+ * Cluster-wide memoization of closure results.
+ * <p>
+ * Keys are partitioned between nodes by affinity of the memo cache, and every lookup is routed to the primary node
+ * of its key with {@link org.apache.ignite.IgniteCompute#affinityCallAsync(String, Object, IgniteCallable)}. The
+ * primary node keeps futures of results being computed and a bounded map of computed results, evicting the least
+ * recently used ones. First lookup of a key computes the result on the primary node, concurrent lookups of the same
+ * key wait for that computation, and later lookups are answered from the map, so every key is computed once in the
+ * cluster while it is not evicted. Waiting lookups are suspended with {@link ComputeJobContext#holdcc()} and hold no
+ * thread, so closures can look up other keys recursively.
+ * <p>
+ * Memo is serializable and can be passed to the closures it runs. Closures should not return {@code null}, such
+ * results are not memoized.
+ *
+ * @param <K> Type of keys.
+ * @param <V> Type of results.
+ */
+public class DistributedMemo<K, V> implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Name of the memo cache. */
+    private final String cacheName;
+
+    /** Maximum number of computed results per node. */
+    private final int maxSize;
+
+    /** Ignite instance. */
+    private transient Ignite ignite;
+
+    /**
+     * Creates memo or connects to the memo with the same name.
+     *
+     * @param ignite Ignite instance.
+     * @param name Memo name.
+     * @param maxSize Maximum number of computed results per node.
+     */
+    public DistributedMemo(Ignite ignite, String name, int maxSize) {
+        this.ignite = ignite;
+        this.maxSize = maxSize;
+
+        cacheName = "memo-" + name;
+
+        // Memo cache defines partitioning of keys and stays empty, results are kept by primary nodes.
+        ignite.getOrCreateCache(new CacheConfiguration<K, V>(cacheName).setCacheMode(CacheMode.PARTITIONED));
+    }
+
+    /**
+     * Gets memoized result of the closure or computes it on the primary node of the key.
+     *
+     * @param clo Closure computing result of a key.
+     * @param key Key.
+     * @return Future of the result.
+     */
+    public IgniteFuture<V> applyAsync(IgniteClosure<K, V> clo, K key) {
+        return ignite().compute().affinityCallAsync(cacheName, key, new MemoJob<>(cacheName, maxSize, clo, key));
+    }
+
+    /**
+     * Gets memoized result of the closure or computes it on the primary node of the key.
+     *
+     * @param clo Closure computing result of a key.
+     * @param key Key.
+     * @return Result.
+     */
+    public V apply(IgniteClosure<K, V> clo, K key) {
+        return applyAsync(clo, key).get();
+    }
+
+    /**
+     * @return Lookup counters summed over the nodes.
+     */
+    public MemoMetrics metrics() {
+        final String name = cacheName;
+
+        MemoMetrics res = new MemoMetrics(0, 0, 0, 0, 0);
+
+        for (MemoMetrics m : ignite().compute(ignite().cluster().forCacheNodes(cacheName)).broadcast(
+            new IgniteCallable<MemoMetrics>() {
+                /** Auto-inject ignite instance. */
+                @IgniteInstanceResource
+                private Ignite ignite;
+
+                /** {@inheritDoc} */
+                @Override public MemoMetrics call() {
+                    MemoState<?, ?> state = ignite.cluster().<String, MemoState<?, ?>>nodeLocalMap().get(name);
+
+                    return state == null ? new MemoMetrics(0, 0, 0, 0, 0) : state.metrics();
+                }
+            }))
+            res = res.add(m);
+
+        return res;
+    }
+
+    /**
+     * Drops memoized results on all nodes and destroys memo cache.
+     */
+    public void destroy() {
+        final String name = cacheName;
+
+        ignite().compute(ignite().cluster().forCacheNodes(cacheName)).broadcast(new IgniteRunnable() {
+            /** Auto-inject ignite instance. */
+            @IgniteInstanceResource
+            private Ignite ignite;
+
+            /** {@inheritDoc} */
+            @Override public void run() {
+                ignite.cluster().nodeLocalMap().remove(name);
+            }
+        });
+
+        ignite().destroyCache(cacheName);
+    }
+
+    /**
+     * @return Ignite instance, local instance if memo was deserialized.
+     */
+    private Ignite ignite() {
+        if (ignite == null)
+            ignite = Ignition.localIgnite();
+
+        return ignite;
+    }
+
+    /**
+     * Lookup executed on the primary node of the key.
+     */
+    private static class MemoJob<K, V> implements IgniteCallable<V> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Name of the memo cache, also the key of memo state in the node local map. */
+        private final String name;
+
+        /** Maximum number of computed results per node. */
+        private final int maxSize;
+
+        /** Closure computing result of a key. */
+        private final IgniteClosure<K, V> clo;
+
+        /** Key. */
+        private final K key;
+
+        /** Future of the result. */
+        private transient CompletableFuture<V> fut;
+
+        /** Auto-inject job context. */
+        @JobContextResource
+        private transient ComputeJobContext jobCtx;
+
+        /** Auto-inject ignite instance. */
+        @IgniteInstanceResource
+        private transient Ignite ignite;
+
+        /**
+         * @param name Name of the memo cache.
+         * @param maxSize Maximum number of computed results per node.
+         * @param clo Closure computing result of a key.
+         * @param key Key.
+         */
+        MemoJob(String name, int maxSize, IgniteClosure<K, V> clo, K key) {
+            this.name = name;
+            this.maxSize = maxSize;
+            this.clo = clo;
+            this.key = key;
+        }
+
+        /** {@inheritDoc} */
+        @Override public V call() {
+            if (fut == null) {
+                ConcurrentMap<String, MemoState<K, V>> locMap = ignite.cluster().nodeLocalMap();
+
+                final MemoState<K, V> state = locMap.computeIfAbsent(name, n -> new MemoState<>(maxSize));
+
+                final CompletableFuture<V> newFut = new CompletableFuture<>();
+
+                fut = state.lookup(key, newFut);
+
+                if (fut == null) {
+                    fut = newFut;
+
+                    // Result is computed by a separate job, so that the closure may use continuations as well.
+                    ignite.compute(ignite.cluster().forLocal()).applyAsync(clo, key).listen(f -> {
+                        try {
+                            V val = f.get();
+
+                            state.complete(key, val);
+
+                            newFut.complete(val);
+                        }
+                        catch (RuntimeException e) {
+                            state.complete(key, null);
+
+                            newFut.completeExceptionally(e);
+                        }
+                    });
+                }
+
+                if (!fut.isDone()) {
+                    // CONTINUATION:
+                    // =============
+                    // Hold (suspend) job execution until the result is computed.
+                    jobCtx.holdcc();
+
+                    fut.whenComplete((val, e) -> jobCtx.callcc());
+
+                    return null;
+                }
+            }
+
+            try {
+                return fut.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new IgniteException(e);
+            }
+            catch (ExecutionException e) {
+                throw new IgniteException("Failed to compute memoized result [key=" + key + ']', e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.memo;
+
+import java.io.Serializable;
+
+/**
+ * Lookup counters of {@link DistributedMemo}.
+ */
+public class MemoMetrics implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Number of lookups answered with a computed result. */
+    private final long hits;
+
+    /** Number of lookups joined to a result being computed. */
+    private final long joins;
+
+    /** Number of lookups which started computation. */
+    private final long misses;
+
+    /** Number of evicted results. */
+    private final long evictions;
+
+    /** Number of stored results. */
+    private final long size;
+
+    /**
+     * @param hits Number of lookups answered with a computed result.
+     * @param joins Number of lookups joined to a result being computed.
+     * @param misses Number of lookups which started computation.
+     * @param evictions Number of evicted results.
+     * @param size Number of stored results.
+     */
+    public MemoMetrics(long hits, long joins, long misses, long evictions, long size) {
+        this.hits = hits;
+        this.joins = joins;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /**
+     * @return Number of lookups answered with a computed result.
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * @return Number of lookups joined to a result being computed.
+     */
+    public long joins() {
+        return joins;
+    }
+
+    /**
+     * @return Number of lookups which started computation.
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * @return Number of evicted results.
+     */
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Number of stored results.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return Share of lookups which did not start computation.
+     */
+    public double hitRate() {
+        long total = hits + joins + misses;
+
+        return total == 0 ? 0 : (double)(hits + joins) / total;
+    }
+
+    /**
+     * @param other Metrics to add.
+     * @return Sum of the metrics.
+     */
+    public MemoMetrics add(MemoMetrics other) {
+        return new MemoMetrics(hits + other.hits, joins + other.joins, misses + other.misses,
+            evictions + other.evictions, size + other.size);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "MemoMetrics [hits=" + hits + ", joins=" + joins + ", misses=" + misses + ", evictions=" + evictions +
+            ", size=" + size + ", hitRate=" + String.format("%.3f", hitRate()) + ']';
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.memo;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Memoized results of the keys a node is primary for: futures of results being computed and a bounded map of
+ * computed results in the access order, so that the least recently used result is evicted first.
+ *
+ * @param <K> Type of keys.
+ * @param <V> Type of results.
+ */
+class MemoState<K, V> {
+    /** Futures of results being computed. */
+    private final Map<K, CompletableFuture<V>> inFlight = new HashMap<>();
+
+    /** Computed results in the access order. */
+    private final LinkedHashMap<K, V> vals;
+
+    /** Number of lookups answered with a computed result. */
+    private long hits;
+
+    /** Number of lookups joined to a result being computed. */
+    private long joins;
+
+    /** Number of lookups which started computation. */
+    private long misses;
+
+    /** Number of evicted results. */
+    private long evictions;
+
+    /**
+     * @param maxSize Maximum number of computed results.
+     */
+    MemoState(final int maxSize) {
+        vals = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            /** */
+            private static final long serialVersionUID = 0L;
+
+            /** {@inheritDoc} */
+            @Override protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() <= maxSize)
+                    return false;
+
+                evictions++;
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Looks up result of the key and registers the given future as the result being computed if there is none.
+     *
+     * @param key Key.
+     * @param fut Future to register.
+     * @return Future of the computed result or of the result being computed, {@code null} if the given future
+     *      was registered and the result should be computed by the caller.
+     */
+    synchronized CompletableFuture<V> lookup(K key, CompletableFuture<V> fut) {
+        V val = vals.get(key);
+
+        if (val != null) {
+            hits++;
+
+            return CompletableFuture.completedFuture(val);
+        }
+
+        CompletableFuture<V> prev = inFlight.putIfAbsent(key, fut);
+
+        if (prev != null)
+            joins++;
+        else
+            misses++;
+
+        return prev;
+    }
+
+    /**
+     * Stores computed result.
+     *
+     * @param key Key.
+     * @param val Result, not stored if {@code null}.
+     */
+    synchronized void complete(K key, V val) {
+        inFlight.remove(key);
+
+        if (val != null)
+            vals.put(key, val);
+    }
+
+    /**
+     * @return Metrics of this node.
+     */
+    synchronized MemoMetrics metrics() {
+        return new MemoMetrics(hits, joins, misses, evictions, vals.size());
+    }
+}
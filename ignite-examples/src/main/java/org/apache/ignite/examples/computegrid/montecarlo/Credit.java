@@ -81,6 +81,15 @@ public class Credit implements Serializable {
         return apr;
     }
 
+    /**
+     * Gets expected annual probability of default.
+     *
+     * @return Expected annual probability of default (EaDF).
+     */
+    double getDefaultFrequency() {
+        return edf;
+    }
+
     /**
      * Gets either credit probability of default for the given period of time
      * if remaining term is less than crediting time or probability of default
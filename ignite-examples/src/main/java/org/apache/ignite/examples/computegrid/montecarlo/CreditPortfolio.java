@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.montecarlo;
+
+import java.io.Serializable;
+
+/**
+ * Credit portfolio stored as arrays of primitives, one array per {@link Credit} field, so that simulation walks
+ * contiguous memory and the portfolio is serialized without per-credit objects.
+ */
+public class CreditPortfolio implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Remaining credit amounts. */
+    private final double[] amounts;
+
+    /** Remaining credit terms in days. */
+    private final int[] terms;
+
+    /** Annual percentage rates. */
+    private final double[] rates;
+
+    /** Expected annual probabilities of default. */
+    private final double[] edfs;
+
+    /**
+     * @param credits Credits.
+     */
+    public CreditPortfolio(Credit[] credits) {
+        amounts = new double[credits.length];
+        terms = new int[credits.length];
+        rates = new double[credits.length];
+        edfs = new double[credits.length];
+
+        for (int i = 0; i < credits.length; i++) {
+            amounts[i] = credits[i].getRemainingAmount();
+            terms[i] = credits[i].getRemainingTerm();
+            rates[i] = credits[i].getAnnualRate();
+            edfs[i] = credits[i].getDefaultFrequency();
+        }
+    }
+
+    /**
+     * @return Number of credits.
+     */
+    public int size() {
+        return amounts.length;
+    }
+
+    /**
+     * @param i Credit index.
+     * @return Remaining credit amount.
+     */
+    double amount(int i) {
+        return amounts[i];
+    }
+
+    /**
+     * @param i Credit index.
+     * @return Remaining credit term in days.
+     */
+    int term(int i) {
+        return terms[i];
+    }
+
+    /**
+     * @param i Credit index.
+     * @return Annual percentage rate.
+     */
+    double rate(int i) {
+        return rates[i];
+    }
+
+    /**
+     * Same as {@link Credit#getDefaultProbability(int)}.
+     *
+     * @param i Credit index.
+     * @param term Default term in days.
+     * @return Probability of default within the term.
+     */
+    double defaultProbability(int i, int term) {
+        return 1 - Math.exp(Math.log(1 - edfs[i]) * Math.min(terms[i], term) / 365.0);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.montecarlo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the credit risk calculation of {@link CreditRiskManager} with the original one, which drew from a shared
+ * {@link Random} per credit and iteration and counted probability of every loss by a scan of all losses.
+ * <p>
+ * Both are run locally on the portfolio of {@link CreditRiskExample} with a fixed seed. The original calculation is
+ * quadratic in number of iterations, so it is only run at {@link #LEGACY_ITERATIONS}, while the new one is also run
+ * at the number of iterations passed as the first argument, default is {@link #DFLT_ITERATIONS}.
+ */
+public class CreditRiskBenchmark {
+    /** Number of credits. */
+    private static final int CREDITS = 5000;
+
+    /** Forecast horizon in days. */
+    private static final int HORIZON = 365;
+
+    /** Percentile. */
+    private static final double PERCENTILE = 0.95;
+
+    /** Number of iterations both calculations are compared at. */
+    private static final int LEGACY_ITERATIONS = 10_000;
+
+    /** Default number of iterations of the new calculation. */
+    private static final int DFLT_ITERATIONS = 1_000_000;
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, optional number of iterations.
+     */
+    public static void main(String[] args) {
+        int iter = args.length > 0 ? Integer.parseInt(args[0]) : DFLT_ITERATIONS;
+
+        Credit[] credits = new Credit[CREDITS];
+
+        Random rnd = new Random(0);
+
+        for (int i = 0; i < credits.length; i++)
+            credits[i] = new Credit(50000 * rnd.nextDouble(), rnd.nextInt(1000), rnd.nextDouble() / 10,
+                rnd.nextDouble() / 20 + 0.02);
+
+        CreditPortfolio portfolio = new CreditPortfolio(credits);
+
+        System.out.println();
+        System.out.println(">>> Credit risk benchmark started [credits=" + CREDITS + ", iterations=" + iter +
+            ", cores=" + Runtime.getRuntime().availableProcessors() + ']');
+
+        // Warm up both calculations.
+        legacyRisk(credits, new Random(1), LEGACY_ITERATIONS / 10);
+        new CreditRiskManager(1).calculateCreditRiskMonteCarlo(portfolio, HORIZON, LEGACY_ITERATIONS, PERCENTILE);
+
+        long start = System.nanoTime();
+
+        double legacy = legacyRisk(credits, new Random(1), LEGACY_ITERATIONS);
+
+        long legacyTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+
+        double cur = new CreditRiskManager(1).calculateCreditRiskMonteCarlo(portfolio, HORIZON, LEGACY_ITERATIONS,
+            PERCENTILE);
+
+        long curTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+
+        double full = new CreditRiskManager(1).calculateCreditRiskMonteCarlo(portfolio, HORIZON, iter, PERCENTILE);
+
+        long fullTime = System.nanoTime() - start;
+
+        System.out.println();
+        System.out.println(">>> Results:");
+        System.out.println(row("original", LEGACY_ITERATIONS, legacy, legacyTime));
+        System.out.println(row("CreditRiskManager", LEGACY_ITERATIONS, cur, curTime));
+        System.out.println(row("CreditRiskManager", iter, full, fullTime));
+    }
+
+    /**
+     * @param name Calculation name.
+     * @param iter Number of iterations.
+     * @param risk Credit risk.
+     * @param nanos Time in nanoseconds.
+     * @return Result row.
+     */
+    private static String row(String name, int iter, double risk, long nanos) {
+        return ">>>   " + name + ", iterations=" + iter + ": risk=" + Math.round(risk) + ", time=" +
+            nanos / 1_000_000 + "ms, " + Math.round(iter * 1e9 / nanos) + " iterations/sec";
+    }
+
+    /**
+     * Original calculation of credit risk.
+     *
+     * @param portfolio Credit portfolio.
+     * @param rnd Random generator.
+     * @param num Number of Monte-Carlo iterations.
+     * @return Credit risk.
+     */
+    private static double legacyRisk(Credit[] portfolio, Random rnd, int num) {
+        double[] losses = new double[num];
+
+        for (int i = 0; i < num; i++)
+            for (Credit crd : portfolio) {
+                int remDays = Math.min(crd.getRemainingTerm(), HORIZON);
+
+                if (rnd.nextDouble() >= 1 - crd.getDefaultProbability(remDays))
+                    losses[i] += (1 + crd.getAnnualRate() * remDays / 365) * crd.getRemainingAmount();
+                else
+                    losses[i] -= crd.getAnnualRate() * remDays / 365 * crd.getRemainingAmount();
+            }
+
+        Arrays.sort(losses);
+
+        double[] lossProbs = new double[num];
+
+        for (int i = 0; i < num; i++) {
+            double cnt = 0;
+
+            for (double loss : losses)
+                if (loss == losses[i])
+                    cnt++;
+
+            lossProbs[i] = i == 0 ? cnt / num : losses[i] != losses[i - 1] ? cnt / num + lossProbs[i - 1] :
+                lossProbs[i - 1];
+        }
+
+        for (int i = 0; i < num; i++)
+            if (lossProbs[i] > PERCENTILE)
+                return losses[i - 1];
+
+        return 0;
+    }
+}
@@ -17,15 +17,17 @@
 
 package org.apache.ignite.examples.computegrid.montecarlo;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Map;
 import java.util.Random;
+import java.util.UUID;
 
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteException;
 import org.apache.ignite.Ignition;
 import org.apache.ignite.examples.ExampleNodeStartup;
-import org.apache.ignite.lang.IgniteCallable;
+import org.apache.ignite.examples.computegrid.split.SplitPlanner;
+import org.apache.ignite.examples.computegrid.split.WeightedRangeTask;
+import org.apache.ignite.lang.IgniteBiClosure;
 import org.apache.ignite.lang.IgniteReducer;
 
 /**
@@ -38,6 +40,9 @@ import org.apache.ignite.lang.IgniteReducer;
  * with {@code examples/config/example-ignite.xml} configuration.
  */
 public final class CreditRiskExample {
+    /** Minimal number of iterations of a job. */
+    private static final int MIN_CHUNK_ITERATIONS = 1000;
+
     /**
      * Executes example.
      *
@@ -83,31 +88,27 @@ public final class CreditRiskExample {
             // Credit risk crdRisk is the minimal amount that creditor has to have
             // available to cover possible defaults.
 
-            double crdRisk = ignite.compute().call(jobs(ignite.cluster().nodes().size(), portfolio, horizon, iter, percentile),
-                new IgniteReducer<Double, Double>() {
-                    /** Collected values sum. */
-                    private double sum;
+            // Portfolio is sent to the nodes as arrays of primitives.
+            CreditPortfolio crdPortfolio = new CreditPortfolio(portfolio);
 
-                    /** Collected values count. */
-                    private int cnt;
+            // Every job returns histogram of its losses, histograms are merged into distribution of all
+            // simulated losses, so the result is as accurate as a single simulation of all iterations.
+            WeightedRangeTask<LossDistribution, LossDistribution> task =
+                task(new SplitPlanner(ignite), crdPortfolio, horizon, iter);
 
-                    /** {@inheritDoc} */
-                    @Override public synchronized boolean collect(Double e) {
-                        sum += e;
-                        cnt++;
+            LossDistribution dist = ignite.compute().execute(task, null);
 
-                        return true;
-                    }
+            double crdRisk = dist.valueAtRisk(percentile);
 
-                    /** {@inheritDoc} */
-                    @Override public synchronized Double reduce() {
-                        return sum / cnt;
-                    }
-                });
+            // Average loss in the cases when credit risk is exceeded.
+            double shortfall = dist.expectedShortfall(percentile);
 
             System.out.println();
-            System.out.println("Credit risk [crdRisk=" + crdRisk + ", duration=" +
-                (System.currentTimeMillis() - start) + "ms]");
+            System.out.println("Credit risk [crdRisk=" + crdRisk + ", shortfall=" + shortfall + ", iterations=" +
+                dist.count() + ", duration=" + (System.currentTimeMillis() - start) + "ms]");
+
+            for (Map.Entry<UUID, Long> e : task.processed().entrySet())
+                System.out.println("Iterations per node [nodeId=" + e.getKey() + ", iterations=" + e.getValue() + ']');
         }
         // We specifically don't do any error handling here to
         // simplify the example. Real application may want to
@@ -115,44 +116,42 @@ public final class CreditRiskExample {
     }
 
     /**
-     * Creates closures for calculating credit risks.
+     * Creates task calculating credit risk.
+     * <p>
+     * Iterations are split between nodes in proportion to their capacities, estimated from their number of CPUs,
+     * calibration runs and measured throughput, and the last part of iterations goes in chunks to the nodes that
+     * finish first, so that a slow node does not delay the result.
      *
-     * @param clusterSize Size of the cluster.
+     * @param planner Split planner.
      * @param portfolio Portfolio.
      * @param horizon Forecast horizon in days.
      * @param iter Number of Monte-Carlo iterations.
-     * @param percentile Percentile.
-     * @return Collection of closures.
+     * @return Task.
      */
-    private static Collection<IgniteCallable<Double>> jobs(int clusterSize, final Credit[] portfolio,
-        final int horizon, int iter, final double percentile) {
-        // Number of iterations should be done by each node.
-        int iterPerNode = Math.round(iter / (float)clusterSize);
-
-        // Number of iterations for the last/the only node.
-        int lastNodeIter = iter - (clusterSize - 1) * iterPerNode;
-
-        Collection<IgniteCallable<Double>> clos = new ArrayList<>(clusterSize);
-
-        // Note that for the purpose of this example we perform a simple homogeneous
-        // (non weighted) split assuming that all computing resources in this split
-        // will be identical. In real life scenarios when heterogeneous environment
-        // is used a split that is weighted by, for example, CPU benchmarks of each
-        // node in the split will be more efficient. It is fairly easy addition and
-        // Ignite comes with convenient Spring-compatible benchmark that can be
-        // used for weighted splits.
-        for (int i = 0; i < clusterSize; i++) {
-            final int nodeIter = i == clusterSize - 1 ? lastNodeIter : iterPerNode;
-
-            clos.add(new IgniteCallable<Double>() {
+    private static WeightedRangeTask<LossDistribution, LossDistribution> task(SplitPlanner planner,
+        final CreditPortfolio portfolio, final int horizon, int iter) {
+        return new WeightedRangeTask<>(planner, 0, iter, MIN_CHUNK_ITERATIONS,
+            new IgniteBiClosure<Long, Long, LossDistribution>() {
                 /** {@inheritDoc} */
-                @Override public Double call() {
-                    return new CreditRiskManager().calculateCreditRiskMonteCarlo(
-                        portfolio, horizon, nodeIter, percentile);
+                @Override public LossDistribution apply(Long from, Long to) {
+                    return new CreditRiskManager().calculateLossDistribution(portfolio, horizon, (int)(to - from));
                 }
-            });
-        }
+            },
+            new IgniteReducer<LossDistribution, LossDistribution>() {
+                /** Merged distribution. */
+                private LossDistribution res;
+
+                /** {@inheritDoc} */
+                @Override public boolean collect(LossDistribution e) {
+                    res = res == null ? e : res.merge(e);
 
-        return clos;
+                    return true;
+                }
+
+                /** {@inheritDoc} */
+                @Override public LossDistribution reduce() {
+                    return res;
+                }
+            });
     }
-}
\ No newline at end of file
+}
@@ -17,24 +17,53 @@
 
 package org.apache.ignite.examples.computegrid.montecarlo;
 
-import java.util.Arrays;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * This class abstracts out the calculation of risk for a credit portfolio.
+ * <p>
+ * Iterations are split between tasks of the common fork-join pool, so a node simulates on all of its cores. Every
+ * task draws from its own {@link SplittableRandom} stream split from the stream of the manager, so tasks share
+ * no generator state and results depend only on the seed, not on scheduling. Portfolio is simulated from arrays of
+ * primitives precomputed for the horizon, and losses of a task are buffered in an array reused by all tasks run
+ * by the same thread, so iterations allocate nothing. Losses are collected into a fixed-bin
+ * {@link LossDistribution}, so memory and result size do not depend on the number of iterations.
  */
 public class CreditRiskManager {
+    /** Maximum number of iterations simulated by one fork-join task. */
+    private static final int TASK_ITERATIONS = 1024;
+
+    /** Number of histogram bins. */
+    private static final int BINS = 4096;
+
+    /** Half-width of the histogram range in standard deviations of the loss. */
+    private static final int RANGE_DEVIATIONS = 8;
+
+    /**
+     * Random generator of this manager.
+     * Note that since every node of the cluster will have its own generator,
+     * independently seeded unless a seed is given, results of the sub-jobs are
+     * independent samples, which is what the Monte-Carlo simulation needs.
+     */
+    private final SplittableRandom rnd;
+
+    /**
+     * Creates manager with a randomly seeded generator.
+     */
+    public CreditRiskManager() {
+        rnd = new SplittableRandom();
+    }
+
     /**
-     * Default randomizer with normal distribution.
-     * Note that since every JVM on the cluster will have its own random
-     * generator (independently initialized) the Monte-Carlo simulation
-     * will be slightly skewed when performed on the ignite cluster due to skewed
-     * normal distribution of the sub-jobs comparing to execution on the
-     * local node only with single random generator. Real-life applications
-     * may want to provide its own implementation of distributed random
-     * generator.
+     * Creates manager with a seeded generator, so that results are reproducible.
+     *
+     * @param seed Seed.
      */
-    private static Random rndGen = new Random();
+    public CreditRiskManager(long seed) {
+        rnd = new SplittableRandom(seed);
+    }
 
     /**
      * Calculates credit risk for a given credit portfolio. This calculation uses
@@ -48,96 +77,176 @@ public class CreditRiskManager {
      *      have available to cover possible defaults.
      */
     public double calculateCreditRiskMonteCarlo(Credit[] portfolio, int horizon, int num, double percentile) {
-        System.out.println(">>> Calculating credit risk for portfolio [size=" + portfolio.length + ", horizon=" +
-            horizon + ", percentile=" + percentile + ", iterations=" + num + "] <<<");
+        return calculateCreditRiskMonteCarlo(new CreditPortfolio(portfolio), horizon, num, percentile);
+    }
+
+    /**
+     * Calculates credit risk for a given credit portfolio. This calculation uses
+     * Monte-Carlo Simulation to produce risk value.
+     *
+     * @param portfolio Credit portfolio.
+     * @param horizon Forecast horizon (in days).
+     * @param num Number of Monte-Carlo iterations.
+     * @param percentile Cutoff level.
+     * @return Credit risk value, i.e. the minimal amount that creditor has to
+     *      have available to cover possible defaults.
+     */
+    public double calculateCreditRiskMonteCarlo(CreditPortfolio portfolio, int horizon, int num, double percentile) {
+        return calculateLossDistribution(portfolio, horizon, num).valueAtRisk(percentile);
+    }
+
+    /**
+     * Simulates distribution of losses for the given credit portfolio using Monte-Carlo Simulation.
+     * Simulates probability of default only.
+     * <p>
+     * Range of the histogram depends on the portfolio and horizon only, so distributions simulated
+     * for the same portfolio on different nodes can be merged.
+     *
+     * @param portfolio Credit portfolio.
+     * @param horizon Forecast horizon (in days).
+     * @param num Number of Monte-Carlo iterations.
+     * @return Distribution of losses.
+     */
+    public LossDistribution calculateLossDistribution(CreditPortfolio portfolio, int horizon, int num) {
+        System.out.println(">>> Simulating losses for portfolio [size=" + portfolio.size() + ", horizon=" +
+            horizon + ", iterations=" + num + "] <<<");
 
         long start = System.currentTimeMillis();
 
-        double[] losses = calculateLosses(portfolio, horizon, num);
+        int size = portfolio.size();
 
-        Arrays.sort(losses);
+        // Outcomes of every credit over the horizon, so that iterations only draw and add.
+        double[] noDefaultProbs = new double[size];
+        double[] defaultLosses = new double[size];
+        double[] incomes = new double[size];
 
-        double[] lossProbs = new double[losses.length];
+        // Mean and variance of the loss, which is a sum of independent two-point outcomes.
+        double mean = 0;
+        double var = 0;
 
-        // Count variational numbers.
-        // Every next one either has the same value or previous one plus probability of loss.
-        for (int i = 0; i < losses.length; i++)
-            if (i == 0)
-                // First time it's just a probability of first value.
-                lossProbs[i] = getLossProbability(losses, 0);
-            else if (losses[i] != losses[i - 1])
-                // Probability of this loss plus previous one.
-                lossProbs[i] = getLossProbability(losses, i) + lossProbs[i - 1];
-            else
-                // The same loss the same probability.
-                lossProbs[i] = lossProbs[i - 1];
+        for (int i = 0; i < size; i++) {
+            int remDays = Math.min(portfolio.term(i), horizon);
 
-        // Count percentile.
-        double crdRisk = 0;
+            // 'r' * min(H, W) / 365 * S.
+            // Where W is a horizon, H is a remaining crediting term, 'r' is an annual credit rate,
+            // S is a remaining credit amount.
+            double income = portfolio.rate(i) * remDays / 365 * portfolio.amount(i);
 
-        for (int i = 0; i < lossProbs.length; i++)
-            if (lossProbs[i] > percentile) {
-                crdRisk = losses[i - 1];
+            double pd = portfolio.defaultProbability(i, remDays);
 
-                break;
-            }
+            noDefaultProbs[i] = 1 - pd;
+
+            // (1 + 'r' * min(H, W) / 365) * S.
+            defaultLosses[i] = portfolio.amount(i) + income;
+            incomes[i] = income;
+
+            mean += pd * defaultLosses[i] - (1 - pd) * income;
+            var += pd * (1 - pd) * (defaultLosses[i] + income) * (defaultLosses[i] + income);
+        }
+
+        double halfRange = Math.max(1, RANGE_DEVIATIONS * Math.sqrt(var));
+
+        LossDistribution dist = new LossDistribution(mean - halfRange, mean + halfRange, BINS);
+
+        SplittableRandom taskRnd;
+
+        // Generator of a manager may be shared by jobs.
+        synchronized (rnd) {
+            taskRnd = rnd.split();
+        }
 
-        System.out.println(">>> Finished calculating portfolio risk [risk=" + crdRisk +
-            ", time=" + (System.currentTimeMillis() - start) + "ms]");
+        ForkJoinPool.commonPool().invoke(new LossTask(noDefaultProbs, defaultLosses, incomes, dist, 0, num,
+            taskRnd));
 
-        return crdRisk;
+        System.out.println(">>> Finished simulating losses [time=" + (System.currentTimeMillis() - start) + "ms]");
+
+        return dist;
     }
 
     /**
-     * Calculates losses for the given credit portfolio using Monte-Carlo Simulation.
-     * Simulates probability of default only.
-     *
-     * @param portfolio Credit portfolio.
-     * @param horizon Forecast horizon.
-     * @param num Number of Monte-Carlo iterations.
-     * @return Losses array simulated by Monte Carlo method.
+     * Fork-join task simulating a range of iterations.
      */
-    private double[] calculateLosses(Credit[] portfolio, int horizon, int num) {
-        double[] losses = new double[num];
-
-        // Count losses using Monte-Carlo method. We generate random probability of default,
-        // if it exceeds certain credit default value we count losses - otherwise count income.
-        for (int i = 0; i < num; i++)
-            for (Credit crd : portfolio) {
-                int remDays = Math.min(crd.getRemainingTerm(), horizon);
-
-                if (rndGen.nextDouble() >= 1 - crd.getDefaultProbability(remDays))
-                    // (1 + 'r' * min(H, W) / 365) * S.
-                    // Where W is a horizon, H is a remaining crediting term, 'r' is an annual credit rate,
-                    // S is a remaining credit amount.
-                    losses[i] += (1 + crd.getAnnualRate() * Math.min(horizon, crd.getRemainingTerm()) / 365)
-                        * crd.getRemainingAmount();
-                else
-                    // - 'r' * min(H,W) / 365 * S
-                    // Where W is a horizon, H is a remaining crediting term, 'r' is a annual credit rate,
-                    // S is a remaining credit amount.
-                    losses[i] -= crd.getAnnualRate() * Math.min(horizon, crd.getRemainingTerm()) / 365 *
-                        crd.getRemainingAmount();
+    private static class LossTask extends RecursiveAction {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Losses buffer of a thread, a task simulates at most {@link #TASK_ITERATIONS} iterations. */
+        private static final ThreadLocal<double[]> LOSSES = ThreadLocal.withInitial(() -> new double[TASK_ITERATIONS]);
+
+        /** Probabilities of no default per credit. */
+        private final double[] noDefaultProbs;
+
+        /** Losses on default per credit. */
+        private final double[] defaultLosses;
+
+        /** Incomes without default per credit. */
+        private final double[] incomes;
+
+        /** Distribution of losses. */
+        private final LossDistribution dist;
+
+        /** First iteration, inclusive. */
+        private final int from;
+
+        /** Last iteration, exclusive. */
+        private final int to;
+
+        /** Random stream of this task. */
+        private final SplittableRandom rnd;
+
+        /**
+         * @param noDefaultProbs Probabilities of no default per credit.
+         * @param defaultLosses Losses on default per credit.
+         * @param incomes Incomes without default per credit.
+         * @param dist Distribution of losses.
+         * @param from First iteration, inclusive.
+         * @param to Last iteration, exclusive.
+         * @param rnd Random stream of this task.
+         */
+        LossTask(double[] noDefaultProbs, double[] defaultLosses, double[] incomes, LossDistribution dist, int from,
+            int to, SplittableRandom rnd) {
+            this.noDefaultProbs = noDefaultProbs;
+            this.defaultLosses = defaultLosses;
+            this.incomes = incomes;
+            this.dist = dist;
+            this.from = from;
+            this.to = to;
+            this.rnd = rnd;
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void compute() {
+            if (to - from > TASK_ITERATIONS) {
+                int mid = (from + to) >>> 1;
+
+                // Split before forking, so that streams of the tasks do not depend on scheduling.
+                invokeAll(
+                    new LossTask(noDefaultProbs, defaultLosses, incomes, dist, from, mid, rnd.split()),
+                    new LossTask(noDefaultProbs, defaultLosses, incomes, dist, mid, to, rnd));
+
+                return;
             }
 
-        return losses;
-    }
+            // Count losses using Monte-Carlo method. We generate random probability of default,
+            // if it exceeds certain credit default value we count losses - otherwise count income.
+            double[] losses = LOSSES.get();
 
-    /**
-     * Calculates probability of certain loss in array of losses.
-     *
-     * @param losses Array of losses.
-     * @param i Index of certain loss in array.
-     * @return Probability of loss with given index.
-     */
-    private double getLossProbability(double[] losses, int i) {
-        double cnt = 0;
-        double loss = losses[i];
+            int cnt = to - from;
+
+            for (int i = 0; i < cnt; i++) {
+                double loss = 0;
 
-        for (double tmp : losses)
-            if (loss == tmp)
-                cnt++;
+                for (int j = 0; j < noDefaultProbs.length; j++)
+                    loss += rnd.nextDouble() >= noDefaultProbs[j] ? defaultLosses[j] : -incomes[j];
 
-        return cnt / losses.length;
+                losses[i] = loss;
+            }
+
+            // Distribution is shared by the tasks, so losses are added once per task.
+            synchronized (dist) {
+                for (int i = 0; i < cnt; i++)
+                    dist.add(losses[i]);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.montecarlo;
+
+import java.io.Serializable;
+
+/**
+ * Distribution of simulated portfolio losses kept as a fixed-bin histogram.
+ * <p>
+ * Histograms with the same range and number of bins are merged by adding bin counts, so every node simulates
+ * its share of iterations into its own histogram and sends back a result that does not grow with the number of
+ * iterations. Besides the count, every bin keeps the sum of its losses, and losses outside of the range are kept
+ * in two open-ended bins bounded by the smallest and the largest loss seen, so that no loss is dropped. Quantiles
+ * are interpolated linearly within a bin.
+ */
+public class LossDistribution implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Lower bound of the range. */
+    private final double lo;
+
+    /** Upper bound of the range. */
+    private final double hi;
+
+    /** Width of a bin. */
+    private final double width;
+
+    /** Loss counts: below the range, per bin, above the range. */
+    private final long[] cnts;
+
+    /** Loss sums: below the range, per bin, above the range. */
+    private final double[] sums;
+
+    /** Total number of losses. */
+    private long cnt;
+
+    /** Smallest loss. */
+    private double min = Double.POSITIVE_INFINITY;
+
+    /** Largest loss. */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param lo Lower bound of the range.
+     * @param hi Upper bound of the range.
+     * @param bins Number of bins in the range.
+     */
+    public LossDistribution(double lo, double hi, int bins) {
+        if (!(lo < hi) || bins <= 0)
+            throw new IllegalArgumentException("Invalid histogram [lo=" + lo + ", hi=" + hi + ", bins=" + bins + ']');
+
+        this.lo = lo;
+        this.hi = hi;
+
+        width = (hi - lo) / bins;
+        cnts = new long[bins + 2];
+        sums = new double[bins + 2];
+    }
+
+    /**
+     * Adds simulated loss.
+     *
+     * @param loss Loss.
+     */
+    public void add(double loss) {
+        int bins = cnts.length - 2;
+
+        int b = loss < lo ? 0 : loss >= hi ? bins + 1 : 1 + Math.min(bins - 1, (int)((loss - lo) / width));
+
+        cnts[b]++;
+        sums[b] += loss;
+        cnt++;
+
+        if (loss < min)
+            min = loss;
+
+        if (loss > max)
+            max = loss;
+    }
+
+    /**
+     * Adds losses of the given distribution to this one.
+     *
+     * @param other Distribution with the same range and number of bins.
+     * @return This distribution.
+     */
+    public LossDistribution merge(LossDistribution other) {
+        if (other.lo != lo || other.hi != hi || other.cnts.length != cnts.length)
+            throw new IllegalArgumentException("Distributions have different bins [lo=" + lo + ", hi=" + hi +
+                ", bins=" + (cnts.length - 2) + ", otherLo=" + other.lo + ", otherHi=" + other.hi +
+                ", otherBins=" + (other.cnts.length - 2) + ']');
+
+        for (int b = 0; b < cnts.length; b++) {
+            cnts[b] += other.cnts[b];
+            sums[b] += other.sums[b];
+        }
+
+        cnt += other.cnt;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+
+        return this;
+    }
+
+    /**
+     * @return Number of simulated losses.
+     */
+    public long count() {
+        return cnt;
+    }
+
+    /**
+     * Calculates value at risk, i.e. the loss that is not exceeded with the given probability.
+     *
+     * @param percentile Cutoff level.
+     * @return Value at risk or {@code 0} if distribution is empty.
+     */
+    public double valueAtRisk(double percentile) {
+        double rank = percentile * cnt;
+        long cum = 0;
+
+        for (int b = 0; b < cnts.length; b++) {
+            if (cnts[b] == 0)
+                continue;
+
+            if (cum + cnts[b] >= rank)
+                return lower(b) + (upper(b) - lower(b)) * (rank - cum) / cnts[b];
+
+            cum += cnts[b];
+        }
+
+        return cnt == 0 ? 0 : max;
+    }
+
+    /**
+     * Calculates expected shortfall, i.e. the average loss in the cases when value at risk is exceeded.
+     *
+     * @param percentile Cutoff level.
+     * @return Expected shortfall or {@code 0} if distribution is empty.
+     */
+    public double expectedShortfall(double percentile) {
+        double rank = percentile * cnt;
+
+        if (cnt - rank <= 0)
+            return cnt == 0 ? 0 : max;
+
+        double tail = 0;
+        long cum = 0;
+
+        for (int b = 0; b < cnts.length; b++) {
+            if (cum + cnts[b] > rank)
+                // Share of the bin above the cutoff, all of the bin once the cutoff is passed.
+                tail += sums[b] * Math.min(1, (cum + cnts[b] - rank) / cnts[b]);
+
+            cum += cnts[b];
+        }
+
+        return tail / (cnt - rank);
+    }
+
+    /**
+     * @param b Bin index.
+     * @return Smallest loss the bin may hold.
+     */
+    private double lower(int b) {
+        return b == 0 ? min : Math.max(min, lo + (b - 1) * width);
+    }
+
+    /**
+     * @param b Bin index.
+     * @return Largest loss the bin may hold.
+     */
+    private double upper(int b) {
+        return b == cnts.length - 1 ? max : Math.min(max, b == cnts.length - 2 ? hi : lo + b * width);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "LossDistribution [lo=" + lo + ", hi=" + hi + ", bins=" + (cnts.length - 2) + ", cnt=" + cnt +
+            ", min=" + min + ", max=" + max + ", below=" + cnts[0] + ", above=" + cnts[cnts.length - 1] + ']';
+    }
+}
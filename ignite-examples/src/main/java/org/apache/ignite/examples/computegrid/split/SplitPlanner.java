@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.split;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.cluster.ClusterMetrics;
+import org.apache.ignite.cluster.ClusterNode;
+import org.apache.ignite.lang.IgniteBiTuple;
+import org.apache.ignite.lang.IgniteCallable;
+import org.apache.ignite.resources.IgniteInstanceResource;
+
+/**
+ * Estimates relative capacities of nodes for {@link WeightedRangeTask}.
+ * <p>
+ * Until a node completed a chunk of the workload, its capacity is estimated as a score of a short single-threaded
+ * calibration run on the node, multiplied by its number of CPUs and by the share of CPU left idle by other work, as
+ * reported by {@link ClusterMetrics}. Once chunks are completed, measured throughput of the node replaces the
+ * estimate, and calibration scores of nodes without measurements are scaled to throughput by the ratio observed on
+ * the measured nodes. Planner should be reused for the same workload, so that later splits follow measurements.
+ */
+public class SplitPlanner {
+    /** Node local map key of the calibration score. */
+    private static final String CALIBRATION_KEY = SplitPlanner.class.getName() + ".calibration";
+
+    /** Number of operations of a calibration run. */
+    private static final int CALIBRATION_OPS = 1 << 22;
+
+    /** Lowest share of idle CPU a node is planned with. */
+    private static final double MIN_IDLE = 0.1;
+
+    /** Weight of the last measurement in the throughput average. */
+    private static final double RATE_SMOOTHING = 0.5;
+
+    /** Ignite instance. */
+    private final Ignite ignite;
+
+    /** Calibration scores per node. */
+    private final ConcurrentMap<UUID, Double> calibrations = new ConcurrentHashMap<>();
+
+    /** Measured throughputs per job slot per node in units per second. */
+    private final ConcurrentMap<UUID, Double> rates = new ConcurrentHashMap<>();
+
+    /**
+     * @param ignite Ignite instance.
+     */
+    public SplitPlanner(Ignite ignite) {
+        this.ignite = ignite;
+    }
+
+    /**
+     * Gets number of jobs the node executes concurrently, one per CPU.
+     *
+     * @param node Node.
+     * @return Number of job slots.
+     */
+    public int slots(ClusterNode node) {
+        return Math.max(1, node.metrics().getTotalCpus());
+    }
+
+    /**
+     * Estimates capacities of the nodes, calibrating nodes not seen before.
+     *
+     * @param nodes Nodes.
+     * @return Relative capacities per node.
+     */
+    public Map<UUID, Double> capacities(Collection<ClusterNode> nodes) {
+        calibrate(nodes);
+
+        // Units of work per calibration score, as observed on nodes with measurements.
+        double rateSum = 0;
+        double scoreSum = 0;
+
+        for (ClusterNode node : nodes) {
+            Double rate = rates.get(node.id());
+
+            if (rate != null) {
+                rateSum += rate;
+                scoreSum += calibrations.get(node.id());
+            }
+        }
+
+        double scale = scoreSum > 0 ? rateSum / scoreSum : 1;
+
+        Map<UUID, Double> caps = new HashMap<>();
+
+        for (ClusterNode node : nodes) {
+            Double rate = rates.get(node.id());
+
+            double cap;
+
+            if (rate != null)
+                cap = rate * slots(node);
+            else {
+                ClusterMetrics m = node.metrics();
+
+                double idle = Math.max(MIN_IDLE, 1 - Math.max(0, m.getCurrentCpuLoad()));
+
+                cap = calibrations.get(node.id()) * scale * slots(node) * idle;
+            }
+
+            caps.put(node.id(), cap);
+        }
+
+        return caps;
+    }
+
+    /**
+     * Records a completed chunk.
+     *
+     * @param nodeId Id of the node that executed the chunk.
+     * @param units Units of work in the chunk.
+     * @param nanos Execution time of the chunk in nanoseconds.
+     */
+    public void onCompleted(UUID nodeId, long units, long nanos) {
+        double rate = units * 1e9 / Math.max(1, nanos);
+
+        rates.merge(nodeId, rate, (prev, last) -> prev + (last - prev) * RATE_SMOOTHING);
+    }
+
+    /**
+     * Runs calibration on nodes which have no calibration score yet.
+     *
+     * @param nodes Nodes.
+     */
+    private void calibrate(Collection<ClusterNode> nodes) {
+        Collection<UUID> ids = new ArrayList<>();
+
+        for (ClusterNode node : nodes)
+            if (!calibrations.containsKey(node.id()))
+                ids.add(node.id());
+
+        if (ids.isEmpty())
+            return;
+
+        for (IgniteBiTuple<UUID, Double> score : ignite.compute(ignite.cluster().forNodeIds(ids))
+            .broadcast(new Calibration()))
+            calibrations.put(score.get1(), score.get2());
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "SplitPlanner [calibrations=" + calibrations + ", rates=" + rates + ']';
+    }
+
+    /**
+     * Calibration run, scored in operations per microsecond of a single thread. Score is kept on the node, so
+     * that every node is calibrated once.
+     */
+    private static class Calibration implements IgniteCallable<IgniteBiTuple<UUID, Double>> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Sink of the calibration result, so that the calibration loop is not eliminated. */
+        private static volatile long sink;
+
+        /** Ignite instance. */
+        @IgniteInstanceResource
+        private transient Ignite ignite;
+
+        /** {@inheritDoc} */
+        @Override public IgniteBiTuple<UUID, Double> call() {
+            ConcurrentMap<String, Double> locMap = ignite.cluster().nodeLocalMap();
+
+            Double score = locMap.get(CALIBRATION_KEY);
+
+            if (score == null) {
+                // First run warms up the loop.
+                run();
+
+                score = run();
+
+                locMap.put(CALIBRATION_KEY, score);
+            }
+
+            return new IgniteBiTuple<>(ignite.cluster().localNode().id(), score);
+        }
+
+        /**
+         * @return Operations per microsecond.
+         */
+        private static double run() {
+            SplittableRandom rnd = new SplittableRandom(0);
+
+            long x = 0;
+
+            long start = System.nanoTime();
+
+            for (int i = 0; i < CALIBRATION_OPS; i++)
+                x += rnd.nextLong() % (i | 1);
+
+            long nanos = Math.max(1, System.nanoTime() - start);
+
+            sink = x;
+
+            return CALIBRATION_OPS * 1e3 / nanos;
+        }
+    }
+}
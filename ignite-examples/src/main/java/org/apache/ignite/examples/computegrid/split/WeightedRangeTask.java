@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.computegrid.split;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ignite.cluster.ClusterNode;
+import org.apache.ignite.compute.ComputeJob;
+import org.apache.ignite.compute.ComputeJobAdapter;
+import org.apache.ignite.compute.ComputeJobResult;
+import org.apache.ignite.compute.ComputeJobResultPolicy;
+import org.apache.ignite.compute.ComputeTaskAdapter;
+import org.apache.ignite.compute.ComputeTaskContinuousMapper;
+import org.apache.ignite.compute.ComputeTaskNoResultCache;
+import org.apache.ignite.lang.IgniteBiClosure;
+import org.apache.ignite.lang.IgniteReducer;
+import org.apache.ignite.resources.TaskContinuousMapperResource;
+
+/**
+ * Task processing a range of work units, split between nodes by their capacities.
+ * <p>
+ * Most of the range is split upfront in proportion to capacities estimated by {@link SplitPlanner}, and the share
+ * of every node is divided between its job slots. The rest of the range is left unassigned and handed out in
+ * decreasing chunks to whichever node completes a job, so that a node slower than planned gets less of the
+ * leftover work instead of delaying the whole task. Execution times of the jobs are reported back to the planner.
+ * <p>
+ * Results of the jobs are passed to the reducer as they arrive. If reducer returns {@code false}, remaining jobs
+ * are cancelled and the task is reduced.
+ *
+ * @param <T> Type of chunk results.
+ * @param <R> Type of task result.
+ */
+@ComputeTaskNoResultCache
+public class WeightedRangeTask<T, R> extends ComputeTaskAdapter<Void, R> {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Share of the range left to chunks taken by nodes that finish first. */
+    private static final double LEFTOVER_SHARE = 0.2;
+
+    /** Task continuous mapper. */
+    @TaskContinuousMapperResource
+    private ComputeTaskContinuousMapper mapper;
+
+    /** Planner. */
+    private final SplitPlanner planner;
+
+    /** End of the range, exclusive. */
+    private final long to;
+
+    /** Minimal size of a chunk. */
+    private final long minChunk;
+
+    /** Closure processing a chunk. */
+    private final IgniteBiClosure<Long, Long, T> clo;
+
+    /** Reducer. */
+    private final IgniteReducer<T, R> rdc;
+
+    /** Start of the part of the range not assigned yet. */
+    private long next;
+
+    /** Total number of job slots. */
+    private int slots;
+
+    /** Processed units per node. */
+    private final Map<UUID, Long> processed = new ConcurrentHashMap<>();
+
+    /**
+     * @param planner Planner.
+     * @param from Start of the range, inclusive.
+     * @param to End of the range, exclusive.
+     * @param minChunk Minimal size of a chunk.
+     * @param clo Closure processing a chunk, it is passed start and end of the chunk.
+     * @param rdc Reducer of chunk results.
+     */
+    public WeightedRangeTask(SplitPlanner planner, long from, long to, long minChunk,
+        IgniteBiClosure<Long, Long, T> clo, IgniteReducer<T, R> rdc) {
+        this.planner = planner;
+        this.to = to;
+        this.minChunk = Math.max(1, minChunk);
+        this.clo = clo;
+        this.rdc = rdc;
+
+        next = from;
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Map<? extends ComputeJob, ClusterNode> map(List<ClusterNode> nodes, Void arg) {
+        Map<UUID, Double> caps = planner.capacities(nodes);
+
+        double totalCap = 0;
+
+        for (ClusterNode node : nodes) {
+            totalCap += caps.get(node.id());
+            slots += planner.slots(node);
+        }
+
+        long planned = (long)((to - next) * (1 - LEFTOVER_SHARE));
+        long end = next + planned;
+
+        Map<ComputeJob, ClusterNode> jobs = new HashMap<>();
+
+        for (int i = 0; i < nodes.size(); i++) {
+            ClusterNode node = nodes.get(i);
+
+            long share = i == nodes.size() - 1 ? end - next : (long)(planned * caps.get(node.id()) / totalCap);
+
+            int nodeSlots = planner.slots(node);
+
+            for (int s = 0; s < nodeSlots; s++) {
+                long size = share / (nodeSlots - s);
+
+                if (size > 0)
+                    jobs.put(new RangeJob<>(clo, next, next + size), node);
+
+                next += size;
+                share -= size;
+            }
+        }
+
+        // Nodes without a planned share wait for leftover chunks, at least one job is mapped.
+        if (jobs.isEmpty() && next < to) {
+            long size = chunk();
+
+            jobs.put(new RangeJob<>(clo, next, next + size), nodes.get(0));
+
+            next += size;
+        }
+
+        return jobs;
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized ComputeJobResultPolicy result(ComputeJobResult res, List<ComputeJobResult> rcvd) {
+        // If there is an error, fail-over to another node.
+        if (res.getException() != null)
+            return super.result(res, rcvd);
+
+        RangeResult<T> chunkRes = res.getData();
+
+        // Closure may have stopped early on the chunk the task is completed with, so it is not measured.
+        if (!rdc.collect(chunkRes.val))
+            return ComputeJobResultPolicy.REDUCE;
+
+        UUID nodeId = res.getNode().id();
+
+        planner.onCompleted(nodeId, chunkRes.units, chunkRes.nanos);
+
+        processed.merge(nodeId, chunkRes.units, Long::sum);
+
+        // Node that completed a job takes the next leftover chunk.
+        if (next < to) {
+            long size = chunk();
+
+            mapper.send(new RangeJob<>(clo, next, next + size), res.getNode());
+
+            next += size;
+        }
+
+        return ComputeJobResultPolicy.WAIT;
+    }
+
+    /** {@inheritDoc} */
+    @Override public R reduce(List<ComputeJobResult> results) {
+        return rdc.reduce();
+    }
+
+    /**
+     * Gets units processed by every node in completed chunks, may be called once task is completed.
+     *
+     * @return Processed units per node.
+     */
+    public Map<UUID, Long> processed() {
+        return processed;
+    }
+
+    /**
+     * @return Size of the next leftover chunk, half of the remaining range per job slot, but not less than
+     *      the minimal chunk size.
+     */
+    private long chunk() {
+        return Math.min(to - next, Math.max(minChunk, (to - next) / (2L * slots)));
+    }
+
+    /**
+     * Job processing a chunk of the range.
+     */
+    private static class RangeJob<T> extends ComputeJobAdapter {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Closure processing a chunk. */
+        private final IgniteBiClosure<Long, Long, T> clo;
+
+        /** Start of the chunk, inclusive. */
+        private final long from;
+
+        /** End of the chunk, exclusive. */
+        private final long to;
+
+        /**
+         * @param clo Closure processing a chunk.
+         * @param from Start of the chunk, inclusive.
+         * @param to End of the chunk, exclusive.
+         */
+        RangeJob(IgniteBiClosure<Long, Long, T> clo, long from, long to) {
+            this.clo = clo;
+            this.from = from;
+            this.to = to;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Object execute() {
+            long start = System.nanoTime();
+
+            T val = clo.apply(from, to);
+
+            return new RangeResult<>(val, to - from, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Result of a chunk.
+     */
+    private static class RangeResult<T> implements Serializable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Result of the closure. */
+        private final T val;
+
+        /** Number of processed units. */
+        private final long units;
+
+        /** Execution time in nanoseconds. */
+        private final long nanos;
+
+        /**
+         * @param val Result of the closure.
+         * @param units Number of processed units.
+         * @param nanos Execution time in nanoseconds.
+         */
+        RangeResult(T val, long units, long nanos) {
+            this.val = val;
+            this.units = units;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.ignite.IgniteException;
 import org.apache.ignite.Ignition;
 import org.apache.ignite.examples.ExampleNodeStartup;
 import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.streaming.AdaptiveDataStreamer;
 
 /**
  * Demonstrates how cache can be populated with data utilizing {@link IgniteDataStreamer} API.
@@ -31,6 +32,9 @@ import org.apache.ignite.examples.ExamplesUtils;
  * {@code put(...)} operation as it properly buffers cache requests
  * together and properly manages load on remote nodes.
  * <p>
+ * Instead of fixed buffer size and parallelism the streamer is wrapped into {@link AdaptiveDataStreamer},
+ * which tunes both per node by measured acknowledgement latency and throughput.
+ * <p>
  * Remote nodes should always be started with special configuration file which
  * enables P2P class loading: {@code 'ignite.{sh|bat} examples/config/example-ignite.xml'}.
  * <p>
@@ -64,11 +68,8 @@ public class CacheDataStreamerExample {
             try (IgniteCache<Integer, String> cache = ignite.getOrCreateCache(CACHE_NAME)) {
                 long start = System.currentTimeMillis();
 
-                try (IgniteDataStreamer<Integer, String> stmr = ignite.dataStreamer(CACHE_NAME)) {
-                    // Configure loader.
-                    stmr.perNodeBufferSize(1024);
-                    stmr.perNodeParallelOperations(8);
-
+                try (AdaptiveDataStreamer<Integer, String> stmr =
+                         new AdaptiveDataStreamer<>(ignite, ignite.dataStreamer(CACHE_NAME))) {
                     for (int i = 0; i < ENTRY_COUNT; i++) {
                         stmr.addData(i, Integer.toString(i));
 
@@ -76,6 +77,10 @@ public class CacheDataStreamerExample {
                         if (i > 0 && i % 10000 == 0)
                             System.out.println("Loaded " + i + " keys.");
                     }
+
+                    stmr.flush();
+
+                    System.out.println(">>> " + stmr);
                 }
 
                 long end = System.currentTimeMillis();
@@ -18,12 +18,9 @@
 package org.apache.ignite.examples.datagrid.store;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.Serializable;
-import java.util.Iterator;
-import java.util.NoSuchElementException;
-import java.util.Scanner;
 
+import javax.cache.Cache;
 import javax.cache.configuration.FactoryBuilder;
 import javax.cache.integration.CacheLoaderException;
 
@@ -33,19 +30,19 @@ import org.apache.ignite.IgniteException;
 import org.apache.ignite.Ignition;
 import org.apache.ignite.cache.CacheMode;
 import org.apache.ignite.cache.CachePeekMode;
-import org.apache.ignite.cache.store.CacheLoadOnlyStoreAdapter;
+import org.apache.ignite.cache.store.CacheStoreAdapter;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.examples.ExampleNodeStartup;
 import org.apache.ignite.examples.model.Person;
+import org.apache.ignite.examples.util.CsvBulkLoader;
 import org.apache.ignite.internal.util.IgniteUtils;
-import org.apache.ignite.internal.util.typedef.T2;
-import org.apache.ignite.lang.IgniteBiTuple;
-import org.jetbrains.annotations.Nullable;
+import org.apache.ignite.lang.IgniteBiInClosure;
 
 /**
- * Example of how to load data from CSV file using {@link CacheLoadOnlyStoreAdapter}.
+ * Example of how to load data from CSV file using a load-only store built on {@link CsvBulkLoader}.
  * <p>
- * The adapter is intended to be used in cases when you need to pre-load a cache from text or file of any other format.
+ * The store is intended to be used in cases when you need to pre-load a cache from text or file of any other format.
+ * The file is memory-mapped and parsed in parallel chunks without creating a string per field.
  * <p>
  * Remote nodes can be started with {@link ExampleNodeStartup} in another JVM which will
  * start node with {@code examples/config/example-ignite.xml} configuration.
@@ -68,8 +65,6 @@ public class CacheLoadOnlyStoreExample {
             ProductLoader productLoader = new ProductLoader("examples/src/main/resources/person.csv");
 
             productLoader.setThreadsCount(2);
-            productLoader.setBatchSize(10);
-            productLoader.setBatchQueueSize(1);
 
             try (IgniteCache<Long, Person> cache = ignite.getOrCreateCache(cacheConfiguration(productLoader))) {
                 // load data.
@@ -104,70 +99,63 @@ public class CacheLoadOnlyStoreExample {
     }
 
     /**
-     * Csv data loader for product data.
+     * Csv data loader for product data. Only supports {@link #loadCache(IgniteBiInClosure, Object...)},
+     * other store operations are ignored.
      */
-    private static class ProductLoader extends CacheLoadOnlyStoreAdapter<Long, Person, String> implements Serializable {
+    private static class ProductLoader extends CacheStoreAdapter<Long, Person> implements Serializable {
         /** Csv file name. */
         final String csvFileName;
 
+        /** Number of parsing threads. */
+        private int threadsCnt = Runtime.getRuntime().availableProcessors();
+
         /** Constructor. */
         ProductLoader(String csvFileName) {
             this.csvFileName = csvFileName;
         }
 
-        /** {@inheritDoc} */
-        @Override protected Iterator<String> inputIterator(@Nullable Object... args) throws CacheLoaderException {
-            final Scanner scanner;
+        /**
+         * @param threadsCnt Number of parsing threads.
+         */
+        void setThreadsCount(int threadsCnt) {
+            this.threadsCnt = threadsCnt;
+        }
 
-            try {
-                File path = IgniteUtils.resolveIgnitePath(csvFileName);
+        /** {@inheritDoc} */
+        @Override public void loadCache(final IgniteBiInClosure<Long, Person> clo, Object... args) {
+            File path = IgniteUtils.resolveIgnitePath(csvFileName);
 
-                if (path == null)
-                    throw new CacheLoaderException("Failed to open the source file: " + csvFileName);
+            if (path == null)
+                throw new CacheLoaderException("Failed to open the source file: " + csvFileName);
 
-                scanner = new Scanner(path);
+            try {
+                new CsvBulkLoader().setParallelism(threadsCnt).parse(path, new CsvBulkLoader.RowHandler() {
+                    @Override public void handle(long lineNo, CsvBulkLoader.Row row) {
+                        long id = row.getLong(0);
 
-                scanner.useDelimiter("\\n");
+                        clo.apply(id, new Person(id, row.getLong(1), row.getString(2), row.getString(3),
+                            row.getDouble(4), row.getString(5)));
+                    }
+                });
             }
-            catch (FileNotFoundException e) {
-                throw new CacheLoaderException("Failed to open the source file " + csvFileName, e);
+            catch (IgniteException e) {
+                throw new CacheLoaderException("Failed to load the source file " + csvFileName, e);
             }
+        }
 
-            /**
-             * Iterator for text input. The scanner is implicitly closed when there's nothing to scan.
-             */
-            return new Iterator<String>() {
-                /** {@inheritDoc} */
-                @Override public boolean hasNext() {
-                    if (!scanner.hasNext()) {
-                        scanner.close();
-
-                        return false;
-                    }
-
-                    return true;
-                }
-
-                /** {@inheritDoc} */
-                @Override public String next() {
-                    if (!hasNext())
-                        throw new NoSuchElementException();
-
-                    return scanner.next();
-                }
+        /** {@inheritDoc} */
+        @Override public Person load(Long key) {
+            return null;
+        }
 
-                /** {@inheritDoc} */
-                @Override public void remove() {
-                    throw new UnsupportedOperationException();
-                }
-            };
+        /** {@inheritDoc} */
+        @Override public void write(Cache.Entry<? extends Long, ? extends Person> entry) {
+            // No-op.
         }
 
         /** {@inheritDoc} */
-        @Nullable @Override protected IgniteBiTuple<Long, Person> parse(String rec, @Nullable Object... args) {
-            String[] p = rec.split("\\s*,\\s*");
-            return new T2<>(Long.valueOf(p[0]), new Person(Long.valueOf(p[0]), Long.valueOf(p[1]),
-                p[2], p[3], Double.valueOf(p[4]), p[5].trim()));
+        @Override public void delete(Object key) {
+            // No-op.
         }
     }
 }
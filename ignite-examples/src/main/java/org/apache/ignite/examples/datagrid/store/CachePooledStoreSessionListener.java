@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.cache.integration.CacheWriterException;
+
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.cache.store.CacheStoreSession;
+import org.apache.ignite.cache.store.CacheStoreSessionListener;
+import org.apache.ignite.cache.store.jdbc.CacheJdbcStoreSessionListener;
+import org.apache.ignite.lifecycle.LifecycleAware;
+
+/**
+ * Store session listener which works like {@link CacheJdbcStoreSessionListener}, but takes connections
+ * from a {@link PooledDataSource}.
+ * <p>
+ * A connection is borrowed from the pool and attached to the session when the session starts, and is
+ * committed or rolled back and returned to the pool when the session ends. Since the pool caches prepared
+ * statements per connection, stores which prepare the same SQL for every entry reuse them across sessions.
+ * <p>
+ * The pool is registered as {@link PooledDataSourceMXBean} when the listener is started and its
+ * statistics are printed when the listener is stopped.
+ */
+public class CachePooledStoreSessionListener implements CacheStoreSessionListener, LifecycleAware {
+    /** Connection pool. */
+    private PooledDataSource dataSrc;
+
+    /** Pool name used for the MBean. */
+    private String name = "default";
+
+    /**
+     * @return Connection pool.
+     */
+    public PooledDataSource getDataSource() {
+        return dataSrc;
+    }
+
+    /**
+     * @param dataSrc Connection pool.
+     */
+    public void setDataSource(PooledDataSource dataSrc) {
+        this.dataSrc = dataSrc;
+    }
+
+    /**
+     * @return Pool name used for the MBean.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name Pool name used for the MBean.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void start() throws IgniteException {
+        if (dataSrc == null)
+            throw new IgniteException("Data source is required by " + getClass().getSimpleName() + '.');
+
+        dataSrc.registerMBean(name);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void stop() throws IgniteException {
+        System.out.println(">>> Connection pool statistics [name=" + name + "]: " + dataSrc);
+
+        dataSrc.unregisterMBean();
+        dataSrc.close();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onSessionStart(CacheStoreSession ses) {
+        if (ses.attachment() == null) {
+            try {
+                Connection conn = dataSrc.getConnection();
+
+                conn.setAutoCommit(false);
+
+                ses.attach(conn);
+            }
+            catch (SQLException e) {
+                throw new CacheWriterException("Failed to start store session [tx=" + ses.transaction() + ']', e);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onSessionEnd(CacheStoreSession ses, boolean commit) {
+        Connection conn = ses.attach(null);
+
+        if (conn != null) {
+            try {
+                if (commit)
+                    conn.commit();
+                else
+                    conn.rollback();
+            }
+            catch (SQLException e) {
+                throw new CacheWriterException("Failed to end store session [tx=" + ses.transaction() + ']', e);
+            }
+            finally {
+                try {
+                    conn.close();
+                }
+                catch (SQLException ignored) {
+                    // No-op.
+                }
+            }
+        }
+    }
+}
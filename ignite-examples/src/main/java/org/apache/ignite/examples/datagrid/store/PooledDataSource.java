@@ -0,0 +1,584 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store;
+
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
+
+import org.apache.ignite.IgniteException;
+import org.h2.jdbcx.JdbcDataSource;
+
+/**
+ * Bounded connection pool with a per-connection prepared statement cache.
+ * <p>
+ * At most {@code maxConns} connections are borrowed at the same time, other callers wait up to
+ * {@link #getWaitTimeout()} milliseconds for a connection to be returned. Closing a borrowed connection
+ * returns it to the pool. Statements prepared with {@link Connection#prepareStatement(String)} are cached
+ * per connection by their SQL text and closing them only clears their parameters, so that repeated store
+ * operations do not prepare the same statement again.
+ * <p>
+ * {@link #close()} closes all physical connections, including borrowed ones, so that nothing leaks when the
+ * pool is shut down while a store operation is still running. Such an operation fails with {@link SQLException}.
+ * <p>
+ * Pool wait time, number of active connections and statement cache hit ratio are available through
+ * {@link PooledDataSourceMXBean} once the pool is registered with {@link #registerMBean(String)}.
+ */
+public class PooledDataSource implements DataSource, PooledDataSourceMXBean {
+    /** Default maximum number of connections. */
+    public static final int DFLT_MAX_CONNECTIONS = 8;
+
+    /** Default maximum number of cached statements per connection. */
+    public static final int DFLT_STATEMENT_CACHE_SIZE = 32;
+
+    /** Default connection wait timeout in milliseconds. */
+    public static final long DFLT_WAIT_TIMEOUT = 30_000;
+
+    /** Underlying data source. */
+    private final DataSource dataSrc;
+
+    /** Maximum number of connections. */
+    private final int maxConns;
+
+    /** Maximum number of cached statements per connection. */
+    private final int stmtCacheSize;
+
+    /** Connection wait timeout in milliseconds. */
+    private volatile long waitTimeout = DFLT_WAIT_TIMEOUT;
+
+    /** Permits to borrow a connection. */
+    private final Semaphore permits;
+
+    /** Idle connections. */
+    private final ConcurrentLinkedQueue<PooledConnection> idle = new ConcurrentLinkedQueue<>();
+
+    /** All open connections, idle and borrowed. */
+    private final Set<PooledConnection> all = ConcurrentHashMap.newKeySet();
+
+    /** Whether the pool is closed. */
+    private volatile boolean closed;
+
+    /** Number of connections currently borrowed. */
+    private final AtomicInteger active = new AtomicInteger();
+
+    /** Number of borrowed connections. */
+    private final LongAdder borrowCnt = new LongAdder();
+
+    /** Total wait time in nanoseconds. */
+    private final LongAdder waitTime = new LongAdder();
+
+    /** Maximum wait time in nanoseconds. */
+    private final LongAccumulator maxWaitTime = new LongAccumulator(Math::max, 0);
+
+    /** Statement cache hits. */
+    private final LongAdder stmtHits = new LongAdder();
+
+    /** Statement cache misses. */
+    private final LongAdder stmtMisses = new LongAdder();
+
+    /** Registered MBean name. */
+    private ObjectName mbeanName;
+
+    /**
+     * Creates pool of connections to H2 database with default settings.
+     *
+     * @param url JDBC URL.
+     * @param user User name.
+     * @param pwd Password.
+     */
+    public PooledDataSource(String url, String user, String pwd) {
+        this(h2DataSource(url, user, pwd), DFLT_MAX_CONNECTIONS, DFLT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * @param dataSrc Underlying data source to open physical connections with.
+     * @param maxConns Maximum number of connections.
+     * @param stmtCacheSize Maximum number of cached statements per connection.
+     */
+    public PooledDataSource(DataSource dataSrc, int maxConns, int stmtCacheSize) {
+        this.dataSrc = dataSrc;
+        this.maxConns = maxConns;
+        this.stmtCacheSize = stmtCacheSize;
+
+        permits = new Semaphore(maxConns, true);
+    }
+
+    /**
+     * @param url JDBC URL.
+     * @param user User name.
+     * @param pwd Password.
+     * @return H2 data source.
+     */
+    private static DataSource h2DataSource(String url, String user, String pwd) {
+        JdbcDataSource dataSrc = new JdbcDataSource();
+
+        dataSrc.setURL(url);
+        dataSrc.setUser(user);
+        dataSrc.setPassword(pwd);
+
+        return dataSrc;
+    }
+
+    /**
+     * @return Connection wait timeout in milliseconds.
+     */
+    public long getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    /**
+     * @param waitTimeout Connection wait timeout in milliseconds.
+     */
+    public void setWaitTimeout(long waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Connection getConnection() throws SQLException {
+        if (closed)
+            throw new SQLException("Connection pool is closed.");
+
+        long start = System.nanoTime();
+
+        try {
+            if (!permits.tryAcquire(waitTimeout, TimeUnit.MILLISECONDS))
+                throw new SQLException("Timed out waiting for a pooled connection [maxConnections=" + maxConns + ']');
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new SQLException("Interrupted while waiting for a pooled connection.", e);
+        }
+
+        long waited = System.nanoTime() - start;
+
+        waitTime.add(waited);
+        maxWaitTime.accumulate(waited);
+        borrowCnt.increment();
+
+        PooledConnection conn = idle.poll();
+
+        try {
+            if (conn == null) {
+                conn = new PooledConnection(dataSrc.getConnection());
+
+                all.add(conn);
+            }
+
+            // Connection opened concurrently with close() would never be closed.
+            if (closed) {
+                conn.closePhysical();
+
+                throw new SQLException("Connection pool is closed.");
+            }
+        }
+        catch (SQLException | RuntimeException e) {
+            permits.release();
+
+            throw e;
+        }
+
+        active.incrementAndGet();
+
+        return conn.borrow();
+    }
+
+    /** {@inheritDoc} */
+    @Override public Connection getConnection(String user, String pwd) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections are opened with configured credentials.");
+    }
+
+    /**
+     * Returns connection to the pool.
+     *
+     * @param conn Connection.
+     */
+    private void release(PooledConnection conn) {
+        active.decrementAndGet();
+
+        try {
+            if (closed) {
+                conn.closePhysical();
+
+                return;
+            }
+
+            // Do not leak unfinished transactions to the next borrower.
+            if (!conn.conn.getAutoCommit()) {
+                conn.conn.rollback();
+                conn.conn.setAutoCommit(true);
+            }
+
+            idle.offer(conn);
+
+            // Pool could be closed after the check, the connection would stay idle forever.
+            if (closed && idle.remove(conn))
+                conn.closePhysical();
+        }
+        catch (SQLException ignored) {
+            conn.closePhysical();
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes all connections, borrowed ones included, and rejects further borrowing.
+     */
+    public void close() {
+        closed = true;
+
+        idle.clear();
+
+        for (PooledConnection conn : all)
+            conn.closePhysical();
+    }
+
+    /**
+     * Registers this pool as {@link PooledDataSourceMXBean}.
+     *
+     * @param name Pool name.
+     */
+    public synchronized void registerMBean(String name) {
+        if (mbeanName != null)
+            return;
+
+        try {
+            MBeanServer srv = ManagementFactory.getPlatformMBeanServer();
+
+            ObjectName objName = new ObjectName("org.apache.ignite.examples:type=PooledDataSource,name=" +
+                ObjectName.quote(name + '@' + Integer.toHexString(System.identityHashCode(this))));
+
+            srv.registerMBean(this, objName);
+
+            mbeanName = objName;
+        }
+        catch (JMException e) {
+            throw new IgniteException("Failed to register pool MBean [name=" + name + ']', e);
+        }
+    }
+
+    /**
+     * Unregisters this pool MBean if it was registered.
+     */
+    public synchronized void unregisterMBean() {
+        if (mbeanName == null)
+            return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+        }
+        catch (JMException ignored) {
+            // No-op.
+        }
+
+        mbeanName = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getMaxConnections() {
+        return maxConns;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getActiveConnections() {
+        return active.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getBorrowCount() {
+        return borrowCnt.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getAverageWaitTime() {
+        long cnt = borrowCnt.sum();
+
+        return cnt == 0 ? 0 : waitTime.sum() / 1e6 / cnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getMaxWaitTime() {
+        return maxWaitTime.get() / 1e6;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getStatementCacheHits() {
+        return stmtHits.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getStatementCacheMisses() {
+        return stmtMisses.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getStatementCacheHitRatio() {
+        long hits = stmtHits.sum();
+        long total = hits + stmtMisses.sum();
+
+        return total == 0 ? 0 : (double)hits / total;
+    }
+
+    /** {@inheritDoc} */
+    @Override public PrintWriter getLogWriter() throws SQLException {
+        return dataSrc.getLogWriter();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setLogWriter(PrintWriter out) throws SQLException {
+        dataSrc.setLogWriter(out);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setLoginTimeout(int seconds) throws SQLException {
+        dataSrc.setLoginTimeout(seconds);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getLoginTimeout() throws SQLException {
+        return dataSrc.getLoginTimeout();
+    }
+
+    /** {@inheritDoc} */
+    @Override public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return dataSrc.getParentLogger();
+    }
+
+    /** {@inheritDoc} */
+    @Override public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this))
+            return iface.cast(this);
+
+        return dataSrc.unwrap(iface);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || dataSrc.isWrapperFor(iface);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "PooledDataSource [maxConnections=" + maxConns +
+            ", active=" + getActiveConnections() +
+            ", idle=" + getIdleConnections() +
+            ", borrowed=" + getBorrowCount() +
+            ", avgWaitMs=" + String.format("%.3f", getAverageWaitTime()) +
+            ", maxWaitMs=" + String.format("%.3f", getMaxWaitTime()) +
+            ", stmtCacheHitRatio=" + String.format("%.2f", getStatementCacheHitRatio()) + ']';
+    }
+
+    /**
+     * Invokes method on the target unwrapping reflection exceptions.
+     *
+     * @param target Target.
+     * @param mtd Method.
+     * @param args Arguments.
+     * @return Invocation result.
+     * @throws Throwable If invoked method failed.
+     */
+    private static Object invoke(Object target, Method mtd, Object[] args) throws Throwable {
+        try {
+            return mtd.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Physical connection with its statement cache.
+     */
+    private class PooledConnection {
+        /** Physical connection. */
+        private final Connection conn;
+
+        /** Cached physical statements in LRU order. */
+        private final Map<String, PreparedStatement> stmts =
+            new LinkedHashMap<String, PreparedStatement>(16, .75f, true) {
+                @Override protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= stmtCacheSize)
+                        return false;
+
+                    try {
+                        eldest.getValue().close();
+                    }
+                    catch (SQLException ignored) {
+                        // No-op.
+                    }
+
+                    return true;
+                }
+            };
+
+        /**
+         * @param conn Physical connection.
+         */
+        PooledConnection(Connection conn) {
+            this.conn = conn;
+        }
+
+        /**
+         * @return Connection handle which returns the connection to the pool on close.
+         */
+        Connection borrow() {
+            return (Connection)Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new InvocationHandler() {
+                    /** Whether this handle was closed. */
+                    private boolean closed;
+
+                    @Override public Object invoke(Object proxy, Method mtd, Object[] args) throws Throwable {
+                        switch (mtd.getName()) {
+                            case "close":
+                                if (!closed) {
+                                    closed = true;
+
+                                    release(PooledConnection.this);
+                                }
+
+                                return null;
+
+                            case "isClosed":
+                                return closed || conn.isClosed();
+
+                            case "equals":
+                                return proxy == args[0];
+
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+
+                            case "prepareStatement":
+                                if (closed)
+                                    throw new SQLException("Connection is closed.");
+
+                                if (args.length == 1)
+                                    return statement((String)args[0], (Connection)proxy);
+
+                                break;
+
+                            default:
+                                if (closed && !"toString".equals(mtd.getName()))
+                                    throw new SQLException("Connection is closed.");
+                        }
+
+                        return PooledDataSource.invoke(conn, mtd, args);
+                    }
+                });
+        }
+
+        /**
+         * @param sql SQL.
+         * @param handle Connection handle the statement is prepared with.
+         * @return Cached statement handle which is not closed on {@link PreparedStatement#close()}.
+         * @throws SQLException If failed to prepare statement.
+         */
+        private PreparedStatement statement(String sql, Connection handle) throws SQLException {
+            PreparedStatement stmt = stmts.get(sql);
+
+            // Statement may have been closed by the driver or bypassing the handle, prepare it again.
+            if (stmt != null && stmt.isClosed()) {
+                stmts.remove(sql);
+
+                stmt = null;
+            }
+
+            if (stmt != null)
+                stmtHits.increment();
+            else {
+                stmtMisses.increment();
+
+                stmt = conn.prepareStatement(sql);
+
+                stmts.put(sql, stmt);
+            }
+
+            final PreparedStatement physical = stmt;
+
+            return (PreparedStatement)Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, new InvocationHandler() {
+                    @Override public Object invoke(Object proxy, Method mtd, Object[] args) throws Throwable {
+                        switch (mtd.getName()) {
+                            case "close":
+                                // Keep statement prepared for the next borrower.
+                                if (!physical.isClosed()) {
+                                    physical.clearParameters();
+                                    physical.clearBatch();
+                                }
+
+                                return null;
+
+                            case "isClosed":
+                                return physical.isClosed();
+
+                            case "getConnection":
+                                // Physical connection must not be closed by the caller bypassing the pool.
+                                return handle;
+
+                            default:
+                                return PooledDataSource.invoke(physical, mtd, args);
+                        }
+                    }
+                });
+        }
+
+        /**
+         * Closes physical connection.
+         */
+        void closePhysical() {
+            all.remove(this);
+
+            // Statements are closed with the connection. Cache is not cleared, it may be in use by the borrower.
+            try {
+                conn.close();
+            }
+            catch (SQLException ignored) {
+                // No-op.
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store;
+
+/**
+ * Metrics of {@link PooledDataSource} exposed through JMX.
+ */
+public interface PooledDataSourceMXBean {
+    /**
+     * @return Maximum number of connections in the pool.
+     */
+    int getMaxConnections();
+
+    /**
+     * @return Number of connections currently borrowed from the pool.
+     */
+    int getActiveConnections();
+
+    /**
+     * @return Number of opened connections currently waiting in the pool.
+     */
+    int getIdleConnections();
+
+    /**
+     * @return Total number of borrowed connections.
+     */
+    long getBorrowCount();
+
+    /**
+     * @return Average time spent waiting for a connection in milliseconds.
+     */
+    double getAverageWaitTime();
+
+    /**
+     * @return Maximum time spent waiting for a connection in milliseconds.
+     */
+    double getMaxWaitTime();
+
+    /**
+     * @return Number of prepared statements found in the statement cache.
+     */
+    long getStatementCacheHits();
+
+    /**
+     * @return Number of prepared statements which had to be prepared by the database.
+     */
+    long getStatementCacheMisses();
+
+    /**
+     * @return Ratio of statement cache hits to all prepared statement requests.
+     */
+    double getStatementCacheHitRatio();
+}
@@ -39,7 +39,8 @@ import org.h2.jdbcx.JdbcConnectionPool;
 /**
  * Demonstrates usage of cache with underlying persistent store configured.
  * <p>
- * This example uses {@link CacheJdbcPojoStore} as a persistent store.
+ * This example uses {@link CacheJdbcPojoStore} as a persistent store. The same store with a write-behind
+ * queue is demonstrated by {@link CacheWriteBehindLoadGenerator}.
  * <p>
  * To start the example, you should:
  * <ul>
@@ -73,7 +74,7 @@ public class CacheAutoStoreExample {
     /**
      * Configure cache with store.
      */
-    private static CacheConfiguration<Long, Person> cacheConfiguration() {
+    static CacheConfiguration<Long, Person> cacheConfiguration() {
         CacheConfiguration<Long, Person> cfg = new CacheConfiguration<>(CACHE_NAME);
 
         CacheJdbcPojoStoreExampleFactory storeFactory = new CacheJdbcPojoStoreExampleFactory();
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.auto;
+
+import static org.apache.ignite.cache.CacheAtomicityMode.ATOMIC;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.cache.CacheException;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.store.jdbc.CacheJdbcPojoStoreFactory;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.examples.model.Person;
+import org.apache.ignite.examples.util.DbH2ServerStartup;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+/**
+ * Load generator which updates persons through {@link CacheWriteBehindPojoStore} at a fixed rate and
+ * prints write-behind metrics every second.
+ * <p>
+ * Updates are spread over a limited key range, so that the same keys are updated several times between
+ * flushes and the coalescing ratio grows above one. The store rejects new keys once its queue reaches the
+ * high-water mark, so writers apply backpressure themselves: they pause while the queue is close to the mark
+ * and retry rejected updates. If the database can not keep up with the update rate, the achieved rate drops
+ * below the target one.
+ * <p>
+ * Target rate in updates per second, duration in seconds and key range can be passed as arguments,
+ * defaults are {@code 50000 30 100000}. The generator starts H2 database TCP server and populates it
+ * unless the server is already running.
+ */
+public class CacheWriteBehindLoadGenerator {
+    /** Number of writer threads. */
+    private static final int THREAD_CNT = 4;
+
+    /** Metrics print interval in milliseconds. */
+    private static final long PRINT_INTERVAL = 1_000;
+
+    /** Write-behind flush frequency in milliseconds. */
+    private static final long FLUSH_FREQUENCY = 500;
+
+    /** Number of updates after which a writer checks the queue size. */
+    private static final int QUEUE_CHECK_INTERVAL = 64;
+
+    /** Writer pause while the queue is close to the high-water mark, in milliseconds. */
+    private static final long BACKPRESSURE_PAUSE = 5;
+
+    /**
+     * Executes load generator.
+     *
+     * @param args Command line arguments: target rate, duration in seconds and key range, all optional.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        final int rate = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        final int duration = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        final int keyRange = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        DbH2ServerStartup.startDatabase();
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Write-behind load generator started [rate=" + rate + ", duration=" + duration +
+                "s, keyRange=" + keyRange + ", threads=" + THREAD_CNT + ']');
+
+            CacheConfiguration<Long, Person> cacheCfg = cacheConfiguration();
+
+            try (final IgniteCache<Long, Person> cache = ignite.getOrCreateCache(cacheCfg)) {
+                final CacheWriteBehindStoreMXBean mxBean = storeMXBean();
+
+                final LongAdder updates = new LongAdder();
+                final LongAdder pauses = new LongAdder();
+                final LongAdder retries = new LongAdder();
+
+                final long start = System.nanoTime();
+                final long end = start + TimeUnit.SECONDS.toNanos(duration);
+
+                List<Thread> writers = new ArrayList<>();
+
+                for (int i = 0; i < THREAD_CNT; i++) {
+                    Thread t = new Thread(new Runnable() {
+                        @Override public void run() {
+                            generate(cache, mxBean, rate / THREAD_CNT, keyRange, end, updates, pauses, retries);
+                        }
+                    }, "write-behind-load-" + i);
+
+                    t.start();
+
+                    writers.add(t);
+                }
+
+                long prevUpdates = 0;
+                long prevFlushed = 0;
+
+                while (System.nanoTime() < end) {
+                    Thread.sleep(PRINT_INTERVAL);
+
+                    long curUpdates = updates.sum();
+                    long curFlushed = mxBean.getFlushedCount();
+
+                    System.out.println(">>> updates/s=" + (curUpdates - prevUpdates) +
+                        ", flushedRows/s=" + (curFlushed - prevFlushed) +
+                        ", queue=" + mxBean.getQueueSize() +
+                        ", coalescing=" + String.format("%.2f", mxBean.getCoalescingRatio()) +
+                        ", avgFlushMs=" + String.format("%.2f", mxBean.getAverageFlushLatency()) +
+                        ", maxFlushMs=" + String.format("%.2f", mxBean.getMaxFlushLatency()) +
+                        ", rejectedWrites=" + mxBean.getRejectedWriteCount() +
+                        ", writerPauses=" + pauses.sum() +
+                        ", retries=" + retries.sum());
+
+                    prevUpdates = curUpdates;
+                    prevFlushed = curFlushed;
+                }
+
+                for (Thread t : writers)
+                    t.join();
+
+                System.out.println();
+                long elapsed = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+                System.out.println(">>> Achieved rate: " + updates.sum() * 1000 / elapsed + " updates/s (target " +
+                    rate + ')');
+                System.out.println(">>> Flush latency bounds (ms): " + Arrays.toString(mxBean.getFlushLatencyBounds()));
+                System.out.println(">>> Flush latency histogram:   " +
+                    Arrays.toString(mxBean.getFlushLatencyHistogram()));
+            }
+            finally {
+                ignite.destroyCache(cacheCfg.getName());
+            }
+        }
+    }
+
+    /**
+     * Configures cache of {@link CacheAutoStoreExample} with {@link CacheWriteBehindPojoStore}.
+     *
+     * @return Cache configuration.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static CacheConfiguration<Long, Person> cacheConfiguration() {
+        CacheConfiguration<Long, Person> cfg = CacheAutoStoreExample.cacheConfiguration();
+
+        CacheJdbcPojoStoreFactory<Long, Person> syncFactory =
+            (CacheJdbcPojoStoreFactory)cfg.getCacheStoreFactory();
+
+        CacheWriteBehindPojoStoreFactory<Long, Person> storeFactory = new CacheWriteBehindPojoStoreFactory<>();
+
+        storeFactory.setDialect(syncFactory.getDialect());
+        storeFactory.setTypes(syncFactory.getTypes());
+        storeFactory.setDataSourceFactory(
+            () -> JdbcConnectionPool.create("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", ""));
+
+        storeFactory.setName(CacheAutoStoreExample.CACHE_NAME);
+        storeFactory.setFlushFrequency(FLUSH_FREQUENCY);
+
+        cfg.setCacheStoreFactory(storeFactory);
+
+        // Writers should not pay for transactions, the store batches their updates anyway.
+        cfg.setAtomicityMode(ATOMIC);
+
+        return cfg;
+    }
+
+    /**
+     * Updates random persons at the given rate until the end time. Pauses while the write-behind queue is
+     * close to the high-water mark and retries updates rejected by the store.
+     *
+     * @param cache Cache.
+     * @param mxBean Store MBean.
+     * @param rate Updates per second.
+     * @param keyRange Key range.
+     * @param end End time in nanoseconds.
+     * @param updates Update counter.
+     * @param pauses Writer pause counter.
+     * @param retries Retried update counter.
+     */
+    private static void generate(IgniteCache<Long, Person> cache, CacheWriteBehindStoreMXBean mxBean, int rate,
+        int keyRange, long end, LongAdder updates, LongAdder pauses, LongAdder retries) {
+        long period = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+
+        // Every writer may add up to the check interval of new keys between two checks.
+        int pauseMark = Math.max(mxBean.getFlushSize(), mxBean.getHighWaterMark() - THREAD_CNT * QUEUE_CHECK_INTERVAL);
+
+        long next = System.nanoTime();
+
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        for (int n = 0; System.nanoTime() < end; n++) {
+            if (n % QUEUE_CHECK_INTERVAL == 0) {
+                while (mxBean.getQueueSize() >= pauseMark && System.nanoTime() < end) {
+                    pauses.increment();
+
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(BACKPRESSURE_PAUSE));
+                }
+            }
+
+            long id = rnd.nextInt(keyRange);
+
+            Person person = new Person(id, "First" + id, "Last" + rnd.nextInt(1000));
+
+            while (true) {
+                try {
+                    cache.put(id, person);
+
+                    break;
+                }
+                catch (CacheException e) {
+                    if (System.nanoTime() >= end)
+                        return;
+
+                    // Rejected by the full queue, wait for the flusher.
+                    retries.increment();
+
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(BACKPRESSURE_PAUSE));
+                }
+            }
+
+            updates.increment();
+
+            next += period;
+
+            long delay = next - System.nanoTime();
+
+            // Writers behind schedule do not sleep, so time spent paused shows up as a lower achieved rate.
+            if (delay > 0)
+                LockSupport.parkNanos(delay);
+        }
+    }
+
+    /**
+     * @return Proxy of the store MBean registered by the local node.
+     * @throws Exception If failed.
+     */
+    private static CacheWriteBehindStoreMXBean storeMXBean() throws Exception {
+        MBeanServer srv = ManagementFactory.getPlatformMBeanServer();
+
+        Set<ObjectName> names = srv.queryNames(
+            new ObjectName("org.apache.ignite.examples:type=CacheWriteBehindStore,*"), null);
+
+        String prefix = "\"" + CacheAutoStoreExample.CACHE_NAME + '@';
+
+        for (ObjectName name : names) {
+            if (name.getKeyProperty("name").startsWith(prefix))
+                return JMX.newMXBeanProxy(srv, name, CacheWriteBehindStoreMXBean.class);
+        }
+
+        throw new IgniteException("Write-behind store MBean is not registered [cache=" +
+            CacheAutoStoreExample.CACHE_NAME + ']');
+    }
+}
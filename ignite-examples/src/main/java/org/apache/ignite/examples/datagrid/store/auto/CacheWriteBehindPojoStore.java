@@ -0,0 +1,670 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.auto;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.cache.Cache;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CacheWriterException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.cache.store.CacheStoreSession;
+import org.apache.ignite.cache.store.jdbc.CacheJdbcPojoStore;
+import org.apache.ignite.transactions.Transaction;
+
+/**
+ * {@link CacheJdbcPojoStore} with instrumented write-behind.
+ * <p>
+ * Updates and removals received from the cache are not written to the database right away, but put into a
+ * queue keyed by cache key, so that repeated updates of the same key are coalesced and only the latest value
+ * reaches the database. A background thread flushes the queue in batches of {@link #getFlushSize()} keys with
+ * {@link CacheJdbcPojoStore#writeAll(Collection)} and {@link CacheJdbcPojoStore#deleteAll(Collection)} when the
+ * queue reaches the flush size or every {@link #getFlushFrequency()} milliseconds, whichever comes first. When
+ * the queue reaches {@link #getHighWaterMark()} keys, writes of new keys are rejected with
+ * {@link CacheWriterException}, so that a database slower than the update rate does not exhaust the heap.
+ * The store is called on Ignite threads which must not block, so backpressure is left to the callers: they
+ * can watch {@link #getQueueSize()} and slow down before the high-water mark is reached.
+ * <p>
+ * Queued values are returned by {@code load(...)} and {@code loadAll(...)}. As with the built-in write-behind,
+ * values are accepted when a transaction commits and can not be rolled back by the database afterwards; entries
+ * of a failed batch are queued again and retried on the next flush.
+ * <p>
+ * Queue depth, coalescing ratio, rejected writes and flush latency histogram are exposed as
+ * {@link CacheWriteBehindStoreMXBean} while the store is started.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class CacheWriteBehindPojoStore<K, V> extends CacheJdbcPojoStore<K, V> implements CacheWriteBehindStoreMXBean {
+    /** Default flush size. */
+    public static final int DFLT_FLUSH_SIZE = 1_000;
+
+    /** Default flush frequency in milliseconds. */
+    public static final long DFLT_FLUSH_FREQUENCY = 1_000;
+
+    /** Default high-water mark. */
+    public static final int DFLT_HIGH_WATER_MARK = 50_000;
+
+    /** Upper bounds of flush latency histogram buckets in milliseconds. */
+    private static final long[] LATENCY_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000};
+
+    /** Marker of a queued removal. */
+    private static final Object TOMBSTONE = new Object();
+
+    /** Store name used for the MBean and the flusher thread. */
+    private String name = "default";
+
+    /** Flush size. */
+    private int flushSize = DFLT_FLUSH_SIZE;
+
+    /** Flush frequency in milliseconds. */
+    private long flushFreq = DFLT_FLUSH_FREQUENCY;
+
+    /** High-water mark. */
+    private int highWaterMark = DFLT_HIGH_WATER_MARK;
+
+    /** Latest queued value or {@link #TOMBSTONE} of every key waiting to be flushed. */
+    private final ConcurrentHashMap<K, Object> pending = new ConcurrentHashMap<>();
+
+    /** Values of the batch being flushed, visible to readers until they reach the database. */
+    private final ConcurrentHashMap<K, Object> inFlight = new ConcurrentHashMap<>();
+
+    /** Lock guarding flusher wake-ups. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Signalled when the queue has to be flushed. */
+    private final Condition flushNeeded = lock.newCondition();
+
+    /** Session used by the flusher thread. */
+    private final FlushSession flushSes = new FlushSession();
+
+    /** Flusher thread. */
+    private volatile Thread flusher;
+
+    /** Stopping flag. */
+    private volatile boolean stopping;
+
+    /** Whether a flush has been requested before the flush frequency elapsed. */
+    private volatile boolean flushRequested;
+
+    /** Registered MBean name. */
+    private ObjectName mbeanName;
+
+    /** Number of updates and removals received from the cache. */
+    private final LongAdder writeCnt = new LongAdder();
+
+    /** Number of rows written to or removed from the database. */
+    private final LongAdder flushedCnt = new LongAdder();
+
+    /** Number of flushed batches. */
+    private final LongAdder flushCnt = new LongAdder();
+
+    /** Number of failed batches. */
+    private final LongAdder flushErrCnt = new LongAdder();
+
+    /** Total flush time in nanoseconds. */
+    private final LongAdder flushNanos = new LongAdder();
+
+    /** Maximum flush time in nanoseconds. */
+    private volatile long maxFlushNanos;
+
+    /** Flush latency histogram. */
+    private final AtomicLongArray latencyHist = new AtomicLongArray(LATENCY_BOUNDS.length + 1);
+
+    /** Number of writes rejected because the queue reached the high-water mark. */
+    private final LongAdder rejectedCnt = new LongAdder();
+
+    /**
+     * @return Store name used for the MBean and the flusher thread.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name Store name used for the MBean and the flusher thread.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getFlushSize() {
+        return flushSize;
+    }
+
+    /**
+     * @param flushSize Number of queued keys which triggers a flush, also the maximum size of one batch.
+     */
+    public void setFlushSize(int flushSize) {
+        this.flushSize = flushSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getFlushFrequency() {
+        return flushFreq;
+    }
+
+    /**
+     * @param flushFreq Flush frequency in milliseconds.
+     */
+    public void setFlushFrequency(long flushFreq) {
+        this.flushFreq = flushFreq;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * @param highWaterMark Number of queued keys at which writes of new keys are rejected.
+     */
+    public void setHighWaterMark(int highWaterMark) {
+        this.highWaterMark = highWaterMark;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void start() throws IgniteException {
+        super.start();
+
+        if (highWaterMark < flushSize)
+            throw new IgniteException("High-water mark must not be less than flush size [highWaterMark=" +
+                highWaterMark + ", flushSize=" + flushSize + ']');
+
+        stopping = false;
+
+        Thread t = new Thread(new Runnable() {
+            @Override public void run() {
+                flushLoop();
+            }
+        }, "write-behind-flusher-" + name);
+
+        t.setDaemon(true);
+
+        flusher = t;
+
+        t.start();
+
+        try {
+            mbeanName = new ObjectName("org.apache.ignite.examples:type=CacheWriteBehindStore,name=" +
+                ObjectName.quote(name + '@' + Integer.toHexString(System.identityHashCode(this))));
+
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, mbeanName);
+        }
+        catch (JMException e) {
+            throw new IgniteException("Failed to register write-behind store MBean [name=" + name + ']', e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void stop() throws IgniteException {
+        stopping = true;
+
+        Thread t = flusher;
+
+        if (t != null) {
+            signalFlush();
+
+            try {
+                t.join();
+            }
+            catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+
+            flusher = null;
+        }
+
+        if (mbeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+            }
+            catch (JMException ignored) {
+                // No-op.
+            }
+
+            mbeanName = null;
+        }
+
+        System.out.println(">>> Write-behind store statistics [name=" + name + "]: " + this);
+
+        super.stop();
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override public V load(K key) throws CacheLoaderException {
+        Object val = queued(key);
+
+        if (val == null)
+            return super.load(key);
+
+        return val == TOMBSTONE ? null : (V)val;
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override public Map<K, V> loadAll(Iterable<? extends K> keys) throws CacheLoaderException {
+        Map<K, V> res = new HashMap<>();
+
+        List<K> missing = new ArrayList<>();
+
+        for (K key : keys) {
+            Object val = queued(key);
+
+            if (val == null)
+                missing.add(key);
+            else if (val != TOMBSTONE)
+                res.put(key, (V)val);
+        }
+
+        if (!missing.isEmpty())
+            res.putAll(super.loadAll(missing));
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void write(Cache.Entry<? extends K, ? extends V> entry) throws CacheWriterException {
+        enqueue(entry.getKey(), entry.getValue());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeAll(Collection<Cache.Entry<? extends K, ? extends V>> entries)
+        throws CacheWriterException {
+        for (Cache.Entry<? extends K, ? extends V> entry : entries)
+            enqueue(entry.getKey(), entry.getValue());
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override public void delete(Object key) throws CacheWriterException {
+        enqueue((K)key, TOMBSTONE);
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    @Override public void deleteAll(Collection<?> keys) throws CacheWriterException {
+        for (Object key : keys)
+            enqueue((K)key, TOMBSTONE);
+    }
+
+    /**
+     * The flusher thread writes outside of any cache operation, so it gets a session of its own
+     * which only knows the cache name. Without a transaction the store opens a connection per batch.
+     */
+    @Override protected CacheStoreSession session() {
+        return Thread.currentThread() == flusher ? flushSes : super.session();
+    }
+
+    /**
+     * @param key Key.
+     * @return Queued value, {@link #TOMBSTONE} for a queued removal or {@code null} if the key is not queued.
+     */
+    private Object queued(K key) {
+        Object val = pending.get(key);
+
+        return val != null ? val : inFlight.get(key);
+    }
+
+    /**
+     * Queues value of the key.
+     *
+     * @param key Key.
+     * @param val Value or {@link #TOMBSTONE}.
+     * @throws CacheWriterException If the queue reached the high-water mark.
+     */
+    private void enqueue(K key, Object val) throws CacheWriterException {
+        if (flushSes.cacheName == null)
+            flushSes.cacheName = super.session().cacheName();
+
+        // Updates of already queued keys do not grow the queue and are never rejected.
+        if (pending.size() >= highWaterMark && !pending.containsKey(key)) {
+            rejectedCnt.increment();
+
+            signalFlush();
+
+            throw new CacheWriterException("Write-behind queue is full [name=" + name +
+                ", highWaterMark=" + highWaterMark + ", key=" + key + ']');
+        }
+
+        pending.put(key, val);
+
+        writeCnt.increment();
+
+        if (pending.size() >= flushSize && !flushRequested) {
+            flushRequested = true;
+
+            signalFlush();
+        }
+    }
+
+    /**
+     * Wakes up the flusher.
+     */
+    private void signalFlush() {
+        lock.lock();
+
+        try {
+            flushNeeded.signal();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the queue until the store is stopped, then flushes the rest of it.
+     */
+    private void flushLoop() {
+        while (!stopping) {
+            lock.lock();
+
+            try {
+                if (pending.size() < flushSize && !stopping)
+                    flushNeeded.await(flushFreq, TimeUnit.MILLISECONDS);
+
+                flushRequested = false;
+            }
+            catch (InterruptedException ignored) {
+                break;
+            }
+            finally {
+                lock.unlock();
+            }
+
+            flushPending();
+        }
+
+        flushPending();
+    }
+
+    /**
+     * Flushes all currently queued keys in batches of {@link #getFlushSize()} keys.
+     */
+    private void flushPending() {
+        while (!pending.isEmpty()) {
+            Map<K, Object> batch = new HashMap<>();
+
+            for (Iterator<Map.Entry<K, Object>> it = pending.entrySet().iterator();
+                 it.hasNext() && batch.size() < flushSize; ) {
+                Map.Entry<K, Object> e = it.next();
+
+                K key = e.getKey();
+                Object val = e.getValue();
+
+                // Publish the value to readers before it leaves the queue.
+                inFlight.put(key, val);
+
+                if (pending.remove(key, val))
+                    batch.put(key, val);
+                else
+                    inFlight.remove(key, val);
+            }
+
+            boolean ok = flushBatch(batch);
+
+            for (Map.Entry<K, Object> e : batch.entrySet())
+                inFlight.remove(e.getKey(), e.getValue());
+
+            // Do not spin on a failing database, retry on the next tick.
+            if (!ok)
+                return;
+        }
+    }
+
+    /**
+     * Writes one batch to the database. On failure, entries which have not been updated in the meantime
+     * are queued again.
+     *
+     * @param batch Batch.
+     * @return {@code True} if the batch was written.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean flushBatch(Map<K, Object> batch) {
+        if (batch.isEmpty())
+            return true;
+
+        Collection<Cache.Entry<? extends K, ? extends V>> writes = new ArrayList<>(batch.size());
+        Collection<K> deletes = new ArrayList<>();
+
+        for (Map.Entry<K, Object> e : batch.entrySet()) {
+            if (e.getValue() == TOMBSTONE)
+                deletes.add(e.getKey());
+            else
+                writes.add(new Entry<>(e.getKey(), (V)e.getValue()));
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            if (!writes.isEmpty())
+                super.writeAll(writes);
+
+            if (!deletes.isEmpty())
+                super.deleteAll(deletes);
+        }
+        catch (RuntimeException e) {
+            flushErrCnt.increment();
+
+            for (Map.Entry<K, Object> entry : batch.entrySet())
+                pending.putIfAbsent(entry.getKey(), entry.getValue());
+
+            System.err.println(">>> Failed to flush write-behind batch, will retry [name=" + name +
+                ", size=" + batch.size() + ", err=" + e + ']');
+
+            return false;
+        }
+
+        long dur = System.nanoTime() - start;
+
+        flushCnt.increment();
+        flushedCnt.add(batch.size());
+        flushNanos.add(dur);
+
+        if (dur > maxFlushNanos)
+            maxFlushNanos = dur;
+
+        long durMs = TimeUnit.NANOSECONDS.toMillis(dur);
+
+        int bucket = 0;
+
+        while (bucket < LATENCY_BOUNDS.length && durMs >= LATENCY_BOUNDS[bucket])
+            bucket++;
+
+        latencyHist.incrementAndGet(bucket);
+
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getQueueSize() {
+        return pending.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getWriteCount() {
+        return writeCnt.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getFlushedCount() {
+        return flushedCnt.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getCoalescingRatio() {
+        long flushed = flushedCnt.sum();
+
+        // Updates still in the queue are not counted, they have not been coalesced yet.
+        return flushed == 0 ? 0 : (double)(writeCnt.sum() - pending.size()) / flushed;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getFlushCount() {
+        return flushCnt.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getFlushErrorCount() {
+        return flushErrCnt.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getAverageFlushLatency() {
+        long cnt = flushCnt.sum();
+
+        return cnt == 0 ? 0 : flushNanos.sum() / 1_000_000d / cnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getMaxFlushLatency() {
+        return maxFlushNanos / 1_000_000d;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long[] getFlushLatencyBounds() {
+        return LATENCY_BOUNDS.clone();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long[] getFlushLatencyHistogram() {
+        long[] res = new long[latencyHist.length()];
+
+        for (int i = 0; i < res.length; i++)
+            res[i] = latencyHist.get(i);
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getRejectedWriteCount() {
+        return rejectedCnt.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "CacheWriteBehindPojoStore [queueSize=" + getQueueSize() +
+            ", writes=" + getWriteCount() +
+            ", flushed=" + getFlushedCount() +
+            ", coalescingRatio=" + String.format("%.2f", getCoalescingRatio()) +
+            ", flushes=" + getFlushCount() +
+            ", flushErrors=" + getFlushErrorCount() +
+            ", avgFlushMs=" + String.format("%.2f", getAverageFlushLatency()) +
+            ", maxFlushMs=" + String.format("%.2f", getMaxFlushLatency()) +
+            ", flushLatencyHistogram=" + Arrays.toString(getFlushLatencyHistogram()) +
+            ", rejectedWrites=" + getRejectedWriteCount() + ']';
+    }
+
+    /**
+     * Session of the flusher thread.
+     */
+    private static class FlushSession implements CacheStoreSession {
+        /** Cache name, known after the first write. */
+        private volatile String cacheName;
+
+        /** Properties. */
+        private final Map<Object, Object> props = new ConcurrentHashMap<>();
+
+        /** {@inheritDoc} */
+        @Override public Transaction transaction() {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean isWithinTransaction() {
+            return false;
+        }
+
+        /** {@inheritDoc} */
+        @Override public <T> T attach(Object attachment) {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override public <T> T attachment() {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override public <K, V> Map<K, V> properties() {
+            return (Map<K, V>)props;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String cacheName() {
+            return cacheName;
+        }
+    }
+
+    /**
+     * Cache entry passed to {@link CacheJdbcPojoStore#writeAll(Collection)}.
+     */
+    private static class Entry<K, V> implements Cache.Entry<K, V> {
+        /** Key. */
+        private final K key;
+
+        /** Value. */
+        private final V val;
+
+        /**
+         * @param key Key.
+         * @param val Value.
+         */
+        Entry(K key, V val) {
+            this.key = key;
+            this.val = val;
+        }
+
+        /** {@inheritDoc} */
+        @Override public K getKey() {
+            return key;
+        }
+
+        /** {@inheritDoc} */
+        @Override public V getValue() {
+            return val;
+        }
+
+        /** {@inheritDoc} */
+        @Override public <T> T unwrap(Class<T> cls) {
+            if (cls.isAssignableFrom(getClass()))
+                return cls.cast(this);
+
+            throw new IllegalArgumentException("Unwrapping to class is not supported: " + cls);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.auto;
+
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.cache.store.jdbc.CacheJdbcPojoStoreFactory;
+
+/**
+ * {@link CacheJdbcPojoStoreFactory} which creates {@link CacheWriteBehindPojoStore} configured with the
+ * same mappings and settings as the regular POJO store, plus write-behind settings. The data source is
+ * created with {@link #setDataSourceFactory(javax.cache.configuration.Factory)}.
+ * <p>
+ * Do not enable the built-in write-behind of the cache together with this store,
+ * as the updates would be queued twice.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class CacheWriteBehindPojoStoreFactory<K, V> extends CacheJdbcPojoStoreFactory<K, V> {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Store name used for the MBean. */
+    private String name = "default";
+
+    /** Flush size. */
+    private int flushSize = CacheWriteBehindPojoStore.DFLT_FLUSH_SIZE;
+
+    /** Flush frequency in milliseconds. */
+    private long flushFreq = CacheWriteBehindPojoStore.DFLT_FLUSH_FREQUENCY;
+
+    /** High-water mark. */
+    private int highWaterMark = CacheWriteBehindPojoStore.DFLT_HIGH_WATER_MARK;
+
+    /** {@inheritDoc} */
+    @Override public CacheWriteBehindPojoStore<K, V> create() {
+        CacheWriteBehindPojoStore<K, V> store = new CacheWriteBehindPojoStore<>();
+
+        store.setBatchSize(getBatchSize());
+        store.setDialect(getDialect());
+        store.setMaximumPoolSize(getMaximumPoolSize());
+        store.setMaximumWriteAttempts(getMaximumWriteAttempts());
+        store.setParallelLoadCacheMinimumThreshold(getParallelLoadCacheMinimumThreshold());
+        store.setTypes(getTypes());
+        store.setHasher(getHasher());
+        store.setTransformer(getTransformer());
+        store.setSqlEscapeAll(isSqlEscapeAll());
+
+        if (getDataSourceFactory() == null)
+            throw new IgniteException("Failed to create store, data source factory is not configured.");
+
+        store.setDataSource(getDataSourceFactory().create());
+
+        store.setName(name);
+        store.setFlushSize(flushSize);
+        store.setFlushFrequency(flushFreq);
+        store.setHighWaterMark(highWaterMark);
+
+        return store;
+    }
+
+    /**
+     * @param name Store name used for the MBean.
+     * @return {@code this} for chaining.
+     */
+    public CacheWriteBehindPojoStoreFactory<K, V> setName(String name) {
+        this.name = name;
+
+        return this;
+    }
+
+    /**
+     * @param flushSize Number of queued keys which triggers a flush.
+     * @return {@code this} for chaining.
+     */
+    public CacheWriteBehindPojoStoreFactory<K, V> setFlushSize(int flushSize) {
+        this.flushSize = flushSize;
+
+        return this;
+    }
+
+    /**
+     * @param flushFreq Flush frequency in milliseconds.
+     * @return {@code this} for chaining.
+     */
+    public CacheWriteBehindPojoStoreFactory<K, V> setFlushFrequency(long flushFreq) {
+        this.flushFreq = flushFreq;
+
+        return this;
+    }
+
+    /**
+     * @param highWaterMark Number of queued keys at which writes of new keys are rejected.
+     * @return {@code this} for chaining.
+     */
+    public CacheWriteBehindPojoStoreFactory<K, V> setHighWaterMark(int highWaterMark) {
+        this.highWaterMark = highWaterMark;
+
+        return this;
+    }
+}
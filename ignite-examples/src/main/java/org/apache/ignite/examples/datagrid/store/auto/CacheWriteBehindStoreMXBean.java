@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.auto;
+
+/**
+ * Metrics of {@link CacheWriteBehindPojoStore} exposed through JMX.
+ */
+public interface CacheWriteBehindStoreMXBean {
+    /**
+     * @return Number of keys waiting to be flushed.
+     */
+    int getQueueSize();
+
+    /**
+     * @return Number of queued keys at which writes of new keys are rejected.
+     */
+    int getHighWaterMark();
+
+    /**
+     * @return Number of queued keys which triggers a flush before the flush frequency elapses.
+     */
+    int getFlushSize();
+
+    /**
+     * @return Flush frequency in milliseconds.
+     */
+    long getFlushFrequency();
+
+    /**
+     * @return Total number of updates and removals received from the cache.
+     */
+    long getWriteCount();
+
+    /**
+     * @return Total number of rows written to or removed from the database.
+     */
+    long getFlushedCount();
+
+    /**
+     * @return Number of updates received from the cache per row written to the database.
+     */
+    double getCoalescingRatio();
+
+    /**
+     * @return Total number of flushed batches.
+     */
+    long getFlushCount();
+
+    /**
+     * @return Total number of failed batches. Entries of a failed batch are queued again.
+     */
+    long getFlushErrorCount();
+
+    /**
+     * @return Average time of writing one batch to the database in milliseconds.
+     */
+    double getAverageFlushLatency();
+
+    /**
+     * @return Maximum time of writing one batch to the database in milliseconds.
+     */
+    double getMaxFlushLatency();
+
+    /**
+     * @return Upper bounds of flush latency histogram buckets in milliseconds, the last bucket is unbounded.
+     */
+    long[] getFlushLatencyBounds();
+
+    /**
+     * @return Number of batches in every flush latency histogram bucket.
+     */
+    long[] getFlushLatencyHistogram();
+
+    /**
+     * @return Total number of writes which were rejected because the queue reached the high-water mark.
+     */
+    long getRejectedWriteCount();
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.cache.Cache;
+import javax.cache.integration.CacheWriterException;
+
+import org.apache.ignite.cache.store.CacheStore;
+import org.apache.ignite.examples.model.Person;
+
+/**
+ * Example of {@link CacheStore} implementation that extends {@link CacheJdbcPersonStore}
+ * with batched {@link #writeAll(Collection)} and {@link #deleteAll(Collection)}.
+ * <p>
+ * Instead of an {@code update} followed by an {@code insert} for every entry, all entries
+ * of a flush are written with a single dialect-specific upsert statement which is sent to
+ * the database in JDBC batches of {@link #getBatchSize()} rows. Repeated keys within the
+ * same flush are coalesced, so that only the latest value of every key reaches the database.
+ */
+public class CacheJdbcBatchPersonStore extends CacheJdbcPersonStore {
+    /** Default number of rows sent to the database in one JDBC batch. */
+    public static final int DFLT_BATCH_SIZE = 512;
+
+    /**
+     * SQL dialect used to build the upsert statement.
+     */
+    public enum Dialect {
+        /** H2 {@code merge into ... key (...)} statement. */
+        H2("merge into PERSON (id, first_name, last_name) key (id) values (?, ?, ?)"),
+
+        /** PostgreSQL {@code insert ... on conflict} statement. */
+        POSTGRES("insert into PERSON (id, first_name, last_name) values (?, ?, ?) " +
+            "on conflict (id) do update set first_name = excluded.first_name, last_name = excluded.last_name");
+
+        /** Upsert SQL. */
+        private final String upsertSql;
+
+        /**
+         * @param upsertSql Upsert SQL.
+         */
+        Dialect(String upsertSql) {
+            this.upsertSql = upsertSql;
+        }
+
+        /**
+         * @return Upsert SQL with {@code id, first_name, last_name} parameters.
+         */
+        public String upsertSql() {
+            return upsertSql;
+        }
+    }
+
+    /** Number of rows sent to the database in one JDBC batch. */
+    private int batchSize = DFLT_BATCH_SIZE;
+
+    /** SQL dialect. */
+    private Dialect dialect = Dialect.H2;
+
+    /**
+     * @return Number of rows sent to the database in one JDBC batch.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize Number of rows sent to the database in one JDBC batch.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return SQL dialect.
+     */
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * @param dialect SQL dialect.
+     */
+    public void setDialect(Dialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeAll(Collection<Cache.Entry<? extends Long, ? extends Person>> entries) {
+        // Coalesce repeated keys, the last value wins.
+        Map<Long, Person> vals = new LinkedHashMap<>();
+
+        for (Cache.Entry<? extends Long, ? extends Person> entry : entries)
+            vals.put(entry.getKey(), entry.getValue());
+
+        System.out.println(">>> Store write all [entries=" + entries.size() + ", distinctKeys=" + vals.size() + ']');
+
+        Connection conn = ses.attachment();
+
+        try (PreparedStatement st = conn.prepareStatement(dialect.upsertSql())) {
+            int cnt = 0;
+
+            for (Map.Entry<Long, Person> e : vals.entrySet()) {
+                Person val = e.getValue();
+
+                st.setLong(1, e.getKey());
+                st.setString(2, val.firstName);
+                st.setString(3, val.lastName);
+
+                st.addBatch();
+
+                if (++cnt % batchSize == 0)
+                    st.executeBatch();
+            }
+
+            if (cnt % batchSize != 0)
+                st.executeBatch();
+        }
+        catch (SQLException e) {
+            throw new CacheWriterException("Failed to write objects [cnt=" + vals.size() + ']', e);
+        }
+
+        // All entries were written, nothing is left for the caller to retry.
+        entries.clear();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void deleteAll(Collection<?> keys) {
+        Set<Object> distinctKeys = new LinkedHashSet<>(keys);
+
+        System.out.println(">>> Store delete all [keys=" + keys.size() + ", distinctKeys=" + distinctKeys.size() + ']');
+
+        Connection conn = ses.attachment();
+
+        try (PreparedStatement st = conn.prepareStatement("delete from PERSON where id = ?")) {
+            int cnt = 0;
+
+            for (Object key : distinctKeys) {
+                st.setLong(1, (Long)key);
+
+                st.addBatch();
+
+                if (++cnt % batchSize == 0)
+                    st.executeBatch();
+            }
+
+            if (cnt % batchSize != 0)
+                st.executeBatch();
+        }
+        catch (SQLException e) {
+            throw new CacheWriterException("Failed to delete objects [cnt=" + distinctKeys.size() + ']', e);
+        }
+
+        keys.clear();
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.examples.model.Person;
+
+/**
+ * Keeps a cache in sync with {@code PERSON} table by polling changes recorded by {@link PersonChangeTrigger}.
+ * <p>
+ * Every poll fetches up to {@link #getMaxRowsPerPoll()} new changes with sequence numbers greater than the
+ * watermark, joined with the current state of changed rows. Changes of the same key are coalesced and only the
+ * changed keys are pushed through an {@link IgniteDataStreamer} with {@code allowOverwrite(true)}: rows which
+ * still exist are put, rows which no longer exist are removed. Number of changes and keys applied per poll, as
+ * well as the lag between the oldest applied change and the moment it reached the cache, are printed after every
+ * non-empty poll.
+ * <p>
+ * Sequence numbers are taken when rows are changed, not when transactions commit, so a change with a lower number
+ * may become visible after a higher one was polled. Hence the watermark only advances over contiguous sequence
+ * numbers: changes seen above a gap are remembered and skipped when fetched again, and the gap is re-scanned on
+ * every poll until it is filled or is older than {@link #getGapTimeout()}, since numbers taken by rolled back
+ * transactions are never filled.
+ */
+public class CacheJdbcChangePoller implements AutoCloseable {
+    /** Default poll interval in milliseconds. */
+    public static final long DFLT_POLL_INTERVAL = 1000;
+
+    /** Default maximum number of changes fetched in one poll. */
+    public static final int DFLT_MAX_ROWS_PER_POLL = 10_000;
+
+    /** Default time after which a gap in sequence numbers is skipped in milliseconds. */
+    public static final long DFLT_GAP_TIMEOUT = 60_000;
+
+    /** Changes query. */
+    private static final String CHANGES_QRY =
+        "select c.seq, c.id, c.changed_at, p.id, p.first_name, p.last_name from PERSON_CHANGES c " +
+        "left join PERSON p on p.id = c.id where c.seq > ? order by c.seq limit ?";
+
+    /** Data source. */
+    private final DataSource dataSrc;
+
+    /** Data streamer. */
+    private final IgniteDataStreamer<Long, Person> stmr;
+
+    /** Poll interval in milliseconds. */
+    private long pollInterval = DFLT_POLL_INTERVAL;
+
+    /** Maximum number of changes fetched in one poll. */
+    private int maxRowsPerPoll = DFLT_MAX_ROWS_PER_POLL;
+
+    /** Time after which a gap in sequence numbers is skipped in milliseconds. */
+    private long gapTimeout = DFLT_GAP_TIMEOUT;
+
+    /** Sequence number up to which all changes are applied or skipped. */
+    private volatile long lastSeq;
+
+    /** Applied changes above the watermark, mapped to the time they were seen. */
+    private final TreeMap<Long, Long> seenAbove = new TreeMap<>();
+
+    /** Total number of sequence numbers skipped after the gap timeout. */
+    private volatile long skippedSeqs;
+
+    /** Mutex to wait for the watermark. */
+    private final Object mux = new Object();
+
+    /** Total number of applied changes. */
+    private volatile long totalChanges;
+
+    /** Poll executor. */
+    private ScheduledExecutorService exec;
+
+    /**
+     * @param ignite Ignite instance.
+     * @param cacheName Name of the cache to keep in sync.
+     * @param dataSrc Data source.
+     */
+    public CacheJdbcChangePoller(Ignite ignite, String cacheName, DataSource dataSrc) {
+        this.dataSrc = dataSrc;
+
+        stmr = ignite.dataStreamer(cacheName);
+
+        // Existing entries must be updated, not skipped.
+        stmr.allowOverwrite(true);
+    }
+
+    /**
+     * @return Poll interval in milliseconds.
+     */
+    public long getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * @param pollInterval Poll interval in milliseconds.
+     */
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * @return Maximum number of changes fetched in one poll.
+     */
+    public int getMaxRowsPerPoll() {
+        return maxRowsPerPoll;
+    }
+
+    /**
+     * @param maxRowsPerPoll Maximum number of changes fetched in one poll.
+     */
+    public void setMaxRowsPerPoll(int maxRowsPerPoll) {
+        this.maxRowsPerPoll = maxRowsPerPoll;
+    }
+
+    /**
+     * @return Time after which a gap in sequence numbers is skipped in milliseconds.
+     */
+    public long getGapTimeout() {
+        return gapTimeout;
+    }
+
+    /**
+     * Sets time after which a gap in sequence numbers is skipped. It should be longer than the longest
+     * transaction changing {@code PERSON} table, otherwise changes of such transactions may be lost.
+     *
+     * @param gapTimeout Time after which a gap in sequence numbers is skipped in milliseconds.
+     */
+    public void setGapTimeout(long gapTimeout) {
+        this.gapTimeout = gapTimeout;
+    }
+
+    /**
+     * @return Sequence number up to which all changes are applied or skipped.
+     */
+    public long lastSequence() {
+        return lastSeq;
+    }
+
+    /**
+     * @return Total number of sequence numbers skipped after the gap timeout.
+     */
+    public long skippedSequences() {
+        return skippedSeqs;
+    }
+
+    /**
+     * Waits until all changes up to the given sequence number are applied.
+     *
+     * @param seq Sequence number.
+     * @param timeout Timeout in milliseconds.
+     * @return {@code True} if changes are applied, {@code false} on timeout.
+     * @throws InterruptedException If interrupted.
+     */
+    public boolean awaitSequence(long seq, long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+
+        synchronized (mux) {
+            while (lastSeq < seq) {
+                long rest = deadline - System.currentTimeMillis();
+
+                if (rest <= 0)
+                    return false;
+
+                mux.wait(rest);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Total number of applied changes.
+     */
+    public long totalChanges() {
+        return totalChanges;
+    }
+
+    /**
+     * Gets sequence number of the latest recorded change. Take it before a full reload of the cache
+     * and start polling from it, so that changes made during the reload are not lost.
+     *
+     * @return Sequence number of the latest recorded change.
+     */
+    public long currentSequence() {
+        try (Connection conn = dataSrc.getConnection();
+             PreparedStatement st = conn.prepareStatement("select coalesce(max(seq), 0) from PERSON_CHANGES")) {
+            ResultSet rs = st.executeQuery();
+
+            rs.next();
+
+            return rs.getLong(1);
+        }
+        catch (SQLException e) {
+            throw new IgniteException("Failed to get current change sequence.", e);
+        }
+    }
+
+    /**
+     * Starts polling changes on schedule.
+     *
+     * @param fromSeq Sequence number of the last change already reflected in the cache.
+     */
+    public synchronized void start(long fromSeq) {
+        if (exec != null)
+            throw new IllegalStateException("Poller is already started.");
+
+        lastSeq = fromSeq;
+
+        seenAbove.clear();
+
+        exec = Executors.newSingleThreadScheduledExecutor();
+
+        exec.scheduleWithFixedDelay(new Runnable() {
+            @Override public void run() {
+                try {
+                    int fetched;
+
+                    // Drain the backlog without waiting for the next tick.
+                    do {
+                        fetched = poll();
+                    }
+                    while (fetched >= maxRowsPerPoll);
+                }
+                catch (RuntimeException e) {
+                    System.err.println(">>> Failed to poll changes (will retry): " + e);
+                }
+            }
+        }, 0, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fetches and applies one batch of changes. Should not be called directly once the poller is started.
+     *
+     * @return Number of fetched new changes.
+     */
+    public int poll() {
+        long seq = lastSeq;
+
+        // Latest state of every changed key, null for removed rows.
+        Map<Long, Person> changes = new LinkedHashMap<>();
+
+        int rows = 0;
+
+        long oldest = Long.MAX_VALUE;
+
+        try (Connection conn = dataSrc.getConnection();
+             PreparedStatement st = conn.prepareStatement(CHANGES_QRY)) {
+            st.setLong(1, seq);
+
+            // Changes seen above a gap are fetched again.
+            st.setInt(2, maxRowsPerPoll + seenAbove.size());
+
+            ResultSet rs = st.executeQuery();
+
+            long now = System.currentTimeMillis();
+
+            while (rs.next()) {
+                long rowSeq = rs.getLong(1);
+
+                if (seenAbove.putIfAbsent(rowSeq, now) != null)
+                    continue;
+
+                long id = rs.getLong(2);
+
+                Timestamp changedAt = rs.getTimestamp(3);
+
+                if (changedAt != null)
+                    oldest = Math.min(oldest, changedAt.getTime());
+
+                rs.getLong(4);
+
+                changes.put(id, rs.wasNull() ? null : new Person(id, rs.getString(5), rs.getString(6)));
+
+                rows++;
+            }
+        }
+        catch (SQLException e) {
+            throw new IgniteException("Failed to fetch changes [fromSeq=" + lastSeq + ']', e);
+        }
+
+        if (rows == 0) {
+            // Gaps may time out without new changes.
+            advance();
+
+            return 0;
+        }
+
+        int deletes = 0;
+
+        for (Map.Entry<Long, Person> e : changes.entrySet()) {
+            if (e.getValue() == null) {
+                stmr.removeData(e.getKey());
+
+                deletes++;
+            }
+            else
+                stmr.addData(e.getKey(), e.getValue());
+        }
+
+        stmr.flush();
+
+        totalChanges += rows;
+
+        advance();
+
+        long lag = oldest == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - oldest;
+
+        System.out.println(">>> Applied changes [rows=" + rows + ", keys=" + changes.size() + ", deletes=" + deletes +
+            ", lagMs=" + lag + ", lastSeq=" + lastSeq + ", pendingAboveGap=" + seenAbove.size() + ']');
+
+        return rows;
+    }
+
+    /**
+     * Advances the watermark over applied changes with contiguous sequence numbers and over gaps which are
+     * older than the gap timeout, and wakes up threads waiting for the watermark.
+     */
+    private void advance() {
+        long seq = lastSeq;
+
+        long now = System.currentTimeMillis();
+
+        while (!seenAbove.isEmpty()) {
+            Map.Entry<Long, Long> first = seenAbove.firstEntry();
+
+            if (first.getKey() != seq + 1) {
+                // Gap age is the time since the first change above it was seen.
+                if (now - first.getValue() < gapTimeout)
+                    break;
+
+                skippedSeqs += first.getKey() - seq - 1;
+
+                System.out.println(">>> Skipped sequence numbers not committed in time [from=" + (seq + 1) +
+                    ", to=" + (first.getKey() - 1) + ']');
+            }
+
+            seq = first.getKey();
+
+            seenAbove.remove(seq);
+        }
+
+        if (seq != lastSeq) {
+            synchronized (mux) {
+                lastSeq = seq;
+
+                mux.notifyAll();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized void close() {
+        if (exec != null) {
+            exec.shutdown();
+
+            try {
+                exec.awaitTermination(pollInterval * 2, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+
+            exec = null;
+        }
+
+        stmr.close();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.FactoryBuilder;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.store.CacheStoreSessionListener;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.examples.ExampleNodeStartup;
+import org.apache.ignite.examples.datagrid.store.CachePooledStoreSessionListener;
+import org.apache.ignite.examples.datagrid.store.PooledDataSource;
+import org.apache.ignite.examples.model.Person;
+import org.apache.ignite.examples.util.DbH2ServerStartup;
+
+/**
+ * Demonstrates how to keep a cache in sync with the database without full reloads.
+ * <p>
+ * The cache is loaded once with {@link CacheJdbcPersonStore}, after that only the rows changed in
+ * {@code PERSON} table are applied to it by {@link CacheJdbcChangePoller}. Changes are captured by
+ * {@link PersonChangeTrigger}.
+ * <p>
+ * To start the example, you should:
+ * <ul>
+ *     <li>Start H2 database TCP server using {@link DbH2ServerStartup}.</li>
+ *     <li>Start a few nodes using {@link ExampleNodeStartup}.</li>
+ *     <li>Start example using {@link CacheJdbcIncrementalRefreshExample}.</li>
+ * </ul>
+ * <p>
+ * Remote nodes can be started with {@link ExampleNodeStartup} in another JVM which will
+ * start node with {@code examples/config/example-ignite.xml} configuration.
+ */
+public class CacheJdbcIncrementalRefreshExample {
+    /** Cache name. */
+    private static final String CACHE_NAME = CacheJdbcIncrementalRefreshExample.class.getSimpleName();
+
+    /** Number of entries to load. */
+    private static final int ENTRY_COUNT = 100_000;
+
+    /** Poll interval in milliseconds. */
+    private static final long POLL_INTERVAL = 500;
+
+    /** Time to wait for the poller to apply changes in milliseconds. */
+    private static final long AWAIT_TIMEOUT = 30_000;
+
+    /**
+     * Executes example.
+     *
+     * @param args Command line arguments, none required.
+     * @throws Exception If example execution failed.
+     */
+    public static void main(String[] args) throws Exception {
+        PooledDataSource dataSrc = new PooledDataSource("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", "");
+
+        try (Connection conn = dataSrc.getConnection()) {
+            PersonChangeTrigger.install(conn);
+        }
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Cache incremental refresh example started.");
+
+            CacheConfiguration<Long, Person> cacheCfg = new CacheConfiguration<>(CACHE_NAME);
+
+            cacheCfg.setCacheStoreFactory(FactoryBuilder.factoryOf(CacheJdbcPersonStore.class));
+
+            Factory<CacheStoreSessionListener> lsnrFactory = new Factory<CacheStoreSessionListener>() {
+                @Override public CacheStoreSessionListener create() {
+                    CachePooledStoreSessionListener lsnr = new CachePooledStoreSessionListener();
+
+                    lsnr.setName(CACHE_NAME);
+                    lsnr.setDataSource(new PooledDataSource("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", ""));
+
+                    return lsnr;
+                }
+            };
+
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Factory<CacheStoreSessionListener>[] lsnrFactories = new Factory[] {lsnrFactory};
+
+            cacheCfg.setCacheStoreSessionListenerFactories(lsnrFactories);
+
+            // Store sessions, and hence connections of the listener, are only started for read or write through
+            // caches. Cache is not write through, so that applied changes are not written back to the database.
+            cacheCfg.setReadThrough(true);
+
+            // Auto-close cache at the end of the example.
+            try (IgniteCache<Long, Person> cache = ignite.getOrCreateCache(cacheCfg);
+                 CacheJdbcChangePoller poller = new CacheJdbcChangePoller(ignite, CACHE_NAME, dataSrc)) {
+                // Remember the last change before the full load, changes made during the load will be re-applied.
+                long seq = poller.currentSequence();
+
+                cache.loadCache(null, ENTRY_COUNT);
+
+                System.out.println(">>> Loaded " + cache.size() + " keys, polling changes after [seq=" + seq + ']');
+
+                poller.setPollInterval(POLL_INTERVAL);
+                poller.start(seq);
+
+                modifyDatabase(dataSrc);
+
+                // Wait until the poller catches up with the changes.
+                if (!poller.awaitSequence(poller.currentSequence(), AWAIT_TIMEOUT))
+                    System.out.println(">>> Poller did not catch up in " + AWAIT_TIMEOUT + "ms.");
+
+                System.out.println(">>> Applied " + poller.totalChanges() + " changes in total.");
+                System.out.println(">>> Updated person (expecting Isaac Newton): " + cache.get(1L));
+                System.out.println(">>> Inserted person (expecting Marie Curie): " + cache.get(100L));
+                System.out.println(">>> Deleted person (expecting null): " + cache.get(6L));
+            }
+            finally {
+                // Distributed cache could be removed from cluster only by #destroyCache() call.
+                ignite.destroyCache(CACHE_NAME);
+
+                dataSrc.close();
+            }
+        }
+    }
+
+    /**
+     * Changes {@code PERSON} table directly, bypassing the cache.
+     *
+     * @param dataSrc Data source.
+     * @throws SQLException If failed.
+     */
+    private static void modifyDatabase(PooledDataSource dataSrc) throws SQLException {
+        try (Connection conn = dataSrc.getConnection(); Statement st = conn.createStatement()) {
+            st.executeUpdate("update PERSON set first_name = 'Isaac', last_name = 'Newton' where id = 1");
+            st.executeUpdate("merge into PERSON (id, first_name, last_name) key (id) values (100, 'Marie', 'Curie')");
+            st.executeUpdate("delete from PERSON where id = 6");
+        }
+    }
+}
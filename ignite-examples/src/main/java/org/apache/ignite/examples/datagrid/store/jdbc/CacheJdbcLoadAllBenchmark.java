@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.FactoryBuilder;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.store.CacheStore;
+import org.apache.ignite.cache.store.CacheStoreSessionListener;
+import org.apache.ignite.cache.store.jdbc.CacheJdbcStoreSessionListener;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.datagrid.store.spring.CacheSpringPersonStore;
+import org.apache.ignite.examples.model.Person;
+import org.apache.ignite.examples.util.DbH2ServerStartup;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+/**
+ * Compares {@code getAll(...)} latency on a cold read-through cache for per-key loading
+ * and for {@code where id in (...)} chunked {@code loadAll(...)} of {@link CacheJdbcPersonStore}
+ * and {@link CacheSpringPersonStore}.
+ * <p>
+ * The benchmark starts H2 database TCP server unless it is already running and inserts
+ * {@link #ROW_COUNT} rows into {@code PERSON} table.
+ */
+public class CacheJdbcLoadAllBenchmark {
+    /** Cache name. */
+    private static final String CACHE_NAME = CacheJdbcLoadAllBenchmark.class.getSimpleName();
+
+    /** Heap size required to run this benchmark. */
+    public static final int MIN_MEMORY = 1024 * 1024 * 1024;
+
+    /** Number of rows inserted into database. */
+    private static final int ROW_COUNT = 10_000;
+
+    /** First inserted ID. */
+    private static final long FIRST_ID = 1_000_000;
+
+    /** Number of warm-up iterations. */
+    private static final int WARMUP_ITERATIONS = 2;
+
+    /** Number of measured iterations. */
+    private static final int MEASURED_ITERATIONS = 5;
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, none required.
+     * @throws IgniteException If benchmark execution failed.
+     */
+    public static void main(String[] args) throws IgniteException {
+        ExamplesUtils.checkMinMemory(MIN_MEMORY);
+
+        DbH2ServerStartup.startDatabase();
+
+        populate();
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Cache JDBC loadAll benchmark started.");
+
+            Map<String, Factory<? extends CacheStore<? super Long, ? super Person>>> stores = new HashMap<>();
+
+            stores.put("Per-key load", FactoryBuilder.factoryOf(PerKeyPersonStore.class));
+            stores.put("CacheJdbcPersonStore.loadAll", FactoryBuilder.factoryOf(CacheJdbcPersonStore.class));
+            stores.put("CacheSpringPersonStore.loadAll", FactoryBuilder.factoryOf(CacheSpringPersonStore.class));
+
+            StringBuilder res = new StringBuilder();
+
+            for (int keyCnt : new int[] {1_000, ROW_COUNT}) {
+                for (Map.Entry<String, Factory<? extends CacheStore<? super Long, ? super Person>>> e :
+                    stores.entrySet()) {
+                    long nanos = run(ignite, e.getValue(), keyCnt);
+
+                    res.append(">>>   ").append(e.getKey()).append(" [keys=").append(keyCnt)
+                        .append("]: getAll=").append(nanos / 1_000_000).append("ms\n");
+                }
+            }
+
+            System.out.println();
+            System.out.println(">>> Results (average of " + MEASURED_ITERATIONS + " iterations):");
+            System.out.print(res);
+        }
+    }
+
+    /**
+     * Inserts benchmark rows into database.
+     */
+    private static void populate() {
+        JdbcConnectionPool dataSrc = JdbcConnectionPool.create("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", "");
+
+        try (Connection conn = dataSrc.getConnection();
+             PreparedStatement st = conn.prepareStatement(
+                 "merge into PERSON (id, first_name, last_name) key (id) values (?, ?, ?)")) {
+            for (long id = FIRST_ID; id < FIRST_ID + ROW_COUNT; id++) {
+                st.setLong(1, id);
+                st.setString(2, "First" + id);
+                st.setString(3, "Last" + id);
+
+                st.addBatch();
+            }
+
+            st.executeBatch();
+        }
+        catch (SQLException e) {
+            throw new IgniteException("Failed to populate database", e);
+        }
+        finally {
+            dataSrc.dispose();
+        }
+    }
+
+    /**
+     * Measures {@code getAll(...)} of {@code keyCnt} keys on a cache which is cleared before every iteration.
+     *
+     * @param ignite Ignite instance.
+     * @param storeFactory Store factory.
+     * @param keyCnt Number of keys to get.
+     * @return Average {@code getAll(...)} time of measured iterations in nanoseconds.
+     */
+    private static long run(Ignite ignite, Factory<? extends CacheStore<? super Long, ? super Person>> storeFactory,
+        int keyCnt) {
+        CacheConfiguration<Long, Person> cacheCfg = new CacheConfiguration<>(CACHE_NAME);
+
+        cacheCfg.setCacheStoreFactory(storeFactory);
+
+        Factory<CacheStoreSessionListener> lsnrFactory = new Factory<CacheStoreSessionListener>() {
+            @Override public CacheStoreSessionListener create() {
+                CacheJdbcStoreSessionListener lsnr = new CacheJdbcStoreSessionListener();
+
+                lsnr.setDataSource(JdbcConnectionPool.create("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", ""));
+
+                return lsnr;
+            }
+        };
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Factory<CacheStoreSessionListener>[] lsnrFactories = new Factory[] {lsnrFactory};
+
+        cacheCfg.setCacheStoreSessionListenerFactories(lsnrFactories);
+
+        cacheCfg.setReadThrough(true);
+
+        Set<Long> keys = new TreeSet<>();
+
+        for (long id = FIRST_ID; id < FIRST_ID + keyCnt; id++)
+            keys.add(id);
+
+        long total = 0;
+
+        try (IgniteCache<Long, Person> cache = ignite.getOrCreateCache(cacheCfg)) {
+            for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; i++) {
+                // Clear memory, but keep data in store, so that every iteration starts cold.
+                cache.clear();
+
+                long start = System.nanoTime();
+
+                Map<Long, Person> res = cache.getAll(keys);
+
+                long dur = System.nanoTime() - start;
+
+                if (res.size() != keyCnt)
+                    throw new IgniteException("Unexpected result size [expected=" + keyCnt +
+                        ", actual=" + res.size() + ']');
+
+                if (i >= WARMUP_ITERATIONS)
+                    total += dur;
+            }
+        }
+        finally {
+            ignite.destroyCache(CACHE_NAME);
+        }
+
+        return total / MEASURED_ITERATIONS;
+    }
+
+    /**
+     * Store which loads every key with a separate query, as {@link CacheJdbcPersonStore} did before
+     * {@code loadAll(...)} was implemented.
+     */
+    public static class PerKeyPersonStore extends CacheJdbcPersonStore {
+        /** {@inheritDoc} */
+        @Override public Map<Long, Person> loadAll(Iterable<? extends Long> keys) {
+            Map<Long, Person> res = new HashMap<>();
+
+            for (Long key : keys) {
+                Person val = load(key);
+
+                if (val != null)
+                    res.put(key, val);
+            }
+
+            return res;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.FactoryBuilder;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.CachePeekMode;
+import org.apache.ignite.cache.store.CacheStore;
+import org.apache.ignite.cache.store.CacheStoreSessionListener;
+import org.apache.ignite.cache.store.jdbc.CacheJdbcStoreSessionListener;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.model.Person;
+import org.apache.ignite.examples.util.DbH2ServerStartup;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+/**
+ * Compares {@code loadCache(...)} of {@link CacheJdbcPersonStore}, which reads the whole table on every node,
+ * with partition-aware {@code loadCache(...)} of {@link CacheJdbcPartitionAwarePersonStore}.
+ * <p>
+ * The benchmark starts H2 database TCP server unless it is already running, inserts {@link #ROW_COUNT} rows
+ * into {@code PERSON} table and assigns partitions to all rows with
+ * {@link CacheJdbcPartitionAwarePersonStore#assignPartitions(Connection, org.apache.ignite.cache.affinity.Affinity,
+ * String)} once, before any cache is loaded. Remote nodes can be started with
+ * {@link org.apache.ignite.examples.ExampleNodeStartup} to see how load time changes with cluster size.
+ */
+public class CacheJdbcLoadCacheBenchmark {
+    /** Cache name. */
+    private static final String CACHE_NAME = CacheJdbcLoadCacheBenchmark.class.getSimpleName();
+
+    /** Heap size required to run this benchmark. */
+    public static final int MIN_MEMORY = 1024 * 1024 * 1024;
+
+    /** Number of rows inserted into database. */
+    private static final int ROW_COUNT = 100_000;
+
+    /** First inserted ID. */
+    private static final long FIRST_ID = 1_000_000;
+
+    /** Number of warm-up iterations. */
+    private static final int WARMUP_ITERATIONS = 1;
+
+    /** Number of measured iterations. */
+    private static final int MEASURED_ITERATIONS = 3;
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, none required.
+     * @throws IgniteException If benchmark execution failed.
+     */
+    public static void main(String[] args) throws IgniteException {
+        ExamplesUtils.checkMinMemory(MIN_MEMORY);
+
+        DbH2ServerStartup.startDatabase();
+
+        populate();
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Cache JDBC loadCache benchmark started [servers=" +
+                ignite.cluster().forServers().nodes().size() + ']');
+
+            int rows = assignPartitions(ignite);
+
+            Map<String, Factory<? extends CacheStore<? super Long, ? super Person>>> stores = new LinkedHashMap<>();
+
+            stores.put("CacheJdbcPersonStore", FactoryBuilder.factoryOf(CacheJdbcPersonStore.class));
+            stores.put("CacheJdbcPartitionAwarePersonStore",
+                FactoryBuilder.factoryOf(CacheJdbcPartitionAwarePersonStore.class));
+
+            StringBuilder res = new StringBuilder();
+
+            for (Map.Entry<String, Factory<? extends CacheStore<? super Long, ? super Person>>> e :
+                stores.entrySet()) {
+                long nanos = run(ignite, e.getValue(), rows);
+
+                res.append(">>>   ").append(e.getKey()).append(": loadCache=").append(nanos / 1_000_000)
+                    .append("ms (").append(nanos == 0 ? 0 : rows * 1_000_000_000L / nanos).append(" rows/sec)\n");
+            }
+
+            System.out.println();
+            System.out.println(">>> Results (" + rows + " rows, average of " + MEASURED_ITERATIONS +
+                " iterations):");
+            System.out.print(res);
+        }
+    }
+
+    /**
+     * Inserts benchmark rows into database.
+     */
+    private static void populate() {
+        JdbcConnectionPool dataSrc = JdbcConnectionPool.create("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", "");
+
+        try (Connection conn = dataSrc.getConnection();
+             PreparedStatement st = conn.prepareStatement(
+                 "merge into PERSON (id, first_name, last_name) key (id) values (?, ?, ?)")) {
+            for (long id = FIRST_ID; id < FIRST_ID + ROW_COUNT; id++) {
+                st.setLong(1, id);
+                st.setString(2, "First" + id);
+                st.setString(3, "Last" + id);
+
+                st.addBatch();
+            }
+
+            st.executeBatch();
+        }
+        catch (SQLException e) {
+            throw new IgniteException("Failed to populate database", e);
+        }
+        finally {
+            dataSrc.dispose();
+        }
+    }
+
+    /**
+     * Assigns partitions to all rows of the database. Partition of a key depends only on the affinity function,
+     * so it is the same for all caches configured as the benchmark one.
+     *
+     * @param ignite Ignite instance.
+     * @return Total number of rows in database.
+     */
+    private static int assignPartitions(Ignite ignite) {
+        JdbcConnectionPool dataSrc = JdbcConnectionPool.create("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", "");
+
+        try (Connection conn = dataSrc.getConnection()) {
+            ignite.getOrCreateCache(new CacheConfiguration<Long, Person>(CACHE_NAME));
+
+            int assigned = CacheJdbcPartitionAwarePersonStore.assignPartitions(conn, ignite.<Long>affinity(CACHE_NAME),
+                CacheJdbcPartitionAwarePersonStore.DFLT_PARTITION_COLUMN);
+
+            System.out.println(">>> Assigned partitions to " + assigned + " rows.");
+
+            try (PreparedStatement st = conn.prepareStatement("select count(*) from PERSON")) {
+                ResultSet rs = st.executeQuery();
+
+                rs.next();
+
+                return rs.getInt(1);
+            }
+        }
+        catch (SQLException e) {
+            throw new IgniteException("Failed to assign partitions", e);
+        }
+        finally {
+            ignite.destroyCache(CACHE_NAME);
+
+            dataSrc.dispose();
+        }
+    }
+
+    /**
+     * Measures {@code loadCache(...)} of all rows into a cache which is cleared before every iteration.
+     *
+     * @param ignite Ignite instance.
+     * @param storeFactory Store factory.
+     * @param rows Total number of rows in database.
+     * @return Average {@code loadCache(...)} time of measured iterations in nanoseconds.
+     */
+    private static long run(Ignite ignite, Factory<? extends CacheStore<? super Long, ? super Person>> storeFactory,
+        int rows) {
+        CacheConfiguration<Long, Person> cacheCfg = new CacheConfiguration<>(CACHE_NAME);
+
+        cacheCfg.setCacheStoreFactory(storeFactory);
+
+        Factory<CacheStoreSessionListener> lsnrFactory = new Factory<CacheStoreSessionListener>() {
+            @Override public CacheStoreSessionListener create() {
+                CacheJdbcStoreSessionListener lsnr = new CacheJdbcStoreSessionListener();
+
+                lsnr.setDataSource(JdbcConnectionPool.create("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", ""));
+
+                return lsnr;
+            }
+        };
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Factory<CacheStoreSessionListener>[] lsnrFactories = new Factory[] {lsnrFactory};
+
+        cacheCfg.setCacheStoreSessionListenerFactories(lsnrFactories);
+
+        cacheCfg.setReadThrough(true);
+
+        long total = 0;
+
+        try (IgniteCache<Long, Person> cache = ignite.getOrCreateCache(cacheCfg)) {
+            for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; i++) {
+                cache.clear();
+
+                long start = System.nanoTime();
+
+                cache.loadCache(null, Integer.MAX_VALUE);
+
+                long dur = System.nanoTime() - start;
+
+                int size = cache.size(CachePeekMode.PRIMARY);
+
+                if (size != rows)
+                    throw new IgniteException("Unexpected cache size [expected=" + rows + ", actual=" + size + ']');
+
+                if (i >= WARMUP_ITERATIONS)
+                    total += dur;
+            }
+        }
+        finally {
+            ignite.destroyCache(CACHE_NAME);
+        }
+
+        return total / MEASURED_ITERATIONS;
+    }
+}
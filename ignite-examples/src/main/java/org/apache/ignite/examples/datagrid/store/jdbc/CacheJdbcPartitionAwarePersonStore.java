@@ -0,0 +1,368 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.cache.Cache;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CacheWriterException;
+import javax.sql.DataSource;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.cache.affinity.Affinity;
+import org.apache.ignite.cache.store.CacheStore;
+import org.apache.ignite.examples.model.Person;
+import org.apache.ignite.lang.IgniteBiInClosure;
+import org.apache.ignite.resources.IgniteInstanceResource;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+/**
+ * Example of {@link CacheStore} implementation that extends {@link CacheJdbcPersonStore}
+ * with partition-aware parallel {@link #loadCache(IgniteBiInClosure, Object...)}.
+ * <p>
+ * Every {@code PERSON} row keeps the cache partition of its key in the indexed {@link #getPartitionColumn()}
+ * column. The column is created and filled in for existing rows by {@link #assignPartitions(Connection, Affinity,
+ * String)}, which must be called once as a part of database setup, and {@link #write(Cache.Entry)} keeps it up to
+ * date. Each node then loads only the partitions it owns, one query per partition on a thread pool, so no node
+ * reads rows of other nodes. Loading only reads the database, since it runs on all nodes at the same time.
+ * Per-partition load times are printed once all partitions are loaded.
+ */
+public class CacheJdbcPartitionAwarePersonStore extends CacheJdbcPersonStore {
+    /** Default name of the partition column. */
+    public static final String DFLT_PARTITION_COLUMN = "PART";
+
+    /** Number of rows updated in one batch when partitions are assigned. */
+    private static final int ASSIGN_BATCH_SIZE = 1024;
+
+    /** Number of slowest partitions printed after load. */
+    private static final int SLOWEST_PRINTED = 5;
+
+    /** Ignite instance. */
+    @IgniteInstanceResource
+    private Ignite ignite;
+
+    /** Data source used to open a connection per loaded partition. */
+    private DataSource dataSrc;
+
+    /** Number of loading threads. */
+    private int threadCnt = Runtime.getRuntime().availableProcessors();
+
+    /** Name of the column holding the partition of a row. */
+    private String partCol = DFLT_PARTITION_COLUMN;
+
+    /**
+     * @return Data source used to open a connection per loaded partition.
+     */
+    public DataSource getDataSource() {
+        return dataSrc;
+    }
+
+    /**
+     * @param dataSrc Data source used to open a connection per loaded partition. If not set, a connection pool
+     *      to the example H2 database is created for the duration of each load.
+     */
+    public void setDataSource(DataSource dataSrc) {
+        this.dataSrc = dataSrc;
+    }
+
+    /**
+     * @return Number of loading threads.
+     */
+    public int getThreadCount() {
+        return threadCnt;
+    }
+
+    /**
+     * @param threadCnt Number of loading threads.
+     */
+    public void setThreadCount(int threadCnt) {
+        this.threadCnt = threadCnt;
+    }
+
+    /**
+     * @return Name of the column holding the partition of a row.
+     */
+    public String getPartitionColumn() {
+        return partCol;
+    }
+
+    /**
+     * @param partCol Name of the column holding the partition of a row.
+     */
+    public void setPartitionColumn(String partCol) {
+        this.partCol = partCol;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void write(Cache.Entry<? extends Long, ? extends Person> entry) {
+        Long key = entry.getKey();
+        Person val = entry.getValue();
+
+        System.out.println(">>> Store write [key=" + key + ", val=" + val + ']');
+
+        int part = ignite.affinity(ses.cacheName()).partition(key);
+
+        try {
+            Connection conn = ses.attachment();
+
+            int updated;
+
+            // Partition is written with the row, so that a write costs no extra statement.
+            try (PreparedStatement st = conn.prepareStatement(
+                "update PERSON set first_name = ?, last_name = ?, " + partCol + " = ? where id = ?")) {
+                st.setString(1, val.firstName);
+                st.setString(2, val.lastName);
+                st.setInt(3, part);
+                st.setLong(4, val.id);
+
+                updated = st.executeUpdate();
+            }
+
+            if (updated == 0) {
+                try (PreparedStatement st = conn.prepareStatement(
+                    "insert into PERSON (id, first_name, last_name, " + partCol + ") values (?, ?, ?, ?)")) {
+                    st.setLong(1, val.id);
+                    st.setString(2, val.firstName);
+                    st.setString(3, val.lastName);
+                    st.setInt(4, part);
+
+                    st.executeUpdate();
+                }
+            }
+        }
+        catch (SQLException e) {
+            throw new CacheWriterException("Failed to write object [key=" + key + ", val=" + val + ']', e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void loadCache(final IgniteBiInClosure<Long, Person> clo, Object... args) {
+        if (args == null || args.length == 0 || args[0] == null)
+            throw new CacheLoaderException("Expected entry count parameter is not provided.");
+
+        final int entryCnt = (Integer)args[0];
+
+        JdbcConnectionPool ownPool = null;
+
+        DataSource ds = dataSrc;
+
+        if (ds == null)
+            ds = ownPool = JdbcConnectionPool.create("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", "");
+
+        try {
+            loadCache(ds, entryCnt, clo);
+        }
+        finally {
+            if (ownPool != null)
+                ownPool.dispose();
+        }
+    }
+
+    /**
+     * Loads partitions owned by the local node.
+     *
+     * @param ds Data source.
+     * @param entryCnt Maximum number of entries to load on the local node.
+     * @param clo Load closure.
+     */
+    private void loadCache(DataSource ds, int entryCnt, IgniteBiInClosure<Long, Person> clo) {
+        Affinity<Long> aff = ignite.affinity(ses.cacheName());
+
+        // Partitions for which the local node is either primary or backup.
+        int[] owned = aff.allPartitions(ignite.cluster().localNode());
+
+        if (owned.length == 0) {
+            System.out.println(">>> Local node owns no partitions, nothing to load.");
+
+            return;
+        }
+
+        AtomicLong remaining = new AtomicLong(entryCnt);
+
+        List<PartitionLoader> loaders = new ArrayList<>(owned.length);
+
+        for (int part : owned)
+            loaders.add(new PartitionLoader(ds, part, remaining, clo));
+
+        ExecutorService exec = Executors.newFixedThreadPool(Math.min(threadCnt, loaders.size()));
+
+        long start = System.nanoTime();
+
+        try {
+            for (Future<Void> fut : exec.invokeAll(loaders))
+                fut.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new CacheLoaderException("Interrupted while loading cache.", e);
+        }
+        catch (ExecutionException e) {
+            throw new CacheLoaderException("Failed to load values from cache store.", e.getCause());
+        }
+        finally {
+            exec.shutdownNow();
+        }
+
+        long dur = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        long loaded = 0;
+        long partNanos = 0;
+        long maxNanos = 0;
+
+        for (PartitionLoader ldr : loaders) {
+            loaded += ldr.loaded;
+            partNanos += ldr.dur;
+            maxNanos = Math.max(maxNanos, ldr.dur);
+        }
+
+        loaders.sort((l1, l2) -> Long.compare(l2.dur, l1.dur));
+
+        for (PartitionLoader ldr : loaders.subList(0, Math.min(SLOWEST_PRINTED, loaders.size()))) {
+            System.out.println(">>>   Slow partition [part=" + ldr.part + ", loaded=" + ldr.loaded +
+                ", time=" + String.format("%.2f", ldr.dur / 1e6) + "ms]");
+        }
+
+        System.out.println(">>> Loaded " + loaded + " values into cache [ownedPartitions=" + owned.length +
+            ", limit=" + entryCnt + ", time=" + dur + "ms, rowsPerSec=" + loaded * 1000 / dur +
+            ", avgMsPerPartition=" + String.format("%.2f", partNanos / 1e6 / owned.length) +
+            ", maxMsPerPartition=" + String.format("%.2f", maxNanos / 1e6) + ']');
+    }
+
+    /**
+     * Creates the indexed partition column if it does not exist yet and assigns partitions to rows
+     * that were inserted without one. Must be called once, before the cache is loaded, and not from
+     * every node, since concurrent schema changes and updates of the same rows would conflict.
+     *
+     * @param conn Connection.
+     * @param aff Affinity of the cache the store is configured for.
+     * @param partCol Name of the partition column, {@link #DFLT_PARTITION_COLUMN} by default.
+     * @return Number of rows partitions were assigned to.
+     * @throws SQLException If failed.
+     */
+    public static int assignPartitions(Connection conn, Affinity<Long> aff, String partCol) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("alter table PERSON add column if not exists " + partCol + " int");
+            st.executeUpdate("create index if not exists PERSON_" + partCol + "_IDX on PERSON(" + partCol + ')');
+        }
+
+        int assigned = 0;
+
+        try (PreparedStatement sel = conn.prepareStatement("select id from PERSON where " + partCol + " is null");
+             PreparedStatement upd = conn.prepareStatement(
+                 "update PERSON set " + partCol + " = ? where id = ?")) {
+            ResultSet rs = sel.executeQuery();
+
+            while (rs.next()) {
+                long id = rs.getLong(1);
+
+                upd.setInt(1, aff.partition(id));
+                upd.setLong(2, id);
+                upd.addBatch();
+
+                if (++assigned % ASSIGN_BATCH_SIZE == 0)
+                    upd.executeBatch();
+            }
+
+            if (assigned % ASSIGN_BATCH_SIZE != 0)
+                upd.executeBatch();
+        }
+
+        return assigned;
+    }
+
+    /**
+     * Loads one partition with its own connection.
+     */
+    private class PartitionLoader implements Callable<Void> {
+        /** Data source. */
+        private final DataSource ds;
+
+        /** Partition. */
+        private final int part;
+
+        /** Number of entries the local node may still load. */
+        private final AtomicLong remaining;
+
+        /** Load closure. */
+        private final IgniteBiInClosure<Long, Person> clo;
+
+        /** Number of loaded rows. */
+        private long loaded;
+
+        /** Load time in nanoseconds. */
+        private long dur;
+
+        /**
+         * @param ds Data source.
+         * @param part Partition.
+         * @param remaining Number of entries the local node may still load.
+         * @param clo Load closure.
+         */
+        PartitionLoader(DataSource ds, int part, AtomicLong remaining, IgniteBiInClosure<Long, Person> clo) {
+            this.ds = ds;
+            this.part = part;
+            this.remaining = remaining;
+            this.clo = clo;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Void call() throws SQLException {
+            long limit = remaining.get();
+
+            if (limit <= 0)
+                return null;
+
+            long start = System.nanoTime();
+
+            try (Connection conn = ds.getConnection();
+                 PreparedStatement st = conn.prepareStatement(
+                     "select id, first_name, last_name from PERSON where " + partCol + " = ? limit ?")) {
+                st.setInt(1, part);
+                st.setLong(2, limit);
+
+                ResultSet rs = st.executeQuery();
+
+                while (rs.next() && remaining.getAndDecrement() > 0) {
+                    long id = rs.getLong(1);
+
+                    clo.apply(id, new Person(id, rs.getString(2), rs.getString(3)));
+
+                    loaded++;
+                }
+            }
+
+            dur = System.nanoTime() - start;
+
+            return null;
+        }
+    }
+}
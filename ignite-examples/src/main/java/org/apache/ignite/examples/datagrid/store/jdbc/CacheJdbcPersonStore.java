@@ -21,6 +21,10 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.cache.Cache;
 import javax.cache.integration.CacheLoaderException;
@@ -38,9 +42,12 @@ import org.apache.ignite.resources.CacheStoreSessionResource;
  * transaction with cache transactions and maps {@link Long} to {@link Person}.
  */
 public class CacheJdbcPersonStore extends CacheStoreAdapter<Long, Person> {
+    /** Maximum number of keys in one {@code where id in (...)} query of {@link #loadAll(Iterable)}. */
+    public static final int LOAD_CHUNK_SIZE = 256;
+
     /** Store session. */
     @CacheStoreSessionResource
-    private CacheStoreSession ses;
+    protected CacheStoreSession ses;
 
     /** {@inheritDoc} */
     @Override public Person load(Long key) {
@@ -60,6 +67,67 @@ public class CacheJdbcPersonStore extends CacheStoreAdapter<Long, Person> {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public Map<Long, Person> loadAll(Iterable<? extends Long> keys) {
+        List<Long> keyList = new ArrayList<>();
+
+        for (Long key : keys)
+            keyList.add(key);
+
+        System.out.println(">>> Store load all [keys=" + keyList.size() + ']');
+
+        Map<Long, Person> res = new HashMap<>();
+
+        // Chunks are loaded one by one, since the session connection is bound to the cache transaction.
+        for (int from = 0; from < keyList.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = keyList.subList(from, Math.min(keyList.size(), from + LOAD_CHUNK_SIZE));
+
+            loadChunk(chunk, res);
+        }
+
+        return res;
+    }
+
+    /**
+     * Loads persons with the given keys using single {@code where id in (...)} query.
+     *
+     * @param keys Keys to load.
+     * @param res Map to put loaded persons to.
+     */
+    private void loadChunk(List<Long> keys, Map<Long, Person> res) {
+        Connection conn = ses.attachment();
+
+        try (PreparedStatement st = conn.prepareStatement(
+            "select id, first_name, last_name from PERSON where id in (" + placeholders(keys.size()) + ')')) {
+            for (int i = 0; i < keys.size(); i++)
+                st.setLong(i + 1, keys.get(i));
+
+            ResultSet rs = st.executeQuery();
+
+            while (rs.next()) {
+                Person person = new Person(rs.getLong(1), rs.getString(2), rs.getString(3));
+
+                res.put(person.id, person);
+            }
+        }
+        catch (SQLException e) {
+            throw new CacheLoaderException("Failed to load objects [cnt=" + keys.size() + ']', e);
+        }
+    }
+
+    /**
+     * @param cnt Number of query parameters.
+     * @return Comma-separated list of {@code cnt} parameter placeholders.
+     */
+    private static String placeholders(int cnt) {
+        StringBuilder sb = new StringBuilder(cnt * 3);
+
+        for (int i = 0; i < cnt; i++)
+            sb.append(i == 0 ? "?" : ", ?");
+
+        return sb.toString();
+    }
+
     /** {@inheritDoc} */
     @Override public void write(Cache.Entry<? extends Long, ? extends Person> entry) {
         Long key = entry.getKey();
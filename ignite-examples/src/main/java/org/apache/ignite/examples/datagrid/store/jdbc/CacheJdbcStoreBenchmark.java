@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.jdbc;
+
+import static org.apache.ignite.cache.CacheAtomicityMode.TRANSACTIONAL;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.FactoryBuilder;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.store.CacheStore;
+import org.apache.ignite.cache.store.CacheStoreSessionListener;
+import org.apache.ignite.cache.store.jdbc.CacheJdbcStoreSessionListener;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.model.Person;
+import org.apache.ignite.examples.util.DbH2ServerStartup;
+import org.apache.ignite.transactions.Transaction;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+/**
+ * Compares write-through throughput of {@link CacheJdbcPersonStore} and {@link CacheJdbcBatchPersonStore}.
+ * <p>
+ * Every iteration puts and then removes {@link #ENTRY_COUNT} persons within a single transaction,
+ * so that the store receives the whole transaction as one {@code writeAll(...)} and one
+ * {@code deleteAll(...)} call, the same way it does on a write-behind flush. A few warm-up
+ * iterations are executed before the measured ones.
+ * <p>
+ * The benchmark starts H2 database TCP server and populates it with {@link DbH2ServerStartup}
+ * unless the server is already running.
+ */
+public class CacheJdbcStoreBenchmark {
+    /** Cache name. */
+    private static final String CACHE_NAME = CacheJdbcStoreBenchmark.class.getSimpleName();
+
+    /** Heap size required to run this benchmark. */
+    public static final int MIN_MEMORY = 1024 * 1024 * 1024;
+
+    /** Number of entries written within one transaction. */
+    private static final int ENTRY_COUNT = 10_000;
+
+    /** Number of warm-up iterations. */
+    private static final int WARMUP_ITERATIONS = 2;
+
+    /** Number of measured iterations. */
+    private static final int MEASURED_ITERATIONS = 5;
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, none required.
+     * @throws IgniteException If benchmark execution failed.
+     */
+    public static void main(String[] args) throws IgniteException {
+        ExamplesUtils.checkMinMemory(MIN_MEMORY);
+
+        DbH2ServerStartup.startDatabase();
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Cache JDBC store benchmark started.");
+
+            Map<String, long[]> res = new TreeMap<>();
+
+            res.put("CacheJdbcPersonStore", run(ignite, FactoryBuilder.factoryOf(CacheJdbcPersonStore.class)));
+
+            for (final int batchSize : new int[] {64, CacheJdbcBatchPersonStore.DFLT_BATCH_SIZE, 4096}) {
+                res.put("CacheJdbcBatchPersonStore [batchSize=" + batchSize + ']',
+                    run(ignite, new Factory<CacheStore<Long, Person>>() {
+                        @Override public CacheStore<Long, Person> create() {
+                            CacheJdbcBatchPersonStore store = new CacheJdbcBatchPersonStore();
+
+                            store.setBatchSize(batchSize);
+
+                            return store;
+                        }
+                    }));
+            }
+
+            System.out.println();
+            System.out.println(">>> Results (" + ENTRY_COUNT + " entries, average of " +
+                MEASURED_ITERATIONS + " iterations):");
+
+            for (Map.Entry<String, long[]> e : res.entrySet()) {
+                long writeNanos = e.getValue()[0] / MEASURED_ITERATIONS;
+                long deleteNanos = e.getValue()[1] / MEASURED_ITERATIONS;
+
+                System.out.println(">>>   " + e.getKey() +
+                    ": write=" + writeNanos / 1_000_000 + "ms (" + opsPerSec(writeNanos) + " ops/sec)" +
+                    ", delete=" + deleteNanos / 1_000_000 + "ms (" + opsPerSec(deleteNanos) + " ops/sec)");
+            }
+        }
+    }
+
+    /**
+     * Runs warm-up and measured iterations against the given store.
+     *
+     * @param ignite Ignite instance.
+     * @param storeFactory Store factory.
+     * @return Total write and delete time of measured iterations in nanoseconds.
+     */
+    private static long[] run(Ignite ignite, Factory<? extends CacheStore<? super Long, ? super Person>> storeFactory) {
+        CacheConfiguration<Long, Person> cacheCfg = new CacheConfiguration<>(CACHE_NAME);
+
+        cacheCfg.setAtomicityMode(TRANSACTIONAL);
+        cacheCfg.setCacheStoreFactory(storeFactory);
+
+        Factory<CacheStoreSessionListener> lsnrFactory = new Factory<CacheStoreSessionListener>() {
+            @Override public CacheStoreSessionListener create() {
+                CacheJdbcStoreSessionListener lsnr = new CacheJdbcStoreSessionListener();
+
+                lsnr.setDataSource(JdbcConnectionPool.create("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", ""));
+
+                return lsnr;
+            }
+        };
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Factory<CacheStoreSessionListener>[] lsnrFactories = new Factory[] {lsnrFactory};
+
+        cacheCfg.setCacheStoreSessionListenerFactories(lsnrFactories);
+
+        cacheCfg.setWriteThrough(true);
+
+        long[] total = new long[2];
+
+        try (IgniteCache<Long, Person> cache = ignite.getOrCreateCache(cacheCfg)) {
+            Map<Long, Person> batch = new TreeMap<>();
+
+            for (long id = 1_000; id < 1_000 + ENTRY_COUNT; id++)
+                batch.put(id, new Person(id, "First" + id, "Last" + id));
+
+            for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; i++) {
+                long start = System.nanoTime();
+
+                try (Transaction tx = ignite.transactions().txStart()) {
+                    cache.putAll(batch);
+
+                    tx.commit();
+                }
+
+                long written = System.nanoTime();
+
+                try (Transaction tx = ignite.transactions().txStart()) {
+                    cache.removeAll(batch.keySet());
+
+                    tx.commit();
+                }
+
+                long deleted = System.nanoTime();
+
+                if (i >= WARMUP_ITERATIONS) {
+                    total[0] += written - start;
+                    total[1] += deleted - written;
+                }
+            }
+        }
+        finally {
+            ignite.destroyCache(CACHE_NAME);
+        }
+
+        return total;
+    }
+
+    /**
+     * @param nanos Time spent on {@link #ENTRY_COUNT} operations.
+     * @return Operations per second.
+     */
+    private static long opsPerSec(long nanos) {
+        return nanos == 0 ? 0 : ENTRY_COUNT * 1_000_000_000L / nanos;
+    }
+}
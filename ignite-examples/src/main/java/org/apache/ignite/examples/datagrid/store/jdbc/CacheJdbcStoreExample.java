@@ -29,14 +29,14 @@ import org.apache.ignite.IgniteCache;
 import org.apache.ignite.IgniteException;
 import org.apache.ignite.Ignition;
 import org.apache.ignite.cache.store.CacheStoreSessionListener;
-import org.apache.ignite.cache.store.jdbc.CacheJdbcStoreSessionListener;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.examples.ExampleNodeStartup;
 import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.datagrid.store.CachePooledStoreSessionListener;
+import org.apache.ignite.examples.datagrid.store.PooledDataSource;
 import org.apache.ignite.examples.model.Person;
 import org.apache.ignite.examples.util.DbH2ServerStartup;
 import org.apache.ignite.transactions.Transaction;
-import org.h2.jdbcx.JdbcConnectionPool;
 
 /**
  * Demonstrates usage of cache with underlying persistent store configured.
@@ -88,12 +88,13 @@ public class CacheJdbcStoreExample {
             // Configure JDBC store.
             cacheCfg.setCacheStoreFactory(FactoryBuilder.factoryOf(CacheJdbcPersonStore.class));
 
-            // Configure JDBC session listener.
+            // Configure JDBC session listener with bounded pool of connections caching prepared statements.
             cacheCfg.setCacheStoreSessionListenerFactories(new Factory<CacheStoreSessionListener>() {
                 @Override public CacheStoreSessionListener create() {
-                    CacheJdbcStoreSessionListener lsnr = new CacheJdbcStoreSessionListener();
+                    CachePooledStoreSessionListener lsnr = new CachePooledStoreSessionListener();
 
-                    lsnr.setDataSource(JdbcConnectionPool.create("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", ""));
+                    lsnr.setName(CACHE_NAME);
+                    lsnr.setDataSource(new PooledDataSource("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", ""));
 
                     return lsnr;
                 }
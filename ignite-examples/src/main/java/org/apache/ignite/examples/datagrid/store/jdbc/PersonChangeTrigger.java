@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.datagrid.store.jdbc;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.h2.api.Trigger;
+import org.h2.tools.RunScript;
+
+/**
+ * H2 trigger which records every change of {@code PERSON} table into {@code PERSON_CHANGES} table.
+ * <p>
+ * Every change gets a monotonically increasing sequence number, so that {@link CacheJdbcChangePoller}
+ * can fetch only changes made after the last applied one. The trigger is executed by the database,
+ * so this class must be on the classpath of the H2 server (e.g. the one started with
+ * {@link org.apache.ignite.examples.util.DbH2ServerStartup}).
+ */
+public class PersonChangeTrigger implements Trigger {
+    /** Change table and trigger script. */
+    private static final String INSTALL_SCRIPT =
+        "create table if not exists PERSON_CHANGES(seq bigint auto_increment primary key, id bigint not null, " +
+            "op char(1) not null, changed_at timestamp default current_timestamp());\n" +
+        "create trigger if not exists PERSON_CDC after insert, update, delete on PERSON for each row call \"" +
+            PersonChangeTrigger.class.getName() + "\";";
+
+    /** Insert statement. */
+    private static final String INSERT_CHANGE = "insert into PERSON_CHANGES (id, op) values (?, ?)";
+
+    /**
+     * Creates change table and installs the trigger on {@code PERSON} table unless they already exist.
+     *
+     * @param conn Connection.
+     * @throws SQLException If failed.
+     */
+    public static void install(Connection conn) throws SQLException {
+        RunScript.execute(conn, new StringReader(INSTALL_SCRIPT));
+    }
+
+    /** {@inheritDoc} */
+    @Override public void init(Connection conn, String schemaName, String triggerName, String tblName,
+        boolean before, int type) {
+        // No-op.
+    }
+
+    /** {@inheritDoc} */
+    @Override public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        try (PreparedStatement st = conn.prepareStatement(INSERT_CHANGE)) {
+            if (newRow == null)
+                record(st, oldRow[0], "D");
+            else if (oldRow == null)
+                record(st, newRow[0], "I");
+            else {
+                // Primary key change is a delete of the old key and an insert of the new one.
+                if (!oldRow[0].equals(newRow[0]))
+                    record(st, oldRow[0], "D");
+
+                record(st, newRow[0], "U");
+            }
+        }
+    }
+
+    /**
+     * @param st Insert statement.
+     * @param id Person ID.
+     * @param op Operation.
+     * @throws SQLException If failed.
+     */
+    private static void record(PreparedStatement st, Object id, String op) throws SQLException {
+        st.setLong(1, ((Number)id).longValue());
+        st.setString(2, op);
+
+        st.executeUpdate();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() {
+        // No-op.
+    }
+
+    /** {@inheritDoc} */
+    @Override public void remove() {
+        // No-op.
+    }
+}
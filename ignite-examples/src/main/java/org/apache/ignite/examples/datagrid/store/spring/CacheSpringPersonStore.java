@@ -19,35 +19,60 @@ package org.apache.ignite.examples.datagrid.store.spring;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.cache.Cache;
 import javax.cache.integration.CacheLoaderException;
-import javax.sql.DataSource;
 
 import org.apache.ignite.IgniteException;
 import org.apache.ignite.cache.store.CacheStore;
 import org.apache.ignite.cache.store.CacheStoreAdapter;
+import org.apache.ignite.cache.store.CacheStoreSession;
+import org.apache.ignite.examples.datagrid.store.PooledDataSource;
 import org.apache.ignite.examples.model.Person;
 import org.apache.ignite.lang.IgniteBiInClosure;
-import org.h2.jdbcx.JdbcConnectionPool;
+import org.apache.ignite.lifecycle.LifecycleAware;
+import org.apache.ignite.resources.CacheStoreSessionResource;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Example of {@link CacheStore} implementation that uses JDBC
  * transaction with cache transactions and maps {@link Long} to {@link Person}.
  */
-public class CacheSpringPersonStore extends CacheStoreAdapter<Long, Person> {
+public class CacheSpringPersonStore extends CacheStoreAdapter<Long, Person> implements LifecycleAware {
+    /** Maximum number of keys in one {@code where id in (...)} query of {@link #loadAll(Iterable)}. */
+    public static final int LOAD_CHUNK_SIZE = 256;
+
     /** Data source. */
-    public static final DataSource DATA_SRC =
-        JdbcConnectionPool.create("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", "");
+    public static final PooledDataSource DATA_SRC =
+        new PooledDataSource("jdbc:h2:tcp://localhost/mem:ExampleDb", "sa", "");
+
+    /** Number of threads loading chunks in parallel, half of the pool connections are left to other callers. */
+    private static final int LOAD_THREADS =
+        Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), PooledDataSource.DFLT_MAX_CONNECTIONS / 2));
+
+    /** Store session. */
+    @CacheStoreSessionResource
+    private CacheStoreSession ses;
 
     /** Spring JDBC template. */
     private JdbcTemplate jdbcTemplate;
 
+    /** Executor loading chunks outside of a transaction, exists while the store is started. */
+    private volatile ExecutorService loadExec;
+
     /**
      * Constructor.
      *
@@ -57,6 +82,26 @@ public class CacheSpringPersonStore extends CacheStoreAdapter<Long, Person> {
         jdbcTemplate = new JdbcTemplate(DATA_SRC);
     }
 
+    /** {@inheritDoc} */
+    @Override public void start() throws IgniteException {
+        loadExec = Executors.newFixedThreadPool(LOAD_THREADS, r -> {
+            Thread t = new Thread(r, "spring-person-store-loader");
+
+            t.setDaemon(true);
+
+            return t;
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override public void stop() throws IgniteException {
+        if (loadExec != null) {
+            loadExec.shutdownNow();
+
+            loadExec = null;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public Person load(Long key) {
         System.out.println(">>> Store load [key=" + key + ']');
@@ -73,6 +118,83 @@ public class CacheSpringPersonStore extends CacheStoreAdapter<Long, Person> {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public Map<Long, Person> loadAll(Iterable<? extends Long> keys) {
+        List<Long> keyList = new ArrayList<>();
+
+        for (Long key : keys)
+            keyList.add(key);
+
+        System.out.println(">>> Store load all [keys=" + keyList.size() + ']');
+
+        List<List<Long>> chunks = new ArrayList<>();
+
+        for (int from = 0; from < keyList.size(); from += LOAD_CHUNK_SIZE)
+            chunks.add(keyList.subList(from, Math.min(keyList.size(), from + LOAD_CHUNK_SIZE)));
+
+        final Map<Long, Person> res = new ConcurrentHashMap<>();
+
+        // Within a transaction the connection is bound to the calling thread by the Spring session listener,
+        // so chunks are loaded one by one on that connection. Otherwise every chunk takes its own connection
+        // from the pool and chunks are loaded in parallel, unless the store is not started.
+        ExecutorService exec = loadExec;
+
+        if (chunks.size() == 1 || exec == null || (ses != null && ses.isWithinTransaction()) ||
+            TransactionSynchronizationManager.isActualTransactionActive()) {
+            for (List<Long> chunk : chunks)
+                loadChunk(chunk, res);
+
+            return res;
+        }
+
+        List<Future<?>> futs = new ArrayList<>(chunks.size());
+
+        for (List<Long> chunk : chunks)
+            futs.add(exec.submit(() -> loadChunk(chunk, res)));
+
+        try {
+            for (Future<?> fut : futs)
+                fut.get();
+        }
+        catch (InterruptedException e) {
+            for (Future<?> fut : futs)
+                fut.cancel(true);
+
+            Thread.currentThread().interrupt();
+
+            throw new CacheLoaderException("Interrupted while loading objects [cnt=" + keyList.size() + ']', e);
+        }
+        catch (ExecutionException e) {
+            for (Future<?> fut : futs)
+                fut.cancel(true);
+
+            throw new CacheLoaderException("Failed to load objects [cnt=" + keyList.size() + ']', e.getCause());
+        }
+
+        return res;
+    }
+
+    /**
+     * Loads persons with the given keys using single {@code where id in (...)} query.
+     *
+     * @param keys Keys to load.
+     * @param res Map to put loaded persons to.
+     */
+    private void loadChunk(List<Long> keys, Map<Long, Person> res) {
+        StringBuilder sql = new StringBuilder("select id, first_name, last_name from PERSON where id in (");
+
+        for (int i = 0; i < keys.size(); i++)
+            sql.append(i == 0 ? "?" : ", ?");
+
+        jdbcTemplate.query(sql.append(')').toString(), new RowCallbackHandler() {
+            @Override public void processRow(ResultSet rs) throws SQLException {
+                Person person = new Person(rs.getLong(1), rs.getString(2), rs.getString(3));
+
+                res.put(person.id, person);
+            }
+        }, keys.toArray());
+    }
+
     /** {@inheritDoc} */
     @Override public void write(Cache.Entry<? extends Long, ? extends Person> entry) {
         Long key = entry.getKey();
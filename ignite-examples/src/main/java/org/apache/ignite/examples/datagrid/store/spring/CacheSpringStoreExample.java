@@ -87,6 +87,9 @@ public class CacheSpringStoreExample {
             // Configure Spring store.
             cacheCfg.setCacheStoreFactory(FactoryBuilder.factoryOf(CacheSpringPersonStore.class));
 
+            // Expose pool wait time, active connections and statement cache hit ratio through JMX.
+            CacheSpringPersonStore.DATA_SRC.registerMBean(CACHE_NAME);
+
             // Configure Spring session listener.
             cacheCfg.setCacheStoreSessionListenerFactories(new Factory<CacheStoreSessionListener>() {
                 @Override public CacheStoreSessionListener create() {
@@ -115,6 +118,10 @@ public class CacheSpringStoreExample {
             finally {
                 // Distributed cache could be removed from cluster only by #destroyCache() call.
                 ignite.destroyCache(CACHE_NAME);
+
+                System.out.println(">>> Connection pool statistics: " + CacheSpringPersonStore.DATA_SRC);
+
+                CacheSpringPersonStore.DATA_SRC.unregisterMBean();
             }
         }
     }
@@ -22,13 +22,14 @@ import java.io.FileNotFoundException;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
-import java.util.Scanner;
 import java.util.UUID;
 
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteDataStreamer;
 import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
 import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.examples.util.CsvBulkLoader;
 
 /**
  * The utility class.
@@ -44,35 +45,58 @@ public class TitanicUtils {
     public static IgniteCache<Integer, Object[]> readPassengers(Ignite ignite)
         throws FileNotFoundException {
         IgniteCache<Integer, Object[]> cache = getCache(ignite);
-        Scanner scanner = new Scanner(new File("examples/src/main/resources/datasets/titanic.csv"));
-
-        int cnt = 0;
-        while (scanner.hasNextLine()) {
-            String row = scanner.nextLine();
-            if(cnt == 0) {
-                cnt++;
-                continue;
+
+        File file = new File("examples/src/main/resources/datasets/titanic.csv");
+
+        if (!file.exists())
+            throw new FileNotFoundException(file.getPath());
+
+        // Skip header. Lines are parsed in parallel, but every line is split and converted as a whole.
+        new CsvBulkLoader().setDelimiter(';').setSkipLines(1).stream(file, ignite, cache.getName(),
+            new CsvBulkLoader.StreamRowHandler<Integer, Object[]>() {
+                @Override public void handle(long lineNo, CsvBulkLoader.Row row,
+                    IgniteDataStreamer<Integer, Object[]> stmr) {
+                    stmr.addData((int)lineNo, parsePassenger(row.getLine()));
+                }
+            });
+
+        return cache;
+    }
+
+    /**
+     * Splits line into cells. Trailing empty cells are dropped and cells are not trimmed. Empty cells
+     * become {@link Double#NaN}, numbers are parsed with either '.' or French ',' as decimal separator,
+     * other cells are kept as strings.
+     *
+     * @param line Line.
+     * @return Cells.
+     */
+    private static Object[] parsePassenger(String line) {
+        String[] cells = line.split(";");
+
+        Object[] data = new Object[cells.length];
+
+        // Number format is not thread-safe, lines are parsed concurrently.
+        NumberFormat format = NumberFormat.getInstance(Locale.FRANCE);
+
+        for (int i = 0; i < cells.length; i++) {
+            try {
+                if (cells[i].isEmpty())
+                    data[i] = Double.NaN;
+                else
+                    data[i] = Double.valueOf(cells[i]);
             }
-            String[] cells = row.split(";");
-            Object[] data = new Object[cells.length];
-            NumberFormat format = NumberFormat.getInstance(Locale.FRANCE);
-
-            for (int i = 0; i < cells.length; i++)
-                try{
-                    if(cells[i].equals("")) data[i] = Double.NaN;
-                    else data[i] = Double.valueOf(cells[i]);
-                } catch (java.lang.NumberFormatException e) {
-
-                    try {
-                        data[i] = format.parse(cells[i]).doubleValue();
-                    }
-                    catch (ParseException e1) {
-                        data[i] = cells[i];
-                    }
+            catch (NumberFormatException e) {
+                try {
+                    data[i] = format.parse(cells[i]).doubleValue();
                 }
-            cache.put(cnt++, data);
+                catch (ParseException ignored) {
+                    data[i] = cells[i];
+                }
+            }
         }
-        return cache;
+
+        return data;
     }
 
     /**
@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.persistentstore;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.ignite.DataStorageMetrics;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.CacheAtomicityMode;
+import org.apache.ignite.cache.CacheWriteSynchronizationMode;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.configuration.WALMode;
+import org.apache.ignite.examples.model.Organization;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.spi.discovery.tcp.ipfinder.vm.TcpDiscoveryVmIpFinder;
+
+/**
+ * Runs the {@link PersistentStoreExample} load against one embedded node for every combination of WAL mode,
+ * checkpoint frequency, page size and write throttling, and appends results to a CSV file.
+ * <p>
+ * Every run starts a node from {@code examples/config/persistentstore/example-persistent-store.xml} with its own
+ * work directory, discovery isolated from other example nodes and the data storage settings of the run. Then
+ * {@link #THREAD_CNT} threads put {@code Organization} entries one by one, so that latency of every put can be
+ * recorded, into the cache configured as in {@link PersistentStoreExample}. The following is recorded per run:
+ * <ul>
+ *     <li>throughput and p50/p99/max put latency;</li>
+ *     <li>total time spent in checkpoints during the load, duration of the last one and pages they wrote;</li>
+ *     <li>time of the final checkpoint made on cluster deactivation;</li>
+ *     <li>growth of the WAL and WAL archive directories on disk during the load and during deactivation.</li>
+ * </ul>
+ * Cumulative {@link DataStorageMetrics} counters are read before and after the load, and their differences are
+ * recorded, so that work done on activation and cache start is not counted. The metrics have no counter of WAL
+ * bytes, so WAL is measured on disk instead, and the archive is never cleaned up during a run. Where work segments
+ * are preallocated, in {@code FSYNC} mode or with memory-mapped WAL, the directories only grow when a full segment
+ * is archived, so the growth has the granularity of {@link DataStorageConfiguration#getWalSegmentSize() a segment}.
+ * Number of entries and CSV file path can be passed as arguments, defaults are {@code 100000} and
+ * {@code persistence-benchmark.csv}. Rows are appended, so results of several runs can be compared.
+ */
+public class PersistenceSettingsBenchmark {
+    /** Cache name. */
+    private static final String CACHE_NAME = PersistenceSettingsBenchmark.class.getSimpleName();
+
+    /** Number of loading threads. */
+    private static final int THREAD_CNT = 4;
+
+    /** WAL modes. */
+    private static final WALMode[] WAL_MODES = {WALMode.FSYNC, WALMode.LOG_ONLY, WALMode.BACKGROUND};
+
+    /** Checkpoint frequencies in milliseconds. */
+    private static final long[] CHECKPOINT_FREQS = {DataStorageConfiguration.DFLT_CHECKPOINT_FREQ, 5_000};
+
+    /** Page sizes. */
+    private static final int[] PAGE_SIZES = {4 * 1024, 8 * 1024};
+
+    /** Write throttling flags. */
+    private static final boolean[] THROTTLING = {false, true};
+
+    /** CSV header. */
+    private static final String CSV_HEADER = "timestamp,wal_mode,checkpoint_freq_ms,page_size,write_throttling," +
+        "entries,threads,duration_ms,puts_per_sec,p50_us,p99_us,max_us,checkpoint_total_ms,last_checkpoint_ms," +
+        "pages_written,final_checkpoint_ms,wal_disk_growth_load_bytes,wal_disk_growth_deactivation_bytes";
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments: number of entries and CSV file path, both optional.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        File csv = new File(args.length > 1 ? args[1] : "persistence-benchmark.csv");
+
+        boolean newFile = !csv.exists();
+
+        try (PrintWriter out = new PrintWriter(new FileWriter(csv, true))) {
+            if (newFile)
+                out.println(CSV_HEADER);
+
+            for (WALMode walMode : WAL_MODES) {
+                for (long cpFreq : CHECKPOINT_FREQS) {
+                    for (int pageSize : PAGE_SIZES) {
+                        for (boolean throttling : THROTTLING) {
+                            String row = run(entries, walMode, cpFreq, pageSize, throttling);
+
+                            out.println(row);
+                            out.flush();
+
+                            System.out.println(">>> " + row);
+                        }
+                    }
+                }
+            }
+        }
+
+        System.out.println(">>> Results are written to " + csv.getAbsolutePath());
+    }
+
+    /**
+     * Runs load against a node with the given settings.
+     *
+     * @param entries Number of entries.
+     * @param walMode WAL mode.
+     * @param cpFreq Checkpoint frequency.
+     * @param pageSize Page size.
+     * @param throttling Write throttling flag.
+     * @return CSV row.
+     * @throws Exception If failed.
+     */
+    private static String run(int entries, WALMode walMode, long cpFreq, int pageSize, boolean throttling)
+        throws Exception {
+        System.out.println();
+        System.out.println(">>> Run [walMode=" + walMode + ", checkpointFreq=" + cpFreq + ", pageSize=" + pageSize +
+            ", throttling=" + throttling + ']');
+
+        File workDir = Files.createTempDirectory("persistence-benchmark").toFile();
+
+        IgniteConfiguration cfg = Ignition.loadSpringBean(
+            "examples/config/persistentstore/example-persistent-store.xml", "ignite.cfg");
+
+        cfg.setIgniteInstanceName("persistence-benchmark-" + walMode + '-' + cpFreq + '-' + pageSize + '-' +
+            throttling);
+        cfg.setWorkDirectory(workDir.getAbsolutePath());
+
+        // Do not join example nodes which may be running on the same host.
+        TcpDiscoveryVmIpFinder ipFinder = new TcpDiscoveryVmIpFinder();
+
+        ipFinder.setAddresses(Collections.singleton("127.0.0.1:47600..47609"));
+
+        TcpDiscoverySpi discoSpi = new TcpDiscoverySpi();
+
+        discoSpi.setLocalPort(47600);
+        discoSpi.setIpFinder(ipFinder);
+
+        cfg.setDiscoverySpi(discoSpi);
+
+        DataStorageConfiguration dsCfg = cfg.getDataStorageConfiguration();
+
+        dsCfg.setWalMode(walMode);
+        dsCfg.setCheckpointFrequency(cpFreq);
+        dsCfg.setPageSize(pageSize);
+        dsCfg.setWriteThrottlingEnabled(throttling);
+        dsCfg.setMetricsEnabled(true);
+
+        // Archive cleanup would shrink the WAL directories in the middle of a measurement.
+        dsCfg.setMaxWalArchiveSize(Long.MAX_VALUE);
+
+        try (Ignite ignite = Ignition.start(cfg)) {
+            ignite.cluster().active(true);
+
+            CacheConfiguration<Long, Organization> cacheCfg = new CacheConfiguration<>(CACHE_NAME);
+
+            cacheCfg.setAtomicityMode(CacheAtomicityMode.TRANSACTIONAL);
+            cacheCfg.setBackups(1);
+            cacheCfg.setWriteSynchronizationMode(CacheWriteSynchronizationMode.FULL_SYNC);
+            cacheCfg.setIndexedTypes(Long.class, Organization.class);
+
+            IgniteCache<Long, Organization> cache = ignite.getOrCreateCache(cacheCfg);
+
+            long[] latencies = new long[entries];
+
+            DataStorageMetrics metrics = ignite.dataStorageMetrics();
+
+            long cpTotal0 = metrics.getCheckpointTotalTime();
+            long pagesWritten0 = metrics.getPagesWritten();
+            long walDisk0 = walDiskSize(workDir, dsCfg);
+
+            long start = System.nanoTime();
+
+            load(cache, entries, latencies);
+
+            long dur = System.nanoTime() - start;
+
+            // Metrics are a snapshot, a fresh one is needed to see the counters after the load.
+            metrics = ignite.dataStorageMetrics();
+
+            long cpTotal = metrics.getCheckpointTotalTime() - cpTotal0;
+            long lastCp = metrics.getLastCheckpointDuration();
+            long pagesWritten = metrics.getPagesWritten() - pagesWritten0;
+            long walDisk1 = walDiskSize(workDir, dsCfg);
+
+            // Deactivation writes all dirty pages with a final checkpoint.
+            long deactivateStart = System.nanoTime();
+
+            ignite.cluster().active(false);
+
+            long finalCp = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - deactivateStart);
+
+            long walDisk2 = walDiskSize(workDir, dsCfg);
+
+            Arrays.sort(latencies);
+
+            return System.currentTimeMillis() + "," + walMode + ',' + cpFreq + ',' + pageSize + ',' + throttling +
+                ',' + entries + ',' + THREAD_CNT + ',' + TimeUnit.NANOSECONDS.toMillis(dur) +
+                ',' + entries * 1_000_000_000L / Math.max(1, dur) +
+                ',' + percentile(latencies, 0.5) / 1000 +
+                ',' + percentile(latencies, 0.99) / 1000 +
+                ',' + latencies[latencies.length - 1] / 1000 +
+                ',' + cpTotal + ',' + lastCp + ',' + pagesWritten + ',' + finalCp +
+                ',' + (walDisk1 - walDisk0) + ',' + (walDisk2 - walDisk1);
+        }
+        finally {
+            delete(workDir);
+        }
+    }
+
+    /**
+     * Puts entries from {@link #THREAD_CNT} threads, recording latency of every put.
+     *
+     * @param cache Cache.
+     * @param entries Number of entries.
+     * @param latencies Array to record put latencies in nanoseconds to.
+     * @throws InterruptedException If interrupted.
+     */
+    private static void load(final IgniteCache<Long, Organization> cache, final int entries,
+        final long[] latencies) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < THREAD_CNT; t++) {
+            final int threadIdx = t;
+
+            Thread thread = new Thread(new Runnable() {
+                @Override public void run() {
+                    // Every thread puts its own stripe of keys.
+                    for (int i = threadIdx; i < entries; i += THREAD_CNT) {
+                        long start = System.nanoTime();
+
+                        cache.put((long)i, new Organization((long)i, "organization-" + i));
+
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                }
+            });
+
+            thread.start();
+
+            threads.add(thread);
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+    }
+
+    /**
+     * @param sorted Sorted values.
+     * @param p Percentile in {@code (0, 1]}.
+     * @return Percentile value.
+     */
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int)Math.ceil(p * sorted.length) - 1)];
+    }
+
+    /**
+     * @param workDir Work directory of the node.
+     * @param dsCfg Data storage configuration.
+     * @return Total size of files in WAL and WAL archive directories in bytes.
+     */
+    private static long walDiskSize(File workDir, DataStorageConfiguration dsCfg) {
+        File walDir = resolve(workDir, dsCfg.getWalPath());
+        File archiveDir = resolve(workDir, dsCfg.getWalArchivePath());
+
+        long size = size(walDir);
+
+        // Archive is a subdirectory of WAL directory by default and is counted already.
+        if (!archiveDir.toPath().startsWith(walDir.toPath()))
+            size += size(archiveDir);
+
+        return size;
+    }
+
+    /**
+     * @param workDir Work directory.
+     * @param path Absolute path or path relative to the work directory.
+     * @return Directory.
+     */
+    private static File resolve(File workDir, String path) {
+        File dir = new File(path);
+
+        return dir.isAbsolute() ? dir : new File(workDir, path);
+    }
+
+    /**
+     * Computes size of files in directory recursively. Files are renamed and removed by the WAL archiver
+     * concurrently, so missing files are skipped instead of failing the walk.
+     *
+     * @param dir Directory or file.
+     * @return Total size in bytes.
+     */
+    private static long size(File dir) {
+        File[] files = dir.listFiles();
+
+        if (files == null)
+            return dir.isFile() ? dir.length() : 0;
+
+        long size = 0;
+
+        for (File file : files)
+            size += size(file);
+
+        return size;
+    }
+
+    /**
+     * Deletes directory recursively.
+     *
+     * @param dir Directory.
+     * @throws IOException If failed.
+     */
+    private static void delete(File dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.persistentstore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ignite.DataRegionMetrics;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.cache.affinity.Affinity;
+import org.apache.ignite.cache.query.SqlFieldsQuery;
+import org.apache.ignite.cluster.ClusterNode;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.lang.IgniteBiPredicate;
+import org.apache.ignite.lang.IgniteCallable;
+import org.apache.ignite.resources.IgniteInstanceResource;
+
+/**
+ * Warms up caches backed by native persistence after cluster activation, so that the first queries do not
+ * pay for reading cold pages from disk.
+ * <p>
+ * Every server node preloads its partitions of the configured caches into the data region with
+ * {@link IgniteCache#localPreloadPartition(int)}, using {@link #setThreads(int) a few threads} per node. A node
+ * stops preloading once the physical memory of the cache's data region reaches the
+ * {@link #setMemoryBudget(long) memory budget}, so that warm-up does not evict pages it has just loaded. The
+ * budget is checked against {@link DataRegionMetrics#getPhysicalMemorySize()}, which is only maintained when
+ * metrics are enabled for the data region.
+ * <p>
+ * SQL index pages are not covered by partition preloading, so they are warmed up by running the configured
+ * {@link #addIndexQuery(String, String) index queries}, which should scan the indexes that hot queries use.
+ * <p>
+ * Server nodes report progress to the node which started the warm-up with {@link #PROGRESS_TOPIC} messages.
+ */
+public class PersistenceWarmUp {
+    /** Topic of progress messages. */
+    public static final String PROGRESS_TOPIC = "persistence-warm-up-progress";
+
+    /** Default number of preloading threads per node. */
+    public static final int DFLT_THREADS = 4;
+
+    /** Caches to preload. */
+    private final List<String> caches = new ArrayList<>();
+
+    /** Index warm-up queries per cache. */
+    private final Map<String, List<String>> idxQrys = new LinkedHashMap<>();
+
+    /** Number of preloading threads per node. */
+    private int threads = DFLT_THREADS;
+
+    /** Data region memory budget per node in bytes. */
+    private long memBudget = Long.MAX_VALUE;
+
+    /** Whether backup partitions are preloaded too. */
+    private boolean backups;
+
+    /**
+     * @param cacheName Name of the cache to preload.
+     * @return {@code this} for chaining.
+     */
+    public PersistenceWarmUp addCache(String cacheName) {
+        caches.add(cacheName);
+
+        return this;
+    }
+
+    /**
+     * @param cacheName Name of the cache to run query on.
+     * @param sql SQL query which scans the index to warm up.
+     * @return {@code this} for chaining.
+     */
+    public PersistenceWarmUp addIndexQuery(String cacheName, String sql) {
+        List<String> qrys = idxQrys.get(cacheName);
+
+        if (qrys == null)
+            idxQrys.put(cacheName, qrys = new ArrayList<>());
+
+        qrys.add(sql);
+
+        return this;
+    }
+
+    /**
+     * @param threads Number of preloading threads per node.
+     * @return {@code this} for chaining.
+     */
+    public PersistenceWarmUp setThreads(int threads) {
+        this.threads = threads;
+
+        return this;
+    }
+
+    /**
+     * @param memBudget Data region memory budget per node in bytes.
+     * @return {@code this} for chaining.
+     */
+    public PersistenceWarmUp setMemoryBudget(long memBudget) {
+        this.memBudget = memBudget;
+
+        return this;
+    }
+
+    /**
+     * @param backups Whether backup partitions are preloaded too.
+     * @return {@code this} for chaining.
+     */
+    public PersistenceWarmUp setBackups(boolean backups) {
+        this.backups = backups;
+
+        return this;
+    }
+
+    /**
+     * Warms up configured caches and indexes on all server nodes. The cluster must be active.
+     *
+     * @param ignite Ignite instance.
+     * @return Warm-up time in milliseconds.
+     * @throws IgniteException If preloading of any partition failed.
+     */
+    public long run(Ignite ignite) {
+        long start = System.currentTimeMillis();
+
+        IgniteBiPredicate<UUID, String> lsnr = new IgniteBiPredicate<UUID, String>() {
+            @Override public boolean apply(UUID nodeId, String msg) {
+                System.out.println(">>> Warm-up [node=" + nodeId + "]: " + msg);
+
+                return true;
+            }
+        };
+
+        ignite.message().localListen(PROGRESS_TOPIC, lsnr);
+
+        try {
+            Collection<String> res = ignite.compute(ignite.cluster().forServers()).broadcast(
+                new PreloadJob(caches, threads, memBudget, backups, ignite.cluster().localNode().id()));
+
+            for (String nodeRes : res)
+                System.out.println(">>> Preloaded " + nodeRes);
+
+            for (Map.Entry<String, List<String>> e : idxQrys.entrySet()) {
+                IgniteCache<?, ?> cache = ignite.cache(e.getKey());
+
+                if (cache == null)
+                    throw new IgniteException("Cache is not started: " + e.getKey());
+
+                for (String sql : e.getValue()) {
+                    long qryStart = System.currentTimeMillis();
+
+                    List<List<?>> rows = cache.query(new SqlFieldsQuery(sql)).getAll();
+
+                    System.out.println(">>> Index warm-up query [cache=" + e.getKey() + ", rows=" + rows.size() +
+                        ", time=" + (System.currentTimeMillis() - qryStart) + "ms, sql=" + sql + ']');
+                }
+            }
+        }
+        finally {
+            ignite.message().stopLocalListen(PROGRESS_TOPIC, lsnr);
+        }
+
+        long dur = System.currentTimeMillis() - start;
+
+        System.out.println(">>> Warm-up finished in " + dur + "ms.");
+
+        return dur;
+    }
+
+    /**
+     * Preloads local partitions of the caches on one server node.
+     */
+    private static class PreloadJob implements IgniteCallable<String> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Number of progress reports per node. */
+        private static final int PROGRESS_STEPS = 10;
+
+        /** Bytes in megabyte. */
+        private static final long MB = 1024 * 1024;
+
+        /** Caches to preload. */
+        private final List<String> caches;
+
+        /** Number of preloading threads. */
+        private final int threads;
+
+        /** Data region memory budget in bytes. */
+        private final long memBudget;
+
+        /** Whether backup partitions are preloaded too. */
+        private final boolean backups;
+
+        /** ID of the node to report progress to. */
+        private final UUID origin;
+
+        /** Local Ignite instance. */
+        @IgniteInstanceResource
+        private transient Ignite ignite;
+
+        /**
+         * @param caches Caches to preload.
+         * @param threads Number of preloading threads.
+         * @param memBudget Data region memory budget in bytes.
+         * @param backups Whether backup partitions are preloaded too.
+         * @param origin ID of the node to report progress to.
+         */
+        PreloadJob(List<String> caches, int threads, long memBudget, boolean backups, UUID origin) {
+            this.caches = new ArrayList<>(caches);
+            this.threads = threads;
+            this.memBudget = memBudget;
+            this.backups = backups;
+            this.origin = origin;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String call() throws Exception {
+            long start = System.currentTimeMillis();
+
+            ClusterNode locNode = ignite.cluster().localNode();
+
+            List<IgniteCache<?, ?>> partCaches = new ArrayList<>();
+            List<DataRegionMetrics> partRegions = new ArrayList<>();
+            List<Integer> parts = new ArrayList<>();
+
+            for (String cacheName : caches) {
+                IgniteCache<?, ?> cache = ignite.cache(cacheName);
+
+                if (cache == null)
+                    throw new IgniteException("Cache is not started: " + cacheName);
+
+                DataRegionMetrics region = ignite.dataRegionMetrics(regionName(cache));
+
+                Affinity<?> aff = ignite.affinity(cacheName);
+
+                for (int part : backups ? aff.allPartitions(locNode) : aff.primaryPartitions(locNode)) {
+                    partCaches.add(cache);
+                    partRegions.add(region);
+                    parts.add(part);
+                }
+            }
+
+            final int total = parts.size();
+
+            final int step = Math.max(1, total / PROGRESS_STEPS);
+
+            final AtomicInteger preloaded = new AtomicInteger();
+            final AtomicInteger skipped = new AtomicInteger();
+            final AtomicInteger done = new AtomicInteger();
+
+            List<Future<?>> futs = new ArrayList<>(total);
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+            try {
+                for (int i = 0; i < total; i++) {
+                    final IgniteCache<?, ?> cache = partCaches.get(i);
+                    final DataRegionMetrics region = partRegions.get(i);
+                    final int part = parts.get(i);
+
+                    futs.add(pool.submit(new Runnable() {
+                        @Override public void run() {
+                            if (region != null && region.getPhysicalMemorySize() >= memBudget)
+                                skipped.incrementAndGet();
+                            else if (cache.localPreloadPartition(part))
+                                preloaded.incrementAndGet();
+
+                            int cnt = done.incrementAndGet();
+
+                            if (cnt % step == 0 || cnt == total)
+                                report(cnt + "/" + total + " partitions, preloaded=" + preloaded.get() +
+                                    ", skippedOverBudget=" + skipped.get() +
+                                    (region == null ? "" : ", regionMb=" + region.getPhysicalMemorySize() / MB));
+                        }
+                    }));
+                }
+            }
+            finally {
+                pool.shutdown();
+            }
+
+            int failed = 0;
+
+            IgniteException err = null;
+
+            for (int i = 0; i < futs.size(); i++) {
+                try {
+                    futs.get(i).get();
+                }
+                catch (ExecutionException e) {
+                    failed++;
+
+                    if (err == null)
+                        err = new IgniteException("Failed to preload partition [cache=" +
+                            partCaches.get(i).getName() + ", part=" + parts.get(i) + ']', e.getCause());
+                    else
+                        err.addSuppressed(e.getCause());
+                }
+            }
+
+            if (err != null) {
+                report("failed to preload " + failed + '/' + total + " partitions: " + err.getCause());
+
+                throw err;
+            }
+
+            return "[node=" + locNode.id() + ", partitions=" + total + ", preloaded=" + preloaded.get() +
+                ", skippedOverBudget=" + skipped.get() + ", time=" + (System.currentTimeMillis() - start) + "ms]";
+        }
+
+        /**
+         * Sends progress message to the origin node.
+         *
+         * @param msg Message.
+         */
+        private void report(String msg) {
+            try {
+                ignite.message(ignite.cluster().forNodeId(origin)).send(PROGRESS_TOPIC, msg);
+            }
+            catch (IgniteException ignored) {
+                // Origin node has left, nobody is interested in progress.
+            }
+        }
+
+        /**
+         * @param cache Cache.
+         * @return Name of the data region of the cache.
+         */
+        @SuppressWarnings("unchecked")
+        private static String regionName(IgniteCache<?, ?> cache) {
+            String name = cache.getConfiguration(CacheConfiguration.class).getDataRegionName();
+
+            return name != null ? name : DataStorageConfiguration.DFLT_DATA_REG_DEFAULT_NAME;
+        }
+    }
+}
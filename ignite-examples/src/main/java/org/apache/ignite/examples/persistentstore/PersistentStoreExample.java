@@ -30,6 +30,7 @@ import org.apache.ignite.cache.query.SqlFieldsQuery;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.examples.datagrid.CacheQueryExample;
 import org.apache.ignite.examples.model.Organization;
+import org.apache.ignite.examples.streaming.AdaptiveDataStreamer;
 
 /**
  * This example demonstrates the usage of Apache Ignite Persistent Store.
@@ -46,6 +47,11 @@ import org.apache.ignite.examples.model.Organization;
  * You can populate the cache first with {@code UPDATE} set to {@code true}, then restart the nodes and
  * run the example with {@code UPDATE} set to {@code false} to verify that Apache Ignite can work with the
  * data that is in the persistence only.
+ * <p>
+ * When {@code WARM_UP} parameter of this example is set to {@code true}, the cache partitions and its
+ * SQL index are preloaded into memory with {@link PersistenceWarmUp} before the queries are run. Compare
+ * the reported time of the first query after a restart with {@code WARM_UP} set to {@code true} and
+ * {@code false} to see the effect of cold pages.
  */
 public class PersistentStoreExample {
     /** Organizations cache name. */
@@ -54,6 +60,12 @@ public class PersistentStoreExample {
     /** */
     private static final boolean UPDATE = true;
 
+    /** */
+    private static final boolean WARM_UP = true;
+
+    /** Warm-up memory budget per node in bytes. */
+    private static final long WARM_UP_MEMORY_BUDGET = 256L * 1024 * 1024;
+
     /**
      * @param args Program arguments, ignored.
      * @throws Exception If failed.
@@ -78,18 +90,36 @@ public class PersistentStoreExample {
             if (UPDATE) {
                 System.out.println("Populating the cache...");
 
-                try (IgniteDataStreamer<Long, Organization> streamer = ignite.dataStreamer(ORG_CACHE)) {
-                    streamer.allowOverwrite(true);
+                IgniteDataStreamer<Long, Organization> stmr = ignite.dataStreamer(ORG_CACHE);
+
+                stmr.allowOverwrite(true);
 
+                // Buffer size and parallelism are tuned by write latency of the nodes.
+                try (AdaptiveDataStreamer<Long, Organization> streamer = new AdaptiveDataStreamer<>(ignite, stmr)) {
                     for (long i = 0; i < 100_000; i++) {
                         streamer.addData(i, new Organization(i, "organization-" + i));
 
                         if (i > 0 && i % 10_000 == 0)
                             System.out.println("Done: " + i);
                     }
+
+                    streamer.flush();
+
+                    System.out.println(streamer);
                 }
             }
 
+            if (WARM_UP) {
+                new PersistenceWarmUp()
+                    .addCache(ORG_CACHE)
+                    // Range condition on the indexed column makes the query scan the index on name.
+                    .addIndexQuery(ORG_CACHE, "select count(name) from Organization where name >= ''")
+                    .setMemoryBudget(WARM_UP_MEMORY_BUDGET)
+                    .run(ignite);
+            }
+
+            long qryStart = System.currentTimeMillis();
+
             // Run SQL without explicitly calling to loadCache().
             QueryCursor<List<?>> cur = cache.query(
                 new SqlFieldsQuery("select id, name from Organization where name like ?")
@@ -97,6 +127,11 @@ public class PersistentStoreExample {
 
             System.out.println("SQL Result: " + cur.getAll());
 
+            long qryEnd = System.currentTimeMillis();
+
+            // Only the query itself is timed, population and warm-up are not part of it.
+            System.out.println("First SQL query took " + (qryEnd - qryStart) + "ms [warmUp=" + WARM_UP + ']');
+
             // Run get() without explicitly calling to loadCache().
             Organization org = cache.get(54321l);
 
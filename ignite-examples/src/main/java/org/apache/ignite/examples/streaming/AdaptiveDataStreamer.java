@@ -0,0 +1,620 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.IgniteInterruptedException;
+import org.apache.ignite.cache.affinity.Affinity;
+import org.apache.ignite.cluster.ClusterNode;
+import org.apache.ignite.lang.IgniteBiTuple;
+import org.apache.ignite.lang.IgniteFuture;
+
+/**
+ * Data streamer wrapper which tunes batch size and parallelism per node at runtime.
+ * <p>
+ * Entries are grouped into batches per primary node and every batch is passed to the wrapped streamer
+ * and flushed at once, so the wrapper knows when each batch is sent and when it is acknowledged. A node
+ * may have at most its parallel operations limit of unacknowledged batches, further additions to that node
+ * block. Every adjustment interval the settings of every node are tuned AIMD-style:
+ * <ul>
+ *     <li>if batches of the node failed, average acknowledgement latency exceeded the target latency, or
+ *     throughput dropped by more than a fifth after the previous increase, the node is congested and both
+ *     batch size and parallelism are halved;</li>
+ *     <li>otherwise batch size grows by {@link #DFLT_BUFFER_SIZE_STEP} and parallelism by one.</li>
+ * </ul>
+ * So settings grow while servers keep up, and back off as soon as a server is overrun. Partial batches are
+ * flushed every auto flush frequency. Chosen settings and measured rates are exposed through
+ * {@link AdaptiveDataStreamerMXBean}.
+ * <p>
+ * Failure of a batch, or of the background auto flush, is reported once: by the next {@link #addData(Object, Object)},
+ * {@link #flush()} or {@link #close()}, whichever comes first. Later calls succeed unless something else fails.
+ * <p>
+ * The wrapped streamer must not have been used yet, its own buffer size and parallelism are raised so that
+ * they never limit the wrapper. Streamer is closed when the wrapper is closed.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class AdaptiveDataStreamer<K, V> implements AdaptiveDataStreamerMXBean, AutoCloseable {
+    /** Default initial batch size. */
+    public static final int DFLT_INITIAL_BUFFER_SIZE = IgniteDataStreamer.DFLT_PER_NODE_BUFFER_SIZE;
+
+    /** Default minimum batch size. */
+    public static final int DFLT_MIN_BUFFER_SIZE = 64;
+
+    /** Default maximum batch size. */
+    public static final int DFLT_MAX_BUFFER_SIZE = 16 * 1024;
+
+    /** Default additive increase of batch size. */
+    public static final int DFLT_BUFFER_SIZE_STEP = 128;
+
+    /** Default initial parallelism. */
+    public static final int DFLT_INITIAL_PARALLEL_OPS = 2;
+
+    /** Default maximum parallelism. */
+    public static final int DFLT_MAX_PARALLEL_OPS = 64;
+
+    /** Default target acknowledgement latency in milliseconds. */
+    public static final long DFLT_TARGET_LATENCY = 250;
+
+    /** Default adjustment interval in milliseconds. */
+    public static final long DFLT_ADJUST_INTERVAL = 1000;
+
+    /** Default auto flush frequency in milliseconds. */
+    public static final long DFLT_AUTO_FLUSH_FREQ = 100;
+
+    /** Wrapped streamer. */
+    private final IgniteDataStreamer<K, V> stmr;
+
+    /** Affinity of the cache. */
+    private final Affinity<K> aff;
+
+    /** Node controllers. */
+    private final ConcurrentMap<UUID, NodeController> nodes = new ConcurrentHashMap<>();
+
+    /** Scheduler of adjustments and auto flushes. */
+    private final ScheduledExecutorService scheduler;
+
+    /** Registered MBean name. */
+    private final ObjectName mbeanName;
+
+    /** Added entries. */
+    private final AtomicLong added = new AtomicLong();
+
+    /** Acknowledged entries. */
+    private final AtomicLong acked = new AtomicLong();
+
+    /** Failed batches. */
+    private final AtomicLong failed = new AtomicLong();
+
+    /** Congestions. */
+    private final AtomicLong congestions = new AtomicLong();
+
+    /** Target acknowledgement latency in milliseconds. */
+    private final long targetLatency;
+
+    /** Auto flush frequency in milliseconds. */
+    private final long autoFlushFreq;
+
+    /** First error not reported yet. */
+    private final AtomicReference<Throwable> err = new AtomicReference<>();
+
+    /**
+     * Creates wrapper with default settings.
+     *
+     * @param ignite Ignite instance.
+     * @param stmr Data streamer.
+     */
+    public AdaptiveDataStreamer(Ignite ignite, IgniteDataStreamer<K, V> stmr) {
+        this(ignite, stmr, DFLT_TARGET_LATENCY, DFLT_AUTO_FLUSH_FREQ);
+    }
+
+    /**
+     * @param ignite Ignite instance.
+     * @param stmr Data streamer.
+     * @param targetLatency Acknowledgement latency above which a node is considered congested in milliseconds.
+     * @param autoFlushFreq Auto flush frequency of partial batches in milliseconds.
+     */
+    public AdaptiveDataStreamer(Ignite ignite, IgniteDataStreamer<K, V> stmr, long targetLatency,
+        long autoFlushFreq) {
+        this.stmr = stmr;
+        this.targetLatency = targetLatency;
+        this.autoFlushFreq = autoFlushFreq;
+
+        aff = ignite.affinity(stmr.cacheName());
+
+        // Wrapper decides when batches are sent and how many of them are in flight.
+        stmr.perNodeBufferSize(DFLT_MAX_BUFFER_SIZE);
+        stmr.perNodeParallelOperations(DFLT_MAX_PARALLEL_OPS * 1024);
+
+        try {
+            mbeanName = new ObjectName("org.apache.ignite.examples:type=AdaptiveDataStreamer,name=" +
+                ObjectName.quote(stmr.cacheName() + '@' + Integer.toHexString(System.identityHashCode(this))));
+
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, mbeanName);
+        }
+        catch (JMException e) {
+            throw new IgniteException("Failed to register adaptive data streamer MBean [cache=" +
+                stmr.cacheName() + ']', e);
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "adaptive-data-streamer-" + stmr.cacheName());
+
+            t.setDaemon(true);
+
+            return t;
+        });
+
+        scheduler.scheduleWithFixedDelay(this::adjust, DFLT_ADJUST_INTERVAL, DFLT_ADJUST_INTERVAL,
+            TimeUnit.MILLISECONDS);
+
+        scheduler.scheduleWithFixedDelay(this::autoFlush, autoFlushFreq, autoFlushFreq, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds entry. Blocks while the primary node of the key has the maximum number of unacknowledged batches.
+     *
+     * @param key Key.
+     * @param val Value.
+     * @throws IgniteException If a batch failed since the error was reported last time, the entry is not added then.
+     */
+    public void addData(K key, V val) {
+        checkError();
+
+        ClusterNode node = aff.mapKeyToNode(key);
+
+        if (node == null)
+            throw new IgniteException("No nodes for the key [cache=" + stmr.cacheName() + ", key=" + key + ']');
+
+        NodeController ctl = nodes.computeIfAbsent(node.id(), NodeController::new);
+
+        List<Map.Entry<K, V>> batch = ctl.add(new IgniteBiTuple<>(key, val));
+
+        added.incrementAndGet();
+
+        if (batch != null)
+            submit(ctl, batch);
+    }
+
+    /**
+     * Sends all partial batches and waits until all entries are acknowledged.
+     *
+     * @throws IgniteException If a batch failed since the error was reported last time.
+     */
+    public void flush() {
+        for (NodeController ctl : nodes.values()) {
+            List<Map.Entry<K, V>> batch = ctl.takePartial(true);
+
+            if (batch != null)
+                submit(ctl, batch);
+        }
+
+        try {
+            stmr.flush();
+        }
+        catch (RuntimeException e) {
+            // Streamer reports failed batches itself, they must not be reported again.
+            err.set(null);
+
+            throw e;
+        }
+
+        checkError();
+    }
+
+    /**
+     * Reports the first error not reported yet and clears it, so that a failure is thrown once.
+     *
+     * @throws IgniteException If there is an error to report.
+     */
+    private void checkError() {
+        Throwable e = err.getAndSet(null);
+
+        if (e != null)
+            throw new IgniteException("Failed to stream data [cache=" + stmr.cacheName() + ", failedBatches=" +
+                failed.get() + ']', e);
+    }
+
+    /**
+     * Records error to be reported by the next call, keeps the first one if it is not reported yet.
+     *
+     * @param e Error.
+     */
+    private void onError(Throwable e) {
+        err.compareAndSet(null, e);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() {
+        try {
+            flush();
+        }
+        finally {
+            scheduler.shutdownNow();
+
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+            }
+            catch (JMException ignored) {
+                // No-op.
+            }
+
+            stmr.close();
+        }
+    }
+
+    /**
+     * Passes batch to the streamer and flushes it.
+     *
+     * @param ctl Node controller.
+     * @param batch Batch.
+     */
+    private void submit(NodeController ctl, List<Map.Entry<K, V>> batch) {
+        long start = System.nanoTime();
+
+        IgniteFuture<?> fut = stmr.addData(batch);
+
+        stmr.tryFlush();
+
+        fut.listen(f -> {
+            boolean ok = true;
+
+            try {
+                f.get();
+            }
+            catch (Exception e) {
+                ok = false;
+
+                onError(e);
+
+                failed.incrementAndGet();
+            }
+
+            if (ok)
+                acked.addAndGet(batch.size());
+
+            ctl.onAck(batch.size(), System.nanoTime() - start, ok);
+        });
+    }
+
+    /**
+     * Sends partial batches which waited for the auto flush frequency.
+     */
+    private void autoFlush() {
+        try {
+            for (NodeController ctl : nodes.values()) {
+                List<Map.Entry<K, V>> batch = ctl.takePartial(false);
+
+                if (batch != null)
+                    submit(ctl, batch);
+            }
+        }
+        catch (RuntimeException e) {
+            // Interrupted by close.
+            if (scheduler.isShutdown())
+                return;
+
+            // Exception would cancel the task, partial batches are flushed by the next run or by flush().
+            System.err.println("Auto flush of adaptive data streamer failed [cache=" + stmr.cacheName() + "]: " + e);
+
+            onError(e);
+        }
+    }
+
+    /**
+     * Adjusts settings of all nodes.
+     */
+    private void adjust() {
+        try {
+            for (NodeController ctl : nodes.values())
+                ctl.adjust();
+        }
+        catch (RuntimeException e) {
+            // Exception would cancel the task and settings would stay as they are.
+            System.err.println("Adjustment of adaptive data streamer failed [cache=" + stmr.cacheName() + "]: " + e);
+
+            onError(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String getCacheName() {
+        return stmr.cacheName();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String[] getNodeIds() {
+        List<String> ids = new ArrayList<>();
+
+        for (UUID id : nodes.keySet())
+            ids.add(id.toString());
+
+        return ids.toArray(new String[ids.size()]);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int[] getBufferSizes() {
+        return nodes.values().stream().mapToInt(ctl -> ctl.bufSize).toArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override public int[] getParallelOperations() {
+        return nodes.values().stream().mapToInt(ctl -> ctl.parallelOps).toArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override public int[] getInFlightBatches() {
+        return nodes.values().stream().mapToInt(ctl -> ctl.inFlight).toArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override public double[] getAckLatencies() {
+        return nodes.values().stream().mapToDouble(ctl -> ctl.lastLatency).toArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override public double[] getThroughputs() {
+        return nodes.values().stream().mapToDouble(ctl -> ctl.lastThroughput).toArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getThroughput() {
+        return nodes.values().stream().mapToDouble(ctl -> ctl.lastThroughput).sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getAddedCount() {
+        return added.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getAckedCount() {
+        return acked.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getFailedBatchCount() {
+        return failed.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getCongestionCount() {
+        return congestions.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getTargetLatency() {
+        return targetLatency;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("AdaptiveDataStreamer [cache=").append(stmr.cacheName())
+            .append(", throughput=").append((long)getThroughput())
+            .append(", congestions=").append(congestions.get());
+
+        for (Map.Entry<UUID, NodeController> e : nodes.entrySet()) {
+            NodeController ctl = e.getValue();
+
+            sb.append(", node=").append(e.getKey())
+                .append(" [bufSize=").append(ctl.bufSize)
+                .append(", parallelOps=").append(ctl.parallelOps)
+                .append(", latency=").append(String.format("%.1f", ctl.lastLatency))
+                .append(", throughput=").append((long)ctl.lastThroughput).append(']');
+        }
+
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Batching, flow control and settings of one node.
+     */
+    private class NodeController {
+        /** Node id. */
+        private final UUID nodeId;
+
+        /** Current batch. */
+        private List<Map.Entry<K, V>> batch = new ArrayList<>();
+
+        /** Time the first entry of the current batch was added at. */
+        private long batchStart;
+
+        /** Batch size. */
+        private volatile int bufSize = DFLT_INITIAL_BUFFER_SIZE;
+
+        /** Maximum number of unacknowledged batches. */
+        private volatile int parallelOps = DFLT_INITIAL_PARALLEL_OPS;
+
+        /** Number of unacknowledged batches. */
+        private volatile int inFlight;
+
+        /** Entries acknowledged in the current interval. */
+        private long intervalAcked;
+
+        /** Sum of acknowledgement latencies in the current interval in nanoseconds. */
+        private long intervalLatency;
+
+        /** Batches acknowledged in the current interval. */
+        private int intervalBatches;
+
+        /** Whether a batch failed in the current interval. */
+        private boolean intervalFailed;
+
+        /** Start of the current interval. */
+        private long intervalStart = System.nanoTime();
+
+        /** Whether settings were increased at the end of the previous interval. */
+        private boolean increased;
+
+        /** Average latency in the last interval in milliseconds. */
+        private volatile double lastLatency;
+
+        /** Throughput in the last interval in entries per second. */
+        private volatile double lastThroughput;
+
+        /**
+         * @param nodeId Node id.
+         */
+        NodeController(UUID nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        /**
+         * Adds entry to the current batch.
+         *
+         * @param e Entry.
+         * @return Full batch to submit or {@code null}.
+         */
+        synchronized List<Map.Entry<K, V>> add(Map.Entry<K, V> e) {
+            if (batch.isEmpty())
+                batchStart = System.nanoTime();
+
+            batch.add(e);
+
+            return batch.size() >= bufSize ? take() : null;
+        }
+
+        /**
+         * @param force Whether to take the batch regardless of its age.
+         * @return Partial batch to submit or {@code null}.
+         */
+        synchronized List<Map.Entry<K, V>> takePartial(boolean force) {
+            if (batch.isEmpty())
+                return null;
+
+            if (!force && (System.nanoTime() - batchStart < TimeUnit.MILLISECONDS.toNanos(autoFlushFreq) ||
+                inFlight >= parallelOps))
+                return null;
+
+            return take();
+        }
+
+        /**
+         * Takes the current batch, waiting until the number of unacknowledged batches drops below the limit.
+         *
+         * @return Batch or {@code null} if it was taken by another thread while waiting.
+         */
+        private List<Map.Entry<K, V>> take() {
+            try {
+                while (inFlight >= parallelOps)
+                    wait();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new IgniteInterruptedException(e);
+            }
+
+            if (batch.isEmpty())
+                return null;
+
+            List<Map.Entry<K, V>> res = batch;
+
+            batch = new ArrayList<>(bufSize);
+
+            inFlight++;
+
+            return res;
+        }
+
+        /**
+         * Records acknowledgement of a batch.
+         *
+         * @param size Batch size.
+         * @param latency Latency in nanoseconds.
+         * @param ok Whether the batch succeeded.
+         */
+        synchronized void onAck(int size, long latency, boolean ok) {
+            inFlight--;
+
+            if (ok)
+                intervalAcked += size;
+            else
+                intervalFailed = true;
+
+            intervalLatency += latency;
+            intervalBatches++;
+
+            notifyAll();
+        }
+
+        /**
+         * Adjusts settings by measurements of the current interval.
+         */
+        synchronized void adjust() {
+            long now = System.nanoTime();
+
+            double thr = intervalAcked * 1e9 / Math.max(1, now - intervalStart);
+
+            // No acknowledgements, nothing to judge by.
+            if (intervalBatches == 0 && !intervalFailed) {
+                intervalStart = now;
+
+                return;
+            }
+
+            double latency = intervalLatency / 1e6 / Math.max(1, intervalBatches);
+
+            boolean congested = intervalFailed || latency > targetLatency ||
+                (increased && thr < lastThroughput * 0.8);
+
+            if (congested) {
+                bufSize = Math.max(DFLT_MIN_BUFFER_SIZE, bufSize / 2);
+                parallelOps = Math.max(1, parallelOps / 2);
+
+                congestions.incrementAndGet();
+            }
+            else {
+                bufSize = Math.min(DFLT_MAX_BUFFER_SIZE, bufSize + DFLT_BUFFER_SIZE_STEP);
+                parallelOps = Math.min(DFLT_MAX_PARALLEL_OPS, parallelOps + 1);
+
+                // More batches may be in flight now.
+                notifyAll();
+            }
+
+            increased = !congested;
+
+            lastLatency = latency;
+            lastThroughput = thr;
+
+            intervalAcked = 0;
+            intervalLatency = 0;
+            intervalBatches = 0;
+            intervalFailed = false;
+            intervalStart = now;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming;
+
+/**
+ * Settings chosen by {@link AdaptiveDataStreamer} and measured rates exposed through JMX.
+ * <p>
+ * Per-node values are returned as arrays in the order of {@link #getNodeIds()}.
+ */
+public interface AdaptiveDataStreamerMXBean {
+    /**
+     * @return Cache name.
+     */
+    String getCacheName();
+
+    /**
+     * @return Ids of the nodes data is streamed to.
+     */
+    String[] getNodeIds();
+
+    /**
+     * @return Current batch sizes per node.
+     */
+    int[] getBufferSizes();
+
+    /**
+     * @return Current maximum numbers of unacknowledged batches per node.
+     */
+    int[] getParallelOperations();
+
+    /**
+     * @return Numbers of unacknowledged batches per node.
+     */
+    int[] getInFlightBatches();
+
+    /**
+     * @return Average batch acknowledgement latencies per node in the last adjustment interval in milliseconds.
+     */
+    double[] getAckLatencies();
+
+    /**
+     * @return Acknowledged entries per second per node in the last adjustment interval.
+     */
+    double[] getThroughputs();
+
+    /**
+     * @return Acknowledged entries per second of all nodes in the last adjustment interval.
+     */
+    double getThroughput();
+
+    /**
+     * @return Total number of added entries.
+     */
+    long getAddedCount();
+
+    /**
+     * @return Total number of acknowledged entries.
+     */
+    long getAckedCount();
+
+    /**
+     * @return Total number of failed batches.
+     */
+    long getFailedBatchCount();
+
+    /**
+     * @return Total number of times settings of a node were decreased because of congestion.
+     */
+    long getCongestionCount();
+
+    /**
+     * @return Acknowledgement latency above which a node is considered congested in milliseconds.
+     */
+    long getTargetLatency();
+}
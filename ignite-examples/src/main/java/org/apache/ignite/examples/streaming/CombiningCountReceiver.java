@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.MutableEntry;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.CacheEntryProcessor;
+import org.apache.ignite.stream.StreamReceiver;
+
+/**
+ * Receiver counting streamed numbers: streamed value of a number is added to its count in the cache.
+ * <p>
+ * Instead of an entry processor per streamed number, increments of a streamer batch are first combined by number
+ * in a primitive open addressing map, and then every distinct number of the batch is updated once with
+ * a single {@code invokeAll()}. With a small range of numbers a batch holds many increments of the same hot
+ * numbers, so the cache sees a fraction of the updates and lock contention on hot keys drops accordingly.
+ * Counts are the same as with one increment per number.
+ */
+public class CombiningCountReceiver implements StreamReceiver<Integer, Long> {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** {@inheritDoc} */
+    @Override public void receive(IgniteCache<Integer, Long> cache, Collection<Map.Entry<Integer, Long>> entries) {
+        IntLongMap incs = new IntLongMap(entries.size());
+
+        for (Map.Entry<Integer, Long> e : entries)
+            incs.add(e.getKey(), e.getValue());
+
+        Map<Integer, EntryProcessor<Integer, Long, Void>> updates = new HashMap<>(incs.size() * 2);
+
+        for (int i = 0; i < incs.capacity(); i++) {
+            if (incs.used(i))
+                updates.put(incs.key(i), new Increment(incs.value(i)));
+        }
+
+        cache.invokeAll(updates);
+    }
+
+    /**
+     * Entry processor adding combined increment to a count.
+     */
+    private static class Increment implements CacheEntryProcessor<Integer, Long, Void> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Increment. */
+        private final long inc;
+
+        /**
+         * @param inc Increment.
+         */
+        Increment(long inc) {
+            this.inc = inc;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Void process(MutableEntry<Integer, Long> e, Object... args) {
+            Long val = e.getValue();
+
+            e.setValue(val == null ? inc : val + inc);
+
+            return null;
+        }
+    }
+
+    /**
+     * Map of {@code int} keys to {@code long} sums with linear probing, sized once for the expected number of keys.
+     */
+    private static class IntLongMap {
+        /** Keys. */
+        private final int[] keys;
+
+        /** Sums. */
+        private final long[] vals;
+
+        /** Used slots. */
+        private final boolean[] used;
+
+        /** Mask of the slot index. */
+        private final int mask;
+
+        /** Shift of the hash to the slot index. */
+        private final int shift;
+
+        /** Number of keys. */
+        private int size;
+
+        /**
+         * @param maxSize Maximum number of keys.
+         */
+        IntLongMap(int maxSize) {
+            // Power of two, at most half full.
+            int cap = Integer.highestOneBit(Math.max(2, maxSize) * 2 - 1) * 2;
+
+            keys = new int[cap];
+            vals = new long[cap];
+            used = new boolean[cap];
+
+            mask = cap - 1;
+            shift = 32 - Integer.numberOfTrailingZeros(cap);
+        }
+
+        /**
+         * Adds value to the sum of the key.
+         *
+         * @param key Key.
+         * @param val Value.
+         */
+        void add(int key, long val) {
+            // Fibonacci hashing spreads sequential numbers over the table.
+            int i = (key * 0x9E3779B9) >>> shift;
+
+            while (used[i] && keys[i] != key)
+                i = (i + 1) & mask;
+
+            if (!used[i]) {
+                used[i] = true;
+                keys[i] = key;
+
+                size++;
+            }
+
+            vals[i] += val;
+        }
+
+        /**
+         * @return Number of keys.
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return Number of slots.
+         */
+        int capacity() {
+            return keys.length;
+        }
+
+        /**
+         * @param i Slot.
+         * @return Whether the slot holds a key.
+         */
+        boolean used(int i) {
+            return used[i];
+        }
+
+        /**
+         * @param i Slot.
+         * @return Key.
+         */
+        int key(int i) {
+            return keys[i];
+        }
+
+        /**
+         * @param i Slot.
+         * @return Sum.
+         */
+        long value(int i) {
+            return vals[i];
+        }
+    }
+}
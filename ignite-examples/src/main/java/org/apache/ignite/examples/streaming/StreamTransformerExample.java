@@ -32,6 +32,11 @@ import org.apache.ignite.stream.StreamTransformer;
 
 /**
  * Stream random numbers into the streaming cache.
+ * <p>
+ * Numbers are counted by {@link CombiningCountReceiver}, which combines increments of a streamer batch before
+ * updating the cache once per distinct number, instead of a {@link StreamTransformer} updating the cache once
+ * per streamed number.
+ * <p>
  * To start the example, you should:
  * <ul>
  *     <li>Start a few nodes using {@link ExampleNodeStartup} or by starting remote nodes as specified below.</li>
@@ -69,16 +74,8 @@ public class StreamTransformerExample {
                     // Allow data updates.
                     stmr.allowOverwrite(true);
 
-                    // Configure data transformation to count random numbers added to the stream.
-                    stmr.receiver(StreamTransformer.from((e, arg) -> {
-                        // Get current count.
-                        Long val = e.getValue();
-
-                        // Increment count by 1.
-                        e.setValue(val == null ? 1L : val + 1);
-
-                        return null;
-                    }));
+                    // Count random numbers added to the stream, combining increments of every batch.
+                    stmr.receiver(new CombiningCountReceiver());
 
                     // Stream 10 million of random numbers into the streamer cache.
                     for (int i = 1; i <= 10_000_000; i++) {
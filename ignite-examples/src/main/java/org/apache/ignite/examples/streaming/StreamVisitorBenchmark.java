@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.examples.streaming.StreamVisitorExample.Instrument;
+import org.apache.ignite.examples.streaming.eventtime.OhlcBar;
+import org.apache.ignite.examples.streaming.eventtime.OhlcBarKey;
+import org.apache.ignite.examples.streaming.eventtime.Tick;
+import org.apache.ignite.stream.StreamReceiver;
+import org.apache.ignite.stream.StreamVisitor;
+
+/**
+ * Compares instrument updates of {@link StreamVisitorExample} with {@link StreamVisitor} doing {@code get()} and
+ * {@code put()} per tick with {@link StreamVisitorExample#instrumentUpdater(String, String)} doing one
+ * {@code invoke()} per symbol per streamer batch.
+ * <p>
+ * Ticks are generated upfront with event times slightly out of order, so that generation does not affect results.
+ * Number of ticks can be passed as the first argument, default is {@link #DFLT_TICK_COUNT}.
+ */
+public class StreamVisitorBenchmark {
+    /** Default number of ticks. */
+    private static final int DFLT_TICK_COUNT = 2_000_000;
+
+    /** Market data cache name. */
+    private static final String MKT_CACHE_NAME = "marketTicks";
+
+    /** Instrument cache name. */
+    private static final String INST_CACHE_NAME = "instCache";
+
+    /** OHLC bar cache name. */
+    private static final String BAR_CACHE_NAME = "instBars";
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, optional number of ticks.
+     * @throws Exception If benchmark execution failed.
+     */
+    public static void main(String[] args) throws Exception {
+        int cnt = args.length > 0 ? Integer.parseInt(args[0]) : DFLT_TICK_COUNT;
+
+        Random rnd = new Random(0);
+
+        int[] idxs = new int[cnt];
+        Tick[] ticks = new Tick[cnt];
+
+        for (int i = 0; i < cnt; i++) {
+            idxs[i] = rnd.nextInt(StreamVisitorExample.INSTRUMENTS.length);
+
+            double price =
+                StreamVisitorExample.round2(StreamVisitorExample.INITIAL_PRICES[idxs[i]] + rnd.nextGaussian());
+
+            // 100 ticks per millisecond, delayed by up to 50 milliseconds.
+            ticks[i] = new Tick(i / 100 - rnd.nextInt(50), price);
+        }
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Stream visitor benchmark started [ticks=" + cnt + ']');
+
+            // Warm up both receivers.
+            run(ignite, idxs, ticks, cnt / 10, false);
+            run(ignite, idxs, ticks, cnt / 10, true);
+
+            long visitor = run(ignite, idxs, ticks, cnt, false);
+            long batch = run(ignite, idxs, ticks, cnt, true);
+
+            System.out.println();
+            System.out.println(">>> Results:");
+            System.out.println(">>>   StreamVisitor get/put per tick:  " + visitor + "ms (" +
+                cnt * 1000L / Math.max(1, visitor) + " ticks/sec)");
+            System.out.println(">>>   Batch invoke per symbol:         " + batch + "ms (" +
+                cnt * 1000L / Math.max(1, batch) + " ticks/sec)");
+        }
+    }
+
+    /**
+     * Streams ticks into new caches.
+     *
+     * @param ignite Ignite instance.
+     * @param idxs Instrument indexes.
+     * @param ticks Ticks.
+     * @param cnt Number of ticks to stream.
+     * @param batch Whether to use the batch receiver.
+     * @return Streaming time in milliseconds.
+     */
+    private static long run(Ignite ignite, int[] idxs, Tick[] ticks, int cnt, boolean batch) {
+        try (
+            IgniteCache<String, Tick> mktCache = ignite.getOrCreateCache(MKT_CACHE_NAME);
+            IgniteCache<String, Instrument> instCache =
+                ignite.getOrCreateCache(new CacheConfiguration<String, Instrument>(INST_CACHE_NAME));
+            IgniteCache<OhlcBarKey, OhlcBar> barCache =
+                ignite.getOrCreateCache(new CacheConfiguration<OhlcBarKey, OhlcBar>(BAR_CACHE_NAME))
+        ) {
+            StreamReceiver<String, Tick> rcvr = batch ?
+                StreamVisitorExample.instrumentUpdater(INST_CACHE_NAME, BAR_CACHE_NAME) :
+                StreamVisitor.from((cache, e) -> {
+                    String symbol = e.getKey();
+                    Tick tick = e.getValue();
+
+                    Instrument inst = instCache.get(symbol);
+
+                    if (inst == null)
+                        inst = new Instrument(symbol);
+
+                    List<OhlcBar> bars = new ArrayList<>();
+
+                    inst.update(tick, bars);
+
+                    instCache.put(symbol, inst);
+
+                    for (OhlcBar bar : bars)
+                        barCache.put(bar.key(), bar);
+                });
+
+            long start = System.currentTimeMillis();
+
+            try (IgniteDataStreamer<String, Tick> stmr = ignite.dataStreamer(mktCache.getName())) {
+                stmr.receiver(rcvr);
+
+                for (int i = 0; i < cnt; i++)
+                    stmr.addData(StreamVisitorExample.INSTRUMENTS[idxs[i]], ticks[i]);
+            }
+
+            long dur = System.currentTimeMillis() - start;
+
+            if (instCache.size() != StreamVisitorExample.INSTRUMENTS.length)
+                throw new IgniteException("Unexpected number of instruments: " + instCache.size());
+
+            return dur;
+        }
+        finally {
+            ignite.destroyCache(MKT_CACHE_NAME);
+            ignite.destroyCache(INST_CACHE_NAME);
+            ignite.destroyCache(BAR_CACHE_NAME);
+        }
+    }
+}
@@ -18,22 +18,46 @@
 package org.apache.ignite.examples.streaming;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import javax.cache.processor.MutableEntry;
 
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
 import org.apache.ignite.IgniteDataStreamer;
 import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.CacheEntryProcessor;
 import org.apache.ignite.cache.query.SqlFieldsQuery;
 import org.apache.ignite.cache.query.annotations.QuerySqlField;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.examples.ExampleNodeStartup;
 import org.apache.ignite.examples.ExamplesUtils;
-import org.apache.ignite.stream.StreamVisitor;
+import org.apache.ignite.examples.streaming.eventtime.OhlcBar;
+import org.apache.ignite.examples.streaming.eventtime.OhlcBarKey;
+import org.apache.ignite.examples.streaming.eventtime.ReorderBuffer;
+import org.apache.ignite.examples.streaming.eventtime.Tick;
+import org.apache.ignite.examples.streaming.topk.TopKResult;
+import org.apache.ignite.examples.streaming.topk.TopKService;
+import org.apache.ignite.examples.streaming.window.WindowAggregate;
+import org.apache.ignite.examples.streaming.window.WindowSpec;
+import org.apache.ignite.examples.streaming.window.WindowStore;
+import org.apache.ignite.stream.StreamReceiver;
 
 /**
  * Stream random numbers into the streaming cache.
+ * <p>
+ * Ticks carry the time they were traded at and arrive out of order. Every instrument applies them in event-time
+ * order: ticks are reordered within {@link #MAX_LATENESS} behind the latest tick of the instrument, later ones are
+ * dropped, see {@link ReorderBuffer}. Once the watermark passes the end of a {@link #BAR_SIZE} window, its
+ * {@link OhlcBar} is emitted into the bar cache, collocated with the instrument.
+ * <p>
+ * Ticks are also aggregated in a 5 second sliding window per instrument, see {@link WindowStore},
+ * and the most traded instruments are tracked approximately, see {@link TopKService}.
+ * <p>
  * To start the example, you should:
  * <ul>
  *     <li>Start a few nodes using {@link ExampleNodeStartup} or by starting remote nodes as specified below.</li>
@@ -47,10 +71,22 @@ public class StreamVisitorExample {
     private static final Random RAND = new Random();
 
     /** The list of instruments. */
-    private static final String[] INSTRUMENTS = {"IBM", "GOOG", "MSFT", "GE", "EBAY", "YHOO", "ORCL", "CSCO", "AMZN", "RHT"};
+    static final String[] INSTRUMENTS = {"IBM", "GOOG", "MSFT", "GE", "EBAY", "YHOO", "ORCL", "CSCO", "AMZN", "RHT"};
 
     /** The list of initial instrument prices. */
-    private static final double[] INITIAL_PRICES = {194.9, 893.49, 34.21, 23.24, 57.93, 45.03, 44.41, 28.44, 378.49, 69.50};
+    static final double[] INITIAL_PRICES = {194.9, 893.49, 34.21, 23.24, 57.93, 45.03, 44.41, 28.44, 378.49, 69.50};
+
+    /** OHLC bar size in milliseconds. */
+    static final long BAR_SIZE = 1000;
+
+    /** Maximum lateness of a tick behind the latest tick of the instrument in milliseconds. */
+    static final long MAX_LATENESS = 200;
+
+    /** Maximum number of ticks buffered for reordering per instrument. */
+    static final int REORDER_CAPACITY = 1024;
+
+    /** Standard deviation of the delay between trade and arrival of a tick in milliseconds. */
+    private static final double DELAY_STDEV = 60;
 
     public static void main(String[] args) throws Exception {
         // Mark this cluster member as client.
@@ -61,7 +97,7 @@ public class StreamVisitorExample {
                 return;
 
             // Market data cache with default configuration.
-            CacheConfiguration<String, Double> mktDataCfg = new CacheConfiguration<>("marketTicks");
+            CacheConfiguration<String, Tick> mktDataCfg = new CacheConfiguration<>("marketTicks");
 
             // Financial instrument cache configuration.
             CacheConfiguration<String, Instrument> instCfg = new CacheConfiguration<>("instCache");
@@ -70,30 +106,30 @@ public class StreamVisitorExample {
             // Note that Instrument class has @QuerySqlField annotation for secondary field indexing.
             instCfg.setIndexedTypes(String.class, Instrument.class);
 
+            // OHLC bars, collocated with instruments by symbol.
+            CacheConfiguration<OhlcBarKey, OhlcBar> barCfg = new CacheConfiguration<>("instBars");
+
+            // Tick count, average, min and max price of the last 5 seconds, moving by 500 milliseconds.
+            WindowStore<String> tickWindows = new WindowStore<>(ignite, "tickWindows", WindowSpec.sliding(5000, 10));
+
+            // Approximate most traded instruments.
+            TopKService<String> tickTopK = new TopKService<>(ignite, "tickTopK", 100, 0.001, 0.01);
+
             // Auto-close caches at the end of the example.
             try (
-                IgniteCache<String, Double> mktCache = ignite.getOrCreateCache(mktDataCfg);
-                IgniteCache<String, Instrument> instCache = ignite.getOrCreateCache(instCfg)
+                IgniteCache<String, Tick> mktCache = ignite.getOrCreateCache(mktDataCfg);
+                IgniteCache<String, Instrument> instCache = ignite.getOrCreateCache(instCfg);
+                IgniteCache<OhlcBarKey, OhlcBar> barCache = ignite.getOrCreateCache(barCfg)
             ) {
-                try (IgniteDataStreamer<String, Double> mktStmr = ignite.dataStreamer(mktCache.getName())) {
+                try (IgniteDataStreamer<String, Tick> mktStmr = ignite.dataStreamer(mktCache.getName());
+                     IgniteDataStreamer<String, Double> winStmr = tickWindows.streamer();
+                     IgniteDataStreamer<String, Long> topKStmr = tickTopK.streamer()) {
                     // Note that we receive market data, but do not populate 'mktCache' (it remains empty).
                     // Instead we update the instruments in the 'instCache'.
                     // Since both, 'instCache' and 'mktCache' use the same key, updates are collocated.
-                    mktStmr.receiver(StreamVisitor.from((cache, e) -> {
-                        String symbol = e.getKey();
-                        Double tick = e.getValue();
-
-                        Instrument inst = instCache.get(symbol);
+                    mktStmr.receiver(instrumentUpdater(instCfg.getName(), barCfg.getName()));
 
-                        if (inst == null)
-                            inst = new Instrument(symbol);
-
-                        // Don't populate market cache, as we don't use it for querying.
-                        // Update cached instrument based on the latest market tick.
-                        inst.update(tick);
-
-                        instCache.put(symbol, inst);
-                    }));
+                    long start = System.currentTimeMillis();
 
                     // Stream 10 million market data ticks into the system.
                     for (int i = 1; i <= 10_000_000; i++) {
@@ -103,11 +139,23 @@ public class StreamVisitorExample {
                         // numbers closer to 0 have higher probability.
                         double price = round2(INITIAL_PRICES[idx] + RAND.nextGaussian());
 
-                        mktStmr.addData(INSTRUMENTS[idx], price);
+                        // Tick was traded a random delay ago, so ticks of an instrument arrive out of order.
+                        long time = System.currentTimeMillis() - (long)Math.abs(RAND.nextGaussian() * DELAY_STDEV);
+
+                        mktStmr.addData(INSTRUMENTS[idx], new Tick(time, price));
+                        winStmr.addData(INSTRUMENTS[idx], price);
+                        topKStmr.addData(INSTRUMENTS[idx], 1L);
 
                         if (i % 500_000 == 0)
                             System.out.println("Number of tuples streamed into Ignite: " + i);
                     }
+
+                    mktStmr.flush();
+
+                    long dur = System.currentTimeMillis() - start;
+
+                    System.out.println("Streamed 10000000 ticks in " + dur + "ms (" +
+                        10_000_000L * 1000 / Math.max(1, dur) + " ticks/sec)");
                 }
 
                 // Select top 3 best performing instruments.
@@ -121,22 +169,67 @@ public class StreamVisitorExample {
 
                 // Print top 10 words.
                 ExamplesUtils.printQueryResults(top3);
+
+                System.out.println("Ticks of the last 5 seconds: ");
+
+                // Window results are computed from 10 slots per instrument, not from the ticks.
+                for (String symbol : INSTRUMENTS) {
+                    WindowAggregate res = tickWindows.result(symbol);
+
+                    System.out.printf("%s [ticks=%d, avg=%.2f, min=%.2f, max=%.2f]%n",
+                        symbol, res.count(), res.avg(), res.min(), res.max());
+                }
+
+                System.out.println("Last OHLC bars: ");
+
+                for (String symbol : INSTRUMENTS) {
+                    Instrument inst = instCache.get(symbol);
+
+                    OhlcBar bar = barCache.get(new OhlcBarKey(symbol, inst.lastBarStart()));
+
+                    System.out.println((bar != null ? bar.toString() : symbol + " has no closed bars") +
+                        " [lateTicks=" + inst.lateTicks() + ']');
+                }
+
+                TopKResult<String> top3Traded = tickTopK.top(3);
+
+                System.out.println("Most traded instruments (symbol, ticks estimate, lower bound): " + top3Traded);
+
+                ExamplesUtils.printQueryResults(top3Traded.rows());
             }
             finally {
                 // Distributed cache could be removed from cluster only by #destroyCache() call.
                 ignite.destroyCache(mktDataCfg.getName());
                 ignite.destroyCache(instCfg.getName());
+                ignite.destroyCache(barCfg.getName());
+                tickWindows.destroy();
+                tickTopK.destroy();
             }
         }
     }
 
+    /**
+     * Creates receiver which updates instruments with ticks of every streamer batch.
+     * <p>
+     * Ticks of a batch are grouped by symbol, and every instrument is updated once per batch with a single
+     * {@code invoke()} instead of {@code get()} and {@code put()} per tick. Bars closed by the ticks are
+     * put into the bar cache with one {@code putAll()} per batch.
+     *
+     * @param instCacheName Instrument cache name.
+     * @param barCacheName OHLC bar cache name.
+     * @return Stream receiver.
+     */
+    public static StreamReceiver<String, Tick> instrumentUpdater(String instCacheName, String barCacheName) {
+        return new InstrumentUpdater(instCacheName, barCacheName);
+    }
+
     /**
      * Rounds double value to two significant signs.
      *
      * @param val value to be rounded.
      * @return rounded double value.
      */
-    private static double round2(double val) {
+    static double round2(double val) {
         return Math.floor(100 * val + 0.5) / 100;
     }
 
@@ -156,6 +249,19 @@ public class StreamVisitorExample {
         @QuerySqlField(index = true)
         private double latest;
 
+        /** Event time of the latest price. */
+        @QuerySqlField
+        private long latestTime;
+
+        /** Ticks waiting for the watermark. */
+        private final ReorderBuffer buf = new ReorderBuffer(MAX_LATENESS, REORDER_CAPACITY);
+
+        /** Bar of the current window, {@code null} before the first tick of the window. */
+        private OhlcBar bar;
+
+        /** Start time of the last emitted bar. */
+        private long lastBarStart = Long.MIN_VALUE;
+
         /**
          * @param symbol Symbol.
          */
@@ -164,15 +270,172 @@ public class StreamVisitorExample {
         }
 
         /**
-         * Updates this instrument based on the latest market tick price.
+         * Updates this instrument with a market tick. Prices are applied in event-time order once the watermark
+         * passes the tick, so open and latest prices do not depend on arrival order.
          *
-         * @param price Latest price.
+         * @param tick Tick.
+         * @param bars Collection to add emitted bars to.
+         * @return {@code False} if tick is late and dropped.
+         */
+        public boolean update(Tick tick, Collection<OhlcBar> bars) {
+            return update(tick.time(), tick.price(), bars);
+        }
+
+        /**
+         * @param time Event time in milliseconds.
+         * @param price Price.
+         * @param bars Collection to add emitted bars to.
+         * @return {@code False} if tick is late and dropped.
          */
-        public void update(double price) {
+        boolean update(long time, double price, Collection<OhlcBar> bars) {
+            boolean accepted = buf.add(time, price, (t, p) -> apply(t, p, bars));
+
+            // No more ticks of the window can arrive.
+            if (bar != null && buf.watermark() >= bar.end())
+                emit(bars);
+
+            return accepted;
+        }
+
+        /**
+         * @return Start time of the last emitted bar, {@link Long#MIN_VALUE} if none.
+         */
+        public long lastBarStart() {
+            return lastBarStart;
+        }
+
+        /**
+         * @return Number of dropped late ticks.
+         */
+        public long lateTicks() {
+            return buf.lateCount();
+        }
+
+        /**
+         * Applies tick released by the watermark.
+         *
+         * @param time Event time in milliseconds.
+         * @param price Price.
+         * @param bars Collection to add emitted bars to.
+         */
+        private void apply(long time, double price, Collection<OhlcBar> bars) {
+            if (bar != null && time >= bar.end())
+                emit(bars);
+
+            if (bar == null)
+                bar = new OhlcBar(symbol, time, BAR_SIZE);
+
+            bar.add(price);
+
             if (open == 0)
                 open = price;
 
-            this.latest = price;
+            latest = price;
+            latestTime = time;
+        }
+
+        /**
+         * Emits bar of the current window.
+         *
+         * @param bars Collection to add emitted bars to.
+         */
+        private void emit(Collection<OhlcBar> bars) {
+            bars.add(bar);
+
+            lastBarStart = bar.start();
+
+            bar = null;
+        }
+    }
+
+    /**
+     * Receiver grouping ticks of a batch by symbol.
+     */
+    private static class InstrumentUpdater implements StreamReceiver<String, Tick> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Instrument cache name. */
+        private final String instCacheName;
+
+        /** OHLC bar cache name. */
+        private final String barCacheName;
+
+        /**
+         * @param instCacheName Instrument cache name.
+         * @param barCacheName OHLC bar cache name.
+         */
+        InstrumentUpdater(String instCacheName, String barCacheName) {
+            this.instCacheName = instCacheName;
+            this.barCacheName = barCacheName;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void receive(IgniteCache<String, Tick> cache, Collection<Map.Entry<String, Tick>> entries) {
+            Ignite ignite = cache.unwrap(Ignite.class);
+
+            IgniteCache<String, Instrument> instCache = ignite.cache(instCacheName);
+
+            // Ticks of every symbol in the streaming order.
+            Map<String, List<Tick>> ticks = new HashMap<>();
+
+            for (Map.Entry<String, Tick> e : entries)
+                ticks.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).add(e.getValue());
+
+            Map<OhlcBarKey, OhlcBar> bars = new HashMap<>();
+
+            // Symbols are collocated with the ticks, so instruments are updated on this node.
+            for (Map.Entry<String, List<Tick>> e : ticks.entrySet()) {
+                for (OhlcBar bar : instCache.invoke(e.getKey(), new TickUpdate(e.getValue())))
+                    bars.put(bar.key(), bar);
+            }
+
+            if (!bars.isEmpty())
+                ignite.<OhlcBarKey, OhlcBar>cache(barCacheName).putAll(bars);
+        }
+    }
+
+    /**
+     * Entry processor applying ticks of a batch to an instrument.
+     */
+    private static class TickUpdate implements CacheEntryProcessor<String, Instrument, List<OhlcBar>> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Event times. */
+        private final long[] times;
+
+        /** Prices. */
+        private final double[] prices;
+
+        /**
+         * @param ticks Ticks in the streaming order.
+         */
+        TickUpdate(List<Tick> ticks) {
+            times = new long[ticks.size()];
+            prices = new double[ticks.size()];
+
+            for (int i = 0; i < times.length; i++) {
+                times[i] = ticks.get(i).time();
+                prices[i] = ticks.get(i).price();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public List<OhlcBar> process(MutableEntry<String, Instrument> e, Object... args) {
+            Instrument inst = e.getValue();
+
+            if (inst == null)
+                inst = new Instrument(e.getKey());
+
+            List<OhlcBar> bars = new ArrayList<>();
+
+            for (int i = 0; i < times.length; i++)
+                inst.update(times[i], prices[i], bars);
+
+            e.setValue(inst);
+
+            return bars;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,942 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.examples.datagrid.CacheDataStreamerExample;
+import org.apache.ignite.examples.streaming.StreamVisitorExample.Instrument;
+import org.apache.ignite.examples.streaming.eventtime.OhlcBar;
+import org.apache.ignite.examples.streaming.eventtime.OhlcBarKey;
+import org.apache.ignite.examples.streaming.eventtime.Tick;
+import org.apache.ignite.examples.streaming.exactlyonce.ExactlyOnceStreamer;
+import org.apache.ignite.examples.streaming.topk.TopKService;
+import org.apache.ignite.examples.streaming.window.WindowSpec;
+import org.apache.ignite.examples.streaming.window.WindowStore;
+import org.apache.ignite.examples.streaming.wordcount.StreamWords;
+import org.apache.ignite.examples.streaming.wordcount.socket.WordsNioStreamer;
+import org.apache.ignite.examples.streaming.wordcount.socket.WordsNioStreamerClient;
+import org.apache.ignite.examples.streaming.wordcount.socket.WordsNioStreamerServer;
+import org.apache.ignite.examples.streaming.wordcount.socket.WordsSocketStreamerServer;
+import org.apache.ignite.lang.IgniteBiTuple;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.spi.discovery.tcp.ipfinder.vm.TcpDiscoveryVmIpFinder;
+import org.apache.ignite.stream.socket.SocketStreamer;
+
+/**
+ * Runs the ingestion path of every streaming example against embedded server nodes started in this JVM, and
+ * appends results to a CSV file.
+ * <p>
+ * Ingestion paths are the ones of {@link CacheDataStreamerExample} with values of every size of
+ * {@link #PAYLOAD_SIZES}, {@link StreamTransformerExample}, {@link StreamVisitorExample}, {@link StreamWords},
+ * {@link WordsNioStreamerServer} and {@link WordsSocketStreamerServer}, each with the streamers and receivers of
+ * the example. Nodes use the examples configuration, but discovery is isolated from other example nodes. Every path
+ * is run once with a tenth of the events to warm up, and then measured. The following is recorded per path:
+ * <ul>
+ *     <li>events per second, until all events are streamed and flushed;</li>
+ *     <li>p50/p99 latency from adding an event until it is queryable, measured on every {@link #PROBE_EVERY}-th
+ *     event, which has a unique key, by a thread polling the cache for the key;</li>
+ *     <li>bytes allocated per event by all threads of the JVM, which hold both the clients and the servers,
+ *     including threads that exit during the run, and the number and time of garbage collections.</li>
+ * </ul>
+ * Number of events per path, number of nodes and CSV file path can be passed as arguments, defaults are
+ * {@link #DFLT_EVENT_COUNT}, {@link #DFLT_NODE_COUNT} and {@code streaming-benchmark.csv}. Rows are appended, so
+ * results of several runs can be compared.
+ */
+public class StreamingBenchmarkSuite {
+    /** Default number of events per ingestion path. */
+    private static final int DFLT_EVENT_COUNT = 1_000_000;
+
+    /** Default number of server nodes. */
+    private static final int DFLT_NODE_COUNT = 2;
+
+    /** Value sizes of the {@link CacheDataStreamerExample} path. */
+    private static final int[] PAYLOAD_SIZES = {16, 256, 1024};
+
+    /** Every this event is a latency probe. */
+    private static final int PROBE_EVERY = 1000;
+
+    /** Maximum time to wait for probes and socket servers. */
+    private static final long TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+    /** Prefix of cache names. */
+    private static final String PREFIX = "streamingBenchmark-";
+
+    /** Port of the socket servers. */
+    private static final int SOCK_PORT = 5557;
+
+    /** CSV header. */
+    private static final String CSV_HEADER = "timestamp,path,payload,nodes,events,duration_ms,events_per_sec," +
+        "probes,p50_us,p99_us,alloc_bytes_per_event,gc_count,gc_time_ms";
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments: number of events per path, number of nodes and CSV file path, all
+     *      optional.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : DFLT_EVENT_COUNT;
+        int nodes = args.length > 1 ? Integer.parseInt(args[1]) : DFLT_NODE_COUNT;
+
+        File csv = new File(args.length > 2 ? args[2] : "streaming-benchmark.csv");
+
+        List<String> words = StreamWords.readWords();
+
+        List<Path> paths = new ArrayList<>();
+
+        for (int size : PAYLOAD_SIZES)
+            paths.add(new DataStreamerPath(size));
+
+        paths.add(new TransformerPath());
+        paths.add(new VisitorPath());
+        paths.add(new WordsPath(words));
+        paths.add(new NioSocketPath(words));
+        paths.add(new SocketStreamerPath(words));
+
+        List<Ignite> ignites = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < nodes; i++)
+                ignites.add(Ignition.start(configuration(i)));
+
+            // Events are streamed from the first node.
+            Ignite ignite = ignites.get(0);
+
+            System.out.println();
+            System.out.println(">>> Streaming benchmark suite started [events=" + events + ", nodes=" + nodes + ']');
+
+            for (Path path : paths)
+                run(ignite, path, Math.max(PROBE_EVERY, events / 10), nodes);
+
+            boolean newFile = !csv.exists();
+
+            List<String> rows = new ArrayList<>();
+
+            try (PrintWriter out = new PrintWriter(new FileWriter(csv, true))) {
+                if (newFile)
+                    out.println(CSV_HEADER);
+
+                for (Path path : paths) {
+                    String row = run(ignite, path, events, nodes);
+
+                    out.println(row);
+                    out.flush();
+
+                    rows.add(row);
+                }
+            }
+
+            System.out.println();
+            System.out.println(">>> Results (" + CSV_HEADER + "):");
+
+            for (String row : rows)
+                System.out.println(">>>   " + row);
+
+            System.out.println(">>> Results are written to " + csv.getAbsolutePath());
+        }
+        finally {
+            for (Ignite ignite : ignites)
+                ignite.close();
+        }
+    }
+
+    /**
+     * @param idx Node index.
+     * @return Configuration of a node.
+     */
+    private static IgniteConfiguration configuration(int idx) {
+        IgniteConfiguration cfg = new IgniteConfiguration();
+
+        cfg.setIgniteInstanceName("streaming-benchmark-" + idx);
+
+        // Same as in examples configuration.
+        cfg.setPeerClassLoadingEnabled(true);
+
+        // Do not join example nodes which may be running on the same host.
+        TcpDiscoveryVmIpFinder ipFinder = new TcpDiscoveryVmIpFinder();
+
+        ipFinder.setAddresses(Collections.singleton("127.0.0.1:47600..47609"));
+
+        TcpDiscoverySpi discoSpi = new TcpDiscoverySpi();
+
+        discoSpi.setLocalPort(47600);
+        discoSpi.setIpFinder(ipFinder);
+
+        cfg.setDiscoverySpi(discoSpi);
+
+        return cfg;
+    }
+
+    /**
+     * Runs ingestion path.
+     *
+     * @param ignite Ignite instance.
+     * @param path Ingestion path.
+     * @param events Number of events.
+     * @param nodes Number of nodes.
+     * @return CSV row.
+     * @throws Exception If failed.
+     */
+    private static String run(Ignite ignite, Path path, int events, int nodes) throws Exception {
+        System.out.println(">>> Run [path=" + path.name + ", payload=" + path.payload + ", events=" + events + ']');
+
+        path.setUp(ignite);
+
+        try {
+            Probes probes = new Probes(path);
+
+            Allocations allocs = new Allocations();
+
+            probes.start();
+            allocs.start();
+
+            long[] gc = gc();
+
+            long start = System.nanoTime();
+
+            long cnt = path.stream(ignite, events, probes);
+
+            long dur = System.nanoTime() - start;
+
+            long[] latencies = probes.await();
+
+            long alloc = allocs.await();
+
+            long[] gcEnd = gc();
+
+            Arrays.sort(latencies);
+
+            return System.currentTimeMillis() + "," + path.name + ',' + path.payload + ',' + nodes + ',' + cnt +
+                ',' + TimeUnit.NANOSECONDS.toMillis(dur) +
+                ',' + cnt * 1_000_000_000L / Math.max(1, dur) +
+                ',' + latencies.length +
+                ',' + percentile(latencies, 0.5) / 1000 +
+                ',' + percentile(latencies, 0.99) / 1000 +
+                ',' + alloc / Math.max(1, cnt) +
+                ',' + (gcEnd[0] - gc[0]) + ',' + (gcEnd[1] - gc[1]);
+        }
+        finally {
+            path.tearDown(ignite);
+        }
+    }
+
+    /**
+     * @return Number of garbage collections and their time in milliseconds.
+     */
+    private static long[] gc() {
+        long[] res = new long[2];
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            res[0] += Math.max(0, gc.getCollectionCount());
+            res[1] += Math.max(0, gc.getCollectionTime());
+        }
+
+        return res;
+    }
+
+    /**
+     * @param sorted Sorted values.
+     * @param p Percentile in {@code (0, 1]}.
+     * @return Percentile value, {@code -1} if there are no values.
+     */
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0)
+            return -1;
+
+        return sorted[Math.min(sorted.length - 1, (int)Math.ceil(p * sorted.length) - 1)];
+    }
+
+    /**
+     * Waits until the number of received events reaches the expected one.
+     *
+     * @param received Number of received events.
+     * @param expected Expected number of events.
+     * @throws InterruptedException If interrupted.
+     */
+    private static void awaitReceived(LongSupplier received, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+
+        while (received.getAsLong() < expected) {
+            if (System.currentTimeMillis() > deadline)
+                throw new IgniteException("Timed out waiting for events [received=" + received.getAsLong() +
+                    ", expected=" + expected + ']');
+
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Thread polling caches until probe events become queryable.
+     */
+    private static class Probes extends Thread {
+        /** Ingestion path. */
+        private final Path path;
+
+        /** Sent probes: key and time sent at. */
+        private final Queue<IgniteBiTuple<Object, Long>> sent = new ConcurrentLinkedQueue<>();
+
+        /** Latencies in nanoseconds. */
+        private final List<Long> latencies = new ArrayList<>();
+
+        /** Whether all probes are sent. */
+        private volatile boolean done;
+
+        /**
+         * @param path Ingestion path.
+         */
+        Probes(Path path) {
+            super("streaming-benchmark-probes");
+
+            this.path = path;
+
+            setDaemon(true);
+        }
+
+        /**
+         * Records probe sent right before its event is added.
+         *
+         * @param key Unique key of the probe event.
+         */
+        void sent(Object key) {
+            sent.add(new IgniteBiTuple<>(key, System.nanoTime()));
+        }
+
+        /**
+         * Waits until all probes are queryable.
+         *
+         * @return Latencies in nanoseconds.
+         * @throws InterruptedException If interrupted.
+         */
+        long[] await() throws InterruptedException {
+            done = true;
+
+            join(TIMEOUT);
+
+            if (isAlive())
+                throw new IgniteException("Timed out waiting for probes [path=" + path.name + ']');
+
+            return latencies.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        /** {@inheritDoc} */
+        @Override public void run() {
+            List<IgniteBiTuple<Object, Long>> pending = new ArrayList<>();
+
+            while (true) {
+                boolean last = done;
+
+                for (IgniteBiTuple<Object, Long> probe = sent.poll(); probe != null; probe = sent.poll())
+                    pending.add(probe);
+
+                for (Iterator<IgniteBiTuple<Object, Long>> it = pending.iterator(); it.hasNext(); ) {
+                    IgniteBiTuple<Object, Long> probe = it.next();
+
+                    if (path.visible(probe.get1())) {
+                        latencies.add(System.nanoTime() - probe.get2());
+
+                        it.remove();
+                    }
+                }
+
+                if (last && pending.isEmpty() && sent.isEmpty())
+                    return;
+
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    /**
+     * Samples bytes allocated by every thread of the JVM, so that allocations of threads which exit during a run,
+     * such as streamer and socket threads, are counted up to their last sample.
+     */
+    private static class Allocations extends Thread {
+        /** Sample period in nanoseconds. */
+        private static final long SAMPLE_PERIOD = TimeUnit.MILLISECONDS.toNanos(10);
+
+        /** Thread MX bean. */
+        private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+        /** Bytes allocated by every thread when the run started, by thread ID. */
+        private final Map<Long, Long> start = new HashMap<>();
+
+        /** Bytes allocated by every thread when last sampled, by thread ID. */
+        private final Map<Long, Long> last = new HashMap<>();
+
+        /** Whether the run is finished. */
+        private volatile boolean done;
+
+        /** */
+        Allocations() {
+            super("streaming-benchmark-allocations");
+
+            setDaemon(true);
+
+            sample(start);
+        }
+
+        /**
+         * Stops sampling.
+         *
+         * @return Bytes allocated by all threads but this one since this sampler was created.
+         * @throws InterruptedException If interrupted.
+         */
+        long await() throws InterruptedException {
+            done = true;
+
+            join();
+
+            sample(last);
+
+            long sum = 0;
+
+            for (Map.Entry<Long, Long> e : last.entrySet())
+                sum += e.getValue() - start.getOrDefault(e.getKey(), 0L);
+
+            return sum;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void run() {
+            while (!done) {
+                sample(last);
+
+                LockSupport.parkNanos(SAMPLE_PERIOD);
+            }
+        }
+
+        /**
+         * @param bytes Map to put bytes allocated by every live thread to.
+         */
+        private void sample(Map<Long, Long> bytes) {
+            long[] ids = threads.getAllThreadIds();
+            long[] allocated = threads.getThreadAllocatedBytes(ids);
+
+            for (int i = 0; i < ids.length; i++) {
+                // Thread died after its id was read, or it is this sampler.
+                if (allocated[i] >= 0 && ids[i] != getId())
+                    bytes.put(ids[i], allocated[i]);
+            }
+        }
+    }
+
+    /**
+     * Ingestion path of an example.
+     */
+    private abstract static class Path {
+        /** Name. */
+        final String name;
+
+        /** Payload description. */
+        final String payload;
+
+        /**
+         * @param name Name.
+         * @param payload Payload description.
+         */
+        Path(String name, String payload) {
+            this.name = name;
+            this.payload = payload;
+        }
+
+        /**
+         * Creates caches.
+         *
+         * @param ignite Ignite instance.
+         */
+        abstract void setUp(Ignite ignite);
+
+        /**
+         * Streams events and waits until all of them are applied. Every {@link #PROBE_EVERY}-th event is
+         * a probe with a unique key.
+         *
+         * @param ignite Ignite instance.
+         * @param events Number of events.
+         * @param probes Probes.
+         * @return Number of streamed events, may be slightly more than requested.
+         * @throws Exception If failed.
+         */
+        abstract long stream(Ignite ignite, int events, Probes probes) throws Exception;
+
+        /**
+         * @param key Probe key.
+         * @return Whether probe event is queryable.
+         */
+        abstract boolean visible(Object key);
+
+        /**
+         * Destroys caches.
+         *
+         * @param ignite Ignite instance.
+         */
+        abstract void tearDown(Ignite ignite);
+    }
+
+    /**
+     * Path of {@link CacheDataStreamerExample}: values of a fixed size with unique keys through
+     * {@link AdaptiveDataStreamer}.
+     */
+    private static class DataStreamerPath extends Path {
+        /** Value size. */
+        private final int size;
+
+        /** Cache. */
+        private IgniteCache<Integer, byte[]> cache;
+
+        /**
+         * @param size Value size.
+         */
+        DataStreamerPath(int size) {
+            super(CacheDataStreamerExample.class.getSimpleName(), "byte[" + size + ']');
+
+            this.size = size;
+        }
+
+        /** {@inheritDoc} */
+        @Override void setUp(Ignite ignite) {
+            cache = ignite.getOrCreateCache(PREFIX + "data");
+        }
+
+        /** {@inheritDoc} */
+        @Override long stream(Ignite ignite, int events, Probes probes) {
+            byte[] val = new byte[size];
+
+            try (AdaptiveDataStreamer<Integer, byte[]> stmr =
+                     new AdaptiveDataStreamer<>(ignite, ignite.dataStreamer(cache.getName()))) {
+                for (int i = 0; i < events; i++) {
+                    if (i % PROBE_EVERY == 0)
+                        probes.sent(i);
+
+                    stmr.addData(i, val);
+                }
+            }
+
+            return events;
+        }
+
+        /** {@inheritDoc} */
+        @Override boolean visible(Object key) {
+            return cache.containsKey((Integer)key);
+        }
+
+        /** {@inheritDoc} */
+        @Override void tearDown(Ignite ignite) {
+            ignite.destroyCache(cache.getName());
+        }
+    }
+
+    /**
+     * Path of {@link StreamTransformerExample}: random numbers counted by {@link CombiningCountReceiver}.
+     */
+    private static class TransformerPath extends Path {
+        /** Range of numbers, probes are outside of it. */
+        private static final int RANGE = 1000;
+
+        /** Cache. */
+        private IgniteCache<Integer, Long> cache;
+
+        /** */
+        TransformerPath() {
+            super(StreamTransformerExample.class.getSimpleName(), "int");
+        }
+
+        /** {@inheritDoc} */
+        @Override void setUp(Ignite ignite) {
+            cache = ignite.getOrCreateCache(PREFIX + "numbers");
+        }
+
+        /** {@inheritDoc} */
+        @Override long stream(Ignite ignite, int events, Probes probes) {
+            Random rnd = new Random(0);
+
+            try (IgniteDataStreamer<Integer, Long> stmr = ignite.dataStreamer(cache.getName())) {
+                stmr.allowOverwrite(true);
+
+                stmr.receiver(new CombiningCountReceiver());
+
+                for (int i = 0; i < events; i++) {
+                    int num = rnd.nextInt(RANGE);
+
+                    if (i % PROBE_EVERY == 0)
+                        probes.sent(num = RANGE + i);
+
+                    stmr.addData(num, 1L);
+                }
+            }
+
+            return events;
+        }
+
+        /** {@inheritDoc} */
+        @Override boolean visible(Object key) {
+            return cache.containsKey((Integer)key);
+        }
+
+        /** {@inheritDoc} */
+        @Override void tearDown(Ignite ignite) {
+            ignite.destroyCache(cache.getName());
+        }
+    }
+
+    /**
+     * Path of {@link StreamVisitorExample}: out of order ticks applied to instruments in event-time order.
+     * Probes are ticks of new instruments.
+     */
+    private static class VisitorPath extends Path {
+        /** Market data cache. */
+        private IgniteCache<String, Tick> mktCache;
+
+        /** Instrument cache. */
+        private IgniteCache<String, Instrument> instCache;
+
+        /** OHLC bar cache. */
+        private IgniteCache<OhlcBarKey, OhlcBar> barCache;
+
+        /** */
+        VisitorPath() {
+            super(StreamVisitorExample.class.getSimpleName(), "tick");
+        }
+
+        /** {@inheritDoc} */
+        @Override void setUp(Ignite ignite) {
+            mktCache = ignite.getOrCreateCache(PREFIX + "marketTicks");
+            instCache = ignite.getOrCreateCache(new CacheConfiguration<String, Instrument>(PREFIX + "instCache"));
+            barCache = ignite.getOrCreateCache(new CacheConfiguration<OhlcBarKey, OhlcBar>(PREFIX + "instBars"));
+        }
+
+        /** {@inheritDoc} */
+        @Override long stream(Ignite ignite, int events, Probes probes) {
+            Random rnd = new Random(0);
+
+            try (IgniteDataStreamer<String, Tick> stmr = ignite.dataStreamer(mktCache.getName())) {
+                stmr.receiver(StreamVisitorExample.instrumentUpdater(instCache.getName(), barCache.getName()));
+
+                for (int i = 0; i < events; i++) {
+                    int idx = rnd.nextInt(StreamVisitorExample.INSTRUMENTS.length);
+
+                    String symbol = StreamVisitorExample.INSTRUMENTS[idx];
+
+                    if (i % PROBE_EVERY == 0)
+                        probes.sent(symbol = "PROBE-" + i);
+
+                    double price = StreamVisitorExample.round2(
+                        StreamVisitorExample.INITIAL_PRICES[idx] + rnd.nextGaussian());
+
+                    stmr.addData(symbol, new Tick(System.currentTimeMillis() - rnd.nextInt(100), price));
+                }
+            }
+
+            return events;
+        }
+
+        /** {@inheritDoc} */
+        @Override boolean visible(Object key) {
+            return instCache.containsKey((String)key);
+        }
+
+        /** {@inheritDoc} */
+        @Override void tearDown(Ignite ignite) {
+            ignite.destroyCache(mktCache.getName());
+            ignite.destroyCache(instCache.getName());
+            ignite.destroyCache(barCache.getName());
+        }
+    }
+
+    /**
+     * Path of {@link StreamWords}: words into sliding windows through {@link AdaptiveDataStreamer} and into top
+     * words through {@link ExactlyOnceStreamer}.
+     */
+    private static class WordsPath extends Path {
+        /** Words of the book. */
+        private final List<String> words;
+
+        /** Windows. */
+        private WindowStore<String> windows;
+
+        /** Top words. */
+        private TopKService<String> topK;
+
+        /**
+         * @param words Words of the book.
+         */
+        WordsPath(List<String> words) {
+            super(StreamWords.class.getSimpleName(), "word");
+
+            this.words = words;
+        }
+
+        /** {@inheritDoc} */
+        @Override void setUp(Ignite ignite) {
+            windows = new WindowStore<>(ignite, PREFIX + "wordWindows", WindowSpec.sliding(1000, 10));
+            topK = new TopKService<>(ignite, PREFIX + "wordTopK", 1000, 0.001, 0.01);
+        }
+
+        /** {@inheritDoc} */
+        @Override long stream(Ignite ignite, int events, Probes probes) {
+            try (AdaptiveDataStreamer<String, Double> stmr = new AdaptiveDataStreamer<>(ignite, windows.streamer());
+                 ExactlyOnceStreamer<String, Long> topKStmr =
+                     new ExactlyOnceStreamer<>(ignite, topK.name(), topK.name(), topK.receiver(), 100_000)) {
+                for (int i = 0; i < events; i++) {
+                    String word = words.get(i % words.size());
+
+                    if (i % PROBE_EVERY == 0)
+                        probes.sent(word = "probe-" + i);
+
+                    stmr.addData(word, 1.0);
+                    topKStmr.addData(word, 1L);
+                }
+            }
+
+            return events;
+        }
+
+        /** {@inheritDoc} */
+        @Override boolean visible(Object key) {
+            return windows.cache().containsKey((String)key);
+        }
+
+        /** {@inheritDoc} */
+        @Override void tearDown(Ignite ignite) {
+            windows.destroy();
+            topK.destroy();
+
+            // Offsets of the source must not survive the run.
+            ignite.destroyCache(ExactlyOnceStreamer.OFFSET_CACHE_NAME);
+        }
+    }
+
+    /**
+     * Path of {@link WordsNioStreamerServer}: frames of words over a socket into sliding windows. Probes are sent
+     * in frames of their own.
+     */
+    private static class NioSocketPath extends Path {
+        /** Words of the book. */
+        private final List<String> words;
+
+        /** Windows. */
+        private WindowStore<String> windows;
+
+        /**
+         * @param words Words of the book.
+         */
+        NioSocketPath(List<String> words) {
+            super(WordsNioStreamerServer.class.getSimpleName(), "word");
+
+            this.words = words;
+        }
+
+        /** {@inheritDoc} */
+        @Override void setUp(Ignite ignite) {
+            windows = new WindowStore<>(ignite, PREFIX + "nioWindows", WindowSpec.sliding(1000, 10));
+        }
+
+        /** {@inheritDoc} */
+        @Override long stream(Ignite ignite, int events, Probes probes) throws Exception {
+            List<ByteBuffer> frames = new ArrayList<>();
+            List<Integer> frameWords = new ArrayList<>();
+
+            for (int i = 0; i < words.size(); i += WordsNioStreamerClient.FRAME_WORDS) {
+                List<String> chunk = words.subList(i, Math.min(words.size(), i + WordsNioStreamerClient.FRAME_WORDS));
+
+                frames.addAll(WordsNioStreamerClient.encode(chunk, chunk.size()));
+                frameWords.add(chunk.size());
+            }
+
+            InetSocketAddress addr = new InetSocketAddress(InetAddress.getLocalHost(), SOCK_PORT);
+
+            try (IgniteDataStreamer<String, Double> stmr = windows.streamer();
+                 WordsNioStreamer srv = new WordsNioStreamer(stmr, addr)) {
+                srv.start();
+
+                long cnt = 0;
+                long nextProbe = 0;
+
+                try (SocketChannel ch = SocketChannel.open(addr)) {
+                    for (int i = 0; cnt < events; i++) {
+                        if (cnt >= nextProbe) {
+                            String probe = "probe-" + cnt;
+
+                            probes.sent(probe);
+
+                            WordsNioStreamerClient.send(ch,
+                                WordsNioStreamerClient.encode(Collections.singletonList(probe), 1));
+
+                            cnt++;
+                            nextProbe += PROBE_EVERY;
+                        }
+
+                        WordsNioStreamerClient.send(ch, Collections.singletonList(frames.get(i % frames.size())));
+
+                        cnt += frameWords.get(i % frames.size());
+                    }
+                }
+
+                awaitReceived(srv::received, cnt);
+
+                stmr.flush();
+
+                if (srv.failedBatches() > 0)
+                    throw new IgniteException("Failed to stream words [batches=" + srv.failedBatches() + ", words=" +
+                        srv.failedWords() + ']');
+
+                return cnt;
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override boolean visible(Object key) {
+            return windows.cache().containsKey((String)key);
+        }
+
+        /** {@inheritDoc} */
+        @Override void tearDown(Ignite ignite) {
+            windows.destroy();
+        }
+    }
+
+    /**
+     * Path of {@link WordsSocketStreamerServer}: zero-terminated words over a socket through {@link SocketStreamer}
+     * into sliding windows.
+     */
+    private static class SocketStreamerPath extends Path {
+        /** Words of the book. */
+        private final List<String> words;
+
+        /** Windows. */
+        private WindowStore<String> windows;
+
+        /**
+         * @param words Words of the book.
+         */
+        SocketStreamerPath(List<String> words) {
+            super(WordsSocketStreamerServer.class.getSimpleName(), "word");
+
+            this.words = words;
+        }
+
+        /** {@inheritDoc} */
+        @Override void setUp(Ignite ignite) {
+            windows = new WindowStore<>(ignite, PREFIX + "socketWindows", WindowSpec.sliding(1000, 10));
+        }
+
+        /** {@inheritDoc} */
+        @Override long stream(Ignite ignite, int events, Probes probes) throws Exception {
+            byte[][] delimited = new byte[words.size()][];
+
+            for (int i = 0; i < words.size(); i++)
+                delimited[i] = (words.get(i) + '\0').getBytes(StandardCharsets.US_ASCII);
+
+            AtomicLong received = new AtomicLong();
+
+            try (IgniteDataStreamer<String, Double> stmr = windows.streamer()) {
+                SocketStreamer<String, String, Double> sockStmr = new SocketStreamer<>();
+
+                sockStmr.setAddr(InetAddress.getLocalHost());
+                sockStmr.setPort(SOCK_PORT);
+                sockStmr.setDelimiter(new byte[] {0});
+                sockStmr.setIgnite(ignite);
+                sockStmr.setStreamer(stmr);
+
+                sockStmr.setConverter(msg -> {
+                    received.incrementAndGet();
+
+                    return new String(msg, StandardCharsets.US_ASCII);
+                });
+
+                sockStmr.setSingleTupleExtractor(word -> new IgniteBiTuple<>(word, 1.0));
+
+                sockStmr.start();
+
+                try {
+                    try (Socket sock = new Socket(InetAddress.getLocalHost(), SOCK_PORT);
+                         OutputStream os = new BufferedOutputStream(sock.getOutputStream(), 64 * 1024)) {
+                        for (int i = 0; i < events; i++) {
+                            if (i % PROBE_EVERY == 0) {
+                                String probe = "probe-" + i;
+
+                                probes.sent(probe);
+
+                                os.write((probe + '\0').getBytes(StandardCharsets.US_ASCII));
+
+                                // Probe must not wait in the socket buffer.
+                                os.flush();
+                            }
+                            else
+                                os.write(delimited[i % delimited.length]);
+                        }
+                    }
+
+                    awaitReceived(received::get, events);
+
+                    stmr.flush();
+
+                    return events;
+                }
+                finally {
+                    sockStmr.stop();
+                }
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override boolean visible(Object key) {
+            return windows.cache().containsKey((String)key);
+        }
+
+        /** {@inheritDoc} */
+        @Override void tearDown(Ignite ignite) {
+            windows.destroy();
+        }
+    }
+}
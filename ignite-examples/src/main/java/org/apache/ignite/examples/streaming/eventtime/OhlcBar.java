@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.eventtime;
+
+import java.io.Serializable;
+
+/**
+ * Open, high, low and close prices of the ticks of an event-time window {@code [start, end)}.
+ */
+public class OhlcBar implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Symbol. */
+    private final String symbol;
+
+    /** Start time in milliseconds, inclusive. */
+    private final long start;
+
+    /** End time in milliseconds, exclusive. */
+    private final long end;
+
+    /** Open price. */
+    private double open;
+
+    /** High price. */
+    private double high = Double.NEGATIVE_INFINITY;
+
+    /** Low price. */
+    private double low = Double.POSITIVE_INFINITY;
+
+    /** Close price. */
+    private double close;
+
+    /** Number of ticks. */
+    private int ticks;
+
+    /**
+     * Creates empty bar of the window containing the given time.
+     *
+     * @param symbol Symbol.
+     * @param time Time in milliseconds.
+     * @param size Window size in milliseconds.
+     */
+    public OhlcBar(String symbol, long time, long size) {
+        this.symbol = symbol;
+
+        start = time - Math.floorMod(time, size);
+        end = start + size;
+    }
+
+    /**
+     * Adds price of the next tick in event-time order.
+     *
+     * @param price Price.
+     */
+    public void add(double price) {
+        if (ticks++ == 0)
+            open = price;
+
+        high = Math.max(high, price);
+        low = Math.min(low, price);
+        close = price;
+    }
+
+    /**
+     * @return Key of this bar.
+     */
+    public OhlcBarKey key() {
+        return new OhlcBarKey(symbol, start);
+    }
+
+    /**
+     * @return Symbol.
+     */
+    public String symbol() {
+        return symbol;
+    }
+
+    /**
+     * @return Start time in milliseconds, inclusive.
+     */
+    public long start() {
+        return start;
+    }
+
+    /**
+     * @return End time in milliseconds, exclusive.
+     */
+    public long end() {
+        return end;
+    }
+
+    /**
+     * @return Open price.
+     */
+    public double open() {
+        return open;
+    }
+
+    /**
+     * @return High price.
+     */
+    public double high() {
+        return high;
+    }
+
+    /**
+     * @return Low price.
+     */
+    public double low() {
+        return low;
+    }
+
+    /**
+     * @return Close price.
+     */
+    public double close() {
+        return close;
+    }
+
+    /**
+     * @return Number of ticks.
+     */
+    public int ticks() {
+        return ticks;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return String.format("OhlcBar [symbol=%s, start=%d, end=%d, open=%.2f, high=%.2f, low=%.2f, close=%.2f, " +
+            "ticks=%d]", symbol, start, end, open, high, low, close, ticks);
+    }
+}
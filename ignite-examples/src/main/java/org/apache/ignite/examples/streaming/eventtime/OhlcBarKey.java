@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.eventtime;
+
+import java.io.Serializable;
+
+import org.apache.ignite.cache.affinity.AffinityKeyMapped;
+
+/**
+ * Key of an OHLC bar. Bars are collocated with the instrument by symbol.
+ */
+public class OhlcBarKey implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Symbol. */
+    @AffinityKeyMapped
+    private final String symbol;
+
+    /** Bar start time in milliseconds. */
+    private final long start;
+
+    /**
+     * @param symbol Symbol.
+     * @param start Bar start time in milliseconds.
+     */
+    public OhlcBarKey(String symbol, long start) {
+        this.symbol = symbol;
+        this.start = start;
+    }
+
+    /**
+     * @return Symbol.
+     */
+    public String symbol() {
+        return symbol;
+    }
+
+    /**
+     * @return Bar start time in milliseconds.
+     */
+    public long start() {
+        return start;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        if (!(o instanceof OhlcBarKey))
+            return false;
+
+        OhlcBarKey key = (OhlcBarKey)o;
+
+        return start == key.start && symbol.equals(key.symbol);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        return 31 * symbol.hashCode() + Long.hashCode(start);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "OhlcBarKey [symbol=" + symbol + ", start=" + start + ']';
+    }
+}
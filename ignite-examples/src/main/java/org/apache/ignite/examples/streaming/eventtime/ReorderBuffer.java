@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.eventtime;
+
+import java.io.Serializable;
+
+/**
+ * Buffer reordering ticks of one key by event time.
+ * <p>
+ * Watermark is the latest event time seen minus the allowed lateness: ticks at or before the watermark are
+ * released in event-time order, ticks which arrive behind the watermark are late and dropped. Buffer holds
+ * at most {@code capacity} ticks in a binary min-heap on parallel arrays. When a burst fills it up, the oldest tick
+ * is released early and the watermark moves up to its time, so memory stays bounded at the cost of dropping
+ * ticks later than that.
+ */
+public class ReorderBuffer implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Allowed lateness in milliseconds. */
+    private final long lateness;
+
+    /** Event times, min-heap. */
+    private final long[] times;
+
+    /** Prices, in the order of {@link #times}. */
+    private final double[] prices;
+
+    /** Number of buffered ticks. */
+    private int size;
+
+    /** Latest event time seen. */
+    private long maxTime = Long.MIN_VALUE;
+
+    /** Watermark. */
+    private long watermark = Long.MIN_VALUE;
+
+    /** Number of dropped late ticks. */
+    private long late;
+
+    /**
+     * @param lateness Allowed lateness in milliseconds.
+     * @param capacity Maximum number of buffered ticks.
+     */
+    public ReorderBuffer(long lateness, int capacity) {
+        this.lateness = lateness;
+
+        times = new long[capacity];
+        prices = new double[capacity];
+    }
+
+    /**
+     * Adds tick and releases ticks passed by the watermark.
+     *
+     * @param time Event time in milliseconds.
+     * @param price Price.
+     * @param out Consumer of released ticks, called in event-time order.
+     * @return {@code False} if tick is late and dropped.
+     */
+    public boolean add(long time, double price, TickConsumer out) {
+        if (time < watermark) {
+            late++;
+
+            return false;
+        }
+
+        maxTime = Math.max(maxTime, time);
+
+        if (size == times.length) {
+            // Tick older than all buffered ones can go right away.
+            if (time <= times[0]) {
+                watermark = time;
+
+                out.accept(time, price);
+
+                return true;
+            }
+
+            watermark = times[0];
+
+            release(out);
+        }
+
+        push(time, price);
+
+        if (maxTime - lateness > watermark) {
+            watermark = maxTime - lateness;
+
+            while (size > 0 && times[0] <= watermark)
+                release(out);
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Watermark, {@link Long#MIN_VALUE} if no ticks were added.
+     */
+    public long watermark() {
+        return watermark;
+    }
+
+    /**
+     * @return Number of buffered ticks.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of dropped late ticks.
+     */
+    public long lateCount() {
+        return late;
+    }
+
+    /**
+     * Adds tick to the heap.
+     *
+     * @param time Time.
+     * @param price Price.
+     */
+    private void push(long time, double price) {
+        int i = size++;
+
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+
+            if (times[parent] <= time)
+                break;
+
+            times[i] = times[parent];
+            prices[i] = prices[parent];
+
+            i = parent;
+        }
+
+        times[i] = time;
+        prices[i] = price;
+    }
+
+    /**
+     * Removes the oldest tick from the heap and passes it to the consumer.
+     *
+     * @param out Consumer.
+     */
+    private void release(TickConsumer out) {
+        long time = times[0];
+        double price = prices[0];
+
+        long lastTime = times[--size];
+        double lastPrice = prices[size];
+
+        int i = 0;
+
+        while (true) {
+            int child = 2 * i + 1;
+
+            if (child >= size)
+                break;
+
+            if (child + 1 < size && times[child + 1] < times[child])
+                child++;
+
+            if (lastTime <= times[child])
+                break;
+
+            times[i] = times[child];
+            prices[i] = prices[child];
+
+            i = child;
+        }
+
+        times[i] = lastTime;
+        prices[i] = lastPrice;
+
+        out.accept(time, price);
+    }
+
+    /**
+     * Consumer of released ticks.
+     */
+    public interface TickConsumer {
+        /**
+         * @param time Event time in milliseconds.
+         * @param price Price.
+         */
+        void accept(long time, double price);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.eventtime;
+
+import java.io.Serializable;
+
+/**
+ * Market tick: price with the time it was traded at, as opposed to the time it is received.
+ */
+public class Tick implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Event time in milliseconds. */
+    private final long time;
+
+    /** Price. */
+    private final double price;
+
+    /**
+     * @param time Event time in milliseconds.
+     * @param price Price.
+     */
+    public Tick(long time, double price) {
+        this.time = time;
+        this.price = price;
+    }
+
+    /**
+     * @return Event time in milliseconds.
+     */
+    public long time() {
+        return time;
+    }
+
+    /**
+     * @return Price.
+     */
+    public double price() {
+        return price;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "Tick [time=" + time + ", price=" + price + ']';
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.exactlyonce;
+
+import java.util.TreeSet;
+
+/**
+ * Offsets of one source applied to one partition since the last committed offset.
+ * <p>
+ * Offsets below the floor, which is the committed offset of the source, are duplicates by definition, so only
+ * offsets at or above it are kept, and the window is pruned every time the committed offset moves. Window holds at
+ * most {@code capacity} offsets. If it overflows, which only happens when more records than the capacity are
+ * streamed to one partition between commits, the floor is raised past the oldest offset, so records older than
+ * that are dropped rather than counted twice.
+ */
+class DedupWindow {
+    /** Maximum number of offsets. */
+    private final int cap;
+
+    /** Offsets at or above the floor. */
+    private final TreeSet<Long> offs = new TreeSet<>();
+
+    /** Offsets below are duplicates. */
+    private long floor;
+
+    /**
+     * @param cap Maximum number of offsets.
+     */
+    DedupWindow(int cap) {
+        this.cap = cap;
+    }
+
+    /**
+     * Claims offset for applying.
+     *
+     * @param off Offset.
+     * @param committed Committed offset of the source.
+     * @return {@code False} if offset is a duplicate.
+     */
+    synchronized boolean claim(long off, long committed) {
+        if (committed > floor) {
+            offs.headSet(committed).clear();
+
+            floor = committed;
+        }
+
+        if (off < floor || !offs.add(off))
+            return false;
+
+        if (offs.size() > cap)
+            floor = offs.pollFirst() + 1;
+
+        return true;
+    }
+
+    /**
+     * Releases offset claimed by a batch which failed to apply, so that it can be retried.
+     *
+     * @param off Offset.
+     */
+    synchronized void release(long off) {
+        offs.remove(off);
+    }
+}
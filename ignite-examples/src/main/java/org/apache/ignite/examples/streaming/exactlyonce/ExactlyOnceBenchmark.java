@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.exactlyonce;
+
+import java.util.List;
+import javax.cache.CacheException;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.examples.streaming.topk.TopKService;
+import org.apache.ignite.examples.streaming.wordcount.StreamWords;
+
+/**
+ * Measures the cost of {@link ExactlyOnceStreamer} and checks that it counts every word once after a client crash.
+ * <p>
+ * Words of the "alice-in-wonderland" book are counted in a {@link TopKService}, whose total is the number of
+ * applied words. Streaming with the service streamer, which is at-least-once on replay, is compared with
+ * streaming with {@link ExactlyOnceStreamer}. Then the client crash is emulated: the streamer is closed without
+ * committing in the middle of a commit interval, and a new streamer replays the words from the committed offset.
+ * Number of words can be passed as the first argument, default is {@link #DFLT_WORD_COUNT}.
+ */
+public class ExactlyOnceBenchmark {
+    /** Default number of words. */
+    private static final int DFLT_WORD_COUNT = 2_000_000;
+
+    /** Number of words between commits. */
+    private static final int COMMIT_WORDS = 100_000;
+
+    /** Cache name prefix. */
+    private static final String NAME = ExactlyOnceBenchmark.class.getSimpleName();
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, optional number of words.
+     * @throws Exception If benchmark execution failed.
+     */
+    public static void main(String[] args) throws Exception {
+        int cnt = args.length > 0 ? Integer.parseInt(args[0]) : DFLT_WORD_COUNT;
+
+        List<String> words = StreamWords.readWords();
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Exactly-once streaming benchmark started [words=" + cnt + ']');
+
+            try {
+                // Warm up both streamers.
+                runPlain(ignite, words, cnt / 10, "warmUpPlain");
+                runExactlyOnce(ignite, words, cnt / 10, "warmUpExactlyOnce");
+
+                long plain = runPlain(ignite, words, cnt, "plain");
+                long exactlyOnce = runExactlyOnce(ignite, words, cnt, "exactlyOnce");
+
+                long[] replay = runCrashAndReplay(ignite, words, cnt, "replay");
+
+                System.out.println();
+                System.out.println(">>> Results:");
+                System.out.println(">>>   At-least-once streamer: " + plain + "ms (" +
+                    cnt * 1000L / Math.max(1, plain) + " words/sec)");
+                System.out.println(">>>   Exactly-once streamer:  " + exactlyOnce + "ms (" +
+                    cnt * 1000L / Math.max(1, exactlyOnce) + " words/sec)");
+                System.out.println(">>>   Crash at offset " + replay[0] + ", replayed from committed offset " +
+                    replay[1] + ", counted words: " + replay[2]);
+            }
+            finally {
+                ignite.destroyCache(ExactlyOnceStreamer.OFFSET_CACHE_NAME);
+            }
+        }
+    }
+
+    /**
+     * Streams words with the service streamer.
+     *
+     * @param ignite Ignite instance.
+     * @param words Words.
+     * @param cnt Number of words.
+     * @param run Run name.
+     * @return Time in milliseconds.
+     */
+    private static long runPlain(Ignite ignite, List<String> words, int cnt, String run) {
+        TopKService<String> topK = topK(ignite, run);
+
+        try {
+            long start = System.currentTimeMillis();
+
+            try (IgniteDataStreamer<String, Long> stmr = topK.streamer()) {
+                for (int i = 0; i < cnt; i++)
+                    stmr.addData(words.get(i % words.size()), 1L);
+            }
+
+            long dur = System.currentTimeMillis() - start;
+
+            checkTotal(topK, cnt);
+
+            return dur;
+        }
+        finally {
+            topK.destroy();
+        }
+    }
+
+    /**
+     * Streams words with {@link ExactlyOnceStreamer}.
+     *
+     * @param ignite Ignite instance.
+     * @param words Words.
+     * @param cnt Number of words.
+     * @param run Run name, also the source name.
+     * @return Time in milliseconds.
+     */
+    private static long runExactlyOnce(Ignite ignite, List<String> words, int cnt, String run) {
+        TopKService<String> topK = topK(ignite, run);
+
+        try {
+            long start = System.currentTimeMillis();
+
+            try (ExactlyOnceStreamer<String, Long> stmr = streamer(ignite, topK, run)) {
+                for (int i = 0; i < cnt; i++)
+                    stmr.addData(words.get(i % words.size()), 1L);
+            }
+
+            long dur = System.currentTimeMillis() - start;
+
+            checkTotal(topK, cnt);
+
+            return dur;
+        }
+        finally {
+            topK.destroy();
+        }
+    }
+
+    /**
+     * Streams half of the words plus half of a commit interval, closes the streamer without committing, then streams
+     * all words from the committed offset with a new streamer.
+     *
+     * @param ignite Ignite instance.
+     * @param words Words.
+     * @param cnt Number of words.
+     * @param run Run name, also the source name.
+     * @return Crash offset, committed offset the words were replayed from and the number of counted words.
+     */
+    private static long[] runCrashAndReplay(Ignite ignite, List<String> words, int cnt, String run) {
+        TopKService<String> topK = topK(ignite, run);
+
+        try {
+            long crashOff = cnt / 2 + COMMIT_WORDS / 2;
+
+            ExactlyOnceStreamer<String, Long> stmr = streamer(ignite, topK, run);
+
+            while (stmr.nextOffset() < crashOff)
+                stmr.addData(words.get((int)(stmr.nextOffset() % words.size())), 1L);
+
+            // Batches sent so far are applied, buffered ones are lost.
+            try {
+                stmr.close(true);
+            }
+            catch (CacheException ignored) {
+                // Cancelled batches are reported as failed.
+            }
+
+            long resumeOff;
+
+            try (ExactlyOnceStreamer<String, Long> restarted = streamer(ignite, topK, run)) {
+                resumeOff = restarted.nextOffset();
+
+                while (restarted.nextOffset() < cnt)
+                    restarted.addData(words.get((int)(restarted.nextOffset() % words.size())), 1L);
+            }
+
+            checkTotal(topK, cnt);
+
+            return new long[] {crashOff, resumeOff, topK.top(1).total()};
+        }
+        finally {
+            topK.destroy();
+        }
+    }
+
+    /**
+     * @param ignite Ignite instance.
+     * @param run Run name.
+     * @return Top words service.
+     */
+    private static TopKService<String> topK(Ignite ignite, String run) {
+        return new TopKService<>(ignite, NAME + '-' + run, 1000, 0.001, 0.01);
+    }
+
+    /**
+     * @param ignite Ignite instance.
+     * @param topK Top words service.
+     * @param src Source name.
+     * @return Exactly-once streamer into the service.
+     */
+    private static ExactlyOnceStreamer<String, Long> streamer(Ignite ignite, TopKService<String> topK, String src) {
+        return new ExactlyOnceStreamer<>(ignite, src, topK.name(), topK.receiver(), COMMIT_WORDS);
+    }
+
+    /**
+     * @param topK Top words service.
+     * @param cnt Expected number of counted words.
+     */
+    private static void checkTotal(TopKService<String> topK, long cnt) {
+        long total = topK.top(1).total();
+
+        if (total != cnt)
+            throw new IgniteException("Unexpected number of counted words [expected=" + cnt +
+                ", actual=" + total + ']');
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.exactlyonce;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.cache.CacheMode;
+import org.apache.ignite.cache.affinity.Affinity;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.lang.IgniteBiTuple;
+import org.apache.ignite.stream.StreamReceiver;
+
+/**
+ * Data streamer applying every record of a source exactly once, across restarts of the streaming client.
+ * <p>
+ * Records are assigned consecutive offsets within the source, starting from the committed offset of the source.
+ * Every {@code commitInterval} records, and on {@link #commit()}, the streamer is flushed and the offset of the
+ * next record is stored as the committed one in the replicated {@link #OFFSET_CACHE_NAME} cache. A restarted client
+ * replays the source from {@link #nextOffset()}, which is the committed offset, so at most the records of one
+ * commit interval are sent again.
+ * <p>
+ * Receiver on the primary node drops records below the committed offset and records already applied since the last
+ * commit, tracked in a bounded window per source per partition (see {@link DedupWindow}), and passes the rest to the
+ * wrapped receiver. Windows are kept in node local maps, so they survive client restarts, but records resent after
+ * the primary node of their partition changed may be applied twice. Every source must have a single producer.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class ExactlyOnceStreamer<K, V> implements AutoCloseable {
+    /** Cache of committed offsets by source name. */
+    public static final String OFFSET_CACHE_NAME = "streamOffsets";
+
+    /** Source name. */
+    private final String src;
+
+    /** Committed offsets. */
+    private final IgniteCache<String, Long> offsets;
+
+    /** Data streamer. */
+    private final IgniteDataStreamer<K, SourceRecord<V>> stmr;
+
+    /** Number of records between commits. */
+    private final int commitInterval;
+
+    /** Committed offset. */
+    private long committed;
+
+    /** Offset of the next record. */
+    private long next;
+
+    /**
+     * @param ignite Ignite instance.
+     * @param src Source name.
+     * @param cacheName Cache name.
+     * @param rcvr Receiver applying records, must be idempotent only for the records of a failed batch.
+     * @param commitInterval Number of records between commits, also the maximum size of the duplicate windows.
+     */
+    public ExactlyOnceStreamer(Ignite ignite, String src, String cacheName, StreamReceiver<K, V> rcvr,
+        int commitInterval) {
+        this.src = src;
+        this.commitInterval = commitInterval;
+
+        offsets = ignite.getOrCreateCache(
+            new CacheConfiguration<String, Long>(OFFSET_CACHE_NAME).setCacheMode(CacheMode.REPLICATED));
+
+        Long off = offsets.get(src);
+
+        committed = next = off == null ? 0 : off;
+
+        stmr = ignite.dataStreamer(cacheName);
+
+        stmr.allowOverwrite(true);
+
+        stmr.receiver(new DedupReceiver<>(rcvr, commitInterval));
+    }
+
+    /**
+     * @return Committed offset.
+     */
+    public long committedOffset() {
+        return committed;
+    }
+
+    /**
+     * @return Offset the next added record gets. Source must be replayed from this offset after a restart.
+     */
+    public long nextOffset() {
+        return next;
+    }
+
+    /**
+     * Adds record with the next offset and commits every {@code commitInterval} records.
+     *
+     * @param key Key.
+     * @param val Value.
+     */
+    public void addData(K key, V val) {
+        stmr.addData(key, new SourceRecord<>(src, next++, val));
+
+        if (next - committed >= commitInterval)
+            commit();
+    }
+
+    /**
+     * Waits until all added records are applied and commits the offset of the next record.
+     */
+    public void commit() {
+        if (next == committed)
+            return;
+
+        stmr.flush();
+
+        offsets.put(src, next);
+
+        committed = next;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() {
+        close(false);
+    }
+
+    /**
+     * Closes streamer.
+     *
+     * @param cancel If {@code true}, closes without committing, as if the client crashed: records added since
+     *      the last commit may or may not be applied and must be replayed from {@link #committedOffset()}.
+     * @throws javax.cache.CacheException If some records failed, which includes cancelled ones.
+     */
+    public void close(boolean cancel) {
+        try {
+            if (!cancel)
+                commit();
+        }
+        finally {
+            stmr.close(cancel);
+        }
+    }
+
+    /**
+     * @param cacheName Cache name.
+     * @return Key of the windows of the cache in the node local map.
+     */
+    private static String windowsKey(String cacheName) {
+        return "dedupWindows-" + cacheName;
+    }
+
+    /**
+     * Receiver dropping duplicate records.
+     */
+    private static class DedupReceiver<K, V> implements StreamReceiver<K, SourceRecord<V>> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Wrapped receiver. */
+        private final StreamReceiver<K, V> rcvr;
+
+        /** Maximum size of a window. */
+        private final int cap;
+
+        /**
+         * @param rcvr Wrapped receiver.
+         * @param cap Maximum size of a window.
+         */
+        DedupReceiver(StreamReceiver<K, V> rcvr, int cap) {
+            this.rcvr = rcvr;
+            this.cap = cap;
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override public void receive(IgniteCache<K, SourceRecord<V>> cache,
+            Collection<Map.Entry<K, SourceRecord<V>>> entries) {
+            Ignite ignite = cache.unwrap(Ignite.class);
+
+            Affinity<K> aff = ignite.affinity(cache.getName());
+
+            IgniteCache<String, Long> offsets = ignite.cache(OFFSET_CACHE_NAME);
+
+            ConcurrentMap<String, ConcurrentMap<String, AtomicReferenceArray<DedupWindow>>> nodeLoc =
+                ignite.cluster().nodeLocalMap();
+
+            ConcurrentMap<String, AtomicReferenceArray<DedupWindow>> srcWindows =
+                nodeLoc.computeIfAbsent(windowsKey(cache.getName()), k -> new ConcurrentHashMap<>());
+
+            List<Map.Entry<K, V>> fresh = new ArrayList<>(entries.size());
+
+            List<DedupWindow> claimedWins = new ArrayList<>(entries.size());
+            long[] claimedOffs = new long[entries.size()];
+
+            String src = null;
+            long committed = 0;
+            AtomicReferenceArray<DedupWindow> windows = null;
+
+            for (Map.Entry<K, SourceRecord<V>> e : entries) {
+                SourceRecord<V> rec = e.getValue();
+
+                // Batches normally hold records of a single source.
+                if (!rec.source().equals(src)) {
+                    src = rec.source();
+
+                    // Offsets cache is replicated, so the committed offset is read locally.
+                    Long off = offsets.get(src);
+
+                    committed = off == null ? 0 : off;
+
+                    windows = srcWindows.computeIfAbsent(src, s -> new AtomicReferenceArray<>(aff.partitions()));
+                }
+
+                int part = aff.partition(e.getKey());
+
+                DedupWindow win = windows.get(part);
+
+                if (win == null && !windows.compareAndSet(part, null, win = new DedupWindow(cap)))
+                    win = windows.get(part);
+
+                if (win.claim(rec.offset(), committed)) {
+                    fresh.add(new IgniteBiTuple<>(e.getKey(), rec.value()));
+
+                    claimedOffs[claimedWins.size()] = rec.offset();
+                    claimedWins.add(win);
+                }
+            }
+
+            if (fresh.isEmpty())
+                return;
+
+            try {
+                // Streamed values are records, the wrapped receiver expects plain values.
+                rcvr.receive((IgniteCache<K, V>)(IgniteCache)cache, fresh);
+            }
+            catch (RuntimeException ex) {
+                // Let the records be applied when the batch is retried.
+                for (int i = 0; i < claimedWins.size(); i++)
+                    claimedWins.get(i).release(claimedOffs[i]);
+
+                throw ex;
+            }
+        }
+    }
+}
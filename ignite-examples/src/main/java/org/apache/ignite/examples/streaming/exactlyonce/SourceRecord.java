@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.exactlyonce;
+
+import java.io.Serializable;
+
+/**
+ * Streamed value with its source and offset within the source.
+ *
+ * @param <V> Value type.
+ */
+public class SourceRecord<V> implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Source name. */
+    private final String src;
+
+    /** Offset within the source. */
+    private final long off;
+
+    /** Value. */
+    private final V val;
+
+    /**
+     * @param src Source name.
+     * @param off Offset within the source.
+     * @param val Value.
+     */
+    public SourceRecord(String src, long off, V val) {
+        this.src = src;
+        this.off = off;
+        this.val = val;
+    }
+
+    /**
+     * @return Source name.
+     */
+    public String source() {
+        return src;
+    }
+
+    /**
+     * @return Offset within the source.
+     */
+    public long offset() {
+        return off;
+    }
+
+    /**
+     * @return Value.
+     */
+    public V value() {
+        return val;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "SourceRecord [src=" + src + ", off=" + off + ", val=" + val + ']';
+    }
+}
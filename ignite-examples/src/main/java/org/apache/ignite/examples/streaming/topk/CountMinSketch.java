@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.topk;
+
+import java.io.Serializable;
+
+/**
+ * Count-Min sketch: {@code depth} rows of {@code width} counters, an item is counted in one counter per row.
+ * <p>
+ * Estimate of an item count is never less than the true count, and with probability {@code 1 - delta()}
+ * exceeds it by at most {@code epsilon() * total()}. Sketches of the same dimensions are merged by adding
+ * counters, which keeps the same guarantee for the merged stream.
+ */
+public class CountMinSketch implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Number of counters per row. */
+    private final int width;
+
+    /** Number of rows. */
+    private final int depth;
+
+    /** Counters, row by row. */
+    private final long[] table;
+
+    /** Total count of all items. */
+    private long total;
+
+    /**
+     * @param width Number of counters per row.
+     * @param depth Number of rows.
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0)
+            throw new IllegalArgumentException("Width and depth must be positive [width=" + width +
+                ", depth=" + depth + ']');
+
+        this.width = width;
+        this.depth = depth;
+
+        table = new long[width * depth];
+    }
+
+    /**
+     * Creates sketch with the given error guarantee.
+     *
+     * @param eps Relative error.
+     * @param delta Probability of exceeding the error.
+     * @return Sketch.
+     */
+    public static CountMinSketch forError(double eps, double delta) {
+        return new CountMinSketch((int)Math.ceil(Math.E / eps), (int)Math.ceil(Math.log(1 / delta)));
+    }
+
+    /**
+     * Counts item.
+     *
+     * @param item Item.
+     * @param cnt Count.
+     */
+    public void add(Object item, long cnt) {
+        int h1 = mix(item.hashCode());
+        int h2 = mix(h1);
+
+        for (int i = 0; i < depth; i++)
+            table[i * width + bucket(h1, h2, i)] += cnt;
+
+        total += cnt;
+    }
+
+    /**
+     * @param item Item.
+     * @return Estimated count, never less than the true one.
+     */
+    public long estimate(Object item) {
+        int h1 = mix(item.hashCode());
+        int h2 = mix(h1);
+
+        long res = Long.MAX_VALUE;
+
+        for (int i = 0; i < depth; i++)
+            res = Math.min(res, table[i * width + bucket(h1, h2, i)]);
+
+        return res;
+    }
+
+    /**
+     * Adds counters of another sketch of the same dimensions.
+     *
+     * @param other Sketch.
+     */
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth)
+            throw new IllegalArgumentException("Sketch dimensions differ [width=" + width + ", depth=" + depth +
+                ", otherWidth=" + other.width + ", otherDepth=" + other.depth + ']');
+
+        for (int i = 0; i < table.length; i++)
+            table[i] += other.table[i];
+
+        total += other.total;
+    }
+
+    /**
+     * @return Total count of all items.
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * @return Relative error.
+     */
+    public double epsilon() {
+        return Math.E / width;
+    }
+
+    /**
+     * @return Probability of exceeding the error.
+     */
+    public double delta() {
+        return Math.exp(-depth);
+    }
+
+    /**
+     * @return Maximum overestimate of a count with probability {@code 1 - delta()}.
+     */
+    public long errorBound() {
+        return (long)Math.ceil(epsilon() * total);
+    }
+
+    /**
+     * @return Width.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return Depth.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * @param h1 First hash.
+     * @param h2 Second hash.
+     * @param row Row.
+     * @return Counter of the row, rows use independent combinations of the two hashes.
+     */
+    private int bucket(int h1, int h2, int row) {
+        return ((h1 + row * h2) & Integer.MAX_VALUE) % width;
+    }
+
+    /**
+     * Murmur3 finalizer, spreads poor hash codes over all bits.
+     *
+     * @param h Hash.
+     * @return Mixed hash.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+
+        return h;
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.topk;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving summary of the most frequent items with at most {@code capacity} counters.
+ * <p>
+ * A new item replaces the item with the smallest counter, inherits its count and records it as the error.
+ * So the count of an item is never less than the true one and exceeds it by at most its error, which is
+ * at most {@code total() / capacity}. Counters are kept in a min-heap indexed by item, so every update
+ * is {@code O(log capacity)}. Summaries are merged as described by Agarwal et al., "Mergeable Summaries",
+ * which keeps the same error bound for the merged stream.
+ *
+ * @param <T> Item type.
+ */
+public class SpaceSaving<T> implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Maximum number of counters. */
+    private final int cap;
+
+    /** Heap of items. */
+    private final Object[] items;
+
+    /** Heap of counts. */
+    private final long[] cnts;
+
+    /** Heap of errors. */
+    private final long[] errs;
+
+    /** Heap positions of items. */
+    private final Map<T, Integer> pos = new HashMap<>();
+
+    /** Number of counters. */
+    private int size;
+
+    /** Total count of all items. */
+    private long total;
+
+    /**
+     * @param cap Maximum number of counters.
+     */
+    public SpaceSaving(int cap) {
+        if (cap <= 0)
+            throw new IllegalArgumentException("Capacity must be positive: " + cap);
+
+        this.cap = cap;
+
+        items = new Object[cap];
+        cnts = new long[cap];
+        errs = new long[cap];
+    }
+
+    /**
+     * Counts item.
+     *
+     * @param item Item.
+     * @param cnt Count.
+     */
+    public void add(T item, long cnt) {
+        total += cnt;
+
+        Integer i = pos.get(item);
+
+        if (i != null) {
+            cnts[i] += cnt;
+
+            siftDown(i);
+        }
+        else if (size < cap) {
+            set(size, item, cnt, 0);
+
+            siftUp(size++);
+        }
+        else {
+            // Replace the smallest counter.
+            long min = cnts[0];
+
+            pos.remove(items[0]);
+
+            set(0, item, min + cnt, min);
+
+            siftDown(0);
+        }
+    }
+
+    /**
+     * @return Smallest count, {@code 0} while there are free counters. Any item which is not in the summary
+     *      occurred at most this number of times.
+     */
+    public long minCount() {
+        return size < cap ? 0 : cnts[0];
+    }
+
+    /**
+     * @return Total count of all items.
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * @return Maximum number of counters.
+     */
+    public int capacity() {
+        return cap;
+    }
+
+    /**
+     * @return Maximum overestimate of a count.
+     */
+    public long errorBound() {
+        return total / cap;
+    }
+
+    /**
+     * @param k Number of items.
+     * @return Items with the largest counts, largest first, as {@code (item, count, error)}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Counter<T>> top(int k) {
+        List<Counter<T>> res = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++)
+            res.add(new Counter<>((T)items[i], cnts[i], errs[i]));
+
+        res.sort((a, b) -> Long.compare(b.count(), a.count()));
+
+        return res.size() > k ? new ArrayList<>(res.subList(0, k)) : res;
+    }
+
+    /**
+     * Merges summary of another stream of the same capacity.
+     *
+     * @param other Summary.
+     */
+    @SuppressWarnings("unchecked")
+    public void merge(SpaceSaving<T> other) {
+        long min = minCount();
+        long otherMin = other.minCount();
+
+        Set<T> all = new HashSet<>(pos.keySet());
+
+        all.addAll(other.pos.keySet());
+
+        List<Counter<T>> merged = new ArrayList<>(all.size());
+
+        // An item missing from a summary occurred at most its min count times there.
+        for (T item : all) {
+            Integer i = pos.get(item);
+            Integer j = other.pos.get(item);
+
+            long cnt = (i != null ? cnts[i] : min) + (j != null ? other.cnts[j] : otherMin);
+            long err = (i != null ? errs[i] : min) + (j != null ? other.errs[j] : otherMin);
+
+            merged.add(new Counter<>(item, cnt, err));
+        }
+
+        merged.sort((a, b) -> Long.compare(b.count(), a.count()));
+
+        pos.clear();
+        size = 0;
+
+        for (int k = 0; k < merged.size() && k < cap; k++) {
+            Counter<T> c = merged.get(k);
+
+            set(size, c.item(), c.count(), c.error());
+
+            siftUp(size++);
+        }
+
+        total += other.total;
+    }
+
+    /**
+     * @param i Heap position.
+     * @param item Item.
+     * @param cnt Count.
+     * @param err Error.
+     */
+    private void set(int i, T item, long cnt, long err) {
+        items[i] = item;
+        cnts[i] = cnt;
+        errs[i] = err;
+
+        pos.put(item, i);
+    }
+
+    /**
+     * @param i Heap position.
+     */
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+
+            if (cnts[parent] <= cnts[i])
+                break;
+
+            swap(i, parent);
+
+            i = parent;
+        }
+    }
+
+    /**
+     * @param i Heap position.
+     */
+    private void siftDown(int i) {
+        while (true) {
+            int l = 2 * i + 1;
+            int r = l + 1;
+            int min = i;
+
+            if (l < size && cnts[l] < cnts[min])
+                min = l;
+
+            if (r < size && cnts[r] < cnts[min])
+                min = r;
+
+            if (min == i)
+                break;
+
+            swap(i, min);
+
+            i = min;
+        }
+    }
+
+    /**
+     * @param i Heap position.
+     * @param j Heap position.
+     */
+    @SuppressWarnings("unchecked")
+    private void swap(int i, int j) {
+        Object item = items[i];
+        long cnt = cnts[i];
+        long err = errs[i];
+
+        set(i, (T)items[j], cnts[j], errs[j]);
+        set(j, (T)item, cnt, err);
+    }
+
+    /**
+     * Counter of an item.
+     */
+    public static class Counter<T> implements Serializable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Item. */
+        private final T item;
+
+        /** Count. */
+        private final long cnt;
+
+        /** Error. */
+        private final long err;
+
+        /**
+         * @param item Item.
+         * @param cnt Count.
+         * @param err Error.
+         */
+        Counter(T item, long cnt, long err) {
+            this.item = item;
+            this.cnt = cnt;
+            this.err = err;
+        }
+
+        /**
+         * @return Item.
+         */
+        public T item() {
+            return item;
+        }
+
+        /**
+         * @return Count, never less than the true one.
+         */
+        public long count() {
+            return cnt;
+        }
+
+        /**
+         * @return Maximum overestimate of the count.
+         */
+        public long error() {
+            return err;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.topk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Approximate top K items with error bounds.
+ *
+ * @param <T> Item type.
+ */
+public class TopKResult<T> {
+    /** Items, largest first. */
+    private final List<Item<T>> items;
+
+    /** Total count of all items. */
+    private final long total;
+
+    /** Maximum overestimate of a count. */
+    private final long maxErr;
+
+    /** Maximum overestimate of a count with probability {@link #confidence}. */
+    private final long probErr;
+
+    /** Probability of {@link #probErr}. */
+    private final double confidence;
+
+    /**
+     * @param items Items, largest first.
+     * @param total Total count of all items.
+     * @param maxErr Maximum overestimate of a count.
+     * @param probErr Maximum overestimate of a count with the given probability.
+     * @param confidence Probability.
+     */
+    TopKResult(List<Item<T>> items, long total, long maxErr, long probErr, double confidence) {
+        this.items = items;
+        this.total = total;
+        this.maxErr = maxErr;
+        this.probErr = probErr;
+        this.confidence = confidence;
+    }
+
+    /**
+     * @return Items, largest first.
+     */
+    public List<Item<T>> items() {
+        return items;
+    }
+
+    /**
+     * @return Total count of all items.
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * @return Maximum overestimate of a count, guaranteed.
+     */
+    public long maxError() {
+        return maxErr;
+    }
+
+    /**
+     * @return Maximum overestimate of a count with probability {@link #confidence()}.
+     */
+    public long probableError() {
+        return probErr;
+    }
+
+    /**
+     * @return Probability of {@link #probableError()}.
+     */
+    public double confidence() {
+        return confidence;
+    }
+
+    /**
+     * @return Items as {@code (item, estimate, lower bound)} rows.
+     */
+    public List<List<?>> rows() {
+        List<List<?>> rows = new ArrayList<>(items.size());
+
+        for (Item<T> item : items) {
+            List<Object> row = new ArrayList<>(3);
+
+            row.add(item.item());
+            row.add(item.estimate());
+            row.add(item.lowerBound());
+
+            rows.add(row);
+        }
+
+        return rows;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return String.format("TopKResult [k=%d, total=%d, maxError=%d, error=%d with probability %.2f]",
+            items.size(), total, maxErr, probErr, confidence);
+    }
+
+    /**
+     * Item with its estimated count.
+     */
+    public static class Item<T> {
+        /** Item. */
+        private final T item;
+
+        /** Estimated count. */
+        private final long est;
+
+        /** Guaranteed lower bound of the count. */
+        private final long lower;
+
+        /**
+         * @param item Item.
+         * @param est Estimated count.
+         * @param lower Guaranteed lower bound of the count.
+         */
+        Item(T item, long est, long lower) {
+            this.item = item;
+            this.est = est;
+            this.lower = lower;
+        }
+
+        /**
+         * @return Item.
+         */
+        public T item() {
+            return item;
+        }
+
+        /**
+         * @return Estimated count, never less than the true one.
+         */
+        public long estimate() {
+            return est;
+        }
+
+        /**
+         * @return Guaranteed lower bound of the count.
+         */
+        public long lowerBound() {
+            return lower;
+        }
+    }
+}
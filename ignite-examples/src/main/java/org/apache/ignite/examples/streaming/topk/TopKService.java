@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.topk;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.lang.IgniteCallable;
+import org.apache.ignite.lang.IgniteRunnable;
+import org.apache.ignite.resources.IgniteInstanceResource;
+import org.apache.ignite.stream.StreamReceiver;
+
+/**
+ * Approximate top K of streamed items with bounded memory.
+ * <p>
+ * Items are streamed with the {@link #streamer()} as keys of an otherwise empty cache, so every item is always
+ * counted on the primary node of its key. The receiver updates a {@link TopKSummary} kept in the node local map
+ * instead of storing items. {@link #top(int)} collects summaries of all nodes with a compute broadcast and merges
+ * them, so the result is available in milliseconds regardless of the number of streamed items.
+ *
+ * @param <T> Item type.
+ */
+public class TopKService<T> {
+    /** Ignite instance. */
+    private final Ignite ignite;
+
+    /** Cache name. */
+    private final String name;
+
+    /** Number of Space-Saving counters per node. */
+    private final int cap;
+
+    /** Count-Min sketch width. */
+    private final int width;
+
+    /** Count-Min sketch depth. */
+    private final int depth;
+
+    /**
+     * Creates the cache items are streamed to if it does not exist yet.
+     *
+     * @param ignite Ignite instance.
+     * @param name Cache name.
+     * @param cap Number of Space-Saving counters per node, maximum overestimate of a count is
+     *      {@code total / cap}.
+     * @param eps Count-Min sketch relative error.
+     * @param delta Probability of exceeding the Count-Min sketch error.
+     */
+    public TopKService(Ignite ignite, String name, int cap, double eps, double delta) {
+        this.ignite = ignite;
+        this.name = name;
+        this.cap = cap;
+
+        CountMinSketch cms = CountMinSketch.forError(eps, delta);
+
+        width = cms.width();
+        depth = cms.depth();
+
+        ignite.getOrCreateCache(new CacheConfiguration<T, Long>(name));
+    }
+
+    /**
+     * Creates data streamer of item counts. Streamer must be closed by the caller.
+     *
+     * @return Data streamer.
+     */
+    public IgniteDataStreamer<T, Long> streamer() {
+        IgniteDataStreamer<T, Long> stmr = ignite.dataStreamer(name);
+
+        // Receiver does not update the cache, so items may repeat.
+        stmr.allowOverwrite(true);
+
+        stmr.receiver(receiver());
+
+        return stmr;
+    }
+
+    /**
+     * Creates receiver adding streamed counts to the summaries, for streamers created by other means than
+     * {@link #streamer()}.
+     *
+     * @return Stream receiver.
+     */
+    public StreamReceiver<T, Long> receiver() {
+        return new Receiver<>(name, cap, width, depth);
+    }
+
+    /**
+     * @return Cache name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @param k Number of items.
+     * @return Approximate top K items.
+     */
+    public TopKResult<T> top(int k) {
+        Collection<TopKSummary<T>> summaries = ignite.compute(ignite.cluster().forDataNodes(name))
+            .broadcast(new SummaryJob<T>(name));
+
+        TopKSummary<T> res = new TopKSummary<>(cap, width, depth);
+
+        for (TopKSummary<T> s : summaries) {
+            if (s != null)
+                res.merge(s);
+        }
+
+        return res.result(k);
+    }
+
+    /**
+     * Drops summaries and destroys the cache.
+     */
+    public void destroy() {
+        ignite.compute(ignite.cluster().forDataNodes(name)).broadcast(new ClearJob(name));
+
+        ignite.destroyCache(name);
+    }
+
+    /**
+     * @param name Cache name.
+     * @return Node local map key of the summary.
+     */
+    private static String summaryKey(String name) {
+        return "topKSummary-" + name;
+    }
+
+    /**
+     * Receiver counting streamed items in the summary of the local node.
+     */
+    private static class Receiver<T> implements StreamReceiver<T, Long> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Cache name. */
+        private final String name;
+
+        /** Number of Space-Saving counters. */
+        private final int cap;
+
+        /** Count-Min sketch width. */
+        private final int width;
+
+        /** Count-Min sketch depth. */
+        private final int depth;
+
+        /**
+         * @param name Cache name.
+         * @param cap Number of Space-Saving counters.
+         * @param width Count-Min sketch width.
+         * @param depth Count-Min sketch depth.
+         */
+        Receiver(String name, int cap, int width, int depth) {
+            this.name = name;
+            this.cap = cap;
+            this.width = width;
+            this.depth = depth;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void receive(IgniteCache<T, Long> cache, Collection<Map.Entry<T, Long>> entries) {
+            ConcurrentMap<String, TopKSummary<T>> nodeLoc = cache.unwrap(Ignite.class).cluster().nodeLocalMap();
+
+            TopKSummary<T> summary = nodeLoc.computeIfAbsent(summaryKey(name),
+                k -> new TopKSummary<>(cap, width, depth));
+
+            // Batches are received concurrently.
+            synchronized (summary) {
+                for (Map.Entry<T, Long> e : entries)
+                    summary.add(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    /**
+     * Job returning a copy of the summary of the local node.
+     */
+    private static class SummaryJob<T> implements IgniteCallable<TopKSummary<T>> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Auto-injected Ignite instance. */
+        @IgniteInstanceResource
+        private transient Ignite ignite;
+
+        /** Cache name. */
+        private final String name;
+
+        /**
+         * @param name Cache name.
+         */
+        SummaryJob(String name) {
+            this.name = name;
+        }
+
+        /** {@inheritDoc} */
+        @Override public TopKSummary<T> call() {
+            ConcurrentMap<String, TopKSummary<T>> nodeLoc = ignite.cluster().nodeLocalMap();
+
+            TopKSummary<T> summary = nodeLoc.get(summaryKey(name));
+
+            if (summary == null)
+                return null;
+
+            // Summary is serialized after the job returns, while receivers keep updating it.
+            synchronized (summary) {
+                return summary.copy();
+            }
+        }
+    }
+
+    /**
+     * Job dropping the summary of the local node.
+     */
+    private static class ClearJob implements IgniteRunnable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Auto-injected Ignite instance. */
+        @IgniteInstanceResource
+        private transient Ignite ignite;
+
+        /** Cache name. */
+        private final String name;
+
+        /**
+         * @param name Cache name.
+         */
+        ClearJob(String name) {
+            this.name = name;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void run() {
+            ignite.cluster().nodeLocalMap().remove(summaryKey(name));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.topk;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mergeable summary of a stream: {@link SpaceSaving} finds the candidate heavy hitters and {@link CountMinSketch}
+ * gives an independent upper bound of their counts. Both overestimate, so the smaller estimate is reported.
+ *
+ * @param <T> Item type.
+ */
+public class TopKSummary<T> implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Heavy hitter candidates. */
+    private final SpaceSaving<T> ss;
+
+    /** Count estimates. */
+    private final CountMinSketch cms;
+
+    /**
+     * @param cap Number of Space-Saving counters.
+     * @param width Count-Min sketch width.
+     * @param depth Count-Min sketch depth.
+     */
+    public TopKSummary(int cap, int width, int depth) {
+        ss = new SpaceSaving<>(cap);
+        cms = new CountMinSketch(width, depth);
+    }
+
+    /**
+     * Counts item.
+     *
+     * @param item Item.
+     * @param cnt Count.
+     */
+    public void add(T item, long cnt) {
+        ss.add(item, cnt);
+        cms.add(item, cnt);
+    }
+
+    /**
+     * Merges summary of another stream.
+     *
+     * @param other Summary.
+     */
+    public void merge(TopKSummary<T> other) {
+        ss.merge(other.ss);
+        cms.merge(other.cms);
+    }
+
+    /**
+     * @return Copy of this summary.
+     */
+    public TopKSummary<T> copy() {
+        TopKSummary<T> copy = new TopKSummary<>(ss.capacity(), cms.width(), cms.depth());
+
+        copy.merge(this);
+
+        return copy;
+    }
+
+    /**
+     * @param k Number of items.
+     * @return Items with the largest estimated counts and error bounds.
+     */
+    public TopKResult<T> result(int k) {
+        List<TopKResult.Item<T>> items = new ArrayList<>(k);
+
+        for (SpaceSaving.Counter<T> c : ss.top(k)) {
+            long est = Math.min(c.count(), cms.estimate(c.item()));
+
+            items.add(new TopKResult.Item<>(c.item(), est, Math.max(0, c.count() - c.error())));
+        }
+
+        return new TopKResult<>(items, ss.total(), ss.errorBound(), cms.errorBound(), 1 - cms.delta());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.window;
+
+import java.io.Serializable;
+
+/**
+ * Count, sum, min and max of values. Used both for partial aggregates and for window results.
+ */
+public class WindowAggregate implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Count. */
+    private long cnt;
+
+    /** Sum. */
+    private double sum;
+
+    /** Min. */
+    private double min = Double.POSITIVE_INFINITY;
+
+    /** Max. */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds value.
+     *
+     * @param val Value.
+     * @return {@code this} for chaining.
+     */
+    public WindowAggregate add(double val) {
+        cnt++;
+        sum += val;
+        min = Math.min(min, val);
+        max = Math.max(max, val);
+
+        return this;
+    }
+
+    /**
+     * Merges partial aggregate.
+     *
+     * @param cnt Count.
+     * @param sum Sum.
+     * @param min Min.
+     * @param max Max.
+     * @return {@code this} for chaining.
+     */
+    public WindowAggregate merge(long cnt, double sum, double min, double max) {
+        this.cnt += cnt;
+        this.sum += sum;
+        this.min = Math.min(this.min, min);
+        this.max = Math.max(this.max, max);
+
+        return this;
+    }
+
+    /**
+     * Merges partial aggregate.
+     *
+     * @param other Partial aggregate.
+     * @return {@code this} for chaining.
+     */
+    public WindowAggregate merge(WindowAggregate other) {
+        return merge(other.cnt, other.sum, other.min, other.max);
+    }
+
+    /**
+     * @return Count.
+     */
+    public long count() {
+        return cnt;
+    }
+
+    /**
+     * @return Sum.
+     */
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * @return Min or {@link Double#NaN} if empty.
+     */
+    public double min() {
+        return cnt == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return Max or {@link Double#NaN} if empty.
+     */
+    public double max() {
+        return cnt == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * @return Average or {@link Double#NaN} if empty.
+     */
+    public double avg() {
+        return cnt == 0 ? Double.NaN : sum / cnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "WindowAggregate [cnt=" + cnt + ", sum=" + sum + ", min=" + min() + ", max=" + max() + ']';
+    }
+}
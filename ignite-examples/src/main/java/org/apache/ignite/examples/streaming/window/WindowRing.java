@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.window;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Ring buffer of per-slot partial aggregates of one key.
+ * <p>
+ * Slot with absolute number {@code s} is kept at position {@code s % capacity}, so a new slot overwrites
+ * the oldest one and nothing has to be expired. Partial aggregates are kept in parallel primitive arrays,
+ * so the ring of a key is a handful of arrays regardless of the number of events.
+ */
+public class WindowRing implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Absolute slot numbers, {@link Long#MIN_VALUE} for empty positions. */
+    private final long[] slots;
+
+    /** Counts. */
+    private final long[] cnts;
+
+    /** Sums. */
+    private final double[] sums;
+
+    /** Mins. */
+    private final double[] mins;
+
+    /** Maxes. */
+    private final double[] maxs;
+
+    /**
+     * @param spec Window definition.
+     */
+    public WindowRing(WindowSpec spec) {
+        int cap = spec.capacity();
+
+        slots = new long[cap];
+        cnts = new long[cap];
+        sums = new double[cap];
+        mins = new double[cap];
+        maxs = new double[cap];
+
+        Arrays.fill(slots, Long.MIN_VALUE);
+    }
+
+    /**
+     * Adds partial aggregate of events of the given time.
+     *
+     * @param spec Window definition.
+     * @param time Event time.
+     * @param part Partial aggregate.
+     * @return {@code false} if the slot of the time is already overwritten by a newer one, so events are dropped.
+     */
+    public boolean add(WindowSpec spec, long time, WindowAggregate part) {
+        long slot = spec.slotOf(time);
+
+        int pos = (int)(slot % slots.length);
+
+        if (slots[pos] > slot)
+            return false;
+
+        if (slots[pos] < slot) {
+            slots[pos] = slot;
+            cnts[pos] = part.count();
+            sums[pos] = part.sum();
+            mins[pos] = part.min();
+            maxs[pos] = part.max();
+        }
+        else {
+            cnts[pos] += part.count();
+            sums[pos] += part.sum();
+            mins[pos] = Math.min(mins[pos], part.min());
+            maxs[pos] = Math.max(maxs[pos], part.max());
+        }
+
+        return true;
+    }
+
+    /**
+     * Aggregates slots of the window which results are available for at the given time.
+     *
+     * @param spec Window definition.
+     * @param now Current time.
+     * @return Window result.
+     */
+    public WindowAggregate aggregate(WindowSpec spec, long now) {
+        long end = spec.windowEnd(now);
+
+        long from = spec.slotOf(end - spec.size());
+        long to = spec.slotOf(end);
+
+        WindowAggregate res = new WindowAggregate();
+
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] >= from && slots[i] < to)
+                res.merge(cnts[i], sums[i], mins[i], maxs[i]);
+        }
+
+        return res;
+    }
+}
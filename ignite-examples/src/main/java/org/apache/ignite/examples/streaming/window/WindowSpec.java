@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.window;
+
+import java.io.Serializable;
+
+/**
+ * Window definition: window size, how often windows start and the size of a slot partial aggregates are kept for.
+ * <ul>
+ *     <li>Tumbling windows of size {@code S} do not overlap, results are available for the last complete window.</li>
+ *     <li>Hopping windows of size {@code S} start every {@code H} milliseconds and overlap when {@code H < S},
+ *     results are available for the last complete window.</li>
+ *     <li>Sliding window of size {@code S} always ends now and moves by slots, so results include the slot
+ *     which is still being filled.</li>
+ * </ul>
+ * Times are in milliseconds.
+ */
+public class WindowSpec implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Window size. */
+    private final long size;
+
+    /** Interval between window starts. */
+    private final long hop;
+
+    /** Slot size. */
+    private final long slot;
+
+    /** Whether the window slides with the current time. */
+    private final boolean sliding;
+
+    /**
+     * @param size Window size.
+     * @param hop Interval between window starts.
+     * @param slot Slot size.
+     * @param sliding Whether the window slides with the current time.
+     */
+    private WindowSpec(long size, long hop, long slot, boolean sliding) {
+        if (size <= 0 || hop <= 0 || slot <= 0)
+            throw new IllegalArgumentException("Window size, hop and slot must be positive [size=" + size +
+                ", hop=" + hop + ", slot=" + slot + ']');
+
+        if (size % slot != 0 || hop % slot != 0)
+            throw new IllegalArgumentException("Window size and hop must be multiples of the slot [size=" + size +
+                ", hop=" + hop + ", slot=" + slot + ']');
+
+        this.size = size;
+        this.hop = hop;
+        this.slot = slot;
+        this.sliding = sliding;
+    }
+
+    /**
+     * @param size Window size.
+     * @return Tumbling windows.
+     */
+    public static WindowSpec tumbling(long size) {
+        return new WindowSpec(size, size, size, false);
+    }
+
+    /**
+     * @param size Window size.
+     * @param hop Interval between window starts.
+     * @return Hopping windows.
+     */
+    public static WindowSpec hopping(long size, long hop) {
+        return new WindowSpec(size, hop, gcd(size, hop), false);
+    }
+
+    /**
+     * @param size Window size.
+     * @param slots Number of slots the window moves by.
+     * @return Sliding window.
+     */
+    public static WindowSpec sliding(long size, int slots) {
+        return new WindowSpec(size, size / slots, size / slots, true);
+    }
+
+    /**
+     * @return Window size.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return Interval between window starts.
+     */
+    public long hop() {
+        return hop;
+    }
+
+    /**
+     * @return Slot size.
+     */
+    public long slot() {
+        return slot;
+    }
+
+    /**
+     * @return Whether the window slides with the current time.
+     */
+    public boolean sliding() {
+        return sliding;
+    }
+
+    /**
+     * @return Number of slots to keep: slots of the window plus slots of the window being filled.
+     */
+    public int capacity() {
+        return (int)((size + hop) / slot);
+    }
+
+    /**
+     * @param time Time.
+     * @return Absolute number of the slot the time belongs to.
+     */
+    public long slotOf(long time) {
+        return time / slot;
+    }
+
+    /**
+     * @param now Current time.
+     * @return Exclusive end of the window which results are available for.
+     */
+    public long windowEnd(long now) {
+        return sliding ? (now / slot + 1) * slot : now / hop * hop;
+    }
+
+    /**
+     * @param a First number.
+     * @param b Second number.
+     * @return Greatest common divisor.
+     */
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "WindowSpec [size=" + size + ", hop=" + hop + ", slot=" + slot + ", sliding=" + sliding + ']';
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.window;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import javax.cache.Cache;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.MutableEntry;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.cache.CacheEntryProcessor;
+import org.apache.ignite.cache.CachePeekMode;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.lang.IgniteCallable;
+import org.apache.ignite.resources.IgniteInstanceResource;
+import org.apache.ignite.stream.StreamReceiver;
+
+/**
+ * Windowed aggregates of streamed values kept as a {@link WindowRing} per key.
+ * <p>
+ * Values are streamed with the {@link #streamer()} into the cache of rings. The streamer routes every value
+ * to the primary node of its key, where the receiver combines values of the same key within a batch and updates
+ * the ring of the key with an entry processor, so values are never stored one by one and nothing has to expire.
+ * Window result of a key is computed from at most {@link WindowSpec#capacity()} slots, regardless of the number
+ * of values streamed. Values are put into slots by the time they are received at.
+ *
+ * @param <K> Key type.
+ */
+public class WindowStore<K> {
+    /** Ignite instance. */
+    private final Ignite ignite;
+
+    /** Cache name. */
+    private final String name;
+
+    /** Window definition. */
+    private final WindowSpec spec;
+
+    /** Cache of rings. */
+    private final IgniteCache<K, WindowRing> cache;
+
+    /**
+     * Creates the cache of rings if it does not exist yet.
+     *
+     * @param ignite Ignite instance.
+     * @param name Cache name.
+     * @param spec Window definition.
+     */
+    public WindowStore(Ignite ignite, String name, WindowSpec spec) {
+        this.ignite = ignite;
+        this.name = name;
+        this.spec = spec;
+
+        cache = ignite.getOrCreateCache(new CacheConfiguration<K, WindowRing>(name));
+    }
+
+    /**
+     * @return Window definition.
+     */
+    public WindowSpec spec() {
+        return spec;
+    }
+
+    /**
+     * @return Cache of rings.
+     */
+    public IgniteCache<K, WindowRing> cache() {
+        return cache;
+    }
+
+    /**
+     * Creates data streamer of values. Streamer must be closed by the caller.
+     *
+     * @return Data streamer.
+     */
+    public IgniteDataStreamer<K, Double> streamer() {
+        IgniteDataStreamer<K, Double> stmr = ignite.dataStreamer(name);
+
+        // Rings are updated, not overwritten.
+        stmr.allowOverwrite(true);
+
+        stmr.receiver(receiver());
+
+        return stmr;
+    }
+
+    /**
+     * Creates receiver merging streamed values into rings, for streamers created by other means than
+     * {@link #streamer()}.
+     *
+     * @return Stream receiver.
+     */
+    public StreamReceiver<K, Double> receiver() {
+        return new Receiver<>(spec);
+    }
+
+    /**
+     * @param key Key.
+     * @return Result of the current window of the key.
+     */
+    public WindowAggregate result(K key) {
+        WindowRing ring = cache.get(key);
+
+        return ring == null ? new WindowAggregate() : ring.aggregate(spec, System.currentTimeMillis());
+    }
+
+    /**
+     * Collects keys with the largest counts in the current window. Every node computes window results of its
+     * primary keys, so only {@code n} results per node are sent over the network.
+     *
+     * @param n Number of keys.
+     * @return Top keys.
+     */
+    public WindowTop<K> top(int n) {
+        Collection<WindowTop<K>> nodeTops = ignite.compute(ignite.cluster().forDataNodes(name))
+            .broadcast(new TopJob<K>(name, spec, n, System.currentTimeMillis()));
+
+        WindowTop<K> top = new WindowTop<>(n);
+
+        for (WindowTop<K> nodeTop : nodeTops)
+            top.merge(nodeTop);
+
+        return top;
+    }
+
+    /**
+     * Destroys the cache of rings.
+     */
+    public void destroy() {
+        ignite.destroyCache(name);
+    }
+
+    /**
+     * Receiver combining values of a batch by key and merging them into rings.
+     */
+    private static class Receiver<K> implements StreamReceiver<K, Double> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Window definition. */
+        private final WindowSpec spec;
+
+        /**
+         * @param spec Window definition.
+         */
+        Receiver(WindowSpec spec) {
+            this.spec = spec;
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("unchecked")
+        @Override public void receive(IgniteCache<K, Double> cache, Collection<Map.Entry<K, Double>> entries) {
+            long now = System.currentTimeMillis();
+
+            Map<K, WindowAggregate> parts = new HashMap<>();
+
+            for (Map.Entry<K, Double> e : entries)
+                parts.computeIfAbsent(e.getKey(), k -> new WindowAggregate()).add(e.getValue());
+
+            Map<K, EntryProcessor<K, WindowRing, Boolean>> updates = new HashMap<>();
+
+            for (Map.Entry<K, WindowAggregate> e : parts.entrySet())
+                updates.put(e.getKey(), new Update<K>(spec, now, e.getValue()));
+
+            // Streamed values are Doubles, but the cache holds rings.
+            ((IgniteCache<K, WindowRing>)(IgniteCache)cache).invokeAll(updates);
+        }
+    }
+
+    /**
+     * Entry processor adding partial aggregate to the ring of a key.
+     */
+    private static class Update<K> implements CacheEntryProcessor<K, WindowRing, Boolean> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Window definition. */
+        private final WindowSpec spec;
+
+        /** Time of the values. */
+        private final long time;
+
+        /** Partial aggregate of the values. */
+        private final WindowAggregate part;
+
+        /**
+         * @param spec Window definition.
+         * @param time Time of the values.
+         * @param part Partial aggregate of the values.
+         */
+        Update(WindowSpec spec, long time, WindowAggregate part) {
+            this.spec = spec;
+            this.time = time;
+            this.part = part;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Boolean process(MutableEntry<K, WindowRing> e, Object... args) {
+            WindowRing ring = e.getValue();
+
+            if (ring == null)
+                ring = new WindowRing(spec);
+
+            boolean added = ring.add(spec, time, part);
+
+            if (added)
+                e.setValue(ring);
+
+            return added;
+        }
+    }
+
+    /**
+     * Job collecting top keys among the local primary keys.
+     */
+    private static class TopJob<K> implements IgniteCallable<WindowTop<K>> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Auto-injected Ignite instance. */
+        @IgniteInstanceResource
+        private transient Ignite ignite;
+
+        /** Cache name. */
+        private final String name;
+
+        /** Window definition. */
+        private final WindowSpec spec;
+
+        /** Number of keys. */
+        private final int n;
+
+        /** Time to compute window results at, the same on all nodes. */
+        private final long now;
+
+        /**
+         * @param name Cache name.
+         * @param spec Window definition.
+         * @param n Number of keys.
+         * @param now Time to compute window results at.
+         */
+        TopJob(String name, WindowSpec spec, int n, long now) {
+            this.name = name;
+            this.spec = spec;
+            this.n = n;
+            this.now = now;
+        }
+
+        /** {@inheritDoc} */
+        @Override public WindowTop<K> call() {
+            IgniteCache<K, WindowRing> cache = ignite.cache(name);
+
+            WindowTop<K> top = new WindowTop<>(n);
+
+            for (Cache.Entry<K, WindowRing> e : cache.localEntries(CachePeekMode.PRIMARY)) {
+                WindowAggregate res = e.getValue().aggregate(spec, now);
+
+                if (res.count() > 0)
+                    top.add(e.getKey(), res);
+            }
+
+            return top;
+        }
+    }
+}
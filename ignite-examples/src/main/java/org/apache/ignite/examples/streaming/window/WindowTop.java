@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.window;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.ignite.lang.IgniteBiTuple;
+
+/**
+ * Keys with the largest window counts, and count, sum, min and max of window counts of all keys.
+ *
+ * @param <K> Key type.
+ */
+public class WindowTop<K> implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Number of keys to keep. */
+    private final int n;
+
+    /** Window results of top keys, trimmed to {@link #n} lazily. */
+    private final List<IgniteBiTuple<K, WindowAggregate>> top = new ArrayList<>();
+
+    /** Aggregate of window counts of all keys. */
+    private final WindowAggregate cnts = new WindowAggregate();
+
+    /**
+     * @param n Number of keys to keep.
+     */
+    public WindowTop(int n) {
+        this.n = n;
+    }
+
+    /**
+     * Adds window result of a key.
+     *
+     * @param key Key.
+     * @param res Window result.
+     */
+    public void add(K key, WindowAggregate res) {
+        cnts.add(res.count());
+
+        top.add(new IgniteBiTuple<>(key, res));
+
+        if (top.size() > 2 * n)
+            trim();
+    }
+
+    /**
+     * Merges results collected on another node.
+     *
+     * @param other Results.
+     */
+    public void merge(WindowTop<K> other) {
+        cnts.merge(other.cnts);
+
+        top.addAll(other.top);
+
+        trim();
+    }
+
+    /**
+     * @return Keys with the largest window counts and their window results, largest first.
+     */
+    public List<IgniteBiTuple<K, WindowAggregate>> top() {
+        trim();
+
+        return top;
+    }
+
+    /**
+     * @return Number of keys, sum, min and max of their window counts.
+     */
+    public WindowAggregate counts() {
+        return cnts;
+    }
+
+    /**
+     * Sorts keys by window count and drops all but top {@link #n}.
+     */
+    private void trim() {
+        top.sort(Comparator.comparingLong((IgniteBiTuple<K, WindowAggregate> t) -> t.get2().count()).reversed());
+
+        if (top.size() > n)
+            top.subList(n, top.size()).clear();
+    }
+}
@@ -17,23 +17,42 @@
 
 package org.apache.ignite.examples.streaming.wordcount;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import javax.cache.configuration.FactoryBuilder;
 import javax.cache.expiry.CreatedExpiryPolicy;
 import javax.cache.expiry.Duration;
 
+import org.apache.ignite.Ignite;
 import org.apache.ignite.cache.affinity.AffinityUuid;
 import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.examples.streaming.topk.TopKService;
+import org.apache.ignite.examples.streaming.window.WindowSpec;
+import org.apache.ignite.examples.streaming.window.WindowStore;
 
 /**
- * Configuration for the streaming cache to store the stream of words.
- * This cache is configured with sliding window of 1 second, which means that
- * data older than 1 second will be automatically removed from the cache.
+ * Configuration of the word counting examples.
+ * <ul>
+ *     <li>{@link #wordWindows(Ignite)} is a sliding window of word occurrence counts of 1 second moving by
+ *     100 milliseconds, which keeps per-slot counts per word instead of every occurrence. It is used by
+ *     {@link StreamWords}, {@link QueryWords} and the socket streamer servers, together with approximate top
+ *     words since the start of streaming of {@link #wordTopK(Ignite)}.</li>
+ *     <li>{@link #wordCountCache()} keeps one pre-aggregated counter per word per tumbling window of
+ *     {@link #COUNT_WINDOW}. It is used by {@link StreamWordCounts} and {@link QueryWordCounts}.</li>
+ *     <li>{@link #wordCache()} keeps every streamed word occurrence for 1 second. It is only used by
+ *     {@link WordCountBenchmark} as the per-occurrence baseline the pre-aggregated counters are compared with.</li>
+ * </ul>
  */
 public class CacheConfig {
+    /** Tumbling window of word counters in milliseconds. */
+    public static final long COUNT_WINDOW = 1000;
+
+    /** Number of windows word counters are kept for. */
+    public static final int COUNT_WINDOWS_KEPT = 10;
+
     /**
-     * Configure streaming cache.
+     * Configure cache of every streamed word, which expires words 1 second after they are streamed.
      */
     public static CacheConfiguration<AffinityUuid, String> wordCache() {
         CacheConfiguration<AffinityUuid, String> cfg = new CacheConfiguration<>("words");
@@ -46,4 +65,49 @@ public class CacheConfig {
 
         return cfg;
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates sliding window of word occurrence counts.
+     *
+     * @param ignite Ignite instance.
+     * @return Window store.
+     */
+    public static WindowStore<String> wordWindows(Ignite ignite) {
+        return new WindowStore<>(ignite, "wordWindows", WindowSpec.sliding(1000, 10));
+    }
+
+    /**
+     * Creates approximate top words service: 1000 Space-Saving counters per node, maximum overestimate
+     * of {@code 0.1%} of all words, and Count-Min sketch error of {@code 0.1%} with probability {@code 99%}.
+     *
+     * @param ignite Ignite instance.
+     * @return Top K service.
+     */
+    public static TopKService<String> wordTopK(Ignite ignite) {
+        return new TopKService<>(ignite, "wordTopK", 1000, 0.001, 0.01);
+    }
+
+    /**
+     * Configure cache of word counters.
+     */
+    public static CacheConfiguration<WordWindowKey, Long> wordCountCache() {
+        CacheConfiguration<WordWindowKey, Long> cfg = new CacheConfiguration<>("wordCounts");
+
+        // Index words and windows of the counters.
+        cfg.setIndexedTypes(WordWindowKey.class, Long.class);
+
+        // Every window gets its own counters, so they can expire a few windows after creation.
+        cfg.setExpiryPolicyFactory(FactoryBuilder.factoryOf(
+            new CreatedExpiryPolicy(new Duration(MILLISECONDS, COUNT_WINDOW * COUNT_WINDOWS_KEPT))));
+
+        return cfg;
+    }
+
+    /**
+     * @param time Time in milliseconds.
+     * @return Start of the counter window the time belongs to.
+     */
+    public static long windowStart(long time) {
+        return time - time % COUNT_WINDOW;
+    }
+}
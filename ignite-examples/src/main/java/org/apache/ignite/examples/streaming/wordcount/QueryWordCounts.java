@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.wordcount;
+
+import java.util.List;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.query.SqlFieldsQuery;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.examples.ExampleNodeStartup;
+import org.apache.ignite.examples.ExamplesUtils;
+
+/**
+ * Periodically query popular words from the cache of word counters.
+ * <p>
+ * Top 10 words of the last complete window are selected from the counters of that window,
+ * one row per distinct word, instead of grouping every word occurrence like {@link QueryWords} does.
+ * <p>
+ * To start the example, you should:
+ * <ul>
+ *     <li>Start a few nodes using {@link ExampleNodeStartup}.</li>
+ *     <li>Start streaming using {@link StreamWordCounts}.</li>
+ *     <li>Start querying popular words using {@link QueryWordCounts}.</li>
+ * </ul>
+ */
+public class QueryWordCounts {
+    /**
+     * Schedules word counts query execution.
+     *
+     * @param args Command line arguments (none required).
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        // Mark this cluster member as client.
+        Ignition.setClientMode(true);
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            if (!ExamplesUtils.hasServerNodes(ignite))
+                return;
+
+            CacheConfiguration<WordWindowKey, Long> cfg = CacheConfig.wordCountCache();
+
+            try (IgniteCache<WordWindowKey, Long> cntCache = ignite.getOrCreateCache(cfg)) {
+                // Select top 10 words of a window.
+                SqlFieldsQuery top10Qry = new SqlFieldsQuery(
+                    "select word, _val from Long where windowStart = ? order by _val desc limit 10");
+
+                // Select number of distinct words, average, min, and max counts of a window.
+                SqlFieldsQuery statsQry = new SqlFieldsQuery(
+                    "select count(*), avg(_val), min(_val), max(_val) from Long where windowStart = ?");
+
+                // Query top 10 popular words every 5 seconds.
+                while (true) {
+                    // The current window is still being counted.
+                    long window = CacheConfig.windowStart(System.currentTimeMillis()) - CacheConfig.COUNT_WINDOW;
+
+                    long start = System.currentTimeMillis();
+
+                    List<List<?>> top10 = cntCache.query(top10Qry.setArgs(window)).getAll();
+                    List<List<?>> stats = cntCache.query(statsQry.setArgs(window)).getAll();
+
+                    long dur = System.currentTimeMillis() - start;
+
+                    List<?> row = stats.get(0);
+
+                    if (row.get(1) != null)
+                        System.out.printf("Query results [window=%d, words=%s, avg=%s, min=%s, max=%s, time=%dms]%n",
+                            window, row.get(0), row.get(1), row.get(2), row.get(3), dur);
+
+                    // Print top 10 words.
+                    ExamplesUtils.printQueryResults(top10);
+
+                    Thread.sleep(5000);
+                }
+            }
+            finally {
+                // Distributed cache could be removed from cluster only by #destroyCache() call.
+                ignite.destroyCache(cfg.getName());
+            }
+        }
+    }
+}
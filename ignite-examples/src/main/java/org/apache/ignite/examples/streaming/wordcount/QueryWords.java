@@ -17,19 +17,28 @@
 
 package org.apache.ignite.examples.streaming.wordcount;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.ignite.Ignite;
-import org.apache.ignite.IgniteCache;
 import org.apache.ignite.Ignition;
-import org.apache.ignite.cache.affinity.AffinityUuid;
-import org.apache.ignite.cache.query.SqlFieldsQuery;
-import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.examples.ExampleNodeStartup;
 import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.streaming.topk.TopKResult;
+import org.apache.ignite.examples.streaming.topk.TopKService;
+import org.apache.ignite.examples.streaming.window.WindowAggregate;
+import org.apache.ignite.examples.streaming.window.WindowStore;
+import org.apache.ignite.examples.streaming.window.WindowTop;
+import org.apache.ignite.lang.IgniteBiTuple;
 
 /**
  * Periodically query popular numbers from the streaming cache.
+ * <p>
+ * Words are counted in a sliding window, so the top 10 words are computed from a few slots per word
+ * instead of grouping all raw words. Approximate top 10 words since the start of streaming are merged
+ * from per-node summaries of bounded size and printed with their error bounds.
+ * <p>
  * To start the example, you should:
  * <ul>
  *     <li>Start a few nodes using {@link ExampleNodeStartup}.</li>
@@ -52,42 +61,49 @@ public class QueryWords {
             if (!ExamplesUtils.hasServerNodes(ignite))
                 return;
 
-            CacheConfiguration<AffinityUuid, String> cfg = CacheConfig.wordCache();
+            // Sliding window holding 1 second of the streaming data.
+            WindowStore<String> windows = CacheConfig.wordWindows(ignite);
 
-            // The cache is configured with sliding window holding 1 second of the streaming data.
-            try (IgniteCache<AffinityUuid, String> stmCache = ignite.getOrCreateCache(cfg)) {
-                // Select top 10 words.
-                SqlFieldsQuery top10Qry = new SqlFieldsQuery(
-                    "select _val, count(_val) as cnt from String group by _val order by cnt desc limit 10",
-                    true /*collocated*/
-                );
+            // Approximate top words since the start of streaming.
+            TopKService<String> topK = CacheConfig.wordTopK(ignite);
 
-                // Select average, min, and max counts among all the words.
-                SqlFieldsQuery statsQry = new SqlFieldsQuery(
-                    "select avg(cnt), min(cnt), max(cnt) from (select count(_val) as cnt from String group by _val)");
-
-                // Query top 10 popular numbers every 5 seconds.
+            try {
+                // Query top 10 popular words every 5 seconds.
                 while (true) {
-                    // Execute queries.
-                    List<List<?>> top10 = stmCache.query(top10Qry).getAll();
-                    List<List<?>> stats = stmCache.query(statsQry).getAll();
+                    // Every node computes window counts of its words from the ring slots, raw words are not stored.
+                    WindowTop<String> top = windows.top(10);
 
                     // Print average count.
-                    List<?> row = stats.get(0);
+                    WindowAggregate cnts = top.counts();
+
+                    if (cnts.count() > 0)
+                        System.out.printf("Query results [words=%d, avg=%.2f, min=%d, max=%d]%n",
+                            cnts.count(), cnts.avg(), (long)cnts.min(), (long)cnts.max());
 
-                    if (row.get(0) != null)
-                        System.out.printf("Query results [avg=%d, min=%d, max=%d]%n",
-                            row.get(0), row.get(1), row.get(2));
+                    List<List<?>> top10 = new ArrayList<>();
+
+                    for (IgniteBiTuple<String, WindowAggregate> t : top.top())
+                        top10.add(Arrays.asList(t.get1(), t.get2().count()));
 
                     // Print top 10 words.
                     ExamplesUtils.printQueryResults(top10);
 
+                    long start = System.currentTimeMillis();
+
+                    TopKResult<String> approxTop10 = topK.top(10);
+
+                    System.out.println("Approximate top 10 since start (word, estimate, lower bound) in " +
+                        (System.currentTimeMillis() - start) + "ms: " + approxTop10);
+
+                    ExamplesUtils.printQueryResults(approxTop10.rows());
+
                     Thread.sleep(5000);
                 }
             }
             finally {
                 // Distributed cache could be removed from cluster only by #destroyCache() call.
-                ignite.destroyCache(cfg.getName());
+                windows.destroy();
+                topK.destroy();
             }
         }
     }
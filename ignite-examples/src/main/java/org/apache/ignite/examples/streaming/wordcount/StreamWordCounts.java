@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.wordcount;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.examples.ExampleNodeStartup;
+import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.stream.StreamReceiver;
+import org.apache.ignite.stream.StreamTransformer;
+
+/**
+ * Stream pre-aggregated word counts into Ignite cache.
+ * <p>
+ * Unlike streaming of every word occurrence as a separate entry of {@link CacheConfig#wordCache()}, words are
+ * counted on the client with {@link WordCountAggregator} and only one counter per word is streamed per flush. On the
+ * server, counts are added to the counter of the word in the current tumbling window of
+ * {@link CacheConfig#COUNT_WINDOW}, so that {@link QueryWordCounts} reads a few thousand counters instead of
+ * grouping millions of raw words.
+ * <p>
+ * To start the example, you should:
+ * <ul>
+ *     <li>Start a few nodes using {@link ExampleNodeStartup}.</li>
+ *     <li>Start streaming using {@link StreamWordCounts}.</li>
+ *     <li>Start querying popular words using {@link QueryWordCounts}.</li>
+ * </ul>
+ */
+public class StreamWordCounts {
+    /** Number of word occurrences after which the counts are flushed. */
+    static final int FLUSH_WORDS = 50_000;
+
+    /**
+     * Starts word counts streaming.
+     *
+     * @param args Command line arguments (none required).
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        // Mark this cluster member as client.
+        Ignition.setClientMode(true);
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            if (!ExamplesUtils.hasServerNodes(ignite))
+                return;
+
+            IgniteCache<WordWindowKey, Long> cntCache = ignite.getOrCreateCache(CacheConfig.wordCountCache());
+
+            try (IgniteDataStreamer<WordWindowKey, Long> stmr = ignite.dataStreamer(cntCache.getName())) {
+                // Counters are updated, not overwritten.
+                stmr.allowOverwrite(true);
+
+                stmr.receiver(countingReceiver());
+
+                WordCountAggregator agg = new WordCountAggregator();
+
+                long window = CacheConfig.windowStart(System.currentTimeMillis());
+
+                // Stream words from "alice-in-wonderland" book.
+                while (true) {
+                    InputStream in = StreamWordCounts.class.getResourceAsStream("alice-in-wonderland.txt");
+
+                    try (LineNumberReader rdr = new LineNumberReader(new InputStreamReader(in))) {
+                        for (String line = rdr.readLine(); line != null; line = rdr.readLine()) {
+                            long curWindow = CacheConfig.windowStart(System.currentTimeMillis());
+
+                            // Counts of the previous window must not leak into the next one.
+                            if (curWindow != window || agg.pending() >= FLUSH_WORDS) {
+                                agg.flush(stmr, window);
+
+                                window = curWindow;
+                            }
+
+                            for (String word : line.split(" "))
+                                if (!word.isEmpty())
+                                    agg.add(word);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates stream receiver which adds streamed counts to the existing counters on the primary node
+     * of every counter.
+     *
+     * @return Stream receiver.
+     */
+    public static StreamReceiver<WordWindowKey, Long> countingReceiver() {
+        return StreamTransformer.from((e, arg) -> {
+            // Current count.
+            Long val = e.getValue();
+
+            // Streamed count is passed as the argument.
+            long delta = (Long)arg[0];
+
+            e.setValue(val == null ? delta : val + delta);
+
+            return null;
+        });
+    }
+}
@@ -17,20 +17,33 @@
 
 package org.apache.ignite.examples.streaming.wordcount;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.ignite.Ignite;
-import org.apache.ignite.IgniteCache;
-import org.apache.ignite.IgniteDataStreamer;
 import org.apache.ignite.Ignition;
-import org.apache.ignite.cache.affinity.AffinityUuid;
 import org.apache.ignite.examples.ExampleNodeStartup;
 import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.streaming.AdaptiveDataStreamer;
+import org.apache.ignite.examples.streaming.exactlyonce.ExactlyOnceStreamer;
+import org.apache.ignite.examples.streaming.topk.TopKService;
+import org.apache.ignite.examples.streaming.window.WindowStore;
 
 /**
  * Stream words into Ignite cache.
+ * <p>
+ * Occurrences of every word are counted in a 1 second sliding window, see {@link CacheConfig#wordWindows},
+ * and in approximate top words, see {@link CacheConfig#wordTopK}. Batch sizes and parallelism of the window
+ * streamer are tuned at runtime by {@link AdaptiveDataStreamer} and printed after every pass over the book.
+ * <p>
+ * Top words count every word since the start of streaming, so they are streamed exactly once with
+ * {@link ExactlyOnceStreamer}: the position in the endlessly repeated book is the source offset, and a restarted
+ * {@code StreamWords} resumes from the last committed offset without counting any word twice.
+ * <p>
  * To start the example, you should:
  * <ul>
  *     <li>Start a few nodes using {@link ExampleNodeStartup}.</li>
@@ -39,6 +52,12 @@ import org.apache.ignite.examples.ExamplesUtils;
  * </ul>
  */
 public class StreamWords {
+    /** Source name of the words. */
+    private static final String SOURCE = "alice-in-wonderland";
+
+    /** Number of words between offset commits. */
+    private static final int COMMIT_WORDS = 100_000;
+
     /**
      * Starts words streaming.
      *
@@ -53,26 +72,60 @@ public class StreamWords {
             if (!ExamplesUtils.hasServerNodes(ignite))
                 return;
 
-            // The cache is configured with sliding window holding 1 second of the streaming data.
-            IgniteCache<AffinityUuid, String> stmCache = ignite.getOrCreateCache(CacheConfig.wordCache());
+            // Sliding window holding 1 second of the streaming data.
+            WindowStore<String> windows = CacheConfig.wordWindows(ignite);
+
+            // Approximate top words since the start of streaming.
+            TopKService<String> topK = CacheConfig.wordTopK(ignite);
+
+            List<String> words = readWords();
+
+            try (AdaptiveDataStreamer<String, Double> stmr = new AdaptiveDataStreamer<>(ignite, windows.streamer());
+                 ExactlyOnceStreamer<String, Long> topKStmr =
+                     new ExactlyOnceStreamer<>(ignite, SOURCE, topK.name(), topK.receiver(), COMMIT_WORDS)) {
+                System.out.println(">>> Streaming words from offset " + topKStmr.nextOffset());
 
-            try (IgniteDataStreamer<AffinityUuid, String> stmr = ignite.dataStreamer(stmCache.getName())) {
-                // Stream words from "alice-in-wonderland" book.
+                // Stream words from "alice-in-wonderland" book, repeated endlessly.
                 while (true) {
-                    InputStream in = StreamWords.class.getResourceAsStream("alice-in-wonderland.txt");
-
-                    try (LineNumberReader rdr = new LineNumberReader(new InputStreamReader(in))) {
-                        for (String line = rdr.readLine(); line != null; line = rdr.readLine()) {
-                            for (String word : line.split(" "))
-                                if (!word.isEmpty())
-                                    // Stream words into Ignite.
-                                    // By using AffinityUuid we ensure that identical
-                                    // words are processed on the same cluster node.
-                                    stmr.addData(new AffinityUuid(word), word);
-                        }
+                    long off = topKStmr.nextOffset();
+
+                    String word = words.get((int)(off % words.size()));
+
+                    // Stream words into Ignite.
+                    // Word is the key, so identical words are
+                    // counted in the same ring on the same cluster node.
+                    stmr.addData(word, 1.0);
+                    topKStmr.addData(word, 1L);
+
+                    if ((off + 1) % words.size() == 0) {
+                        System.out.println(">>> " + stmr);
+                        System.out.println(">>> Committed offset: " + topKStmr.committedOffset());
                     }
                 }
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads words of the "alice-in-wonderland" book.
+     *
+     * @return Words.
+     * @throws IOException If failed.
+     */
+    public static List<String> readWords() throws IOException {
+        List<String> words = new ArrayList<>();
+
+        InputStream in = StreamWords.class.getResourceAsStream("alice-in-wonderland.txt");
+
+        try (LineNumberReader rdr = new LineNumberReader(new InputStreamReader(in))) {
+            for (String line = rdr.readLine(); line != null; line = rdr.readLine()) {
+                for (String word : line.split(" ")) {
+                    if (!word.isEmpty())
+                        words.add(word);
+                }
+            }
+        }
+
+        return words;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.wordcount;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ignite.IgniteDataStreamer;
+
+/**
+ * Client-side pre-aggregation of word counts between flushes.
+ * <p>
+ * Every distinct word gets a dense integer id from a dictionary, and counts are kept in a {@code long[]}
+ * indexed by the id, so counting a word is one dictionary lookup and one array increment, without a counter
+ * object per word. On {@link #flush(IgniteDataStreamer, long)} only the words seen since the previous flush
+ * are sent, one {@code (word, window) -> count} entry per word. The dictionary survives flushes, so ids of
+ * frequent words are reused, and is dropped once it grows over {@link #DFLT_MAX_DICTIONARY_SIZE} words.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class WordCountAggregator {
+    /** Default maximum dictionary size. */
+    public static final int DFLT_MAX_DICTIONARY_SIZE = 1 << 20;
+
+    /** Word ids. */
+    private final Map<String, Integer> dict = new HashMap<>();
+
+    /** Words by id. */
+    private final List<String> words = new ArrayList<>();
+
+    /** Counts by word id. */
+    private long[] cnts = new long[1024];
+
+    /** Ids of words counted since the last flush. */
+    private int[] touched = new int[1024];
+
+    /** Number of words counted since the last flush. */
+    private int touchedCnt;
+
+    /** Number of word occurrences counted since the last flush. */
+    private long pending;
+
+    /**
+     * Counts one occurrence of the word.
+     *
+     * @param word Word.
+     */
+    public void add(String word) {
+        Integer id = dict.get(word);
+
+        if (id == null) {
+            id = words.size();
+
+            dict.put(word, id);
+            words.add(word);
+
+            if (id == cnts.length)
+                cnts = Arrays.copyOf(cnts, cnts.length * 2);
+        }
+
+        if (cnts[id]++ == 0) {
+            if (touchedCnt == touched.length)
+                touched = Arrays.copyOf(touched, touched.length * 2);
+
+            touched[touchedCnt++] = id;
+        }
+
+        pending++;
+    }
+
+    /**
+     * @return Number of word occurrences counted since the last flush.
+     */
+    public long pending() {
+        return pending;
+    }
+
+    /**
+     * Sends counts accumulated since the last flush to the streamer and resets them.
+     *
+     * @param stmr Streamer configured to add the counts to existing ones.
+     * @param windowStart Start of the window the counts belong to.
+     * @return Number of sent counters.
+     */
+    public int flush(IgniteDataStreamer<WordWindowKey, Long> stmr, long windowStart) {
+        int sent = touchedCnt;
+
+        for (int i = 0; i < touchedCnt; i++) {
+            int id = touched[i];
+
+            stmr.addData(new WordWindowKey(words.get(id), windowStart), cnts[id]);
+
+            cnts[id] = 0;
+        }
+
+        touchedCnt = 0;
+        pending = 0;
+
+        if (words.size() > DFLT_MAX_DICTIONARY_SIZE) {
+            dict.clear();
+            words.clear();
+        }
+
+        return sent;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.wordcount;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.affinity.AffinityUuid;
+import org.apache.ignite.cache.query.SqlFieldsQuery;
+import org.apache.ignite.configuration.CacheConfiguration;
+
+/**
+ * Compares streaming of every word occurrence as a separate entry, as {@link StreamWords} used to do, with streaming
+ * of pre-aggregated windowed counters, as {@link StreamWordCounts} does.
+ * <p>
+ * Words of the "alice-in-wonderland" book are streamed repeatedly from memory, so that reading the book does not
+ * affect results. For each design ingest throughput, number of cache entries written and time of the top 10 words
+ * query are reported. Expiration is disabled in the benchmark caches, so that the query sees all streamed data.
+ * <p>
+ * Number of streamed words can be passed as the first argument, default is {@link #DFLT_WORD_COUNT}.
+ */
+public class WordCountBenchmark {
+    /** Default number of streamed words. */
+    private static final int DFLT_WORD_COUNT = 5_000_000;
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, optional number of words.
+     * @throws Exception If benchmark execution failed.
+     */
+    public static void main(String[] args) throws Exception {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : DFLT_WORD_COUNT;
+
+        String[] words = readWords();
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> Word count benchmark started [words=" + total + ']');
+
+            // Warm up both designs.
+            streamWords(ignite, words, total / 10);
+            streamWordCounts(ignite, words, total / 10);
+
+            String raw = streamWords(ignite, words, total);
+            String counted = streamWordCounts(ignite, words, total);
+
+            System.out.println();
+            System.out.println(">>> Results:");
+            System.out.println(">>>   Entry per word:        " + raw);
+            System.out.println(">>>   Pre-aggregated counts: " + counted);
+        }
+    }
+
+    /**
+     * Streams every word as a separate entry.
+     *
+     * @param ignite Ignite instance.
+     * @param words Words.
+     * @param total Number of words to stream.
+     * @return Results.
+     */
+    private static String streamWords(Ignite ignite, String[] words, int total) {
+        CacheConfiguration<AffinityUuid, String> cfg = new CacheConfiguration<>(CacheConfig.wordCache());
+
+        cfg.setExpiryPolicyFactory(null);
+
+        try (IgniteCache<AffinityUuid, String> cache = ignite.getOrCreateCache(cfg)) {
+            long start = System.currentTimeMillis();
+
+            try (IgniteDataStreamer<AffinityUuid, String> stmr = ignite.dataStreamer(cfg.getName())) {
+                for (int i = 0; i < total; i++) {
+                    String word = words[i % words.length];
+
+                    stmr.addData(new AffinityUuid(word), word);
+                }
+            }
+
+            long dur = System.currentTimeMillis() - start;
+
+            SqlFieldsQuery top10Qry = new SqlFieldsQuery(
+                "select _val, count(_val) as cnt from String group by _val order by cnt desc limit 10", true);
+
+            return results(total, dur, total, cache, top10Qry);
+        }
+        finally {
+            ignite.destroyCache(cfg.getName());
+        }
+    }
+
+    /**
+     * Streams counters of words pre-aggregated with {@link WordCountAggregator}.
+     *
+     * @param ignite Ignite instance.
+     * @param words Words.
+     * @param total Number of words to stream.
+     * @return Results.
+     */
+    private static String streamWordCounts(Ignite ignite, String[] words, int total) {
+        CacheConfiguration<WordWindowKey, Long> cfg = new CacheConfiguration<>(CacheConfig.wordCountCache());
+
+        cfg.setExpiryPolicyFactory(null);
+
+        try (IgniteCache<WordWindowKey, Long> cache = ignite.getOrCreateCache(cfg)) {
+            long start = System.currentTimeMillis();
+
+            long sent = 0;
+
+            try (IgniteDataStreamer<WordWindowKey, Long> stmr = ignite.dataStreamer(cfg.getName())) {
+                stmr.allowOverwrite(true);
+
+                stmr.receiver(StreamWordCounts.countingReceiver());
+
+                WordCountAggregator agg = new WordCountAggregator();
+
+                long window = CacheConfig.windowStart(System.currentTimeMillis());
+
+                for (int i = 0; i < total; i++) {
+                    // Check the clock every 64 words, about as often as StreamWordCounts does once per line.
+                    if (i % 64 == 0) {
+                        long curWindow = CacheConfig.windowStart(System.currentTimeMillis());
+
+                        if (curWindow != window || agg.pending() >= StreamWordCounts.FLUSH_WORDS) {
+                            sent += agg.flush(stmr, window);
+
+                            window = curWindow;
+                        }
+                    }
+
+                    agg.add(words[i % words.length]);
+                }
+
+                sent += agg.flush(stmr, window);
+            }
+
+            long dur = System.currentTimeMillis() - start;
+
+            // Word is the affinity key, so counters of a word are summed up over windows on the same node.
+            SqlFieldsQuery top10Qry = new SqlFieldsQuery(
+                "select word, sum(_val) as cnt from Long group by word order by cnt desc limit 10", true);
+
+            return results(total, dur, sent, cache, top10Qry);
+        }
+        finally {
+            ignite.destroyCache(cfg.getName());
+        }
+    }
+
+    /**
+     * Runs top 10 query and formats results.
+     *
+     * @param total Number of streamed words.
+     * @param dur Ingest duration in milliseconds.
+     * @param written Number of cache entries written.
+     * @param cache Cache.
+     * @param top10Qry Top 10 words query.
+     * @return Results.
+     */
+    private static String results(int total, long dur, long written, IgniteCache<?, ?> cache,
+        SqlFieldsQuery top10Qry) {
+        long start = System.currentTimeMillis();
+
+        List<List<?>> top10 = cache.query(top10Qry).getAll();
+
+        long qryDur = System.currentTimeMillis() - start;
+
+        return dur + "ms (" + total * 1000L / Math.max(1, dur) + " words/sec), entries written=" + written +
+            ", cache size=" + cache.size() + ", top 10 query=" + qryDur + "ms, top word=" +
+            (top10.isEmpty() ? null : top10.get(0));
+    }
+
+    /**
+     * Reads words of the "alice-in-wonderland" book.
+     *
+     * @return Words.
+     * @throws Exception If failed.
+     */
+    private static String[] readWords() throws Exception {
+        List<String> words = new ArrayList<>();
+
+        InputStream in = WordCountBenchmark.class.getResourceAsStream("alice-in-wonderland.txt");
+
+        try (LineNumberReader rdr = new LineNumberReader(new InputStreamReader(in))) {
+            for (String line = rdr.readLine(); line != null; line = rdr.readLine()) {
+                for (String word : line.split(" "))
+                    if (!word.isEmpty())
+                        words.add(word);
+            }
+        }
+
+        return words.toArray(new String[words.size()]);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.wordcount;
+
+import java.io.Serializable;
+
+import org.apache.ignite.cache.affinity.AffinityKeyMapped;
+import org.apache.ignite.cache.query.annotations.QuerySqlField;
+
+/**
+ * Key of a word counter within a tumbling window.
+ * <p>
+ * Counters of the same word are collocated, the same way {@link StreamWords} collocates identical words.
+ */
+public class WordWindowKey implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Word. */
+    @AffinityKeyMapped
+    @QuerySqlField(index = true)
+    private String word;
+
+    /** Window start time in milliseconds. */
+    @QuerySqlField(index = true)
+    private long windowStart;
+
+    /**
+     * @param word Word.
+     * @param windowStart Window start time in milliseconds.
+     */
+    public WordWindowKey(String word, long windowStart) {
+        this.word = word;
+        this.windowStart = windowStart;
+    }
+
+    /**
+     * @return Word.
+     */
+    public String word() {
+        return word;
+    }
+
+    /**
+     * @return Window start time in milliseconds.
+     */
+    public long windowStart() {
+        return windowStart;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        if (!(o instanceof WordWindowKey))
+            return false;
+
+        WordWindowKey that = (WordWindowKey)o;
+
+        return windowStart == that.windowStart && word.equals(that.word);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        return 31 * word.hashCode() + (int)(windowStart ^ (windowStart >>> 32));
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "WordWindowKey [word=" + word + ", windowStart=" + windowStart + ']';
+    }
+}
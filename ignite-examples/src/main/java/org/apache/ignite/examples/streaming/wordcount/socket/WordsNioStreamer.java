@@ -0,0 +1,435 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.wordcount.socket;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.lang.IgniteBiTuple;
+
+/**
+ * Non-blocking socket server streaming words received in length-prefixed frames.
+ * <p>
+ * Frame is a 4 byte big-endian payload length followed by the payload, which is a sequence of words, every word
+ * is a 1 byte length followed by that many ASCII bytes. Frames are at most {@link #MAX_FRAME_SIZE} bytes.
+ * <p>
+ * A single selector thread reads all connections into per-connection direct buffers, decodes words of every
+ * complete frame in place and passes them to the data streamer as one batch. To keep a fast client from filling
+ * the streamer, a connection stops being read while it has more unacknowledged batches than its share of the
+ * streamer {@link IgniteDataStreamer#perNodeParallelOperations()}, and is resumed when batches are acknowledged.
+ * <p>
+ * Failure of a connection, including a runtime exception thrown by the streamer while its words are passed, closes
+ * that connection only. Batches failed by the streamer are counted, see {@link #failedBatches()}.
+ */
+public class WordsNioStreamer implements AutoCloseable {
+    /** Maximum frame payload size. */
+    public static final int MAX_FRAME_SIZE = 64 * 1024;
+
+    /** Data streamer. */
+    private final IgniteDataStreamer<String, Double> stmr;
+
+    /** Address to listen on. */
+    private final InetSocketAddress addr;
+
+    /** Connections to resume reading. */
+    private final Queue<SelectionKey> resumed = new ConcurrentLinkedQueue<>();
+
+    /** Number of received words. */
+    private final AtomicLong received = new AtomicLong();
+
+    /** Number of batches failed by the streamer. */
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    /** Number of words in batches failed by the streamer. */
+    private final AtomicLong failedWords = new AtomicLong();
+
+    /** Number of open connections. */
+    private volatile int conns;
+
+    /** Stop flag. */
+    private volatile boolean stopped;
+
+    /** Server channel. */
+    private ServerSocketChannel srvCh;
+
+    /** Selector. */
+    private Selector selector;
+
+    /** Selector thread. */
+    private Thread thread;
+
+    /**
+     * @param stmr Data streamer of words, which is not closed by this server.
+     * @param addr Address to listen on.
+     */
+    public WordsNioStreamer(IgniteDataStreamer<String, Double> stmr, InetSocketAddress addr) {
+        this.stmr = stmr;
+        this.addr = addr;
+    }
+
+    /**
+     * Starts listening.
+     *
+     * @throws IOException If failed.
+     */
+    public void start() throws IOException {
+        selector = Selector.open();
+
+        srvCh = ServerSocketChannel.open();
+
+        srvCh.configureBlocking(false);
+        srvCh.bind(addr);
+        srvCh.register(selector, SelectionKey.OP_ACCEPT);
+
+        thread = new Thread(this::loop, "words-nio-streamer");
+
+        thread.start();
+    }
+
+    /**
+     * @return Number of words received and passed to the streamer, including words of failed batches.
+     */
+    public long received() {
+        return received.get();
+    }
+
+    /**
+     * @return Number of batches failed by the streamer.
+     */
+    public long failedBatches() {
+        return failedBatches.get();
+    }
+
+    /**
+     * @return Number of words in batches failed by the streamer.
+     */
+    public long failedWords() {
+        return failedWords.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() throws IOException {
+        stopped = true;
+
+        if (selector != null) {
+            selector.wakeup();
+
+            try {
+                thread.join();
+            }
+            catch (InterruptedException ignored) {
+                // Channels are still closed, selector thread exits once the selector is closed.
+                Thread.currentThread().interrupt();
+            }
+
+            for (SelectionKey key : selector.keys())
+                key.channel().close();
+
+            selector.close();
+        }
+    }
+
+    /**
+     * Selector loop.
+     */
+    private void loop() {
+        try {
+            while (!stopped) {
+                selector.select();
+
+                for (SelectionKey key = resumed.poll(); key != null; key = resumed.poll()) {
+                    try {
+                        resume(key);
+                    }
+                    catch (RuntimeException e) {
+                        onError(key, e);
+                    }
+                }
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+
+                    it.remove();
+
+                    if (!key.isValid())
+                        continue;
+
+                    try {
+                        if (key.isAcceptable())
+                            accept();
+                        else if (key.isReadable())
+                            read(key);
+                    }
+                    catch (IOException | RuntimeException e) {
+                        onError(key, e);
+                    }
+                }
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            if (!stopped) {
+                System.err.println("Words streamer stopped due to an error: ");
+
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Handles failure of a key, so that one failed connection does not stop the selector thread.
+     *
+     * @param key Selection key.
+     * @param e Error.
+     */
+    private void onError(SelectionKey key, Exception e) {
+        if (key.channel() == srvCh) {
+            // Server channel stays registered, next connections may be accepted.
+            System.err.println("Failed to accept connection: " + e);
+
+            return;
+        }
+
+        System.err.println("Closing connection " + key.channel() + " due to an error: " + e);
+
+        close(key);
+    }
+
+    /**
+     * Accepts connection.
+     *
+     * @throws IOException If failed.
+     */
+    private void accept() throws IOException {
+        SocketChannel ch = srvCh.accept();
+
+        if (ch == null)
+            return;
+
+        ch.configureBlocking(false);
+
+        ch.register(selector, SelectionKey.OP_READ, new Connection());
+
+        conns++;
+    }
+
+    /**
+     * Reads connection and streams words of all complete frames.
+     *
+     * @param key Selection key.
+     */
+    private void read(SelectionKey key) {
+        Connection conn = (Connection)key.attachment();
+
+        ByteBuffer buf = conn.buf;
+
+        try {
+            if (((SocketChannel)key.channel()).read(buf) < 0) {
+                close(key);
+
+                return;
+            }
+
+            buf.flip();
+
+            while (buf.remaining() >= 4) {
+                int len = buf.getInt(buf.position());
+
+                if (len < 0 || len > MAX_FRAME_SIZE)
+                    throw new IOException("Invalid frame size: " + len);
+
+                if (buf.remaining() < 4 + len)
+                    break;
+
+                buf.position(buf.position() + 4);
+
+                submit(key, conn, decode(buf, conn.scratch, buf.position() + len));
+            }
+
+            buf.compact();
+
+            if (conn.inFlight.get() >= budget())
+                pause(key, conn);
+        }
+        catch (IOException e) {
+            System.err.println("Failed to read words from " + key.channel() + ": " + e.getMessage());
+
+            close(key);
+        }
+    }
+
+    /**
+     * Decodes words of a frame.
+     *
+     * @param buf Buffer positioned at the frame payload.
+     * @param scratch Buffer for word bytes.
+     * @param end End of the frame payload.
+     * @return Words.
+     * @throws IOException If frame is malformed.
+     */
+    private static List<Map.Entry<String, Double>> decode(ByteBuffer buf, byte[] scratch, int end)
+        throws IOException {
+        List<Map.Entry<String, Double>> words = new ArrayList<>();
+
+        while (buf.position() < end) {
+            int len = buf.get() & 0xFF;
+
+            if (buf.position() + len > end)
+                throw new IOException("Word exceeds frame [len=" + len + ", frameEnd=" + end + ']');
+
+            buf.get(scratch, 0, len);
+
+            words.add(new IgniteBiTuple<>(new String(scratch, 0, len, StandardCharsets.US_ASCII), 1.0));
+        }
+
+        return words;
+    }
+
+    /**
+     * Passes words to the streamer.
+     *
+     * @param key Selection key.
+     * @param conn Connection.
+     * @param words Words.
+     */
+    private void submit(SelectionKey key, Connection conn, List<Map.Entry<String, Double>> words) {
+        if (words.isEmpty())
+            return;
+
+        conn.inFlight.incrementAndGet();
+
+        received.addAndGet(words.size());
+
+        stmr.addData(words).listen(f -> {
+            try {
+                f.get();
+            }
+            catch (RuntimeException e) {
+                // Words are counted as received already, report how many of them were lost.
+                failedWords.addAndGet(words.size());
+
+                if (failedBatches.incrementAndGet() == 1)
+                    System.err.println("Failed to stream words, further failures are only counted: " + e);
+            }
+
+            if (conn.inFlight.decrementAndGet() < budget() && conn.paused) {
+                resumed.add(key);
+
+                selector.wakeup();
+            }
+        });
+    }
+
+    /**
+     * Stops reading connection until its batches are acknowledged.
+     *
+     * @param key Selection key.
+     * @param conn Connection.
+     */
+    private void pause(SelectionKey key, Connection conn) {
+        key.interestOps(0);
+
+        conn.paused = true;
+
+        // Batch acknowledged before the flag was set would never resume the connection.
+        if (conn.inFlight.get() < budget())
+            resume(key);
+        else {
+            // Do not wait for buffers to fill up or for the auto flush.
+            stmr.tryFlush();
+        }
+    }
+
+    /**
+     * Resumes reading connection.
+     *
+     * @param key Selection key.
+     */
+    private void resume(SelectionKey key) {
+        if (!key.isValid())
+            return;
+
+        Connection conn = (Connection)key.attachment();
+
+        if (conn.paused) {
+            conn.paused = false;
+
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * @param key Selection key.
+     */
+    private void close(SelectionKey key) {
+        // Connection may fail again after it was closed by the read.
+        if (!key.channel().isOpen())
+            return;
+
+        key.cancel();
+
+        try {
+            key.channel().close();
+        }
+        catch (IOException ignored) {
+            // No-op.
+        }
+
+        conns--;
+    }
+
+    /**
+     * @return Maximum number of unacknowledged batches per connection.
+     */
+    private int budget() {
+        return Math.max(1, stmr.perNodeParallelOperations() / Math.max(1, conns));
+    }
+
+    /**
+     * Connection state.
+     */
+    private static class Connection {
+        /** Read buffer, fits a whole frame. */
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(MAX_FRAME_SIZE + 4);
+
+        /** Buffer for word bytes. */
+        private final byte[] scratch = new byte[255];
+
+        /** Number of unacknowledged batches. */
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /** Whether reading is paused. */
+        private volatile boolean paused;
+    }
+}
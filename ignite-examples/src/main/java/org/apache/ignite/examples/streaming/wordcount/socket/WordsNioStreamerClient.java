@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.wordcount.socket;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ignite.examples.ExampleNodeStartup;
+import org.apache.ignite.examples.streaming.wordcount.QueryWords;
+
+/**
+ * Example demonstrates streaming of data from external components into Ignite cache.
+ * <p>
+ * {@code WordsNioStreamerClient} sends words to {@link WordsNioStreamerServer} in length-prefixed frames
+ * of {@link #FRAME_WORDS} words, see {@link WordsNioStreamer} for the frame format. Number of connections
+ * can be passed as the first argument, default is {@code 1}.
+ * <p>
+ * To start the example, you should:
+ * <ul>
+ *     <li>Start a few nodes using {@link ExampleNodeStartup}.</li>
+ *     <li>Start socket server using {@link WordsNioStreamerServer}.</li>
+ *     <li>Start a few socket clients using {@link WordsNioStreamerClient}.</li>
+ *     <li>Start querying popular words using {@link QueryWords}.</li>
+ * </ul>
+ */
+public class WordsNioStreamerClient {
+    /** Port. */
+    public static final int PORT = 5556;
+
+    /** Number of words per frame. */
+    public static final int FRAME_WORDS = 1024;
+
+    /**
+     * @param args Command line arguments, optional number of connections.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        int conns = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+
+        final List<ByteBuffer> frames = encode(readWords(), FRAME_WORDS);
+
+        final InetSocketAddress addr = new InetSocketAddress(InetAddress.getLocalHost(), PORT);
+
+        List<Thread> threads = new ArrayList<>(conns);
+
+        for (int i = 0; i < conns; i++) {
+            Thread t = new Thread(() -> {
+                try (SocketChannel ch = SocketChannel.open(addr)) {
+                    while (true)
+                        send(ch, frames);
+                }
+                catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+
+            t.start();
+
+            threads.add(t);
+        }
+
+        System.out.println("Words streaming started [connections=" + conns + ']');
+
+        for (Thread t : threads)
+            t.join();
+    }
+
+    /**
+     * Sends frames.
+     *
+     * @param ch Channel.
+     * @param frames Frames.
+     * @throws IOException If failed.
+     */
+    public static void send(SocketChannel ch, List<ByteBuffer> frames) throws IOException {
+        for (ByteBuffer frame : frames) {
+            // Frames are shared by connections.
+            ByteBuffer buf = frame.duplicate();
+
+            while (buf.hasRemaining())
+                ch.write(buf);
+        }
+    }
+
+    /**
+     * Encodes words into frames.
+     *
+     * @param words Words.
+     * @param frameWords Maximum number of words per frame.
+     * @return Frames.
+     */
+    public static List<ByteBuffer> encode(List<String> words, int frameWords) {
+        List<ByteBuffer> frames = new ArrayList<>();
+
+        ByteBuffer buf = ByteBuffer.allocate(4 + WordsNioStreamer.MAX_FRAME_SIZE);
+
+        int cnt = 0;
+
+        for (String word : words) {
+            byte[] bytes = word.getBytes(StandardCharsets.US_ASCII);
+
+            int len = Math.min(bytes.length, 255);
+
+            if (cnt == frameWords || buf.position() + 1 + len > buf.capacity()) {
+                frames.add(frame(buf));
+
+                cnt = 0;
+            }
+
+            if (buf.position() == 0)
+                buf.putInt(0);
+
+            buf.put((byte)len);
+            buf.put(bytes, 0, len);
+
+            cnt++;
+        }
+
+        if (cnt > 0)
+            frames.add(frame(buf));
+
+        return frames;
+    }
+
+    /**
+     * @param buf Buffer with a frame, cleared after copying.
+     * @return Frame.
+     */
+    private static ByteBuffer frame(ByteBuffer buf) {
+        // Payload length.
+        buf.putInt(0, buf.position() - 4);
+
+        buf.flip();
+
+        ByteBuffer frame = ByteBuffer.allocateDirect(buf.remaining());
+
+        frame.put(buf);
+        frame.flip();
+
+        buf.clear();
+
+        return frame;
+    }
+
+    /**
+     * Reads words of the "alice-in-wonderland" book.
+     *
+     * @return Words.
+     * @throws IOException If failed.
+     */
+    static List<String> readWords() throws IOException {
+        List<String> words = new ArrayList<>();
+
+        try (InputStream in = WordsNioStreamerClient.class.getResourceAsStream("../alice-in-wonderland.txt");
+             LineNumberReader rdr = new LineNumberReader(new InputStreamReader(in))) {
+            for (String line = rdr.readLine(); line != null; line = rdr.readLine()) {
+                for (String word : line.split(" ")) {
+                    if (!word.isEmpty())
+                        words.add(word);
+                }
+            }
+        }
+
+        return words;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.wordcount.socket;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.examples.ExampleNodeStartup;
+import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.streaming.window.WindowStore;
+import org.apache.ignite.examples.streaming.wordcount.CacheConfig;
+import org.apache.ignite.examples.streaming.wordcount.QueryWords;
+
+/**
+ * Example demonstrates streaming of data from external components into Ignite cache.
+ * <p>
+ * {@code WordsNioStreamerServer} receives words in length-prefixed frames with {@link WordsNioStreamer}
+ * and streams them into the sliding window of word counts read by {@link QueryWords}. Unlike
+ * {@link WordsSocketStreamerServer}, every frame carries many words and is passed to the data streamer as one batch.
+ * <p>
+ * To start the example, you should:
+ * <ul>
+ *     <li>Start a few nodes using {@link ExampleNodeStartup}.</li>
+ *     <li>Start socket server using {@link WordsNioStreamerServer}.</li>
+ *     <li>Start a few socket clients using {@link WordsNioStreamerClient}.</li>
+ *     <li>Start querying popular words using {@link QueryWords}.</li>
+ * </ul>
+ */
+public class WordsNioStreamerServer {
+    /**
+     * Starts socket streaming server.
+     *
+     * @param args Command line arguments (none required).
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        // Mark this cluster member as client.
+        Ignition.setClientMode(true);
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            if (!ExamplesUtils.hasServerNodes(ignite))
+                return;
+
+            // Sliding window holding 1 second of the streaming data.
+            WindowStore<String> windows = CacheConfig.wordWindows(ignite);
+
+            InetSocketAddress addr = new InetSocketAddress(InetAddress.getLocalHost(), WordsNioStreamerClient.PORT);
+
+            try (IgniteDataStreamer<String, Double> stmr = windows.streamer();
+                 WordsNioStreamer srv = new WordsNioStreamer(stmr, addr)) {
+                srv.start();
+
+                System.out.println("Words streaming server started on " + addr);
+
+                long prev = 0;
+
+                // Print ingest rate every 5 seconds.
+                while (true) {
+                    Thread.sleep(5000);
+
+                    long received = srv.received();
+
+                    System.out.println("Words received: " + received + " (" + (received - prev) / 5 +
+                        " words/sec), failed batches: " + srv.failedBatches() + " (" + srv.failedWords() + " words)");
+
+                    prev = received;
+                }
+            }
+            finally {
+                // Distributed cache could be removed from cluster only by #destroyCache() call.
+                windows.destroy();
+            }
+        }
+    }
+}
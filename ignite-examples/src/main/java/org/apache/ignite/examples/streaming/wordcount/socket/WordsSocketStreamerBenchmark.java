@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.streaming.wordcount.socket;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.lang.IgniteBiTuple;
+import org.apache.ignite.stream.StreamVisitor;
+import org.apache.ignite.stream.socket.SocketStreamer;
+
+/**
+ * Compares ingest of words through {@link SocketStreamer} with zero-terminated words, as
+ * {@link WordsSocketStreamerServer} does, with {@link WordsNioStreamer} with length-prefixed frames, at
+ * {@link #CONN_COUNTS} client connections.
+ * <p>
+ * Every connection sends the "alice-in-wonderland" book the given number of times, encoded upfront, so that
+ * only the server side is measured. Words are dropped by the stream receiver, so that only the endpoints and
+ * the streamer transport are compared, and time is measured until all words are received and flushed. Number of
+ * times the book is sent per connection can be passed as the first argument, default is {@link #DFLT_COPIES}.
+ */
+public class WordsSocketStreamerBenchmark {
+    /** Numbers of connections. */
+    private static final int[] CONN_COUNTS = {1, 2, 4, 8};
+
+    /** Default number of times the book is sent per connection. */
+    private static final int DFLT_COPIES = 20;
+
+    /** Port of the socket streamer. */
+    private static final int SOCK_PORT = 5555;
+
+    /** Cache name. */
+    private static final String CACHE_NAME = WordsSocketStreamerBenchmark.class.getSimpleName();
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, optional number of times the book is sent per connection.
+     * @throws Exception If benchmark execution failed.
+     */
+    public static void main(String[] args) throws Exception {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : DFLT_COPIES;
+
+        List<String> words = WordsNioStreamerClient.readWords();
+
+        // Zero-terminated words.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        for (String word : words) {
+            out.write(word.getBytes(StandardCharsets.US_ASCII));
+            out.write(0);
+        }
+
+        byte[] delimited = out.toByteArray();
+
+        List<ByteBuffer> frames = WordsNioStreamerClient.encode(words, WordsNioStreamerClient.FRAME_WORDS);
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            ignite.getOrCreateCache(CACHE_NAME);
+
+            System.out.println();
+            System.out.println(">>> Socket streamer benchmark started [bookWords=" + words.size() +
+                ", copies=" + copies + ']');
+
+            List<String> res = new ArrayList<>();
+
+            try {
+                // Warm up both servers.
+                runSocketStreamer(ignite, delimited, words.size(), 1, 1);
+                runNioStreamer(ignite, frames, words.size(), 1, 1);
+
+                for (int conns : CONN_COUNTS) {
+                    long total = (long)words.size() * copies * conns;
+
+                    long sock = runSocketStreamer(ignite, delimited, words.size(), copies, conns);
+                    long nio = runNioStreamer(ignite, frames, words.size(), copies, conns);
+
+                    res.add(">>>   connections=" + conns + ", words=" + total +
+                        ": SocketStreamer " + total * 1000 / Math.max(1, sock) + " words/sec, " +
+                        "WordsNioStreamer " + total * 1000 / Math.max(1, nio) + " words/sec");
+                }
+            }
+            finally {
+                ignite.destroyCache(CACHE_NAME);
+            }
+
+            System.out.println();
+            System.out.println(">>> Results:");
+
+            for (String row : res)
+                System.out.println(row);
+        }
+    }
+
+    /**
+     * Streams words through {@link SocketStreamer}.
+     *
+     * @param ignite Ignite instance.
+     * @param delimited Zero-terminated words of the book.
+     * @param bookWords Number of words in the book.
+     * @param copies Number of times the book is sent per connection.
+     * @param conns Number of connections.
+     * @return Time in milliseconds.
+     * @throws Exception If failed.
+     */
+    private static long runSocketStreamer(Ignite ignite, byte[] delimited, int bookWords, int copies, int conns)
+        throws Exception {
+        AtomicLong received = new AtomicLong();
+
+        try (IgniteDataStreamer<String, Double> stmr = streamer(ignite)) {
+            SocketStreamer<String, String, Double> sockStmr = new SocketStreamer<>();
+
+            sockStmr.setAddr(InetAddress.getLocalHost());
+            sockStmr.setPort(SOCK_PORT);
+            sockStmr.setDelimiter(new byte[] {0});
+            sockStmr.setIgnite(ignite);
+            sockStmr.setStreamer(stmr);
+
+            sockStmr.setConverter(msg -> {
+                received.incrementAndGet();
+
+                return new String(msg, StandardCharsets.US_ASCII);
+            });
+
+            sockStmr.setSingleTupleExtractor(word -> new IgniteBiTuple<>(word, 1.0));
+
+            sockStmr.start();
+
+            try {
+                long start = System.currentTimeMillis();
+
+                List<Thread> clients = startClients(conns, () -> {
+                    try (Socket sock = new Socket(InetAddress.getLocalHost(), SOCK_PORT);
+                         OutputStream os = sock.getOutputStream()) {
+                        for (int i = 0; i < copies; i++)
+                            os.write(delimited);
+                    }
+                });
+
+                awaitReceived(received::get, (long)bookWords * copies * conns, clients);
+
+                stmr.flush();
+
+                return System.currentTimeMillis() - start;
+            }
+            finally {
+                sockStmr.stop();
+            }
+        }
+    }
+
+    /**
+     * Streams words through {@link WordsNioStreamer}.
+     *
+     * @param ignite Ignite instance.
+     * @param frames Frames of the book.
+     * @param bookWords Number of words in the book.
+     * @param copies Number of times the book is sent per connection.
+     * @param conns Number of connections.
+     * @return Time in milliseconds.
+     * @throws Exception If failed.
+     */
+    private static long runNioStreamer(Ignite ignite, List<ByteBuffer> frames, int bookWords, int copies,
+        int conns) throws Exception {
+        InetSocketAddress addr = new InetSocketAddress(InetAddress.getLocalHost(), WordsNioStreamerClient.PORT);
+
+        try (IgniteDataStreamer<String, Double> stmr = streamer(ignite);
+             WordsNioStreamer srv = new WordsNioStreamer(stmr, addr)) {
+            srv.start();
+
+            long start = System.currentTimeMillis();
+
+            List<Thread> clients = startClients(conns, () -> {
+                try (SocketChannel ch = SocketChannel.open(addr)) {
+                    for (int i = 0; i < copies; i++)
+                        WordsNioStreamerClient.send(ch, frames);
+                }
+            });
+
+            awaitReceived(srv::received, (long)bookWords * copies * conns, clients);
+
+            stmr.flush();
+
+            if (srv.failedBatches() > 0)
+                throw new IgniteException("Failed to stream words [batches=" + srv.failedBatches() + ", words=" +
+                    srv.failedWords() + ']');
+
+            return System.currentTimeMillis() - start;
+        }
+    }
+
+    /**
+     * @param ignite Ignite instance.
+     * @return Data streamer dropping words on the server.
+     */
+    private static IgniteDataStreamer<String, Double> streamer(Ignite ignite) {
+        IgniteDataStreamer<String, Double> stmr = ignite.dataStreamer(CACHE_NAME);
+
+        stmr.receiver(StreamVisitor.from((cache, e) -> {
+            // No-op.
+        }));
+
+        return stmr;
+    }
+
+    /**
+     * @param conns Number of connections.
+     * @param client Client.
+     * @return Client threads.
+     */
+    private static List<Thread> startClients(int conns, Client client) {
+        List<Thread> threads = new ArrayList<>(conns);
+
+        for (int i = 0; i < conns; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    client.run();
+                }
+                catch (IOException e) {
+                    throw new IgniteException(e);
+                }
+            });
+
+            t.start();
+
+            threads.add(t);
+        }
+
+        return threads;
+    }
+
+    /**
+     * Waits until all words are received.
+     *
+     * @param received Number of received words.
+     * @param expected Expected number of words.
+     * @param clients Client threads.
+     * @throws InterruptedException If interrupted.
+     */
+    private static void awaitReceived(LongSupplier received, long expected, List<Thread> clients)
+        throws InterruptedException {
+        for (Thread t : clients)
+            t.join();
+
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5);
+
+        while (received.getAsLong() < expected) {
+            if (System.currentTimeMillis() > deadline)
+                throw new IgniteException("Timed out waiting for words [received=" + received.getAsLong() +
+                    ", expected=" + expected + ']');
+
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Socket client.
+     */
+    private interface Client {
+        /**
+         * Sends words.
+         *
+         * @throws IOException If failed.
+         */
+        void run() throws IOException;
+    }
+}
@@ -22,14 +22,12 @@ import java.net.InetAddress;
 import java.util.Map;
 
 import org.apache.ignite.Ignite;
-import org.apache.ignite.IgniteCache;
 import org.apache.ignite.IgniteDataStreamer;
 import org.apache.ignite.IgniteException;
 import org.apache.ignite.Ignition;
-import org.apache.ignite.cache.affinity.AffinityUuid;
-import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.examples.ExampleNodeStartup;
 import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.streaming.window.WindowStore;
 import org.apache.ignite.examples.streaming.wordcount.CacheConfig;
 import org.apache.ignite.examples.streaming.wordcount.QueryWords;
 import org.apache.ignite.lang.IgniteBiTuple;
@@ -70,22 +68,22 @@ public class WordsSocketStreamerServer {
         // Mark this cluster member as client.
         Ignition.setClientMode(true);
 
-        CacheConfiguration<AffinityUuid, String> cfg = CacheConfig.wordCache();
-
         try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
 
             if (!ExamplesUtils.hasServerNodes(ignite))
                 return;
 
-            // The cache is configured with sliding window holding 1 second of the streaming data.
-            try (IgniteCache<AffinityUuid, String> stmCache = ignite.getOrCreateCache(cfg)) {
+            // Sliding window holding 1 second of the streaming data.
+            WindowStore<String> windows = CacheConfig.wordWindows(ignite);
+
+            try {
 
-                IgniteDataStreamer<AffinityUuid, String> stmr = ignite.dataStreamer(stmCache.getName());
+                IgniteDataStreamer<String, Double> stmr = windows.streamer();
 
                 InetAddress addr = InetAddress.getLocalHost();
 
                 // Configure socket streamer
-                SocketStreamer<String, AffinityUuid, String> sockStmr = new SocketStreamer<>();
+                SocketStreamer<String, String, Double> sockStmr = new SocketStreamer<>();
 
                 sockStmr.setAddr(addr);
 
@@ -109,11 +107,11 @@ public class WordsSocketStreamerServer {
                     }
                 });
 
-                sockStmr.setSingleTupleExtractor(new StreamSingleTupleExtractor<String, AffinityUuid, String>() {
-                    @Override public Map.Entry<AffinityUuid, String> extract(String word) {
-                        // By using AffinityUuid we ensure that identical
-                        // words are processed on the same cluster node.
-                        return new IgniteBiTuple<>(new AffinityUuid(word), word);
+                sockStmr.setSingleTupleExtractor(new StreamSingleTupleExtractor<String, String, Double>() {
+                    @Override public Map.Entry<String, Double> extract(String word) {
+                        // Word is the key, so identical words
+                        // are counted on the same cluster node.
+                        return new IgniteBiTuple<>(word, 1.0);
                     }
                 });
 
@@ -126,7 +124,7 @@ public class WordsSocketStreamerServer {
             }
             finally {
                 // Distributed cache could be removed from cluster only by #destroyCache() call.
-                ignite.destroyCache(cfg.getName());
+                windows.destroy();
             }
         }
     }
@@ -0,0 +1,769 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.IgniteException;
+
+/**
+ * Parallel loader of delimited text files.
+ * <p>
+ * The file is split into chunks of about {@link #getChunkSize()} bytes at line boundaries. Every chunk is
+ * memory-mapped and parsed by a task of a fork-join pool. Fields of a line are exposed through a reusable
+ * {@link Row} which keeps only field offsets, so numbers are parsed straight from the mapped bytes and a
+ * {@link String} is created only for fields which are actually read as strings.
+ * <p>
+ * Fields are separated by {@link #getDelimiter()}, surrounding spaces are trimmed. Quoting is not supported,
+ * so fields must not contain the delimiter or line breaks.
+ */
+public class CsvBulkLoader {
+    /** Default chunk size in bytes. */
+    public static final int DFLT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /** Fields delimiter. */
+    private char delim = ',';
+
+    /** Number of leading lines to skip. */
+    private int skipLines;
+
+    /** Approximate chunk size in bytes. */
+    private int chunkSize = DFLT_CHUNK_SIZE;
+
+    /** Number of parsing threads. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Handles parsed lines. Called concurrently from parsing threads.
+     */
+    public interface RowHandler {
+        /**
+         * @param lineNo Zero-based line number in the file.
+         * @param row Parsed line, valid only until this method returns.
+         */
+        void handle(long lineNo, Row row);
+    }
+
+    /**
+     * Maps parsed lines to cache entries. Called concurrently from parsing threads.
+     */
+    public interface StreamRowHandler<K, V> {
+        /**
+         * @param lineNo Zero-based line number in the file.
+         * @param row Parsed line, valid only until this method returns.
+         * @param stmr Data streamer owned by the calling thread to add entries to.
+         */
+        void handle(long lineNo, Row row, IgniteDataStreamer<K, V> stmr);
+    }
+
+    /**
+     * @return Fields delimiter.
+     */
+    public char getDelimiter() {
+        return delim;
+    }
+
+    /**
+     * @param delim Fields delimiter.
+     * @return {@code this} for chaining.
+     */
+    public CsvBulkLoader setDelimiter(char delim) {
+        this.delim = delim;
+
+        return this;
+    }
+
+    /**
+     * @return Number of leading lines (e.g. headers) to skip.
+     */
+    public int getSkipLines() {
+        return skipLines;
+    }
+
+    /**
+     * @param skipLines Number of leading lines (e.g. headers) to skip.
+     * @return {@code this} for chaining.
+     */
+    public CsvBulkLoader setSkipLines(int skipLines) {
+        this.skipLines = skipLines;
+
+        return this;
+    }
+
+    /**
+     * @return Approximate chunk size in bytes.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize Approximate chunk size in bytes.
+     * @return {@code this} for chaining.
+     */
+    public CsvBulkLoader setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+
+        return this;
+    }
+
+    /**
+     * @return Number of parsing threads.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism Number of parsing threads.
+     * @return {@code this} for chaining.
+     */
+    public CsvBulkLoader setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+
+        return this;
+    }
+
+    /**
+     * Parses the file and streams entries into the cache. Every parsing thread uses its own data streamer.
+     *
+     * @param file File to load.
+     * @param ignite Ignite instance.
+     * @param cacheName Cache name.
+     * @param hnd Handler which maps lines to cache entries.
+     * @return Number of parsed lines.
+     */
+    public <K, V> long stream(File file, Ignite ignite, String cacheName, final StreamRowHandler<K, V> hnd) {
+        final BlockingQueue<IgniteDataStreamer<K, V>> stmrs = new ArrayBlockingQueue<>(parallelism);
+
+        for (int i = 0; i < parallelism; i++)
+            stmrs.add(ignite.<K, V>dataStreamer(cacheName));
+
+        try {
+            return parse(file, new ChunkListener() {
+                @Override public IgniteDataStreamer<K, V> onChunkStart() {
+                    try {
+                        return stmrs.take();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+
+                        throw new IgniteException(e);
+                    }
+                }
+
+                @SuppressWarnings("unchecked")
+                @Override public void onLine(Object ctx, long lineNo, Row row) {
+                    hnd.handle(lineNo, row, (IgniteDataStreamer<K, V>)ctx);
+                }
+
+                @SuppressWarnings("unchecked")
+                @Override public void onChunkEnd(Object ctx) {
+                    stmrs.add((IgniteDataStreamer<K, V>)ctx);
+                }
+            });
+        }
+        finally {
+            for (IgniteDataStreamer<K, V> stmr : stmrs)
+                stmr.close();
+        }
+    }
+
+    /**
+     * Parses the file and passes every non-empty line to the handler.
+     *
+     * @param file File to load.
+     * @param hnd Line handler.
+     * @return Number of parsed lines.
+     */
+    public long parse(File file, final RowHandler hnd) {
+        return parse(file, new ChunkListener() {
+            @Override public Object onChunkStart() {
+                return null;
+            }
+
+            @Override public void onLine(Object ctx, long lineNo, Row row) {
+                hnd.handle(lineNo, row);
+            }
+
+            @Override public void onChunkEnd(Object ctx) {
+                // No-op.
+            }
+        });
+    }
+
+    /**
+     * @param file File to load.
+     * @param lsnr Chunk listener.
+     * @return Number of parsed lines.
+     */
+    private long parse(File file, final ChunkListener lsnr) {
+        try (final FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(ch);
+
+            int chunkCnt = bounds.length - 1;
+
+            final MappedByteBuffer[] bufs = new MappedByteBuffer[chunkCnt];
+
+            for (int i = 0; i < chunkCnt; i++)
+                bufs[i] = ch.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+            try {
+                // First pass counts lines of every chunk to get absolute line numbers.
+                List<Callable<Long>> cntTasks = new ArrayList<>(chunkCnt);
+
+                for (final MappedByteBuffer buf : bufs) {
+                    cntTasks.add(new Callable<Long>() {
+                        @Override public Long call() {
+                            return countLines(buf);
+                        }
+                    });
+                }
+
+                long[] firstLine = new long[chunkCnt];
+
+                List<Future<Long>> cnts = pool.invokeAll(cntTasks);
+
+                for (int i = 1; i < chunkCnt; i++)
+                    firstLine[i] = firstLine[i - 1] + cnts.get(i - 1).get();
+
+                List<Callable<Long>> parseTasks = new ArrayList<>(chunkCnt);
+
+                for (int i = 0; i < chunkCnt; i++) {
+                    final MappedByteBuffer buf = bufs[i];
+                    final long first = firstLine[i];
+
+                    parseTasks.add(new Callable<Long>() {
+                        @Override public Long call() {
+                            Object ctx = lsnr.onChunkStart();
+
+                            try {
+                                return parseChunk(buf, first, ctx, lsnr);
+                            }
+                            finally {
+                                lsnr.onChunkEnd(ctx);
+                            }
+                        }
+                    });
+                }
+
+                long total = 0;
+
+                for (Future<Long> fut : pool.invokeAll(parseTasks))
+                    total += fut.get();
+
+                return total;
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+        catch (IOException e) {
+            throw new IgniteException("Failed to read file: " + file, e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new IgniteException("Interrupted while loading file: " + file, e);
+        }
+        catch (ExecutionException e) {
+            throw new IgniteException("Failed to load file: " + file, e.getCause());
+        }
+    }
+
+    /**
+     * Splits file into chunks ending at line boundaries.
+     *
+     * @param ch File channel.
+     * @return Chunk boundaries, the first one is {@code 0}, the last one is file size.
+     * @throws IOException If failed.
+     */
+    private long[] chunkBounds(FileChannel ch) throws IOException {
+        long size = ch.size();
+
+        List<Long> bounds = new ArrayList<>();
+
+        bounds.add(0L);
+
+        ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+
+        long pos = chunkSize;
+
+        while (pos < size) {
+            long eol = -1;
+
+            // Find the end of the line the tentative boundary falls into.
+            for (long p = pos; eol < 0 && p < size; p += buf.capacity()) {
+                buf.clear();
+
+                int read = ch.read(buf, p);
+
+                for (int i = 0; i < read; i++) {
+                    if (buf.get(i) == '\n') {
+                        eol = p + i;
+
+                        break;
+                    }
+                }
+            }
+
+            if (eol < 0 || eol + 1 >= size)
+                break;
+
+            checkChunk(bounds.get(bounds.size() - 1), eol + 1);
+
+            bounds.add(eol + 1);
+
+            pos = eol + 1 + chunkSize;
+        }
+
+        // Without a line break after the last tentative boundary the rest of the file is one chunk.
+        checkChunk(bounds.get(bounds.size() - 1), size);
+
+        bounds.add(size);
+
+        long[] res = new long[bounds.size()];
+
+        for (int i = 0; i < res.length; i++)
+            res[i] = bounds.get(i);
+
+        return res;
+    }
+
+    /**
+     * Chunks are mapped with a single {@link MappedByteBuffer}, so a chunk can not exceed 2 GB. A longer chunk
+     * means that a line does not fit, since chunks are split at every line break after the chunk size.
+     *
+     * @param from Chunk start.
+     * @param to Chunk end, exclusive.
+     * @throws IgniteException If chunk is too large to be mapped.
+     */
+    private static void checkChunk(long from, long to) {
+        if (to - from > Integer.MAX_VALUE)
+            throw new IgniteException("Line is too long to be mapped, chunks are limited to 2 GB [chunkStart=" +
+                from + ", chunkEnd=" + to + ']');
+    }
+
+    /**
+     * @param buf Chunk.
+     * @return Number of lines in the chunk.
+     */
+    private static long countLines(MappedByteBuffer buf) {
+        int len = buf.limit();
+
+        long cnt = 0;
+
+        for (int i = 0; i < len; i++) {
+            if (buf.get(i) == '\n')
+                cnt++;
+        }
+
+        // Last line of the file may have no line break.
+        if (len > 0 && buf.get(len - 1) != '\n')
+            cnt++;
+
+        return cnt;
+    }
+
+    /**
+     * @param buf Chunk.
+     * @param firstLine Number of the first line of the chunk.
+     * @param ctx Chunk context.
+     * @param lsnr Chunk listener.
+     * @return Number of handled lines.
+     */
+    private long parseChunk(MappedByteBuffer buf, long firstLine, Object ctx, ChunkListener lsnr) {
+        Row row = new Row(buf, delim);
+
+        int len = buf.limit();
+
+        long lineNo = firstLine;
+        long handled = 0;
+
+        int lineStart = 0;
+
+        for (int i = 0; i <= len; i++) {
+            if (i < len && buf.get(i) != '\n')
+                continue;
+
+            if (i == len && lineStart == len)
+                break;
+
+            int lineEnd = i;
+
+            if (lineEnd > lineStart && buf.get(lineEnd - 1) == '\r')
+                lineEnd--;
+
+            if (lineNo >= skipLines && lineEnd > lineStart) {
+                row.reset(lineStart, lineEnd);
+
+                lsnr.onLine(ctx, lineNo, row);
+
+                handled++;
+            }
+
+            lineNo++;
+
+            lineStart = i + 1;
+        }
+
+        return handled;
+    }
+
+    /**
+     * Listener of chunk parsing.
+     */
+    private interface ChunkListener {
+        /**
+         * @return Context passed to other methods for this chunk.
+         */
+        Object onChunkStart();
+
+        /**
+         * @param ctx Chunk context.
+         * @param lineNo Line number.
+         * @param row Parsed line.
+         */
+        void onLine(Object ctx, long lineNo, Row row);
+
+        /**
+         * @param ctx Chunk context.
+         */
+        void onChunkEnd(Object ctx);
+    }
+
+    /**
+     * Line of the file. Keeps only field offsets within the mapped chunk and parses field values on demand.
+     */
+    public static class Row {
+        /** Powers of ten which are exactly representable as double. */
+        private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        /** Chunk. */
+        private final ByteBuffer buf;
+
+        /** Fields delimiter. */
+        private final char delim;
+
+        /** Field start offsets. */
+        private int[] starts = new int[16];
+
+        /** Field end offsets, exclusive. */
+        private int[] ends = new int[16];
+
+        /** Number of fields. */
+        private int size;
+
+        /** Line start offset. */
+        private int lineStart;
+
+        /** Line end offset, exclusive. */
+        private int lineEnd;
+
+        /** Scratch buffer for string decoding. */
+        private byte[] scratch = new byte[256];
+
+        /**
+         * @param buf Chunk.
+         * @param delim Fields delimiter.
+         */
+        Row(ByteBuffer buf, char delim) {
+            this.buf = buf;
+            this.delim = delim;
+        }
+
+        /**
+         * Splits line into fields.
+         *
+         * @param from Line start offset.
+         * @param to Line end offset, exclusive.
+         */
+        void reset(int from, int to) {
+            size = 0;
+
+            lineStart = from;
+            lineEnd = to;
+
+            int fieldStart = from;
+
+            for (int i = from; i <= to; i++) {
+                if (i < to && buf.get(i) != delim)
+                    continue;
+
+                if (size == starts.length) {
+                    starts = Arrays.copyOf(starts, size * 2);
+                    ends = Arrays.copyOf(ends, size * 2);
+                }
+
+                int s = fieldStart;
+                int e = i;
+
+                while (s < e && isSpace(buf.get(s)))
+                    s++;
+
+                while (e > s && isSpace(buf.get(e - 1)))
+                    e--;
+
+                starts[size] = s;
+                ends[size] = e;
+
+                size++;
+
+                fieldStart = i + 1;
+            }
+        }
+
+        /**
+         * @param b Byte.
+         * @return {@code True} if byte is a space or a tab.
+         */
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t';
+        }
+
+        /**
+         * @return Number of fields.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param idx Field index.
+         * @return {@code True} if field is empty.
+         */
+        public boolean isEmpty(int idx) {
+            return starts[idx] == ends[idx];
+        }
+
+        /**
+         * @param idx Field index.
+         * @return Field value.
+         * @throws NumberFormatException If field is not an integer number or does not fit {@code long}.
+         */
+        public long getLong(int idx) {
+            int i = starts[idx];
+            int end = ends[idx];
+
+            boolean neg = i < end && buf.get(i) == '-';
+
+            if (neg || (i < end && buf.get(i) == '+'))
+                i++;
+
+            if (i == end)
+                throw new NumberFormatException("Not a number: " + getString(idx));
+
+            // Accumulate negatively as Long.parseLong() does, since Long.MIN_VALUE has no positive counterpart.
+            long limit = neg ? Long.MIN_VALUE : -Long.MAX_VALUE;
+            long multMin = limit / 10;
+
+            long res = 0;
+
+            for (; i < end; i++) {
+                int d = buf.get(i) - '0';
+
+                if (d < 0 || d > 9)
+                    throw new NumberFormatException("Not a number: " + getString(idx));
+
+                if (res < multMin)
+                    throw new NumberFormatException("Number is out of range: " + getString(idx));
+
+                res *= 10;
+
+                if (res < limit + d)
+                    throw new NumberFormatException("Number is out of range: " + getString(idx));
+
+                res -= d;
+            }
+
+            return neg ? res : -res;
+        }
+
+        /**
+         * @param idx Field index.
+         * @return Field value.
+         * @throws NumberFormatException If field is not a number.
+         */
+        public double getDouble(int idx) {
+            return getDouble(idx, '.');
+        }
+
+        /**
+         * @param idx Field index.
+         * @param decSep Decimal separator.
+         * @return Field value.
+         * @throws NumberFormatException If field is not a number.
+         */
+        public double getDouble(int idx, char decSep) {
+            double res = parseDouble(idx, decSep);
+
+            if (Double.isNaN(res))
+                throw new NumberFormatException("Not a number: " + getString(idx));
+
+            return res;
+        }
+
+        /**
+         * @param idx Field index.
+         * @param decSep Decimal separator.
+         * @return {@code True} if field is a number with the given decimal separator.
+         */
+        public boolean isNumber(int idx, char decSep) {
+            return !Double.isNaN(parseDouble(idx, decSep));
+        }
+
+        /**
+         * @param idx Field index.
+         * @param decSep Decimal separator.
+         * @return Parsed value or {@link Double#NaN} if field is not a number.
+         */
+        private double parseDouble(int idx, char decSep) {
+            int i = starts[idx];
+            int end = ends[idx];
+
+            boolean neg = i < end && buf.get(i) == '-';
+
+            if (neg || (i < end && buf.get(i) == '+'))
+                i++;
+
+            long mantissa = 0;
+            int exp = 0;
+            int digits = 0;
+            int significant = 0;
+            boolean frac = false;
+
+            for (; i < end; i++) {
+                byte b = buf.get(i);
+
+                if (b >= '0' && b <= '9') {
+                    digits++;
+
+                    if (significant < 18) {
+                        if (mantissa != 0 || b != '0')
+                            significant++;
+
+                        mantissa = mantissa * 10 + (b - '0');
+
+                        if (frac)
+                            exp--;
+                    }
+                    else if (!frac)
+                        exp++;
+                }
+                else if (b == decSep && !frac)
+                    frac = true;
+                else if (b == 'e' || b == 'E')
+                    break;
+                else
+                    return Double.NaN;
+            }
+
+            if (digits == 0)
+                return Double.NaN;
+
+            if (i < end) {
+                // Exponent.
+                i++;
+
+                boolean expNeg = i < end && buf.get(i) == '-';
+
+                if (expNeg || (i < end && buf.get(i) == '+'))
+                    i++;
+
+                if (i == end)
+                    return Double.NaN;
+
+                int e = 0;
+
+                for (; i < end; i++) {
+                    int d = buf.get(i) - '0';
+
+                    if (d < 0 || d > 9)
+                        return Double.NaN;
+
+                    e = Math.min(e * 10 + d, 10_000);
+                }
+
+                exp += expNeg ? -e : e;
+            }
+
+            double res;
+
+            if (mantissa < (1L << 53) && exp >= -22 && exp <= 22)
+                res = exp < 0 ? mantissa / POW10[-exp] : mantissa * POW10[exp];
+            else
+                res = Double.parseDouble(mantissa + "e" + exp);
+
+            return neg ? -res : res;
+        }
+
+        /**
+         * @return Whole line decoded as UTF-8, without trimming and splitting.
+         */
+        public String getLine() {
+            return decode(lineStart, lineEnd);
+        }
+
+        /**
+         * @param idx Field index.
+         * @return Field value decoded as UTF-8.
+         */
+        public String getString(int idx) {
+            return decode(starts[idx], ends[idx]);
+        }
+
+        /**
+         * @param start Start offset.
+         * @param end End offset, exclusive.
+         * @return Bytes decoded as UTF-8.
+         */
+        private String decode(int start, int end) {
+            int len = end - start;
+
+            if (scratch.length < len)
+                scratch = new byte[Math.max(len, scratch.length * 2)];
+
+            for (int i = 0; i < len; i++)
+                scratch[i] = buf.get(start + i);
+
+            return new String(scratch, 0, len, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.examples.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Scanner;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.examples.ExamplesUtils;
+import org.apache.ignite.examples.model.Person;
+
+/**
+ * Compares loading of a generated person CSV file line by line with {@link Scanner} and
+ * {@link String#split(String)} into a single data streamer, as {@code CacheLoadOnlyStoreExample} used to do,
+ * with {@link CsvBulkLoader}.
+ * <p>
+ * Number of generated rows can be passed as the first argument, default is {@link #DFLT_ROW_COUNT}.
+ */
+public class CsvBulkLoaderBenchmark {
+    /** Cache name. */
+    private static final String CACHE_NAME = CsvBulkLoaderBenchmark.class.getSimpleName();
+
+    /** Heap size required to run this benchmark. */
+    public static final long MIN_MEMORY = 2L * 1024 * 1024 * 1024;
+
+    /** Default number of rows. */
+    private static final int DFLT_ROW_COUNT = 1_000_000;
+
+    /**
+     * Executes benchmark.
+     *
+     * @param args Command line arguments, optional number of rows.
+     * @throws Exception If benchmark execution failed.
+     */
+    public static void main(String[] args) throws Exception {
+        ExamplesUtils.checkMinMemory(MIN_MEMORY);
+
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : DFLT_ROW_COUNT;
+
+        File file = generate(rows);
+
+        try (Ignite ignite = Ignition.start("examples/config/example-ignite.xml")) {
+            System.out.println();
+            System.out.println(">>> CSV bulk loader benchmark started [rows=" + rows + ", file=" + file + ']');
+
+            // Warm up both paths on the same file.
+            run(ignite, file, rows, false);
+            run(ignite, file, rows, true);
+
+            long lineByLine = run(ignite, file, rows, false);
+            long bulk = run(ignite, file, rows, true);
+
+            System.out.println();
+            System.out.println(">>> Results:");
+            System.out.println(">>>   Scanner + String.split: " + lineByLine + "ms (" +
+                rows * 1000L / Math.max(1, lineByLine) + " rows/sec)");
+            System.out.println(">>>   CsvBulkLoader:          " + bulk + "ms (" +
+                rows * 1000L / Math.max(1, bulk) + " rows/sec)");
+        }
+        finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    /**
+     * Loads the file into a new cache.
+     *
+     * @param ignite Ignite instance.
+     * @param file File.
+     * @param rows Expected number of rows.
+     * @param bulk Whether to use {@link CsvBulkLoader}.
+     * @return Load time in milliseconds.
+     * @throws IOException If failed.
+     */
+    private static long run(Ignite ignite, File file, int rows, boolean bulk) throws IOException {
+        try (IgniteCache<Long, Person> cache = ignite.getOrCreateCache(CACHE_NAME)) {
+            long start = System.currentTimeMillis();
+
+            if (bulk) {
+                new CsvBulkLoader().stream(file, ignite, CACHE_NAME,
+                    new CsvBulkLoader.StreamRowHandler<Long, Person>() {
+                        @Override public void handle(long lineNo, CsvBulkLoader.Row row,
+                            IgniteDataStreamer<Long, Person> stmr) {
+                            long id = row.getLong(0);
+
+                            stmr.addData(id, new Person(id, row.getLong(1), row.getString(2), row.getString(3),
+                                row.getDouble(4), row.getString(5)));
+                        }
+                    });
+            }
+            else {
+                try (Scanner scanner = new Scanner(file, "UTF-8");
+                     IgniteDataStreamer<Long, Person> stmr = ignite.dataStreamer(CACHE_NAME)) {
+                    scanner.useDelimiter("\\n");
+
+                    while (scanner.hasNext()) {
+                        String[] p = scanner.next().split("\\s*,\\s*");
+
+                        stmr.addData(Long.valueOf(p[0]), new Person(Long.valueOf(p[0]), Long.valueOf(p[1]),
+                            p[2], p[3], Double.valueOf(p[4]), p[5].trim()));
+                    }
+                }
+            }
+
+            long dur = System.currentTimeMillis() - start;
+
+            if (cache.size() != rows)
+                throw new IgniteException("Unexpected cache size: " + cache.size());
+
+            return dur;
+        }
+        finally {
+            ignite.destroyCache(CACHE_NAME);
+        }
+    }
+
+    /**
+     * Generates person CSV file in the format of {@code person.csv}.
+     *
+     * @param rows Number of rows.
+     * @return Generated file.
+     * @throws IOException If failed.
+     */
+    private static File generate(int rows) throws IOException {
+        File file = File.createTempFile("person", ".csv");
+
+        try (BufferedWriter w = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (int i = 1; i <= rows; i++) {
+                w.write(i + "," + (200 + i % 100) + ",name" + i + ",surname" + i + "," + (i % 10_000) * 1.5 +
+                    ",resume of person " + i);
+                w.newLine();
+            }
+        }
+
+        return file;
+    }
+}
@@ -60,6 +60,27 @@ public class DbH2ServerStartup {
         RunScript.execute(dataSrc.getConnection(), new StringReader(POPULATE_PERSON_TABLE));
     }
 
+    /**
+     * Starts H2 database TCP server unless it is already started and populates sample database.
+     *
+     * @throws IgniteException If failed to populate database.
+     */
+    public static void startDatabase() throws IgniteException {
+        try {
+            Server.createTcpServer("-tcpDaemon").start();
+        }
+        catch (SQLException ignored) {
+            System.out.println(">>> H2 TCP server seems to be already started, will use it.");
+        }
+
+        try {
+            populateDatabase();
+        }
+        catch (SQLException e) {
+            throw new IgniteException("Failed to populate database", e);
+        }
+    }
+
     /**
      * Start H2 database TCP server.
      *
@@ -18,17 +18,13 @@
 package org.apache.ignite.scalar.examples
 
 import java.lang.{Integer => JavaInt, Long => JavaLong}
-import java.util
-import java.util.Map.Entry
 import java.util.Timer
-import javax.cache.processor.{EntryProcessor, MutableEntry}
 
+import org.apache.ignite.IgniteException
 import org.apache.ignite.cache.query.SqlFieldsQuery
-import org.apache.ignite.internal.util.scala.impl
+import org.apache.ignite.examples.streaming.{AdaptiveDataStreamer, CombiningCountReceiver}
 import org.apache.ignite.scalar.scalar
 import org.apache.ignite.scalar.scalar._
-import org.apache.ignite.stream.StreamReceiver
-import org.apache.ignite.{IgniteCache, IgniteException}
 
 import scala.collection.JavaConversions._
 import scala.util.Random
@@ -103,15 +99,21 @@ object ScalarCachePopularNumbersExample extends App {
      */
     @throws[IgniteException]
     def streamData() {
-        // Set larger per-node buffer size since our state is relatively small.
-        // Reduce parallel operations since we running the whole ignite cluster locally under heavy load.
-        val smtr = dataStreamer$[JavaInt, JavaLong](NAME, 2048)
+        val stmr = dataStreamer$[JavaInt, JavaLong](NAME, 2048)
 
-        smtr.receiver(new IncrementingUpdater())
+        // Increments of every batch are combined per number, so each number is updated once per batch.
+        stmr.receiver(new CombiningCountReceiver())
 
-        (0 until CNT) foreach (_ => smtr.addData(RAND.nextInt(RANGE), 1L))
+        // Buffer size and parallelism are tuned at runtime since we running the whole ignite cluster
+        // locally under heavy load.
+        val streamer = new AdaptiveDataStreamer[JavaInt, JavaLong](ignite$, stmr)
 
-        smtr.close(false)
+        try
+            (0 until CNT) foreach (_ => streamer.addData(RAND.nextInt(RANGE), 1L))
+        finally
+            streamer.close()
+
+        println(">>> " + streamer)
     }
 
     /**
@@ -128,24 +130,4 @@ object ScalarCachePopularNumbersExample extends App {
 
         println("------------------")
     }
-
-    /**
-     * Increments value for key.
-     */
-    private class IncrementingUpdater extends StreamReceiver[JavaInt, JavaLong] {
-        private[this] final val INC = new EntryProcessor[JavaInt, JavaLong, Object]() {
-            /** Process entries to increase value by entry key. */
-            override def process(e: MutableEntry[JavaInt, JavaLong], args: AnyRef*): Object = {
-                e.setValue(Option(e.getValue)
-                    .map(l => JavaLong.valueOf(l + 1))
-                    .getOrElse(JavaLong.valueOf(1L)))
-
-                null
-            }
-        }
-
-        @impl def receive(cache: IgniteCache[JavaInt, JavaLong], entries: util.Collection[Entry[JavaInt, JavaLong]]) {
-            entries.foreach(entry => cache.invoke(entry.getKey, INC))
-        }
-    }
 }
@@ -17,13 +17,14 @@
 
 package org.apache.ignite.scalar.examples
 
+import java.lang.{Long => JavaLong}
 import java.util
 
+import org.apache.ignite.examples.computegrid.split.{SplitPlanner, WeightedRangeTask}
+import org.apache.ignite.lang.{IgniteBiClosure, IgniteReducer}
 import org.apache.ignite.scalar.scalar
 import org.apache.ignite.scalar.scalar._
 
-import scala.util.control.Breaks._
-
 /**
  * Prime Number calculation example based on Scalar.
  *
@@ -38,11 +39,14 @@ import scala.util.control.Breaks._
  * all of the nodes will participate in task execution (check node
  * output).
  * <p/>
- * Note that when running this example on a multi-core box, simply
- * starting additional cluster node on the same box will speed up
- * prime number calculation by a factor of 2.
+ * Divisors are split between nodes in proportion to their capacities, and the
+ * last part of divisors goes in chunks to the nodes that finish first. Capacities
+ * measured while checking a number are used to split the next one.
  */
 object ScalarPrimeExample {
+    /** Minimal number of divisors checked by a job. */
+    private final val MIN_CHUNK = 100000L
+
     /**
      * Main entry point to application. No arguments required.
      *
@@ -60,14 +64,15 @@ object ScalarPrimeExample {
 
             val g = ignite$
 
+            val planner = new SplitPlanner(g)
+
             checkVals.foreach(checkVal => {
-                val divisor = g.reduce$[Option[Long], Option[Option[Long]]](
-                    closures(g.cluster().nodes().size(), checkVal), _.find(_.isDefined), null)
+                val divisor = g.compute().execute(task(planner, checkVal), null)
 
-                if (!divisor.isDefined)
+                if (divisor == null)
                     println(">>> Value '" + checkVal + "' is a prime number")
                 else
-                    println(">>> Value '" + checkVal + "' is divisible by '" + divisor.get.get + '\'')
+                    println(">>> Value '" + checkVal + "' is divisible by '" + divisor + '\'')
             })
 
             val totalTime = System.currentTimeMillis - start
@@ -78,57 +83,53 @@ object ScalarPrimeExample {
     }
 
     /**
-     * Creates closures for checking passed in value for prime.
+     * Creates task for checking passed in value for prime.
      *
-     * Every closure gets a range of divisors to check. The lower and
-     * upper boundaries of this range are passed into closure.
-     * Closures checks if the value passed in is divisible by any of
-     * the divisors in the range.
+     * Every job gets a range of divisors to check. Jobs check if the value
+     * passed in is divisible by any of the divisors in the range, and the
+     * task completes once a divisor is found.
      *
-     * @param clusterSize Size of the cluster.
+     * @param planner Split planner.
      * @param checkVal Value to check.
-     * @return Collection of closures.
+     * @return Task returning a divisor or `null` for a prime.
      */
-    private def closures(clusterSize: Int, checkVal: Long): Seq[() => Option[Long]] = {
-        var cls = Seq.empty[() => Option[Long]]
-
-        val taskMinRange = 2L
-        val numbersPerTask = if (checkVal / clusterSize < 10) 10L else checkVal / clusterSize
+    private def task(planner: SplitPlanner, checkVal: Long): WeightedRangeTask[JavaLong, JavaLong] =
+        new WeightedRangeTask[JavaLong, JavaLong](planner, 2, checkVal, MIN_CHUNK, new DivisorSearch(checkVal),
+            new FirstDivisor)
 
-        var minRange = 0L
-        var maxRange = 0L
-
-        var i = 0
-
-        while (maxRange < checkVal) {
-            minRange = i * numbersPerTask + taskMinRange
-            maxRange = (i + 1) * numbersPerTask + taskMinRange - 1
-
-            if (maxRange > checkVal)
-                maxRange = checkVal
+    /**
+     * Finds a divisor of the value in a range.
+     *
+     * @param checkVal Value to check.
+     */
+    private class DivisorSearch(checkVal: Long) extends IgniteBiClosure[JavaLong, JavaLong, JavaLong] {
+        override def apply(from: JavaLong, to: JavaLong): JavaLong = {
+            var d = from.longValue
 
-            val min = minRange
-            val max = maxRange
+            while (d < to) {
+                if (checkVal % d == 0)
+                    return d
 
-            cls +:= (() => {
-                var divisor: Option[Long] = None
+                d += 1
+            }
 
-                breakable {
-                    (min to max).foreach(d => {
-                        if (d != 1 && d != checkVal && checkVal % d == 0) {
-                             divisor = Some(d)
+            null
+        }
+    }
 
-                             break()
-                        }
-                    })
-                }
+    /**
+     * Keeps the first found divisor and stops the task.
+     */
+    private class FirstDivisor extends IgniteReducer[JavaLong, JavaLong] {
+        /** Found divisor. */
+        private var divisor: JavaLong = _
 
-                divisor
-            })
+        override def collect(d: JavaLong): Boolean = {
+            divisor = d
 
-            i += 1
+            d == null
         }
 
-        cls
+        override def reduce(): JavaLong = divisor
     }
 }